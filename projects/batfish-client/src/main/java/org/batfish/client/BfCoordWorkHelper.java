@@ -9,6 +9,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -712,6 +713,51 @@ public class BfCoordWorkHelper {
     }
   }
 
+  /**
+   * Returns the status of work {@code workId} in network {@code networkName} as soon as it is no
+   * longer {@code lastStatus}, or after {@code timeout} at the latest. The coordinator holds the
+   * request until then, so callers need not sleep between requests.
+   */
+  @Nullable
+  Pair<WorkStatusCode, String> getWorkStatus(
+      String networkName, UUID workId, WorkStatusCode lastStatus, Duration timeout) {
+    try {
+      WebTarget webTarget =
+          getTargetV2(
+                  Lists.newArrayList(
+                      CoordConstsV2.RSC_NETWORKS,
+                      networkName,
+                      CoordConstsV2.RSC_WORK,
+                      workId.toString()))
+              .queryParam(CoordConstsV2.QP_WAIT_FOR_CHANGE_FROM, lastStatus)
+              .queryParam(CoordConstsV2.QP_TIMEOUT_MS, timeout.toMillis());
+
+      Response response =
+          webTarget
+              .request(MediaType.APPLICATION_JSON)
+              .header(CoordConstsV2.HTTP_HEADER_BATFISH_APIKEY, _settings.getApiKey())
+              .header(CoordConstsV2.HTTP_HEADER_BATFISH_VERSION, Version.getVersion())
+              .get();
+
+      if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+        _logger.errorf("getWorkStatus: Did not get OK response. Got: %s\n", response.getStatus());
+        _logger.error(response.readEntity(String.class) + "\n");
+        return null;
+      }
+
+      WorkStatus workStatus =
+          BatfishObjectMapper.mapper()
+              .readValue(response.readEntity(String.class), WorkStatus.class);
+      return new Pair<>(
+          workStatus.getWorkStatusCode(),
+          BatfishObjectMapper.writePrettyString(workStatus.getTaskStatusStr()));
+    } catch (Exception e) {
+      _logger.errorf("exception: ");
+      _logger.error(Throwables.getStackTraceAsString(e) + "\n");
+      return null;
+    }
+  }
+
   @Nullable
   String initContainer(@Nullable String containerName, @Nullable String containerPrefix) {
     try {
@@ -150,6 +150,12 @@ public class Client extends AbstractClient implements IClient {
 
   private static final String STARTUP_FILE = ".batfishclientrc";
 
+  /**
+   * How long the coordinator may hold a request for the status of work that has not changed. Status
+   * (e.g., progress of the task) is printed at least this often.
+   */
+  private static final Duration WORK_STATUS_CHANGE_TIMEOUT = Duration.ofSeconds(10);
+
   /**
    * Verify that every non-optional variable has value assigned to it.
    *
@@ -2158,10 +2164,14 @@ public class Client extends AbstractClient implements IClient {
       return false;
     }
     UUID workId = UUID.fromString(parameters.get(0));
-    return pollWork(workId);
+    return pollWork(workId, _currContainerName);
   }
 
-  private boolean pollWork(UUID wItemId) {
+  /**
+   * Waits for work {@code wItemId} to finish or fail. If its network is known, the coordinator is
+   * asked to respond only when the status of the work changes; otherwise its status is polled.
+   */
+  private boolean pollWork(UUID wItemId, @Nullable String networkName) {
 
     Pair<WorkStatusCode, String> response;
     try (ActiveSpan workStatusSpan =
@@ -2177,12 +2187,17 @@ public class Client extends AbstractClient implements IClient {
       Backoff backoff = Backoff.builder().withMaximumBackoff(Duration.ofSeconds(1)).build();
       while (!status.isTerminated() && backoff.hasNext()) {
         printWorkStatusResponse(response, false);
-        try {
-          Thread.sleep(backoff.nextBackoff().toMillis());
-        } catch (InterruptedException e) {
-          throw new BatfishException("Interrupted while waiting for work item to complete", e);
+        if (networkName != null) {
+          response =
+              _workHelper.getWorkStatus(networkName, wItemId, status, WORK_STATUS_CHANGE_TIMEOUT);
+        } else {
+          try {
+            Thread.sleep(backoff.nextBackoff().toMillis());
+          } catch (InterruptedException e) {
+            throw new BatfishException("Interrupted while waiting for work item to complete", e);
+          }
+          response = _workHelper.getWorkStatus(wItemId);
         }
-        response = _workHelper.getWorkStatus(wItemId);
         if (response == null) {
           return false;
         }
@@ -2195,7 +2210,7 @@ public class Client extends AbstractClient implements IClient {
 
   private boolean pollWorkAndGetAnswer(WorkItem wItem, @Nullable FileWriter outWriter) {
 
-    boolean pollResult = pollWork(wItem.getId());
+    boolean pollResult = pollWork(wItem.getId(), wItem.getContainerName());
     if (!pollResult) {
       return false;
     }
@@ -135,6 +135,7 @@ public class BfConsts {
 
   public static final String RELPATH_ANALYSES_DIR = "analyses";
   public static final String RELPATH_ANALYSIS_FILE = "analysis";
+  public static final String RELPATH_ANSWER_COLUMNAR = "answer.columnar";
   public static final String RELPATH_ANSWER_HTML = "answer.html";
   public static final String RELPATH_ANSWER_JSON = "answer.json";
   public static final String RELPATH_ANSWER_METADATA = "answer_metadata.json";
@@ -189,7 +190,14 @@ public class BfConsts {
   public static final String SUFFIX_ANSWER_JSON_FILE = ".json";
   public static final String SUFFIX_LOG_FILE = ".log";
 
+  public static final String SVC_AVAILABLE_HEAP_KEY = "availableheap";
+  public static final String SVC_AVAILABLE_TASKS_BY_KIND_KEY = "availabletasksbykind";
+  public static final String SVC_AVAILABLE_TASKS_KEY = "availabletasks";
   public static final String SVC_BASE_RSC = "/batfishservice";
+  public static final String SVC_BUSY_KEY = "busy";
+  public static final String SVC_CACHE_STATS_KEY = "cachestats";
+  public static final String SVC_CACHED_DATA_PLANES_KEY = "cacheddataplanes";
+  public static final String SVC_CACHED_TESTRIGS_KEY = "cachedtestrigs";
   public static final String SVC_FAILURE_KEY = "failure";
   public static final String SVC_GET_STATUS_RSC = "getstatus";
   public static final String SVC_GET_TASKSTATUS_RSC = "gettaskstatus";
@@ -60,7 +60,15 @@ public final class ColumnFilter {
   }
 
   public boolean matches(@Nonnull Row row) {
-    return row.get(_column).toString().toLowerCase().contains(_filterText.toLowerCase());
+    return matchesText(row.get(_column).toString());
+  }
+
+  /**
+   * Returns {@code true} iff the filter matches a value of its column whose compact JSON text is
+   * {@code valueText}.
+   */
+  public boolean matchesText(@Nonnull String valueText) {
+    return valueText.toLowerCase().contains(_filterText.toLowerCase());
   }
 
   @Override
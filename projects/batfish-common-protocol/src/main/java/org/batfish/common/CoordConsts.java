@@ -118,6 +118,7 @@ public class CoordConsts {
   public static final String SVC_KEY_VERSION = "version";
   public static final String SVC_KEY_WORK_LIST = "worklist";
   public static final String SVC_KEY_WORK_TYPE = "worktype";
+  public static final String SVC_KEY_WORKER = "worker";
   public static final String SVC_KEY_WORKID = "workid";
   public static final String SVC_KEY_WORKITEM = "workitem";
   public static final String SVC_KEY_WORKSTATUS = "workstatus";
@@ -163,6 +164,7 @@ public class CoordConsts {
   public static final String SVC_RSC_LIST_TESTRIGS = "listtestrigs";
   public static final String SVC_RSC_POOL_GET_QUESTION_TEMPLATES = "getquestiontemplates";
   public static final String SVC_RSC_POOL_GETSTATUS = "getstatus";
+  public static final String SVC_RSC_POOL_TASK_COMPLETED = "taskcompleted";
   public static final String SVC_RSC_POOL_UPDATE = "updatepool";
   public static final String SVC_RSC_PUT_OBJECT = "putobject";
   public static final String SVC_RSC_QUEUE_WORK = "queuework";
@@ -9,7 +9,9 @@ public class CoordConstsV2 {
   /** The HTTP Header containing the client's version. */
   public static final String HTTP_HEADER_BATFISH_VERSION = "X-Batfish-Version";
 
+  public static final String QP_TIMEOUT_MS = "timeoutms";
   public static final String QP_VERBOSE = "verbose";
+  public static final String QP_WAIT_FOR_CHANGE_FROM = "waitforchangefrom";
 
   public static final String RSC_ANALYSES = "analyses";
   public static final String RSC_CONTAINER = "container";
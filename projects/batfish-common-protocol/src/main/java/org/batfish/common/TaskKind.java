@@ -0,0 +1,27 @@
+package org.batfish.common;
+
+/**
+ * The kinds of task a worker runs, with the fraction of its heap each is estimated to need. Workers
+ * report how many more tasks of each kind they would accept, so that the coordinator only assigns
+ * a task to a worker with capacity for it.
+ */
+public enum TaskKind {
+  /** Answering a question on a snapshot whose data plane is already in memory. */
+  CACHED_QUESTION(0.05),
+  /** Computing a data plane. */
+  DATA_PLANE(0.5),
+  /** Parsing, extracting and serializing configurations. */
+  PARSING(0.35),
+  /** Answering a question on a snapshot whose data plane is not in memory. */
+  QUESTION(0.2);
+
+  private final double _heapFraction;
+
+  TaskKind(double heapFraction) {
+    _heapFraction = heapFraction;
+  }
+
+  public double getHeapFraction() {
+    return _heapFraction;
+  }
+}
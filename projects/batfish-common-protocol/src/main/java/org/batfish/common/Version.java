@@ -2,7 +2,27 @@ package org.batfish.common;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
-
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.builder.fluent.Configurations;
@@ -14,8 +34,13 @@ import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
  */
 public final class Version {
 
+  private static final String BATFISH_PACKAGE_PATH = "org/batfish";
+
   private static final String PROPERTIES_PATH = "org/batfish/common/common.properties";
 
+  private static final Supplier<String> BUILD_FINGERPRINT =
+      Suppliers.memoize(Version::computeBuildFingerprint);
+
   static final String UNKNOWN_VERSION = "0.0.0";
   /**
    * A special version string that is incompatible with all other version. Mainly used for testing.
@@ -63,6 +88,61 @@ public final class Version {
     }
   }
 
+  /**
+   * Returns a fingerprint of the code of the current build of Batfish, for keying data that is only
+   * valid for the code that produced it. Unlike {@link #getVersion()}, it differs between
+   * development builds of the same version.
+   *
+   * <p>The fingerprint is a hash of the jar files and class directories holding Batfish classes. If
+   * they cannot be read, the fingerprint is unique to this process.
+   */
+  public static String getBuildFingerprint() {
+    return BUILD_FINGERPRINT.get();
+  }
+
+  private static String computeBuildFingerprint() {
+    try {
+      SortedSet<Path> jars = new TreeSet<>();
+      SortedSet<Path> classDirs = new TreeSet<>();
+      Enumeration<URL> urls = Version.class.getClassLoader().getResources(BATFISH_PACKAGE_PATH);
+      while (urls.hasMoreElements()) {
+        URL url = urls.nextElement();
+        if (url.getProtocol().equals("jar")) {
+          jars.add(
+              Paths.get(((JarURLConnection) url.openConnection()).getJarFileURL().toURI()));
+        } else {
+          classDirs.add(Paths.get(url.toURI()));
+        }
+      }
+      if (jars.isEmpty() && classDirs.isEmpty()) {
+        return unknownBuildFingerprint();
+      }
+      Hasher hasher = Hashing.sha256().newHasher();
+      for (Path jar : jars) {
+        hasher.putBytes(MoreFiles.asByteSource(jar).hash(Hashing.sha256()).asBytes());
+      }
+      for (Path classDir : classDirs) {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(classDir)) {
+          files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+          String relativePath = classDir.relativize(file).toString();
+          hasher.putInt(relativePath.length()).putString(relativePath, UTF_8);
+          hasher.putBytes(Files.readAllBytes(file));
+        }
+      }
+      return hasher.hash().toString();
+    } catch (IOException | URISyntaxException | RuntimeException e) {
+      return unknownBuildFingerprint();
+    }
+  }
+
+  /** Data keyed by this fingerprint is never reused by another process. */
+  private static String unknownBuildFingerprint() {
+    return "unknown-" + UUID.randomUUID();
+  }
+
   /**
    * Returns the version of the current build of Z3, or {@link #UNKNOWN_VERSION} if the version
    * could not be detected.
@@ -8,6 +8,7 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -178,6 +179,15 @@ public interface IBatfish extends IPluginConsumer {
 
   void pushDeltaSnapshot();
 
+  /**
+   * Make the snapshot the current snapshot was forked from the current snapshot, if it has a data
+   * plane whose answer element satisfies {@code reusable}. Call {@link #popSnapshot()} to restore
+   * the current snapshot.
+   *
+   * @return whether the parent snapshot was pushed
+   */
+  boolean pushParentSnapshot(Predicate<DataPlaneAnswerElement> reusable);
+
   @Nullable
   String readExternalBgpAnnouncementsFile();
 
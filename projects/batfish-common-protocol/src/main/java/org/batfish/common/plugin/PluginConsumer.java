@@ -31,11 +31,14 @@ import net.jpountz.lz4.LZ4FrameInputStream;
 import net.jpountz.lz4.LZ4FrameOutputStream;
 import org.batfish.common.BatfishException;
 import org.batfish.common.util.BatfishObjectInputStream;
+import org.batfish.common.util.DeduplicatingObjectInputStream;
+import org.batfish.common.util.DeduplicatingObjectOutputStream;
 
 public abstract class PluginConsumer implements IPluginConsumer {
 
   /** Supported formats we can deserialize from */
   public enum Format {
+    DEDUPLICATED_JAVA_SERIALIZED,
     JAVA_SERIALIZED,
     LZ4,
     GZIP,
@@ -90,7 +93,9 @@ public abstract class PluginConsumer implements IPluginConsumer {
       InputStream stream, Class<S> outputClass, Format format) throws IOException {
     try {
       ObjectInputStream ois;
-      if (format != Format.JAVA_SERIALIZED) {
+      if (format == Format.DEDUPLICATED_JAVA_SERIALIZED) {
+        ois = new DeduplicatingObjectInputStream(stream, _currentClassLoader);
+      } else if (format != Format.JAVA_SERIALIZED) {
         XStream xstream = new XStream(new DomDriver("UTF-8"));
         xstream.setClassLoader(_currentClassLoader);
         ois = xstream.createObjectInputStream(stream);
@@ -155,7 +160,9 @@ public abstract class PluginConsumer implements IPluginConsumer {
     byte[] header = new byte[DEFAULT_HEADER_LENGTH_BYTES];
     ByteStreams.readFully(stream, header);
     Format format;
-    if (Arrays.equals(header, JAVA_SERIALIZED_OBJECT_HEADER)) {
+    if (Arrays.equals(header, DeduplicatingObjectOutputStream.MAGIC)) {
+      format = Format.DEDUPLICATED_JAVA_SERIALIZED;
+    } else if (Arrays.equals(header, JAVA_SERIALIZED_OBJECT_HEADER)) {
       format = Format.JAVA_SERIALIZED;
     } else if (Arrays.equals(header, LZ4_MAGIC_BYTES)) {
       format = Format.LZ4;
@@ -237,7 +244,7 @@ public abstract class PluginConsumer implements IPluginConsumer {
         XStream xstream = new XStream(new DomDriver("UTF-8"));
         oos = closer.register(xstream.createObjectOutputStream(los));
       } else {
-        oos = closer.register(new ObjectOutputStream(los));
+        oos = closer.register(new DeduplicatingObjectOutputStream(los));
       }
       oos.writeObject(object);
     } catch (IOException e) {
@@ -3,15 +3,90 @@ package org.batfish.common.topology;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Sets;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graph;
+import com.google.common.graph.Graphs;
 import com.google.common.graph.ImmutableNetwork;
 import com.google.common.graph.MutableNetwork;
 import com.google.common.graph.NetworkBuilder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.SortedSet;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+/**
+ * A layer-2 topology, represented as the broadcast domains connected by a set of layer-2 edges.
+ * Nodes connected by a path of edges are in the same broadcast domain.
+ */
 public final class Layer2Topology {
 
+  /** Union-find over {@link Layer2Node}s, with path compression and union by size. */
+  private static final class BroadcastDomainsBuilder {
+
+    private final Map<Layer2Node, Layer2Node> _parents = new HashMap<>();
+
+    private final Map<Layer2Node, Integer> _sizes = new HashMap<>();
+
+    private @Nonnull Layer2Node find(Layer2Node node) {
+      Layer2Node root = node;
+      Layer2Node parent;
+      while ((parent = _parents.putIfAbsent(root, root)) != null && !parent.equals(root)) {
+        root = parent;
+      }
+      // compress the path from node to root
+      Layer2Node current = node;
+      while (!current.equals(root)) {
+        current = _parents.put(current, root);
+      }
+      return root;
+    }
+
+    private void union(Layer2Node node1, Layer2Node node2) {
+      Layer2Node root1 = find(node1);
+      Layer2Node root2 = find(node2);
+      if (root1.equals(root2)) {
+        return;
+      }
+      int size1 = _sizes.getOrDefault(root1, 1);
+      int size2 = _sizes.getOrDefault(root2, 1);
+      if (size1 < size2) {
+        _parents.put(root1, root2);
+        _sizes.put(root2, size1 + size2);
+        _sizes.remove(root1);
+      } else {
+        _parents.put(root2, root1);
+        _sizes.put(root1, size1 + size2);
+        _sizes.remove(root2);
+      }
+    }
+
+    /**
+     * Returns the representative of the broadcast domain of each node, which is the least node of
+     * the domain, so that it does not depend on the order of the edges.
+     */
+    private @Nonnull ImmutableMap<Layer2Node, Layer2Node> build() {
+      ImmutableList<Layer2Node> nodes = ImmutableList.copyOf(_parents.keySet());
+      Map<Layer2Node, Layer2Node> leastNodes = new HashMap<>();
+      nodes.forEach(
+          node -> leastNodes.merge(find(node), node, (n1, n2) -> n1.compareTo(n2) <= 0 ? n1 : n2));
+      ImmutableMap.Builder<Layer2Node, Layer2Node> representatives = ImmutableMap.builder();
+      nodes.forEach(node -> representatives.put(node, leastNodes.get(find(node))));
+      return representatives.build();
+    }
+  }
+
   private static final String PROP_EDGES = "edges";
 
   @JsonCreator
@@ -20,18 +95,50 @@ public final class Layer2Topology {
     return new Layer2Topology(edges != null ? edges : ImmutableSortedSet.of());
   }
 
-  private final ImmutableNetwork<Layer2Node, Layer2Edge> _graph;
-
-  public Layer2Topology(@Nonnull Iterable<Layer2Edge> edges) {
+  /**
+   * Returns the given edges plus an edge between every other pair of distinct nodes connected by a
+   * path of the given edges.
+   */
+  private static @Nonnull ImmutableNetwork<Layer2Node, Layer2Edge> computeGraph(
+      Set<Layer2Edge> edges) {
     MutableNetwork<Layer2Node, Layer2Edge> graph =
         NetworkBuilder.directed().allowsParallelEdges(false).allowsSelfLoops(false).build();
-    edges.forEach(
-        edge -> {
-          graph.addNode(edge.getNode1());
-          graph.addNode(edge.getNode2());
-          graph.addEdge(edge.getNode1(), edge.getNode2(), edge);
-        });
-    _graph = ImmutableNetwork.copyOf(graph);
+    edges.forEach(edge -> graph.addEdge(edge.getNode1(), edge.getNode2(), edge));
+    Graph<Layer2Node> initialGraph = ImmutableNetwork.copyOf(graph).asGraph();
+    Graph<Layer2Node> closure = Graphs.transitiveClosure(initialGraph);
+
+    /*
+     * We must remove edges connecting existing endpoint pairs since they may clash due to missing
+     * encapsulation vlan id. Also, we remove self-edges on the same interfaces since our network
+     * type does not allow them.
+     */
+    Set<EndpointPair<Layer2Node>> newEndpoints =
+        Sets.difference(closure.edges(), initialGraph.edges());
+    newEndpoints
+        .stream()
+        .filter(ne -> !ne.source().equals(ne.target()))
+        .forEach(
+            newEndpoint ->
+                graph.addEdge(
+                    newEndpoint.source(),
+                    newEndpoint.target(),
+                    new Layer2Edge(newEndpoint.source(), newEndpoint.target(), null)));
+    return ImmutableNetwork.copyOf(graph);
+  }
+
+  private final Set<Layer2Edge> _edges;
+
+  private final Supplier<ImmutableNetwork<Layer2Node, Layer2Edge>> _graph;
+
+  /** The representative of the broadcast domain of each node */
+  private final ImmutableMap<Layer2Node, Layer2Node> _representatives;
+
+  public Layer2Topology(@Nonnull Iterable<Layer2Edge> edges) {
+    _edges = ImmutableSet.copyOf(edges);
+    BroadcastDomainsBuilder domains = new BroadcastDomainsBuilder();
+    _edges.forEach(edge -> domains.union(edge.getNode1(), edge.getNode2()));
+    _representatives = domains.build();
+    _graph = Suppliers.memoize(() -> computeGraph(_edges));
   }
 
   @Override
@@ -42,21 +149,64 @@ public final class Layer2Topology {
     if (!(obj instanceof Layer2Topology)) {
       return false;
     }
-    return _graph.equals(((Layer2Topology) obj)._graph);
+    Layer2Topology other = (Layer2Topology) obj;
+    return _edges.equals(other._edges) && _representatives.equals(other._representatives);
+  }
+
+  /**
+   * Returns the broadcast domains of this topology, each of which contains at least two nodes.
+   * Nodes not connected by any edge are in no broadcast domain.
+   */
+  @JsonIgnore
+  public @Nonnull Collection<Collection<Layer2Node>> getBroadcastDomains() {
+    return Multimaps.index(_representatives.keySet(), _representatives::get).asMap().values();
+  }
+
+  /**
+   * Returns the representative of the broadcast domain containing {@code node}, or {@code null} if
+   * {@code node} is not connected by any edge. Two nodes are in the same broadcast domain iff they
+   * have the same representative.
+   */
+  public @Nullable Layer2Node getBroadcastDomainRepresentative(@Nonnull Layer2Node node) {
+    return _representatives.get(node);
   }
 
+  /** Returns the edges this topology was created from. */
+  @Nonnull
+  Set<Layer2Edge> getEdges() {
+    return _edges;
+  }
+
+  /**
+   * Returns the graph connecting each pair of nodes in the same broadcast domain by an edge. The
+   * graph is quadratic in the size of the broadcast domains, so it is only computed on demand;
+   * prefer {@link #getBroadcastDomains()} and {@link #inSameBroadcastDomain(Layer2Node,
+   * Layer2Node)} where edges are not needed.
+   */
   @JsonIgnore
   public @Nonnull ImmutableNetwork<Layer2Node, Layer2Edge> getGraph() {
-    return _graph;
+    return _graph.get();
   }
 
+  /**
+   * Returns the edges of {@link #getGraph()}, so the JSON form lists an edge between every pair of
+   * nodes in the same broadcast domain rather than the edges this topology was created from. It is
+   * quadratic in the size of the broadcast domains, and a topology read back from it has the same
+   * broadcast domains but is not equal to this one unless its edges were already closed.
+   */
   @JsonProperty(PROP_EDGES)
   private SortedSet<Layer2Edge> getJsonEdges() {
-    return ImmutableSortedSet.copyOf(_graph.edges());
+    return ImmutableSortedSet.copyOf(_graph.get().edges());
   }
 
   @Override
   public int hashCode() {
-    return _graph.hashCode();
+    return Objects.hash(_edges, _representatives);
+  }
+
+  /** Returns whether {@code node1} and {@code node2} are in the same broadcast domain. */
+  public boolean inSameBroadcastDomain(@Nonnull Layer2Node node1, @Nonnull Layer2Node node2) {
+    Layer2Node representative1 = _representatives.get(node1);
+    return representative1 != null && representative1.equals(_representatives.get(node2));
   }
 }
@@ -1,15 +1,9 @@
 package org.batfish.common.topology;
 
-import static org.batfish.common.util.CommonUtil.forEachWithIndex;
-
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Sets;
-import com.google.common.graph.EndpointPair;
-import com.google.common.graph.Graph;
-import com.google.common.graph.Graphs;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -115,24 +109,20 @@ public final class TopologyUtil {
     switchportsByVlan.forEach(
         (vlanId, interfaceNamesBuilder) -> {
           List<String> interfaceNames = interfaceNamesBuilder.build();
-          forEachWithIndex(
-              interfaceNames,
-              (i, i1Name) -> {
-                for (int j = i + 1; j < interfaceNames.size(); j++) {
-                  String i2Name = interfaceNames.get(j);
-                  edges.add(
-                      new Layer2Edge(hostname, i1Name, vlanId, hostname, i2Name, vlanId, null));
-                  edges.add(
-                      new Layer2Edge(hostname, i2Name, vlanId, hostname, i1Name, vlanId, null));
-                }
-              });
+          // Linking consecutive interfaces suffices to put them all in one broadcast domain.
+          for (int i = 1; i < interfaceNames.size(); i++) {
+            String i1Name = interfaceNames.get(i - 1);
+            String i2Name = interfaceNames.get(i);
+            edges.add(new Layer2Edge(hostname, i1Name, vlanId, hostname, i2Name, vlanId, null));
+            edges.add(new Layer2Edge(hostname, i2Name, vlanId, hostname, i1Name, vlanId, null));
+          }
         });
   }
 
   private static Layer2Topology computeAugmentedLayer2Topology(
       Layer2Topology layer2Topology, Map<String, Configuration> configurations) {
     ImmutableSet.Builder<Layer2Edge> augmentedEdges = ImmutableSet.builder();
-    augmentedEdges.addAll(layer2Topology.getGraph().edges());
+    augmentedEdges.addAll(layer2Topology.getEdges());
     configurations
         .values()
         .forEach(
@@ -142,25 +132,6 @@ public final class TopologyUtil {
                   .forEach(
                       vrf -> computeAugmentedLayer2SelfEdges(c.getHostname(), vrf, augmentedEdges));
             });
-
-    // Now compute the transitive closure to connect interfaces across devices
-    Layer2Topology initial = new Layer2Topology(augmentedEdges.build());
-    Graph<Layer2Node> initialGraph = initial.getGraph().asGraph();
-    Graph<Layer2Node> closure = Graphs.transitiveClosure(initialGraph);
-
-    /*
-     * We must remove edges connecting existing endpoint pairs since they may clash due to missing
-     * encapsulation vlan id. Also, we remove self-edges on the same interfaces by convention.
-     */
-    Set<EndpointPair<Layer2Node>> newEndpoints =
-        Sets.difference(closure.edges(), initialGraph.edges());
-    newEndpoints
-        .stream()
-        .filter(ne -> !ne.source().equals(ne.target()))
-        .forEach(
-            newEndpoint ->
-                augmentedEdges.add(
-                    new Layer2Edge(newEndpoint.source(), newEndpoint.target(), null)));
     return new Layer2Topology(augmentedEdges.build());
   }
 
@@ -232,17 +203,13 @@ public final class TopologyUtil {
     switchportsByVlan.forEach(
         (vlanId, interfaceNamesBuilder) -> {
           List<String> interfaceNames = interfaceNamesBuilder.build();
-          CommonUtil.forEachWithIndex(
-              interfaceNames,
-              (i, i1Name) -> {
-                for (int j = i + 1; j < interfaceNames.size(); j++) {
-                  String i2Name = interfaceNames.get(j);
-                  edges.add(
-                      new Layer2Edge(hostname, i1Name, vlanId, hostname, i2Name, vlanId, null));
-                  edges.add(
-                      new Layer2Edge(hostname, i2Name, vlanId, hostname, i1Name, vlanId, null));
-                }
-              });
+          // Linking consecutive interfaces suffices to put them all in one broadcast domain.
+          for (int i = 1; i < interfaceNames.size(); i++) {
+            String i1Name = interfaceNames.get(i - 1);
+            String i2Name = interfaceNames.get(i);
+            edges.add(new Layer2Edge(hostname, i1Name, vlanId, hostname, i2Name, vlanId, null));
+            edges.add(new Layer2Edge(hostname, i2Name, vlanId, hostname, i1Name, vlanId, null));
+          }
         });
   }
 
@@ -270,24 +237,7 @@ public final class TopologyUtil {
                   .forEach(vrf -> computeLayer2SelfEdges(c.getHostname(), vrf, edges));
             });
 
-    // Now compute the transitive closure to connect interfaces across devices
-    Layer2Topology initial = new Layer2Topology(edges.build());
-    Graph<Layer2Node> initialGraph = initial.getGraph().asGraph();
-    Graph<Layer2Node> closure = Graphs.transitiveClosure(initialGraph);
-
-    /*
-     * We must remove edges connecting existing endpoint pairs since they may clash due to missing
-     * encapsulation vlan id. Also, we remove self-edges on the same interfaces since our network
-     * type does not allow them.
-     */
-    Set<EndpointPair<Layer2Node>> newEndpoints =
-        Sets.difference(closure.edges(), initialGraph.edges());
-    newEndpoints
-        .stream()
-        .filter(ne -> !ne.source().equals(ne.target()))
-        .forEach(
-            newEndpoint ->
-                edges.add(new Layer2Edge(newEndpoint.source(), newEndpoint.target(), null)));
+    // Interfaces across devices are connected via the broadcast domains of the topology.
     return new Layer2Topology(edges.build());
   }
 
@@ -300,33 +250,37 @@ public final class TopologyUtil {
     /*
      * The computation proceeds by augmenting the layer-2 topology with self-edges between Vlan/IRB
      * interfaces and switchports on those VLANs.
-     * Then transitive closure and filtering are done as in layer-2 topology computation.
-     * Finally, the resulting edges are filtered down to those with proper layer-3 addressing,
-     * and transformed to only contain layer-2 relevant information.
+     * Then each pair of interfaces in the same broadcast domain of the augmented topology is
+     * connected if they have proper layer-3 addressing.
      */
     ImmutableSet.Builder<Layer3Edge> layer3Edges = ImmutableSet.builder();
     Layer2Topology vlanInterfaceAugmentedLayer2Topology =
         computeAugmentedLayer2Topology(layer2Topology, configurations);
     vlanInterfaceAugmentedLayer2Topology
-        .getGraph()
-        .edges()
+        .getBroadcastDomains()
         .forEach(
-            layer2Edge -> {
-              Interface i1 = getInterface(layer2Edge.getNode1(), configurations);
-              Interface i2 = getInterface(layer2Edge.getNode2(), configurations);
-              if (i1 == null
-                  || i2 == null
-                  || (i1.getOwner().equals(i2.getOwner())
-                      && i1.getVrfName().equals(i2.getVrfName()))) {
-                return;
-              }
-              if (!i1.getAllAddresses().isEmpty() || !i2.getAllAddresses().isEmpty()) {
-                assert Boolean.TRUE;
-              }
-              if (!matchingSubnet(i1.getAllAddresses(), i2.getAllAddresses())) {
-                return;
-              }
-              layer3Edges.add(toLayer3Edge(layer2Edge));
+            domain -> {
+              // Only interfaces with addresses can be the endpoints of layer-3 edges.
+              Map<Layer2Node, Interface> addressedInterfaces = new HashMap<>();
+              domain.forEach(
+                  node -> {
+                    Interface i = getInterface(node, configurations);
+                    if (i != null && !i.getAllAddresses().isEmpty()) {
+                      addressedInterfaces.put(node, i);
+                    }
+                  });
+              addressedInterfaces.forEach(
+                  (node1, i1) ->
+                      addressedInterfaces.forEach(
+                          (node2, i2) -> {
+                            if ((i1.getOwner().equals(i2.getOwner())
+                                    && i1.getVrfName().equals(i2.getVrfName()))
+                                || !matchingSubnet(i1.getAllAddresses(), i2.getAllAddresses())) {
+                              return;
+                            }
+                            layer3Edges.add(
+                                new Layer3Edge(toLayer3Node(node1), toLayer3Node(node2)));
+                          }));
             });
     return new Layer3Topology(layer3Edges.build());
   }
@@ -383,10 +337,6 @@ public final class TopologyUtil {
     return new Layer2Node(layer1Node.getHostname(), layer1Node.getInterfaceName(), vlanId);
   }
 
-  private static @Nonnull Layer3Edge toLayer3Edge(@Nonnull Layer2Edge layer2Edge) {
-    return new Layer3Edge(toLayer3Node(layer2Edge.getNode1()), toLayer3Node(layer2Edge.getNode2()));
-  }
-
   private static @Nonnull Layer3Node toLayer3Node(@Nonnull Layer2Node node) {
     return new Layer3Node(node.getHostname(), node.getInterfaceName());
   }
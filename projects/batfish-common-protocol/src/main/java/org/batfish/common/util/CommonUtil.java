@@ -16,13 +16,18 @@ import com.google.errorprone.annotations.MustBeClosed;
 import io.opentracing.contrib.jaxrs2.client.ClientTracingFeature;
 import io.opentracing.util.GlobalTracer;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
@@ -407,6 +412,29 @@ public class CommonUtil {
     }
   }
 
+  /**
+   * Returns a deep copy of {@code object}, made by serializing it with a {@link
+   * DeduplicatingObjectOutputStream}. Equal strings, addresses, and prefixes in the copy are
+   * represented by a single instance.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends Serializable> T deepClone(T object) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new DeduplicatingObjectOutputStream(bytes)) {
+        oos.writeObject(object);
+      }
+      try (ObjectInputStream ois =
+          new DeduplicatingObjectInputStream(
+              new ByteArrayInputStream(bytes.toByteArray()),
+              object.getClass().getClassLoader())) {
+        return (T) ois.readObject();
+      }
+    } catch (IOException | ClassNotFoundException e) {
+      throw new BatfishException("Failed to clone object of type " + object.getClass(), e);
+    }
+  }
+
   public static void delete(Path path) {
     try {
       Files.delete(path);
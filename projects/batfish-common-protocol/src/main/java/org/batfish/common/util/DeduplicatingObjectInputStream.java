@@ -0,0 +1,24 @@
+package org.batfish.common.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+
+/** Reads streams written by a {@link DeduplicatingObjectOutputStream}. */
+public class DeduplicatingObjectInputStream extends BatfishObjectInputStream {
+
+  public DeduplicatingObjectInputStream(InputStream in, ClassLoader loader) throws IOException {
+    super(in, loader);
+  }
+
+  @Override
+  protected void readStreamHeader() throws IOException {
+    byte[] magic = new byte[DeduplicatingObjectOutputStream.MAGIC.length];
+    readFully(magic);
+    if (!Arrays.equals(magic, DeduplicatingObjectOutputStream.MAGIC)) {
+      throw new StreamCorruptedException("Not a deduplicated object stream");
+    }
+    super.readStreamHeader();
+  }
+}
@@ -0,0 +1,51 @@
+package org.batfish.common.util;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Ip6;
+import org.batfish.datamodel.Prefix;
+
+/**
+ * An {@link ObjectOutputStream} that writes each distinct {@link String}, {@link Ip}, {@link Ip6},
+ * and {@link Prefix} value only once, and refers back to it for every equal object written later.
+ *
+ * <p>Java serialization only shares identical references, while data planes and configurations
+ * contain many equal but distinct copies of interface names, addresses, and prefixes. Writing them
+ * once makes the stream smaller and faster to read, and the objects read back share a single
+ * instance per value. The stream is prefixed with {@link #MAGIC} so that it can be told apart from
+ * plain Java serialization; it must be read with a {@link DeduplicatingObjectInputStream}.
+ */
+public class DeduplicatingObjectOutputStream extends ObjectOutputStream {
+
+  /** Bytes written before the Java serialization stream header */
+  public static final byte[] MAGIC = {(byte) 'B', (byte) 'F', (byte) 'D', (byte) '1'};
+
+  private final Map<Object, Object> _canonical;
+
+  public DeduplicatingObjectOutputStream(OutputStream out) throws IOException {
+    super(out);
+    _canonical = new HashMap<>();
+    enableReplaceObject(true);
+  }
+
+  @Override
+  protected void writeStreamHeader() throws IOException {
+    write(MAGIC);
+    super.writeStreamHeader();
+  }
+
+  @Override
+  protected Object replaceObject(Object obj) {
+    Class<?> clazz = obj.getClass();
+    // exact class checks: subclasses may not be immutable values
+    if (clazz == String.class || clazz == Ip.class || clazz == Prefix.class || clazz == Ip6.class) {
+      Object canonical = _canonical.putIfAbsent(obj, obj);
+      return canonical == null ? obj : canonical;
+    }
+    return obj;
+  }
+}
@@ -253,6 +253,16 @@ public class AclIpSpace extends IpSpace {
     return action(ip, namedIpSpaces) == LineAction.PERMIT;
   }
 
+  @Override
+  public boolean containsIp(long ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
+    for (AclIpSpaceLine line : _lines) {
+      if (line.getIpSpace().containsIp(ip, namedIpSpaces)) {
+        return line.getAction() == LineAction.PERMIT;
+      }
+    }
+    return false;
+  }
+
   @Override
   protected boolean exprEquals(Object o) {
     return Objects.equals(_lines, ((AclIpSpace) o)._lines);
@@ -7,16 +7,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.google.common.collect.ImmutableList;
 import com.kjetland.jackson.jsonSchema.annotations.JsonSchemaDescription;
-import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -30,13 +23,11 @@ public final class AsPathAccessList implements Serializable {
 
   private static final long serialVersionUID = 1L;
 
-  private transient Set<AsPath> _deniedCache;
-
   @Nonnull private final List<AsPathAccessListLine> _lines;
 
   private final String _name;
 
-  private transient Set<AsPath> _permittedCache;
+  @Nullable private transient volatile AsPathAccessListMatcher _matcher;
 
   @JsonCreator
   public AsPathAccessList(
@@ -76,39 +67,16 @@ public final class AsPathAccessList implements Serializable {
     return _name;
   }
 
-  private boolean newPermits(AsPath asPath) {
-    boolean accept = false;
-    for (AsPathAccessListLine line : _lines) {
-      String regex = line.getRegex();
-      Pattern p = Pattern.compile(regex);
-      String asPathString = asPath.getAsPathString();
-      Matcher matcher = p.matcher(asPathString);
-      boolean match = matcher.find();
-      if (match) {
-        accept = line.getAction() == LineAction.PERMIT;
-        break;
-      }
-    }
-    if (accept) {
-      _permittedCache.add(asPath);
-    } else {
-      _deniedCache.add(asPath);
+  private AsPathAccessListMatcher getMatcher() {
+    AsPathAccessListMatcher matcher = _matcher;
+    if (matcher == null) {
+      matcher = AsPathAccessListMatcher.forLines(_lines);
+      _matcher = matcher;
     }
-    return accept;
+    return matcher;
   }
 
   public boolean permits(AsPath asPath) {
-    if (_deniedCache.contains(asPath)) {
-      return false;
-    } else if (_permittedCache.contains(asPath)) {
-      return true;
-    }
-    return newPermits(asPath);
-  }
-
-  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-    in.defaultReadObject();
-    _deniedCache = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    _permittedCache = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    return getMatcher().permits(asPath);
   }
 }
@@ -0,0 +1,130 @@
+package org.batfish.datamodel;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * The compiled form of the lines of an {@link AsPathAccessList}.
+ *
+ * <p>Consecutive lines with the same action are compiled into a single alternation, since the
+ * first of them to match decides the same action as any of them matching. A typical list is then
+ * evaluated with one or two passes over the AS-path string, instead of one per line.
+ *
+ * <p>Matchers are shared by all lists with the same lines, e.g. the same list on every router of a
+ * network, and so are their bounded caches of results per {@link AsPath}.
+ */
+@ParametersAreNonnullByDefault
+final class AsPathAccessListMatcher {
+
+  /** A run of consecutive lines with the same action. */
+  private static final class Block {
+
+    private final boolean _permit;
+
+    private final Pattern _pattern;
+
+    private Block(boolean permit, Pattern pattern) {
+      _permit = permit;
+      _pattern = pattern;
+    }
+  }
+
+  /** Inline flags, quotes and backreferences do not survive being embedded in an alternation. */
+  private static final Pattern NOT_COMBINABLE = Pattern.compile("\\(\\?|\\\\Q|\\\\k|\\\\[1-9]");
+
+  private static final int MAX_CACHED_MATCHERS = 1 << 12;
+
+  private static final int MAX_CACHED_RESULTS = 1 << 14;
+
+  private static final Cache<List<AsPathAccessListLine>, AsPathAccessListMatcher> MATCHERS =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_MATCHERS).build();
+
+  /**
+   * Returns the (shared) matcher for the given {@code lines}.
+   *
+   * @throws java.util.regex.PatternSyntaxException if the regex of any line is invalid
+   */
+  static @Nonnull AsPathAccessListMatcher forLines(List<AsPathAccessListLine> lines) {
+    List<AsPathAccessListLine> key = ImmutableList.copyOf(lines);
+    AsPathAccessListMatcher matcher = MATCHERS.getIfPresent(key);
+    if (matcher == null) {
+      // not compiled in a loader, so that syntax errors reach the caller unwrapped
+      matcher = new AsPathAccessListMatcher(key);
+      MATCHERS.put(key, matcher);
+    }
+    return matcher;
+  }
+
+  @VisibleForTesting
+  static @Nonnull Pattern combine(List<String> regexes) {
+    if (regexes.size() == 1) {
+      return Pattern.compile(regexes.get(0));
+    }
+    return Pattern.compile(
+        regexes.stream().map(regex -> "(?:" + regex + ")").collect(Collectors.joining("|")));
+  }
+
+  private final List<Block> _blocks;
+
+  private final LoadingCache<AsPath, Boolean> _results;
+
+  private AsPathAccessListMatcher(List<AsPathAccessListLine> lines) {
+    ImmutableList.Builder<Block> blocks = ImmutableList.builder();
+    List<String> run = new ArrayList<>();
+    LineAction runAction = null;
+    for (AsPathAccessListLine line : lines) {
+      String regex = line.getRegex();
+      // compile every regex on its own, so that invalid ones are reported as such
+      Pattern.compile(regex);
+      boolean combinable = !NOT_COMBINABLE.matcher(regex).find();
+      if (!run.isEmpty() && (line.getAction() != runAction || !combinable)) {
+        blocks.add(new Block(runAction == LineAction.PERMIT, combine(run)));
+        run.clear();
+      }
+      run.add(regex);
+      runAction = line.getAction();
+      if (!combinable) {
+        blocks.add(new Block(runAction == LineAction.PERMIT, combine(run)));
+        run.clear();
+      }
+    }
+    if (!run.isEmpty()) {
+      blocks.add(new Block(runAction == LineAction.PERMIT, combine(run)));
+    }
+    _blocks = blocks.build();
+    _results =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_RESULTS)
+            .build(CacheLoader.from(this::computePermits));
+  }
+
+  private boolean computePermits(AsPath asPath) {
+    String asPathString = asPath.getAsPathString();
+    for (Block block : _blocks) {
+      if (block._pattern.matcher(asPathString).find()) {
+        return block._permit;
+      }
+    }
+    return false;
+  }
+
+  @VisibleForTesting
+  int getNumBlocks() {
+    return _blocks.size();
+  }
+
+  /** Returns whether the first line matching {@code asPath} permits it. */
+  boolean permits(AsPath asPath) {
+    return _results.getUnchecked(asPath);
+  }
+}
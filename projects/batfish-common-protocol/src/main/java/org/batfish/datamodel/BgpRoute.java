@@ -7,6 +7,8 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Ordering;
 import java.util.Comparator;
 import java.util.Objects;
@@ -249,6 +251,12 @@ public class BgpRoute extends AbstractRoute {
           .thenComparing(BgpRoute::getSrcProtocol)
           .thenComparing(BgpRoute::getWeight);
 
+  /**
+   * Canonical instances of the community sets and cluster lists of routes, so that the many routes
+   * carrying equal ones share a single instance.
+   */
+  private static final Interner<SortedSet<Long>> LONG_SET_INTERNER = Interners.newWeakInterner();
+
   private static final long serialVersionUID = 1L;
 
   private final int _admin;
@@ -268,6 +276,9 @@ public class BgpRoute extends AbstractRoute {
   /* NOTE: Cisco-only attribute */
   private final int _weight;
 
+  /* Cache the hashcode, since routes are hashed on every RIB and RibDelta operation */
+  private transient int _hashCode;
+
   @JsonCreator
   private BgpRoute(
       @Nullable @JsonProperty(PROP_NETWORK) Prefix network,
@@ -293,10 +304,8 @@ public class BgpRoute extends AbstractRoute {
     checkArgument(protocol != null, "Missing %s", PROP_PROTOCOL);
     _admin = admin;
     _asPath = firstNonNull(asPath, AsPath.empty());
-    _clusterList =
-        clusterList == null ? ImmutableSortedSet.of() : ImmutableSortedSet.copyOf(clusterList);
-    _communities =
-        communities == null ? ImmutableSortedSet.of() : ImmutableSortedSet.copyOf(communities);
+    _clusterList = internLongSet(clusterList);
+    _communities = internLongSet(communities);
     _discard = discard;
     _localPreference = localPreference;
     _med = med;
@@ -314,6 +323,13 @@ public class BgpRoute extends AbstractRoute {
     return new Builder();
   }
 
+  private static @Nonnull SortedSet<Long> internLongSet(@Nullable SortedSet<Long> longs) {
+    if (longs == null || longs.isEmpty()) {
+      return ImmutableSortedSet.of();
+    }
+    return LONG_SET_INTERNER.intern(ImmutableSortedSet.copyOf(longs));
+  }
+
   @Override
   public boolean equals(@Nullable Object o) {
     if (this == o) {
@@ -323,6 +339,9 @@ public class BgpRoute extends AbstractRoute {
       return false;
     }
     BgpRoute other = (BgpRoute) o;
+    if (_hashCode != 0 && other._hashCode != 0 && _hashCode != other._hashCode) {
+      return false;
+    }
     return Objects.equals(_network, other._network)
         && _admin == other._admin
         && _discard == other._discard
@@ -343,7 +362,17 @@ public class BgpRoute extends AbstractRoute {
 
   @Override
   public int hashCode() {
+    int h = _hashCode;
+    if (h == 0) {
+      h = computeHashCode();
+      _hashCode = h;
+    }
+    return h;
+  }
+
+  private int computeHashCode() {
     return Objects.hash(
+        _network,
         _admin,
         _asPath,
         _clusterList,
@@ -44,6 +44,7 @@ public class CommunityList extends CommunitySetExpr {
     public LoadingCache<Long, Boolean> get() {
       return CacheBuilder.newBuilder()
           .softValues()
+          .maximumSize(MAX_CACHED_COMMUNITIES)
           .build(
               new CacheLoader<Long, Boolean>() {
                 @Override
@@ -54,6 +55,8 @@ public class CommunityList extends CommunitySetExpr {
     }
   }
 
+  private static final int MAX_CACHED_COMMUNITIES = 1 << 14;
+
   private static final String PROP_INVERT_MATCH = "invertMatch";
 
   private static final String PROP_LINES = "lines";
@@ -0,0 +1,62 @@
+package org.batfish.datamodel;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.util.CommonUtil;
+
+/**
+ * The compiled form of a community regex, as used by {@link RegexCommunitySet}. Matchers are
+ * shared by all sets with the same regex, and so are their bounded caches of results per
+ * community.
+ */
+@ParametersAreNonnullByDefault
+final class CommunityRegexMatcher {
+
+  private static final int MAX_CACHED_MATCHERS = 1 << 12;
+
+  private static final int MAX_CACHED_RESULTS = 1 << 14;
+
+  private static final Cache<String, CommunityRegexMatcher> MATCHERS =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_MATCHERS).build();
+
+  /**
+   * Returns the (shared) matcher for {@code regex}.
+   *
+   * @throws java.util.regex.PatternSyntaxException if {@code regex} is invalid
+   */
+  static @Nonnull CommunityRegexMatcher forRegex(String regex) {
+    CommunityRegexMatcher matcher = MATCHERS.getIfPresent(regex);
+    if (matcher == null) {
+      // not compiled in a loader, so that syntax errors reach the caller unwrapped
+      matcher = new CommunityRegexMatcher(Pattern.compile(regex));
+      MATCHERS.put(regex, matcher);
+    }
+    return matcher;
+  }
+
+  private final Pattern _pattern;
+
+  private final LoadingCache<Long, Boolean> _results;
+
+  private CommunityRegexMatcher(Pattern pattern) {
+    _pattern = pattern;
+    _results =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_RESULTS)
+            .build(CacheLoader.from(this::computeMatches));
+  }
+
+  private boolean computeMatches(long community) {
+    return _pattern.matcher(CommonUtil.longToCommunity(community)).find();
+  }
+
+  /** Returns whether the regex matches the string representation of {@code community}. */
+  boolean matches(long community) {
+    return _results.getUnchecked(community);
+  }
+}
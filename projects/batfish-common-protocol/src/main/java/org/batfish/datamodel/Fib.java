@@ -15,6 +15,15 @@ public interface Fib extends Serializable {
   @Nonnull
   Set<String> getNextHopInterfaces(Ip ip);
 
+  /**
+   * Set of interfaces used to forward traffic destined to the IP address represented by {@code
+   * ip}, without allocating an {@link Ip}.
+   */
+  @Nonnull
+  default Set<String> getNextHopInterfaces(long ip) {
+    return getNextHopInterfaces(new Ip(ip));
+  }
+
   /**
    * Mapping: matching route -&gt; nexthopinterface -&gt; resolved nextHopIP -&gt; interfaceRoutes
    */
@@ -7,7 +7,6 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -177,20 +176,16 @@ public class FibImpl implements Fib {
 
   @Override
   public @Nonnull Set<String> getNextHopInterfaces(Ip ip) {
-    Map<String, Map<Ip, Set<AbstractRoute>>> outputNextHopInterfaces = new TreeMap<>();
-    Set<AbstractRoute> nextHopRoutes = _rib.longestPrefixMatch(ip);
-    for (AbstractRoute nextHopRoute : nextHopRoutes) {
-      Map<String, Map<Ip, Set<AbstractRoute>>> currentNextHopInterfaces =
-          _nextHopInterfaces.get(nextHopRoute);
-      currentNextHopInterfaces.forEach(
-          (nextHopInterface, nextHopInterfaceRoutesByFinalNextHopIp) -> {
-            Map<Ip, Set<AbstractRoute>> outputNextHopInterfaceRoutesByFinalNextHopIp =
-                outputNextHopInterfaces.computeIfAbsent(nextHopInterface, k -> new TreeMap<>());
-            outputNextHopInterfaceRoutesByFinalNextHopIp.putAll(
-                nextHopInterfaceRoutesByFinalNextHopIp);
-          });
+    return getNextHopInterfaces(ip.asLong());
+  }
+
+  @Override
+  public @Nonnull Set<String> getNextHopInterfaces(long ip) {
+    Set<String> nextHopInterfaces = new TreeSet<>();
+    for (AbstractRoute nextHopRoute : _rib.longestPrefixMatch(ip)) {
+      nextHopInterfaces.addAll(_nextHopInterfaces.get(nextHopRoute).keySet());
     }
-    return outputNextHopInterfaces.keySet();
+    return nextHopInterfaces;
   }
 
   @Override
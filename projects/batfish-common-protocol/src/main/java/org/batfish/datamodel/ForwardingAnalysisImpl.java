@@ -9,6 +9,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -25,7 +26,9 @@ import org.batfish.common.bdd.IpSpaceToBDD;
 import org.batfish.common.topology.TopologyUtil;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 
-public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
+public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   // mapping: node name -> interface name -> ips that the interface would reply arp request
   private final Map<String, Map<String, IpSpace>> _arpReplies;
@@ -109,9 +112,10 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
 
   private final Map<String, Map<String, Map<String, IpSpace>>> _dstIpsWithInternalNextHopIpArpFalse;
 
-  private final IpSpaceToBDD _ipSpaceToBDD;
+  // BDDs are not serializable, and are only used while computing the analysis
+  private final transient IpSpaceToBDD _ipSpaceToBDD;
 
-  private final Map<String, Map<String, BDD>> _interfaceHostSubnetIpBDDs;
+  private final transient Map<String, Map<String, BDD>> _interfaceHostSubnetIpBDDs;
 
   // ips belonging to any interface in the network
   private final IpSpace _ownedIps;
@@ -122,9 +126,9 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis {
   // ips not belonging to any subnet in the network
   private final IpSpace _externalIps;
 
-  private final BDD _internalIpsBDD;
+  private final transient BDD _internalIpsBDD;
 
-  private final BDD _unownedIpsBDD;
+  private final transient BDD _unownedIpsBDD;
 
   private static IpSpaceToBDD initIpSpaceToBDD() {
     BDDPacket bddPacket = new BDDPacket();
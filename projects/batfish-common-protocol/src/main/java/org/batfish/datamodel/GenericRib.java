@@ -52,5 +52,21 @@ public interface GenericRib<R extends AbstractRoute> extends Serializable {
    */
   Set<R> longestPrefixMatch(Ip address, int maxPrefixLength);
 
+  /**
+   * Execute the longest prefix match for the IP address represented by {@code address}, without
+   * allocating an {@link Ip}.
+   */
+  default Set<R> longestPrefixMatch(long address) {
+    return longestPrefixMatch(new Ip(address));
+  }
+
+  /**
+   * Execute a constrained longest prefix match for the IP address represented by {@code address},
+   * without allocating an {@link Ip}. See {@link #longestPrefixMatch(Ip, int)}.
+   */
+  default Set<R> longestPrefixMatch(long address, int maxPrefixLength) {
+    return longestPrefixMatch(new Ip(address), maxPrefixLength);
+  }
+
   boolean mergeRoute(R route);
 }
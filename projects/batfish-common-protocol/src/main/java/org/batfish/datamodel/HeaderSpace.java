@@ -970,10 +970,10 @@ public class HeaderSpace implements Serializable, Comparable<HeaderSpace> {
     if (!_notDscps.isEmpty() && _notDscps.contains(flow.getDscp())) {
       return false;
     }
-    if (_dstIps != null && !_dstIps.containsIp(flow.getDstIp(), namedIpSpaces)) {
+    if (_dstIps != null && !_dstIps.containsIp(flow.getDstIp().asLong(), namedIpSpaces)) {
       return false;
     }
-    if (_notDstIps != null && _notDstIps.containsIp(flow.getDstIp(), namedIpSpaces)) {
+    if (_notDstIps != null && _notDstIps.containsIp(flow.getDstIp().asLong(), namedIpSpaces)) {
       return false;
     }
     if (!_dstPorts.isEmpty() && !rangesContain(_dstPorts, flow.getDstPort())) {
@@ -1047,8 +1047,8 @@ public class HeaderSpace implements Serializable, Comparable<HeaderSpace> {
       return false;
     }
     if (_srcOrDstIps != null
-        && !(_srcOrDstIps.containsIp(flow.getSrcIp(), namedIpSpaces)
-            || _srcOrDstIps.containsIp(flow.getDstIp(), namedIpSpaces))) {
+        && !(_srcOrDstIps.containsIp(flow.getSrcIp().asLong(), namedIpSpaces)
+            || _srcOrDstIps.containsIp(flow.getDstIp().asLong(), namedIpSpaces))) {
       return false;
     }
     if (!_srcOrDstPorts.isEmpty()
@@ -1074,10 +1074,10 @@ public class HeaderSpace implements Serializable, Comparable<HeaderSpace> {
         return false;
       }
     }
-    if (_srcIps != null && !_srcIps.containsIp(flow.getSrcIp(), namedIpSpaces)) {
+    if (_srcIps != null && !_srcIps.containsIp(flow.getSrcIp().asLong(), namedIpSpaces)) {
       return false;
     }
-    if (_notSrcIps != null && _notSrcIps.containsIp(flow.getSrcIp(), namedIpSpaces)) {
+    if (_notSrcIps != null && _notSrcIps.containsIp(flow.getSrcIp().asLong(), namedIpSpaces)) {
       return false;
     }
     if (!_srcPorts.isEmpty() && !rangesContain(_srcPorts, flow.getSrcPort())) {
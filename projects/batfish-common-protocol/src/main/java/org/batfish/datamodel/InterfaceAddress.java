@@ -37,7 +37,7 @@ public final class InterfaceAddress implements Comparable<InterfaceAddress>, Ser
       throw new BatfishException(
           String.format("Invalid %s string: \"%s\"", InterfaceAddress.class.getSimpleName(), text));
     }
-    _ip = new Ip(parts[0]);
+    _ip = Ip.parse(parts[0]);
     try {
       _networkBits = Integer.parseInt(parts[1]);
     } catch (NumberFormatException e) {
@@ -74,7 +74,7 @@ public final class InterfaceAddress implements Comparable<InterfaceAddress>, Ser
   }
 
   public Prefix getPrefix() {
-    return new Prefix(_ip, _networkBits);
+    return Prefix.create(_ip, _networkBits);
   }
 
   @Override
@@ -2,12 +2,17 @@ package org.batfish.datamodel;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.io.Serializable;
 import javax.annotation.Nullable;
 import org.batfish.common.BatfishException;
 
 public class Ip implements Comparable<Ip>, Serializable {
 
+  /** Canonical instances of addresses returned by {@link #create} and {@link #parse} */
+  private static final Interner<Ip> INTERNER = Interners.newWeakInterner();
+
   public static final Ip AUTO = new Ip(-1L);
 
   public static final Ip FIRST_CLASS_A_PRIVATE_IP = new Ip("10.0.0.0");
@@ -26,6 +31,21 @@ public class Ip implements Comparable<Ip>, Serializable {
 
   public static final Ip ZERO = new Ip(0L);
 
+  /**
+   * Returns the {@link Ip} represented by {@code ipAsLong}. Equal addresses created through this
+   * method share a single instance for as long as any of them is reachable, so parsers and route
+   * builders should prefer it over the constructor.
+   */
+  public static Ip create(long ipAsLong) {
+    return INTERNER.intern(new Ip(ipAsLong));
+  }
+
+  /** Parses {@code ipAsString}, sharing instances like {@link #create(long)}. */
+  @JsonCreator
+  public static Ip parse(String ipAsString) {
+    return create(ipStrToLong(ipAsString));
+  }
+
   /**
    * See {@link #getBitAtPosition(long, int)}. Equivalent to {@code getBitAtPosition(ip.asLong(),
    * position)}
@@ -97,7 +117,6 @@ public class Ip implements Comparable<Ip>, Serializable {
     _ip = ipAsLong;
   }
 
-  @JsonCreator
   public Ip(String ipAsString) {
     _ip = ipStrToLong(ipAsString);
   }
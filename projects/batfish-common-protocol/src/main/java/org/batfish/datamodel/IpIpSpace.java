@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
 import java.util.Map;
+import javax.annotation.Nonnull;
 import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
 
 public class IpIpSpace extends IpSpace {
@@ -39,10 +40,15 @@ public class IpIpSpace extends IpSpace {
   }
 
   @Override
-  public boolean containsIp(Ip ip, Map<String, IpSpace> namedIpSpaces) {
+  public boolean containsIp(@Nonnull Ip ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
     return _ip.equals(ip);
   }
 
+  @Override
+  public boolean containsIp(long ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
+    return _ip.asLong() == ip;
+  }
+
   @Override
   protected boolean exprEquals(Object o) {
     return _ip.equals(((IpIpSpace) o)._ip);
@@ -16,6 +16,15 @@ public abstract class IpSpace implements Comparable<IpSpace>, Serializable {
 
   public abstract boolean containsIp(@Nonnull Ip ip, @Nonnull Map<String, IpSpace> namedIpSpaces);
 
+  /**
+   * Returns {@code true} iff this space contains the IP address represented by {@code ip}.
+   * Subclasses override this so that callers holding addresses as {@code long}s can test
+   * membership without allocating an {@link Ip}.
+   */
+  public boolean containsIp(long ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
+    return containsIp(new Ip(ip), namedIpSpaces);
+  }
+
   public abstract IpSpace complement();
 
   @Override
@@ -56,6 +56,12 @@ public class IpSpaceReference extends IpSpace {
         && namedIpSpaces.get(_name).containsIp(ip, namedIpSpaces);
   }
 
+  @Override
+  public boolean containsIp(long ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
+    return namedIpSpaces.containsKey(_name)
+        && namedIpSpaces.get(_name).containsIp(ip, namedIpSpaces);
+  }
+
   @Override
   protected boolean exprEquals(Object o) {
     IpSpaceReference rhs = (IpSpaceReference) o;
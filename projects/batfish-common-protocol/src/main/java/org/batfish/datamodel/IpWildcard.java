@@ -77,10 +77,14 @@ public class IpWildcard extends Pair<Ip, Ip> {
   }
 
   public boolean containsIp(@Nonnull Ip ip) {
+    return containsIp(ip.asLong());
+  }
+
+  /** Returns {@code true} iff this wildcard matches the IP address represented by {@code ip}. */
+  public boolean containsIp(long ip) {
     long wildcardIpAsLong = getIp().asLong();
     long wildcardMask = getWildcard().asLong();
-    long ipAsLong = ip.asLong();
-    long maskedIpAsLong = ipAsLong | wildcardMask;
+    long maskedIpAsLong = ip | wildcardMask;
     long maskedWildcard = wildcardIpAsLong | wildcardMask;
     return maskedIpAsLong == maskedWildcard;
   }
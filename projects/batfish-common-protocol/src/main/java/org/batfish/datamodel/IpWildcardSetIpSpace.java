@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
+import javax.annotation.Nonnull;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
 
@@ -113,11 +114,26 @@ public final class IpWildcardSetIpSpace extends IpSpace {
   }
 
   @Override
-  public boolean containsIp(Ip ip, Map<String, IpSpace> namedIpSpaces) {
+  public boolean containsIp(@Nonnull Ip ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
     return _blacklist.stream().noneMatch(w -> w.containsIp(ip))
         && _whitelist.stream().anyMatch(w -> w.containsIp(ip));
   }
 
+  @Override
+  public boolean containsIp(long ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
+    for (IpWildcard w : _blacklist) {
+      if (w.containsIp(ip)) {
+        return false;
+      }
+    }
+    for (IpWildcard w : _whitelist) {
+      if (w.containsIp(ip)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   protected boolean exprEquals(Object o) {
     IpWildcardSetIpSpace rhs = (IpWildcardSetIpSpace) o;
@@ -134,6 +134,9 @@ public class IsisRoute extends AbstractRoute {
 
   private final String _systemId;
 
+  /* Cache the hashcode, since routes are hashed on every RIB and RibDelta operation */
+  private transient int _hashCode;
+
   private IsisRoute(
       int administrativeCost,
       @Nonnull String area,
@@ -166,6 +169,9 @@ public class IsisRoute extends AbstractRoute {
       return false;
     }
     IsisRoute rhs = (IsisRoute) o;
+    if (_hashCode != 0 && rhs._hashCode != 0 && _hashCode != rhs._hashCode) {
+      return false;
+    }
     return _administrativeCost == rhs._administrativeCost
         && _area.equals(rhs._area)
         && _attach == rhs._attach
@@ -246,6 +252,15 @@ public class IsisRoute extends AbstractRoute {
 
   @Override
   public int hashCode() {
+    int h = _hashCode;
+    if (h == 0) {
+      h = computeHashCode();
+      _hashCode = h;
+    }
+    return h;
+  }
+
+  private int computeHashCode() {
     return Objects.hash(
         _administrativeCost,
         _area,
@@ -253,6 +268,7 @@ public class IsisRoute extends AbstractRoute {
         _down,
         _level.ordinal(),
         _metric,
+        _network,
         _nextHopIp,
         _protocol.ordinal(),
         _systemId);
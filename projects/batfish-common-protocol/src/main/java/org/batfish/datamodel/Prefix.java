@@ -4,6 +4,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.io.Serializable;
 import java.util.Objects;
 import javax.annotation.Nonnull;
@@ -20,6 +22,9 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
 
   private static final long serialVersionUID = 1L;
 
+  /** Canonical instances of prefixes returned by {@link #create} and {@link #parse} */
+  private static final Interner<Prefix> INTERNER = Interners.newWeakInterner();
+
   /** A "0.0.0.0/0" prefix */
   public static final Prefix ZERO = new Prefix(Ip.ZERO, 0);
 
@@ -35,6 +40,23 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
     return wildcard;
   }
 
+  /**
+   * Returns the {@link Prefix} of length {@code prefixLength} containing {@code ip}. Equal prefixes
+   * created through this method share a single instance for as long as any of them is reachable,
+   * so parsers and route builders should prefer it over the constructor.
+   */
+  @Nonnull
+  public static Prefix create(Ip ip, int prefixLength) {
+    return INTERNER.intern(new Prefix(ip, prefixLength));
+  }
+
+  /** Returns the {@link Prefix} of {@code address} with subnet {@code mask}, like above. */
+  @Nonnull
+  public static Prefix create(Ip address, Ip mask) {
+    return create(address, mask.numSubnetBits());
+  }
+
+  /** Parses {@code text}, sharing instances like {@link #create(Ip, int)}. */
   @Nonnull
   @JsonCreator
   public static Prefix parse(@Nullable String text) {
@@ -43,14 +65,14 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
     if (parts.length != 2) {
       throw new BatfishException("Invalid prefix string: \"" + text + "\"");
     }
-    Ip ip = new Ip(parts[0]);
+    Ip ip = Ip.parse(parts[0]);
     int prefixLength;
     try {
       prefixLength = Integer.parseInt(parts[1]);
     } catch (NumberFormatException e) {
       throw new BatfishException("Invalid prefix length: \"" + parts[1] + "\"", e);
     }
-    return new Prefix(ip, prefixLength);
+    return create(ip, prefixLength);
   }
 
   private final Ip _ip;
@@ -60,7 +82,8 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
   public Prefix(Ip ip, int prefixLength) {
     if (ip.valid()) {
       // TODO: stop using Ip as a holder for invalid values.
-      _ip = ip.getNetworkAddress(prefixLength);
+      long networkAddress = ip.asLong() & Ip.numSubnetBitsToSubnetLong(prefixLength);
+      _ip = networkAddress == ip.asLong() ? ip : Ip.create(networkAddress);
     } else {
       _ip = ip;
     }
@@ -81,10 +104,14 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
   }
 
   public boolean containsIp(Ip ip) {
+    return containsIp(ip.asLong());
+  }
+
+  /** Returns {@code true} iff this prefix contains the IP address represented by {@code ip}. */
+  public boolean containsIp(long ip) {
     long start = _ip.asLong();
     long end = getNetworkEnd(start, _prefixLength);
-    long ipAsLong = ip.asLong();
-    return start <= ipAsLong && ipAsLong <= end;
+    return start <= ip && ip <= end;
   }
 
   public boolean containsPrefix(Prefix prefix) {
@@ -29,6 +29,9 @@ public class StaticRoute extends AbstractRoute {
 
   private final int _tag;
 
+  /* Cache the hashcode, since routes are hashed on every RIB and RibDelta operation */
+  private transient int _hashCode;
+
   @JsonCreator
   private static StaticRoute jsonCreator(
       @Nullable @JsonProperty(PROP_NETWORK) Prefix network,
@@ -121,7 +124,12 @@ public class StaticRoute extends AbstractRoute {
 
   @Override
   public int hashCode() {
-    return Objects.hash(_administrativeCost, _metric, _nextHopInterface, _nextHopIp, _tag);
+    int h = _hashCode;
+    if (h == 0) {
+      h = Objects.hash(_administrativeCost, _metric, _nextHopInterface, _nextHopIp, _tag);
+      _hashCode = h;
+    }
+    return h;
   }
 
   @Override
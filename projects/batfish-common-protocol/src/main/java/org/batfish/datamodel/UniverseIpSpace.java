@@ -1,6 +1,7 @@
 package org.batfish.datamodel;
 
 import java.util.Map;
+import javax.annotation.Nonnull;
 import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
 
 public class UniverseIpSpace extends IpSpace {
@@ -28,7 +29,12 @@ public class UniverseIpSpace extends IpSpace {
   }
 
   @Override
-  public boolean containsIp(Ip ip, Map<String, IpSpace> namedIpSpaces) {
+  public boolean containsIp(@Nonnull Ip ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
+    return true;
+  }
+
+  @Override
+  public boolean containsIp(long ip, @Nonnull Map<String, IpSpace> namedIpSpaces) {
     return true;
   }
 
@@ -22,6 +22,8 @@ public class IncrementalBdpAnswerElement extends DataPlaneAnswerElement {
 
   private static final String PROP_OSPF_INTERNAL_ITERATIONS = "ospfInternalIterations";
 
+  private static final String PROP_REUSE_KEY = "reuseKey";
+
   private static final String PROP_WARNINGS = "warnings";
 
   private static final long serialVersionUID = 1L;
@@ -38,6 +40,8 @@ public class IncrementalBdpAnswerElement extends DataPlaneAnswerElement {
 
   private int _ospfInternalIterations;
 
+  private String _reuseKey;
+
   private String _version;
 
   private Warnings _warnings;
@@ -79,6 +83,15 @@ public class IncrementalBdpAnswerElement extends DataPlaneAnswerElement {
     return _ospfInternalIterations;
   }
 
+  /**
+   * Returns a key identifying the build and settings the routes were computed with. The routes may
+   * only be reused by a computation with the same key.
+   */
+  @JsonProperty(PROP_REUSE_KEY)
+  public String getReuseKey() {
+    return _reuseKey;
+  }
+
   @Override
   @JsonProperty(PROP_VERSION)
   public String getVersion() {
@@ -145,6 +158,11 @@ public class IncrementalBdpAnswerElement extends DataPlaneAnswerElement {
     _ospfInternalIterations = ospfInternalIterations;
   }
 
+  @JsonProperty(PROP_REUSE_KEY)
+  public void setReuseKey(String reuseKey) {
+    _reuseKey = reuseKey;
+  }
+
   @JsonProperty(PROP_VERSION)
   public void setVersion(String version) {
     _version = version;
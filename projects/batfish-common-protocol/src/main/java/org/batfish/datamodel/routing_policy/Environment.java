@@ -53,6 +53,8 @@ public class Environment {
 
   @Nullable private final Prefix _peerPrefix;
 
+  private boolean _peerAttributesRead;
+
   private boolean _readFromIntermediateBgpAttributes;
 
   private final boolean _useOutputAttributes;
@@ -162,11 +164,21 @@ public class Environment {
 
   @Nullable
   public Ip getPeerAddress() {
+    _peerAttributesRead = true;
     return _peerAddress;
   }
 
+  /**
+   * Returns whether the peer address or prefix were read, i.e. whether the outcome of the policy
+   * may differ between peers.
+   */
+  public boolean getPeerAttributesRead() {
+    return _peerAttributesRead;
+  }
+
   @Nullable
   public Prefix getPeerPrefix() {
+    _peerAttributesRead = true;
     return _peerPrefix;
   }
 
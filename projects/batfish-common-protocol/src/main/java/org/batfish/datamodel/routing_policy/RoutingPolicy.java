@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.batfish.common.Warnings;
@@ -189,6 +190,23 @@ public class RoutingPolicy implements Serializable {
       @Nullable Prefix peerPrefix,
       String vrf,
       Direction direction) {
+    return process(
+        inputRoute, outputRoute, peerAddress, peerPrefix, vrf, direction, environment -> {});
+  }
+
+  /**
+   * Processes {@code inputRoute} like {@link #process(AbstractRoute, AbstractRouteBuilder, Ip,
+   * Prefix, String, Direction)}, then passes the {@link Environment} it was processed in to {@code
+   * environmentConsumer}, e.g. to find out whether the outcome depended on the peer.
+   */
+  public boolean process(
+      AbstractRoute inputRoute,
+      AbstractRouteBuilder<?, ?> outputRoute,
+      @Nullable Ip peerAddress,
+      @Nullable Prefix peerPrefix,
+      String vrf,
+      Direction direction,
+      Consumer<Environment> environmentConsumer) {
     Environment environment =
         Environment.builder(_owner)
             .setVrf(vrf)
@@ -199,6 +217,7 @@ public class RoutingPolicy implements Serializable {
             .setPeerPrefix(peerPrefix)
             .build();
     Result result = call(environment);
+    environmentConsumer.accept(environment);
     return result.getBooleanValue() && !(Boolean.TRUE.equals(environment.getSuppressed()));
   }
 
@@ -0,0 +1,285 @@
+package org.batfish.datamodel.table;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CountingOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.BatfishException;
+import org.batfish.common.util.BatfishObjectMapper;
+import org.batfish.datamodel.answers.Answer;
+import org.batfish.datamodel.answers.AnswerElement;
+import org.batfish.datamodel.answers.AnswerStatus;
+
+/**
+ * A binary, column-oriented encoding of an {@link Answer} whose first element is a {@link
+ * TableAnswerElement}. It allows reading the values of a few columns, or a few rows, without
+ * parsing the whole answer.
+ *
+ * <p>Each cell is stored as the compact JSON text of its value. The file layout is:
+ *
+ * <ul>
+ *   <li>a header: magic number, format version, and the JSON text of the answer with the rows of
+ *       its table removed
+ *   <li>one block per column, in metadata order: the offsets of the column's cells relative to the
+ *       end of the offsets (one more than the number of rows), followed by the cells themselves
+ *   <li>a footer: the number of rows and the position of each column block, followed by the
+ *       position of the footer itself
+ * </ul>
+ *
+ * <p>The offsets only locate cells. There are no indexes over the values of a column, so
+ * filtering or sorting on a column reads all of its values.
+ *
+ * <p>Instances are readers over a {@link SeekableByteChannel}, and are not thread-safe.
+ */
+@ParametersAreNonnullByDefault
+public final class ColumnarTable implements Closeable {
+
+  private static final int MAGIC = 0x42465443; // "BFTC"
+
+  private static final int VERSION = 1;
+
+  /**
+   * Returns {@code true} iff {@code answer} can be encoded, i.e. it is successful and its first
+   * element is a {@link TableAnswerElement}.
+   */
+  public static boolean canEncode(Answer answer) {
+    return answer.getStatus() == AnswerStatus.SUCCESS
+        && !answer.getAnswerElements().isEmpty()
+        && answer.getAnswerElements().get(0) instanceof TableAnswerElement;
+  }
+
+  /** Encodes {@code answer}, which must satisfy {@link #canEncode(Answer)}. */
+  public static @Nonnull byte[] encode(Answer answer) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    write(answer, out);
+    return out.toByteArray();
+  }
+
+  /** Writes the encoding of {@code answer}, which must satisfy {@link #canEncode(Answer)}. */
+  public static void write(Answer answer, OutputStream outputStream) throws IOException {
+    checkArgument(canEncode(answer), "Not a successful table answer");
+    TableAnswerElement table = (TableAnswerElement) answer.getAnswerElements().get(0);
+    List<Row> rows = table.getRowsList();
+    List<ColumnMetadata> columns = table.getMetadata().getColumnMetadata();
+
+    // the answer without rows
+    TableAnswerElement emptyTable = new TableAnswerElement(table.getMetadata());
+    emptyTable.setSummary(table.getSummary());
+    Answer envelope = new Answer();
+    envelope.setQuestion(answer.getQuestion());
+    envelope.setStatus(answer.getStatus());
+    envelope.setSummary(answer.getSummary());
+    envelope.setAnswerElements(
+        ImmutableList.<AnswerElement>builder()
+            .add(emptyTable)
+            .addAll(answer.getAnswerElements().subList(1, answer.getAnswerElements().size()))
+            .build());
+    byte[] envelopeBytes = BatfishObjectMapper.writeString(envelope).getBytes(UTF_8);
+
+    CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(outputStream));
+    DataOutputStream out = new DataOutputStream(counter);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(envelopeBytes.length);
+    out.write(envelopeBytes);
+
+    long[] blockPositions = new long[columns.size()];
+    for (int c = 0; c < columns.size(); c++) {
+      blockPositions[c] = counter.getCount();
+      String column = columns.get(c).getName();
+      byte[][] cells = new byte[rows.size()][];
+      for (int r = 0; r < rows.size(); r++) {
+        cells[r] = rows.get(r).get(column).toString().getBytes(UTF_8);
+      }
+      long offset = 0;
+      out.writeLong(offset);
+      for (byte[] cell : cells) {
+        offset += cell.length;
+        out.writeLong(offset);
+      }
+      for (byte[] cell : cells) {
+        out.write(cell);
+      }
+    }
+
+    long footerPosition = counter.getCount();
+    out.writeInt(rows.size());
+    for (long blockPosition : blockPositions) {
+      out.writeLong(blockPosition);
+    }
+    out.writeLong(footerPosition);
+    out.flush();
+  }
+
+  /** Opens a reader over an encoded table. The reader takes ownership of {@code channel}. */
+  public static @Nonnull ColumnarTable open(SeekableByteChannel channel) throws IOException {
+    try {
+      return new ColumnarTable(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private final Map<String, Integer> _columnIndices;
+
+  private final long[] _blockPositions;
+
+  private final SeekableByteChannel _channel;
+
+  private final Answer _envelope;
+
+  private final int _numRows;
+
+  private ColumnarTable(SeekableByteChannel channel) throws IOException {
+    _channel = channel;
+    ByteBuffer header = read(0, 12);
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a columnar table");
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported columnar table version: " + version);
+    }
+    int envelopeLength = header.getInt();
+    String envelopeText = UTF_8.decode(read(12, envelopeLength)).toString();
+    _envelope =
+        BatfishObjectMapper.mapper().readValue(envelopeText, new TypeReference<Answer>() {});
+
+    long footerPosition = read(channel.size() - 8, 8).getLong();
+    List<ColumnMetadata> columns = getMetadata().getColumnMetadata();
+    ByteBuffer footer = read(footerPosition, 4 + 8 * columns.size());
+    _numRows = footer.getInt();
+    _blockPositions = new long[columns.size()];
+    for (int c = 0; c < columns.size(); c++) {
+      _blockPositions[c] = footer.getLong();
+    }
+    ImmutableMap.Builder<String, Integer> columnIndices = ImmutableMap.builder();
+    for (int c = 0; c < columns.size(); c++) {
+      columnIndices.put(columns.get(c).getName(), c);
+    }
+    _columnIndices = columnIndices.build();
+  }
+
+  @Override
+  public void close() throws IOException {
+    _channel.close();
+  }
+
+  /**
+   * Returns the encoded answer, except that its table (the first answer element) has no rows. The
+   * returned answer must not be modified.
+   */
+  public @Nonnull Answer getAnswerWithoutRows() {
+    return _envelope;
+  }
+
+  public @Nonnull TableMetadata getMetadata() {
+    return getTableWithoutRows().getMetadata();
+  }
+
+  public int getNumRows() {
+    return _numRows;
+  }
+
+  /** Returns the table of the encoded answer, without its rows. */
+  public @Nonnull TableAnswerElement getTableWithoutRows() {
+    return (TableAnswerElement) _envelope.getAnswerElements().get(0);
+  }
+
+  /**
+   * Returns the compact JSON text of every value of {@code column}, in row order.
+   *
+   * @throws NoSuchElementException if the table has no such column
+   */
+  public @Nonnull List<String> readColumn(String column) throws IOException {
+    long blockPosition = getBlockPosition(column);
+    ByteBuffer offsetsBuffer = read(blockPosition, 8 * (_numRows + 1));
+    long[] offsets = new long[_numRows + 1];
+    for (int r = 0; r <= _numRows; r++) {
+      offsets[r] = offsetsBuffer.getLong();
+    }
+    ByteBuffer cells = read(blockPosition + 8L * (_numRows + 1), toIntLength(offsets[_numRows]));
+    ImmutableList.Builder<String> values = ImmutableList.builder();
+    for (int r = 0; r < _numRows; r++) {
+      cells.limit((int) offsets[r + 1]);
+      cells.position((int) offsets[r]);
+      values.add(UTF_8.decode(cells).toString());
+    }
+    return values.build();
+  }
+
+  /**
+   * Returns the compact JSON text of the value of {@code column} in row {@code row}.
+   *
+   * @throws NoSuchElementException if the table has no such column
+   */
+  public @Nonnull String readCell(String column, int row) throws IOException {
+    checkArgument(row >= 0 && row < _numRows, "Row %s out of bounds", row);
+    long blockPosition = getBlockPosition(column);
+    ByteBuffer offsets = read(blockPosition + 8L * row, 16);
+    long start = offsets.getLong();
+    long end = offsets.getLong();
+    return UTF_8
+        .decode(read(blockPosition + 8L * (_numRows + 1) + start, toIntLength(end - start)))
+        .toString();
+  }
+
+  /**
+   * Reads the values of {@code columns} in row {@code row}.
+   *
+   * @throws NoSuchElementException if the table lacks one of the columns
+   */
+  public @Nonnull Row readRow(int row, Collection<String> columns) throws IOException {
+    Row.RowBuilder builder = Row.builder();
+    for (String column : columns) {
+      builder.put(column, BatfishObjectMapper.mapper().readTree(readCell(column, row)));
+    }
+    return builder.build();
+  }
+
+  private long getBlockPosition(String column) {
+    Integer index = _columnIndices.get(column);
+    if (index == null) {
+      throw new NoSuchElementException("Column " + column + " does not exist");
+    }
+    return _blockPositions[index];
+  }
+
+  private static int toIntLength(long length) {
+    if (length > Integer.MAX_VALUE) {
+      throw new BatfishException("Columnar table block too large: " + length + " bytes");
+    }
+    return (int) length;
+  }
+
+  /** Reads {@code length} bytes starting at {@code position} into a new buffer, ready to read. */
+  private @Nonnull ByteBuffer read(long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    _channel.position(position);
+    while (buffer.hasRemaining()) {
+      if (_channel.read(buffer) < 0) {
+        throw new IOException("Unexpected end of columnar table");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+}
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
 import com.google.common.io.Closer;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -19,12 +20,20 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PushbackInputStream;
 import java.io.Serializable;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.SortedMap;
@@ -33,6 +42,7 @@ import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -49,16 +59,20 @@ import org.batfish.common.plugin.PluginConsumer.Format;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.common.util.CommonUtil;
+import org.batfish.common.util.DeduplicatingObjectInputStream;
+import org.batfish.common.util.DeduplicatingObjectOutputStream;
 import org.batfish.datamodel.AnalysisMetadata;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.Edge;
 import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.answers.Answer;
 import org.batfish.datamodel.answers.AnswerMetadata;
 import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
 import org.batfish.datamodel.answers.MajorIssueConfig;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.datamodel.questions.Question;
+import org.batfish.datamodel.table.ColumnarTable;
 import org.batfish.identifiers.AnalysisId;
 import org.batfish.identifiers.AnswerId;
 import org.batfish.identifiers.IssueSettingsId;
@@ -72,6 +86,13 @@ import org.batfish.role.NodeRolesData;
 /** A utility class that abstracts the underlying file system storage used by Batfish. */
 @ParametersAreNonnullByDefault
 public final class FileBasedStorage implements StorageProvider {
+
+  /**
+   * How long a temporary cache file may go unmodified before pruning assumes that the worker
+   * writing it died, and deletes it.
+   */
+  @VisibleForTesting static final Duration CACHE_TMP_FILE_GRACE_PERIOD = Duration.ofHours(1);
+
   private final BatfishLogger _logger;
   private final BiFunction<String, Integer, AtomicInteger> _newBatch;
   private FileBasedStorageDirectoryProvider _d;
@@ -424,9 +445,62 @@ public final class FileBasedStorage implements StorageProvider {
   public void storeAnswer(String answerStr, AnswerId answerId) {
     Path answerPath = getAnswerPath(answerId);
     mkdirs(answerPath.getParent());
+    try {
+      // the columnar encoding, if any, was derived from the answer being replaced
+      Files.deleteIfExists(getColumnarAnswerPath(answerId));
+    } catch (IOException e) {
+      throw new BatfishException("Could not delete stale columnar answer", e);
+    }
     CommonUtil.writeFile(answerPath, answerStr);
   }
 
+  @Override
+  public void storeColumnarAnswer(InputStream inputStream, AnswerId answerId) throws IOException {
+    try {
+      Path tmpPath = createColumnarAnswerTempPath(answerId);
+      try {
+        Files.copy(inputStream, tmpPath, StandardCopyOption.REPLACE_EXISTING);
+        moveColumnarAnswer(tmpPath, answerId);
+      } finally {
+        Files.deleteIfExists(tmpPath);
+      }
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  @Override
+  public void storeColumnarAnswer(Answer answer, AnswerId answerId) throws IOException {
+    Path tmpPath = createColumnarAnswerTempPath(answerId);
+    try {
+      try (OutputStream outputStream = Files.newOutputStream(tmpPath)) {
+        ColumnarTable.write(answer, outputStream);
+      }
+      moveColumnarAnswer(tmpPath, answerId);
+    } finally {
+      Files.deleteIfExists(tmpPath);
+    }
+  }
+
+  /**
+   * Returns a new temporary file next to the columnar encoding of the given answer. The encoding is
+   * written there first, so that readers never see a partial encoding.
+   */
+  private @Nonnull Path createColumnarAnswerTempPath(AnswerId answerId) throws IOException {
+    Path columnarAnswerPath = getColumnarAnswerPath(answerId);
+    mkdirs(columnarAnswerPath.getParent());
+    return Files.createTempFile(
+        columnarAnswerPath.getParent(), BfConsts.RELPATH_ANSWER_COLUMNAR, ".tmp");
+  }
+
+  private void moveColumnarAnswer(Path tmpPath, AnswerId answerId) throws IOException {
+    Files.move(
+        tmpPath,
+        getColumnarAnswerPath(answerId),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
   @Override
   public void storeAnswerMetadata(AnswerMetadata answerMetadata, AnswerId answerId) {
     String metricsStr;
@@ -450,20 +524,27 @@ public final class FileBasedStorage implements StorageProvider {
       FileInputStream fis = closer.register(new FileInputStream(inputFile.toFile()));
       PushbackInputStream pbstream = new PushbackInputStream(fis, DEFAULT_HEADER_LENGTH_BYTES);
       Format f = detectFormat(pbstream);
-      ObjectInputStream ois;
+      InputStream decompressed;
       if (f == Format.GZIP) {
-        GZIPInputStream gis =
-            closer.register(new GZIPInputStream(pbstream, 8192 /* enlarge buffer */));
-        ois = new ObjectInputStream(gis);
+        decompressed = closer.register(new GZIPInputStream(pbstream, 8192 /* enlarge buffer */));
       } else if (f == Format.LZ4) {
-        LZ4FrameInputStream lis = closer.register(new LZ4FrameInputStream(pbstream));
-        ois = new ObjectInputStream(lis);
-      } else if (f == Format.JAVA_SERIALIZED) {
-        ois = new ObjectInputStream(pbstream);
+        decompressed = closer.register(new LZ4FrameInputStream(pbstream));
+      } else if (f == Format.JAVA_SERIALIZED || f == Format.DEDUPLICATED_JAVA_SERIALIZED) {
+        decompressed = pbstream;
       } else {
         throw new BatfishException(
             String.format("Could not detect format of the file %s", inputFile));
       }
+      PushbackInputStream pbDecompressed =
+          new PushbackInputStream(decompressed, DEFAULT_HEADER_LENGTH_BYTES);
+      ObjectInputStream ois;
+      if (detectFormat(pbDecompressed) == Format.DEDUPLICATED_JAVA_SERIALIZED) {
+        ois =
+            new DeduplicatingObjectInputStream(
+                pbDecompressed, FileBasedStorage.class.getClassLoader());
+      } else {
+        ois = new ObjectInputStream(pbDecompressed);
+      }
       closer.register(ois);
       return outputClass.cast(ois.readObject());
     } catch (IOException | ClassNotFoundException | ClassCastException e) {
@@ -508,7 +589,7 @@ public final class FileBasedStorage implements StorageProvider {
     try {
       try (OutputStream out = Files.newOutputStream(outputFile);
           LZ4FrameOutputStream gos = new LZ4FrameOutputStream(out);
-          ObjectOutputStream oos = new ObjectOutputStream(gos)) {
+          ObjectOutputStream oos = new DeduplicatingObjectOutputStream(gos)) {
         oos.writeObject(object);
       }
     } catch (IOException e) {
@@ -559,6 +640,22 @@ public final class FileBasedStorage implements StorageProvider {
     return FileUtils.readFileToString(answerPath.toFile(), UTF_8);
   }
 
+  @Override
+  public @Nonnull SeekableByteChannel loadColumnarAnswer(AnswerId answerId)
+      throws FileNotFoundException, IOException {
+    Path columnarAnswerPath = getColumnarAnswerPath(answerId);
+    if (!Files.exists(columnarAnswerPath)) {
+      throw new FileNotFoundException(
+          String.format("Could not find columnar answer with ID: %s", answerId));
+    }
+    return Files.newByteChannel(columnarAnswerPath);
+  }
+
+  @Override
+  public boolean hasColumnarAnswer(AnswerId answerId) {
+    return Files.exists(getColumnarAnswerPath(answerId));
+  }
+
   @Override
   public @Nonnull AnswerMetadata loadAnswerMetadata(AnswerId answerId)
       throws FileNotFoundException, IOException {
@@ -576,6 +673,10 @@ public final class FileBasedStorage implements StorageProvider {
     return _d.getAnswerDir(answerId).resolve(BfConsts.RELPATH_ANSWER_JSON);
   }
 
+  private @Nonnull Path getColumnarAnswerPath(AnswerId answerId) {
+    return _d.getAnswerDir(answerId).resolve(BfConsts.RELPATH_ANSWER_COLUMNAR);
+  }
+
   private @Nonnull Path getAnswerMetadataPath(AnswerId answerId) {
     return _d.getAnswerDir(answerId).resolve(BfConsts.RELPATH_ANSWER_METADATA);
   }
@@ -875,6 +976,108 @@ public final class FileBasedStorage implements StorageProvider {
         getWorkLoadPath(network, snapshot, workId).toFile(), logOutput, UTF_8);
   }
 
+  @VisibleForTesting
+  @Nonnull
+  Path getCachedObjectPath(NetworkId network, String key) {
+    return _d.getNetworkCacheDir(network).resolve(toBase64(key));
+  }
+
+  @Override
+  public @Nullable <S extends Serializable> S loadCachedObject(
+      NetworkId network, String key, Class<S> outputClass) {
+    Path path = getCachedObjectPath(network, key);
+    if (!Files.exists(path)) {
+      return null;
+    }
+    S object = deserializeObject(path, outputClass);
+    // record the use, so that pruning keeps recently used entries
+    try {
+      Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      _logger.warnf("Could not update modification time of cache entry %s: %s", path, e);
+    }
+    return object;
+  }
+
+  @Override
+  public void pruneCachedObjects(NetworkId network, Instant oldestUse, long maxBytes) {
+    Path cacheDir = _d.getNetworkCacheDir(network);
+    if (!Files.isDirectory(cacheDir)) {
+      return;
+    }
+    List<Path> entries;
+    List<Path> tmpFiles;
+    Map<Path, FileTime> lastUses = new HashMap<>();
+    try (Stream<Path> paths = Files.list(cacheDir)) {
+      Map<Boolean, List<Path>> filesByTmp =
+          paths
+              .filter(Files::isRegularFile)
+              .collect(
+                  Collectors.partitioningBy(
+                      path -> path.getFileName().toString().endsWith(".tmp")));
+      entries = filesByTmp.get(false);
+      tmpFiles = filesByTmp.get(true);
+      for (Path file : Iterables.concat(entries, tmpFiles)) {
+        lastUses.put(file, Files.getLastModifiedTime(file));
+      }
+    } catch (IOException e) {
+      _logger.warnf("Could not list cache entries in %s: %s", cacheDir, e);
+      return;
+    }
+    // skip entries being written, but delete those left behind by stores that never finished
+    FileTime oldestTmpWrite = FileTime.from(Instant.now().minus(CACHE_TMP_FILE_GRACE_PERIOD));
+    for (Path tmpFile : tmpFiles) {
+      if (lastUses.get(tmpFile).compareTo(oldestTmpWrite) >= 0) {
+        continue;
+      }
+      try {
+        Files.deleteIfExists(tmpFile);
+      } catch (IOException e) {
+        _logger.warnf("Could not delete temporary cache file %s: %s", tmpFile, e);
+      }
+    }
+    // keep the most recently used entries that fit
+    entries.sort(Comparator.comparing(lastUses::get, Comparator.reverseOrder()));
+    FileTime oldestUseTime = FileTime.from(oldestUse);
+    long keptBytes = 0L;
+    for (Path entry : entries) {
+      try {
+        long size = Files.size(entry);
+        if (lastUses.get(entry).compareTo(oldestUseTime) >= 0 && keptBytes + size <= maxBytes) {
+          keptBytes += size;
+          continue;
+        }
+        Files.deleteIfExists(entry);
+      } catch (IOException e) {
+        _logger.warnf("Could not prune cache entry %s: %s", entry, e);
+      }
+    }
+  }
+
+  @Override
+  public void storeCachedObject(Serializable object, NetworkId network, String key) {
+    Path path = getCachedObjectPath(network, key);
+    mkdirs(path.getParent());
+    // other workers may be reading or writing the same entry, so never expose a partial one
+    Path tmpPath = null;
+    try {
+      tmpPath = Files.createTempFile(path.getParent(), null, ".tmp");
+      serializeObject(object, tmpPath);
+      Files.move(
+          tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new BatfishException("Failed to cache object for key: " + key, e);
+    } finally {
+      if (tmpPath != null) {
+        try {
+          Files.deleteIfExists(tmpPath);
+        } catch (IOException e) {
+          _logger.warnf("Could not delete temporary file %s: %s", tmpPath, e);
+        }
+      }
+    }
+  }
+
   /**
    * Make specified directory along with any parent directories if they do not already exist.
    *
@@ -17,6 +17,8 @@ import org.batfish.identifiers.SnapshotId;
 @ParametersAreNonnullByDefault
 public class FileBasedStorageDirectoryProvider {
 
+  private static final String RELPATH_CACHE = "cache";
+
   private static final String RELPATH_EXTENDED = "extended";
 
   private static final String RELPATH_NODE_ROLES_DIR = "node_roles";
@@ -63,6 +65,10 @@ public class FileBasedStorageDirectoryProvider {
     return getNetworkDir(network).resolve(BfConsts.RELPATH_ANALYSES_DIR).resolve(analysis.getId());
   }
 
+  public @Nonnull Path getNetworkCacheDir(NetworkId network) {
+    return getNetworkDir(network).resolve(RELPATH_CACHE);
+  }
+
   public @Nonnull Path getNetworkDir(NetworkId network) {
     return _baseDir.resolve(network.getId());
   }
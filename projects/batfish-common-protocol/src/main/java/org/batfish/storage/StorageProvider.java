@@ -3,6 +3,9 @@ package org.batfish.storage;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.channels.SeekableByteChannel;
+import java.time.Instant;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
@@ -15,6 +18,7 @@ import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.Edge;
 import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.answers.Answer;
 import org.batfish.datamodel.answers.AnswerMetadata;
 import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
 import org.batfish.datamodel.answers.MajorIssueConfig;
@@ -158,6 +162,30 @@ public interface StorageProvider {
    */
   void storeAnswer(String answerStr, AnswerId answerId);
 
+  /**
+   * Store the columnar encoding of the answer to an ad-hoc or analysis question. Must be called
+   * after {@link #storeAnswer(String, AnswerId)} for the same answer, since storing the answer text
+   * discards any previously stored columnar encoding.
+   *
+   * @param inputStream The {@link org.batfish.datamodel.table.ColumnarTable} encoding of the answer
+   * @param answerId The ID of the answer
+   * @throws IOException if there is an error writing the encoding
+   */
+  void storeColumnarAnswer(InputStream inputStream, AnswerId answerId) throws IOException;
+
+  /**
+   * Encode the given table answer in columnar form and store the encoding, without materializing
+   * the whole encoding in memory. Must be called after {@link #storeAnswer(String, AnswerId)} for
+   * the same answer, since storing the answer text discards any previously stored columnar
+   * encoding.
+   *
+   * @param answer The answer, which must satisfy {@link
+   *     org.batfish.datamodel.table.ColumnarTable#canEncode(Answer)}
+   * @param answerId The ID of the answer
+   * @throws IOException if there is an error writing the encoding
+   */
+  void storeColumnarAnswer(Answer answer, AnswerId answerId) throws IOException;
+
   /**
    * Store the metadata for the answer to an ad-hoc or analysis question.
    *
@@ -198,6 +226,25 @@ public interface StorageProvider {
   @Nonnull
   String loadAnswer(AnswerId answerId) throws FileNotFoundException, IOException;
 
+  /**
+   * Open the columnar encoding of the answer to an ad-hoc or analysis question for random access.
+   * The caller is responsible for closing the returned channel.
+   *
+   * @param answerId The ID of the answer
+   * @throws FileNotFoundException if the columnar encoding does not exist; {@link IOException} if
+   *     there is an error opening it.
+   */
+  @Nonnull
+  SeekableByteChannel loadColumnarAnswer(AnswerId answerId)
+      throws FileNotFoundException, IOException;
+
+  /**
+   * Returns {@code true} iff the columnar encoding of the answer with the specified ID exists.
+   *
+   * @param answerId The ID of the answer
+   */
+  boolean hasColumnarAnswer(AnswerId answerId);
+
   /**
    * Load the metadata for the answer to an ad-hoc or analysis question.
    *
@@ -446,4 +493,26 @@ public interface StorageProvider {
   /** Store a given string as a log file for a given work item ID. */
   void storeWorkLog(String logOutput, NetworkId network, SnapshotId snapshot, String workId)
       throws IOException;
+
+  /**
+   * Returns the object cached for the given network under the given key, or {@code null} if no
+   * object is cached under that key.
+   *
+   * @throws org.batfish.common.BatfishException if the cached object cannot be read
+   */
+  @Nullable
+  <S extends Serializable> S loadCachedObject(NetworkId network, String key, Class<S> outputClass);
+
+  /**
+   * Caches the given object for the given network under the given key, replacing any object
+   * already cached under that key. Cached objects are shared by all snapshots of the network.
+   */
+  void storeCachedObject(Serializable object, NetworkId network, String key);
+
+  /**
+   * Deletes the objects cached for the given network that were last stored or loaded before {@code
+   * oldestUse}, and then the least recently used objects until the remaining ones take at most
+   * {@code maxBytes}.
+   */
+  void pruneCachedObjects(NetworkId network, Instant oldestUse, long maxBytes);
 }
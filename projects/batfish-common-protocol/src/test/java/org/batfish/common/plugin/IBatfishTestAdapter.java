@@ -8,6 +8,7 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -314,6 +315,11 @@ public class IBatfishTestAdapter implements IBatfish {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public boolean pushParentSnapshot(Predicate<DataPlaneAnswerElement> reusable) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public Optional<SearchFiltersResult> reachFilter(
       Configuration node, IpAccessList acl, SearchFiltersParameters params) {
@@ -1,10 +1,22 @@
 package org.batfish.common.plugin;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import org.batfish.common.BatfishLogger;
+import org.batfish.common.plugin.PluginConsumer.Format;
+import org.batfish.common.util.DeduplicatingObjectOutputStream;
+import org.batfish.datamodel.Prefix;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -51,4 +63,59 @@ public class PluginConsumerTest {
   public void testSerializingAndDeserializingText() throws Exception {
     runSerializationTest(true);
   }
+
+  @Test
+  public void testDetectFormat() throws Exception {
+    ByteArrayOutputStream deduplicated = new ByteArrayOutputStream();
+    new DeduplicatingObjectOutputStream(deduplicated).close();
+    ByteArrayOutputStream plain = new ByteArrayOutputStream();
+    new ObjectOutputStream(plain).close();
+
+    assertThat(
+        PluginConsumer.detectFormat(
+            new PushbackInputStream(
+                new ByteArrayInputStream(deduplicated.toByteArray()),
+                PluginConsumer.DEFAULT_HEADER_LENGTH_BYTES)),
+        equalTo(Format.DEDUPLICATED_JAVA_SERIALIZED));
+    assertThat(
+        PluginConsumer.detectFormat(
+            new PushbackInputStream(
+                new ByteArrayInputStream(plain.toByteArray()),
+                PluginConsumer.DEFAULT_HEADER_LENGTH_BYTES)),
+        equalTo(Format.JAVA_SERIALIZED));
+  }
+
+  @Test
+  public void testDeserializingJavaSerialized() throws Exception {
+    // files written before deduplication was introduced can still be read
+    Path serializeFile = _folder.newFile().toPath();
+    try (OutputStream out = Files.newOutputStream(serializeFile);
+        ObjectOutputStream oos = new ObjectOutputStream(out)) {
+      oos.writeObject(new int[] {1, 2, 3});
+    }
+    TestPluginConsumer consumer = new TestPluginConsumer(false);
+
+    assertThat(
+        consumer.deserializeObject(serializeFile, int[].class), equalTo(new int[] {1, 2, 3}));
+  }
+
+  @Test
+  public void testSerializingDeduplicatesValues() throws Exception {
+    Path serializeFile = _folder.newFile().toPath();
+    TestPluginConsumer consumer = new TestPluginConsumer(false);
+    ArrayList<Object> values =
+        new ArrayList<>(
+            ImmutableList.of(
+                new String("value"),
+                new String("value"),
+                Prefix.parse("1.0.0.0/8"),
+                Prefix.parse("1.0.0.0/8")));
+
+    consumer.serializeObject(values, serializeFile);
+    ArrayList<?> deserialized = consumer.deserializeObject(serializeFile, ArrayList.class);
+
+    assertThat(deserialized, equalTo(values));
+    assertThat(deserialized.get(0), sameInstance(deserialized.get(1)));
+    assertThat(deserialized.get(2), sameInstance(deserialized.get(3)));
+  }
 }
@@ -0,0 +1,76 @@
+package org.batfish.common.topology;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.EqualsTester;
+import org.junit.Test;
+
+public final class Layer2TopologyTest {
+
+  private static final Layer2Node N1 = new Layer2Node("c1", "i1", 1);
+  private static final Layer2Node N2 = new Layer2Node("c2", "i1", 1);
+  private static final Layer2Node N3 = new Layer2Node("c3", "i1", 1);
+  private static final Layer2Node N4 = new Layer2Node("c1", "i2", 2);
+  private static final Layer2Node N5 = new Layer2Node("c2", "i2", 2);
+  private static final Layer2Node N6 = new Layer2Node("c3", "i2", 2);
+
+  @Test
+  public void testBroadcastDomains() {
+    Layer2Topology topology =
+        new Layer2Topology(
+            ImmutableList.of(
+                new Layer2Edge(N1, N2, null),
+                new Layer2Edge(N3, N2, null),
+                new Layer2Edge(N4, N5, 2)));
+
+    assertThat(
+        topology.getBroadcastDomains(),
+        containsInAnyOrder(containsInAnyOrder(N1, N2, N3), containsInAnyOrder(N4, N5)));
+    assertThat(topology.inSameBroadcastDomain(N1, N3), equalTo(true));
+    assertThat(topology.inSameBroadcastDomain(N3, N1), equalTo(true));
+    assertThat(topology.inSameBroadcastDomain(N1, N4), equalTo(false));
+    assertThat(topology.inSameBroadcastDomain(N1, N6), equalTo(false));
+    assertThat(topology.inSameBroadcastDomain(N6, N6), equalTo(false));
+    assertThat(
+        topology.getBroadcastDomainRepresentative(N5),
+        equalTo(topology.getBroadcastDomainRepresentative(N4)));
+    assertThat(topology.getBroadcastDomainRepresentative(N6), nullValue());
+  }
+
+  @Test
+  public void testEquals() {
+    Layer2Edge e12 = new Layer2Edge(N1, N2, null);
+    Layer2Edge e23 = new Layer2Edge(N2, N3, null);
+    Layer2Edge e13 = new Layer2Edge(N1, N3, null);
+    new EqualsTester()
+        .addEqualityGroup(
+            new Layer2Topology(ImmutableList.of(e12, e23)),
+            new Layer2Topology(ImmutableList.of(e23, e12)))
+        // same broadcast domain, different edges
+        .addEqualityGroup(new Layer2Topology(ImmutableList.of(e12, e13)))
+        .addEqualityGroup(new Layer2Topology(ImmutableList.of()))
+        .testEquals();
+  }
+
+  @Test
+  public void testGetGraph() {
+    Layer2Topology topology =
+        new Layer2Topology(
+            ImmutableList.of(
+                new Layer2Edge(N1, N2, 1),
+                new Layer2Edge(N2, N3, null),
+                new Layer2Edge(N4, N5, 2)));
+
+    assertThat(
+        topology.getGraph().edges(),
+        containsInAnyOrder(
+            new Layer2Edge(N1, N2, 1),
+            new Layer2Edge(N2, N3, null),
+            new Layer2Edge(N1, N3, null),
+            new Layer2Edge(N4, N5, 2)));
+  }
+}
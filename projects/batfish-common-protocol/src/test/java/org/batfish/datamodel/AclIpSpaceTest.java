@@ -8,6 +8,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
 
+import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
 
 public class AclIpSpaceTest {
@@ -27,6 +28,14 @@ public class AclIpSpaceTest {
     assertThat(_aclIpSpace, not(containsIp(new Ip("1.0.0.0"))));
   }
 
+  @Test
+  public void testContainsIpAsLong() {
+    ImmutableMap<String, IpSpace> namedIpSpaces = ImmutableMap.of();
+    assertThat(_aclIpSpace.containsIp(new Ip("1.1.1.0").asLong(), namedIpSpaces), equalTo(false));
+    assertThat(_aclIpSpace.containsIp(new Ip("1.1.0.0").asLong(), namedIpSpaces), equalTo(true));
+    assertThat(_aclIpSpace.containsIp(new Ip("1.0.0.0").asLong(), namedIpSpaces), equalTo(false));
+  }
+
   @Test
   public void testComplement() {
     IpSpace notIpSpace = _aclIpSpace.complement();
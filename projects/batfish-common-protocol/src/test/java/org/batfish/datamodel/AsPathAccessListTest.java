@@ -0,0 +1,76 @@
+package org.batfish.datamodel;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import org.batfish.common.util.BatfishObjectMapper;
+import org.junit.Test;
+
+/** Tests of {@link AsPathAccessList} */
+public class AsPathAccessListTest {
+
+  private static AsPath asPath(long... asns) {
+    ImmutableList.Builder<AsSet> asSets = ImmutableList.builder();
+    for (long asn : asns) {
+      asSets.add(AsSet.of(asn));
+    }
+    return AsPath.of(asSets.build());
+  }
+
+  private static AsPathAccessListLine deny(String regex) {
+    return new AsPathAccessListLine(LineAction.DENY, regex);
+  }
+
+  private static AsPathAccessListLine permit(String regex) {
+    return new AsPathAccessListLine(LineAction.PERMIT, regex);
+  }
+
+  @Test
+  public void testCombinedLines() {
+    AsPathAccessListMatcher matcher =
+        AsPathAccessListMatcher.forLines(
+            ImmutableList.of(deny("^1 "), deny(" 2$"), permit("3"), permit("4"), deny("5")));
+
+    assertThat(matcher.getNumBlocks(), equalTo(3));
+  }
+
+  @Test
+  public void testFirstMatchingLineWins() {
+    AsPathAccessList list =
+        new AsPathAccessList(
+            "list", ImmutableList.of(deny("^1 "), deny(" 2$"), permit("3"), permit("4")));
+
+    assertThat(list.permits(asPath(1, 3)), equalTo(false));
+    assertThat(list.permits(asPath(3, 2)), equalTo(false));
+    assertThat(list.permits(asPath(5, 3)), equalTo(true));
+    assertThat(list.permits(asPath(4)), equalTo(true));
+    assertThat(list.permits(asPath(5)), equalTo(false));
+  }
+
+  @Test
+  public void testNotCombinableLines() {
+    AsPathAccessListMatcher matcher =
+        AsPathAccessListMatcher.forLines(
+            ImmutableList.of(permit("^(1) \\1$"), permit("(?i)2"), permit("3")));
+
+    assertThat(matcher.getNumBlocks(), equalTo(3));
+
+    AsPathAccessList list =
+        new AsPathAccessList("list", ImmutableList.of(permit("^(1) \\1$"), permit("^2$")));
+
+    assertThat(list.permits(asPath(1, 1)), equalTo(true));
+    assertThat(list.permits(asPath(1, 2)), equalTo(false));
+    assertThat(list.permits(asPath(2)), equalTo(true));
+  }
+
+  @Test
+  public void testPermitsAfterJsonSerialization() throws IOException {
+    AsPathAccessList list = new AsPathAccessList("list", ImmutableList.of(permit("^1$")));
+
+    AsPathAccessList clone = BatfishObjectMapper.clone(list, AsPathAccessList.class);
+
+    assertThat(clone.permits(asPath(1)), equalTo(true));
+  }
+}
@@ -0,0 +1,60 @@
+package org.batfish.datamodel;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+/** Tests of {@link BgpRoute} */
+public class BgpRouteTest {
+
+  private static BgpRoute.Builder builder() {
+    return BgpRoute.builder()
+        .setNetwork(Prefix.parse("1.1.1.0/24"))
+        .setOriginatorIp(new Ip("2.2.2.2"))
+        .setOriginType(OriginType.IGP)
+        .setProtocol(RoutingProtocol.BGP);
+  }
+
+  @Test
+  public void testEqualRoutesShareCommunitiesAndClusterList() {
+    BgpRoute route1 =
+        builder()
+            .setCommunities(ImmutableSet.of(1L, 2L))
+            .setClusterList(ImmutableSet.of(3L))
+            .build();
+    BgpRoute route2 =
+        builder()
+            .setCommunities(ImmutableSet.of(2L, 1L))
+            .setClusterList(ImmutableSet.of(3L))
+            .build();
+
+    assertThat(route2, equalTo(route1));
+    assertThat(route2.getCommunities(), sameInstance(route1.getCommunities()));
+    assertThat(route2.getClusterList(), sameInstance(route1.getClusterList()));
+  }
+
+  @Test
+  public void testHashCodeIsStable() {
+    BgpRoute route = builder().setCommunities(ImmutableSet.of(1L)).build();
+    BgpRoute equalRoute = builder().setCommunities(ImmutableSet.of(1L)).build();
+
+    assertThat(route.hashCode(), equalTo(route.hashCode()));
+    assertThat(route.hashCode(), equalTo(equalRoute.hashCode()));
+  }
+
+  @Test
+  public void testNotEqualAfterHashing() {
+    BgpRoute route = builder().setLocalPreference(100).build();
+    BgpRoute otherRoute = builder().setLocalPreference(200).build();
+    route.hashCode();
+    otherRoute.hashCode();
+
+    assertThat(route, not(equalTo(otherRoute)));
+    assertThat(
+        builder().setNetwork(Prefix.parse("1.1.2.0/24")).build(), not(equalTo(builder().build())));
+  }
+}
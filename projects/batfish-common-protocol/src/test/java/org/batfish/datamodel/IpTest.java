@@ -5,6 +5,7 @@ import static org.batfish.datamodel.matchers.IpSpaceMatchers.containsIp;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import org.junit.Test;
@@ -24,6 +25,14 @@ public class IpTest {
     assertThat(Ip.numSubnetBitsToSubnetLong(32), equalTo(0xFFFFFFFFL));
   }
 
+  @Test
+  public void testCreate() {
+    Ip ip = Ip.create(0x01020304L);
+    assertThat(ip, equalTo(new Ip("1.2.3.4")));
+    assertThat(Ip.create(0x01020304L), sameInstance(ip));
+    assertThat(Ip.parse("1.2.3.4"), sameInstance(ip));
+  }
+
   @Test
   public void testGetBitAtPosition() {
     assertThat(getBitAtPosition(0L, 0), is(false));
@@ -3,7 +3,9 @@ package org.batfish.datamodel;
 import static org.batfish.datamodel.matchers.IpSpaceMatchers.containsIp;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 
+import com.google.common.collect.ImmutableMap;
 import org.junit.Test;
 
 public class IpWildcardSetIpSpaceTest {
@@ -23,6 +25,15 @@ public class IpWildcardSetIpSpaceTest {
     assertThat(ipSpace, not(containsIp(new Ip("1.1.3.0"))));
   }
 
+  @Test
+  public void testContainsIpAsLong() {
+    ImmutableMap<String, IpSpace> namedIpSpaces = ImmutableMap.of();
+    assertThat(ipSpace.containsIp(new Ip("1.1.1.0").asLong(), namedIpSpaces), equalTo(true));
+    assertThat(ipSpace.containsIp(new Ip("1.1.1.1").asLong(), namedIpSpaces), equalTo(false));
+    assertThat(ipSpace.containsIp(new Ip("1.1.2.0").asLong(), namedIpSpaces), equalTo(true));
+    assertThat(ipSpace.containsIp(new Ip("1.1.3.0").asLong(), namedIpSpaces), equalTo(false));
+  }
+
   @Test
   public void testComplement() {
     IpSpace notIpSpace = ipSpace.complement();
@@ -3,6 +3,7 @@ package org.batfish.datamodel;
 import static org.batfish.datamodel.matchers.IpSpaceMatchers.containsIp;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import net.sf.javabdd.BDD;
@@ -22,6 +23,24 @@ public class PrefixTest {
     assertThat(p.getPrefixLength(), equalTo(15));
   }
 
+  @Test
+  public void testCreate() {
+    Prefix p = Prefix.create(Ip.parse("1.2.3.4"), 24);
+    assertThat(p, equalTo(Prefix.parse("1.2.3.0/24")));
+    assertThat(Prefix.parse("1.2.3.0/24"), sameInstance(p));
+    assertThat(Prefix.create(Ip.parse("1.2.3.5"), Ip.parse("255.255.255.0")), sameInstance(p));
+    assertThat(p.getStartIp(), sameInstance(Ip.parse("1.2.3.0")));
+  }
+
+  @Test
+  public void testContainsIpAsLong() {
+    Prefix p = Prefix.parse("1.2.3.4/31");
+    assertThat(p.containsIp(new Ip("1.2.3.4").asLong()), equalTo(true));
+    assertThat(p.containsIp(new Ip("1.2.3.5").asLong()), equalTo(true));
+    assertThat(p.containsIp(new Ip("1.2.3.6").asLong()), equalTo(false));
+    assertThat(p.containsIp(new Ip("1.2.3.3").asLong()), equalTo(false));
+  }
+
   @Test
   public void testContains() {
     PrefixIpSpace p = Prefix.parse("1.2.3.4/31").toIpSpace();
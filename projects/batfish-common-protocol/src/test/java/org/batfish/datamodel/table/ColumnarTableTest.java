@@ -0,0 +1,101 @@
+package org.batfish.datamodel.table;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import org.batfish.datamodel.answers.Answer;
+import org.batfish.datamodel.answers.AnswerStatus;
+import org.batfish.datamodel.answers.AnswerSummary;
+import org.batfish.datamodel.answers.Schema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests of {@link ColumnarTable} */
+public final class ColumnarTableTest {
+
+  @Rule public TemporaryFolder _folder = new TemporaryFolder();
+
+  @Rule public ExpectedException _thrown = ExpectedException.none();
+
+  private static final TableMetadata METADATA =
+      new TableMetadata(
+          ImmutableList.of(
+              new ColumnMetadata("c1", Schema.STRING, "desc1"),
+              new ColumnMetadata("c2", Schema.INTEGER, "desc2")),
+          "text");
+
+  private ColumnarTable open(Answer answer) throws IOException {
+    Path path = _folder.newFile().toPath();
+    Files.write(path, ColumnarTable.encode(answer));
+    return ColumnarTable.open(Files.newByteChannel(path));
+  }
+
+  private static Answer tableAnswer(TableAnswerElement table) {
+    Answer answer = new Answer();
+    answer.addAnswerElement(table);
+    answer.setStatus(AnswerStatus.SUCCESS);
+    return answer;
+  }
+
+  @Test
+  public void testCanEncode() {
+    assertThat(
+        ColumnarTable.canEncode(tableAnswer(new TableAnswerElement(METADATA))), equalTo(true));
+    assertThat(ColumnarTable.canEncode(Answer.failureAnswer("failed", null)), equalTo(false));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    TableAnswerElement table = new TableAnswerElement(METADATA);
+    Row row1 = Row.of("c1", "hello", "c2", 1);
+    Row row2 = Row.of("c1", "", "c2", 22);
+    table.addRow(row1);
+    table.addRow(row2);
+    table.setSummary(new AnswerSummary("notes", 0, 0, 2));
+
+    try (ColumnarTable columnarTable = open(tableAnswer(table))) {
+      assertThat(columnarTable.getNumRows(), equalTo(2));
+      assertThat(columnarTable.getMetadata(), equalTo(METADATA));
+      assertThat(columnarTable.getAnswerWithoutRows().getStatus(), equalTo(AnswerStatus.SUCCESS));
+      assertThat(columnarTable.getTableWithoutRows().getRowsList(), equalTo(ImmutableList.of()));
+      assertThat(columnarTable.getTableWithoutRows().getSummary().getNotes(), equalTo("notes"));
+      assertThat(columnarTable.readColumn("c1"), equalTo(ImmutableList.of("\"hello\"", "\"\"")));
+      assertThat(columnarTable.readColumn("c2"), equalTo(ImmutableList.of("1", "22")));
+      assertThat(columnarTable.readCell("c2", 1), equalTo("22"));
+      assertThat(columnarTable.readRow(0, ImmutableList.of("c1", "c2")), equalTo(row1));
+      assertThat(columnarTable.readRow(1, ImmutableList.of("c1", "c2")), equalTo(row2));
+      assertThat(columnarTable.readRow(1, ImmutableList.of("c2")), equalTo(Row.of("c2", 22)));
+    }
+  }
+
+  @Test
+  public void testEmptyTable() throws IOException {
+    try (ColumnarTable columnarTable = open(tableAnswer(new TableAnswerElement(METADATA)))) {
+      assertThat(columnarTable.getNumRows(), equalTo(0));
+      assertThat(columnarTable.readColumn("c1"), equalTo(ImmutableList.of()));
+    }
+  }
+
+  @Test
+  public void testMissingColumn() throws IOException {
+    try (ColumnarTable columnarTable = open(tableAnswer(new TableAnswerElement(METADATA)))) {
+      _thrown.expect(NoSuchElementException.class);
+      columnarTable.readColumn("c3");
+    }
+  }
+
+  @Test
+  public void testNotColumnarTable() throws IOException {
+    Path path = _folder.newFile().toPath();
+    Files.write(path, new byte[16]);
+    _thrown.expect(IOException.class);
+    ColumnarTable.open(Files.newByteChannel(path));
+  }
+}
@@ -17,6 +17,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -26,12 +29,22 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.Version;
+import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.answers.Answer;
+import org.batfish.datamodel.answers.AnswerStatus;
 import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
 import org.batfish.datamodel.answers.MajorIssueConfig;
 import org.batfish.datamodel.answers.MinorIssueConfig;
+import org.batfish.datamodel.answers.Schema;
+import org.batfish.datamodel.table.ColumnMetadata;
+import org.batfish.datamodel.table.ColumnarTable;
+import org.batfish.datamodel.table.Row;
+import org.batfish.datamodel.table.TableAnswerElement;
+import org.batfish.datamodel.table.TableMetadata;
+import org.batfish.identifiers.AnswerId;
 import org.batfish.identifiers.IssueSettingsId;
 import org.batfish.identifiers.NetworkId;
 import org.batfish.identifiers.QuestionSettingsId;
@@ -78,6 +91,75 @@ public final class FileBasedStorageTest {
     assertThat(deserialized.keySet(), equalTo(Sets.newHashSet("node1")));
   }
 
+  @Test
+  public void roundTripCachedObjectSucceeds() {
+    NetworkId network = new NetworkId("network");
+
+    assertThat(_storage.loadCachedObject(network, "key", String.class), nullValue());
+
+    _storage.storeCachedObject("value", network, "key");
+
+    assertThat(_storage.loadCachedObject(network, "key", String.class), equalTo("value"));
+  }
+
+  @Test
+  public void pruneCachedObjectsDeletesUnusedEntries() throws IOException {
+    NetworkId network = new NetworkId("network");
+    Instant now = Instant.now();
+    FileTime tenDaysAgo = FileTime.from(now.minus(Duration.ofDays(10)));
+    _storage.storeCachedObject("old", network, "old");
+    _storage.storeCachedObject("recent", network, "recent");
+    Files.setLastModifiedTime(_storage.getCachedObjectPath(network, "old"), tenDaysAgo);
+    Files.setLastModifiedTime(_storage.getCachedObjectPath(network, "recent"), tenDaysAgo);
+    // loading an entry marks it as used
+    _storage.loadCachedObject(network, "recent", String.class);
+
+    _storage.pruneCachedObjects(network, now.minus(Duration.ofDays(1)), Long.MAX_VALUE);
+
+    assertThat(_storage.loadCachedObject(network, "old", String.class), nullValue());
+    assertThat(_storage.loadCachedObject(network, "recent", String.class), equalTo("recent"));
+  }
+
+  @Test
+  public void pruneCachedObjectsKeepsMostRecentlyUsedEntriesThatFit() throws IOException {
+    NetworkId network = new NetworkId("network");
+    Instant now = Instant.now();
+    FileTime anHourAgo = FileTime.from(now.minus(Duration.ofHours(1)));
+    _storage.storeCachedObject("value1", network, "key1");
+    _storage.storeCachedObject("value2", network, "key2");
+    Path path1 = _storage.getCachedObjectPath(network, "key1");
+    Path path2 = _storage.getCachedObjectPath(network, "key2");
+    Files.setLastModifiedTime(path1, anHourAgo);
+    Files.setLastModifiedTime(path2, anHourAgo);
+    _storage.loadCachedObject(network, "key2", String.class);
+
+    // room for one entry
+    _storage.pruneCachedObjects(
+        network, now.minus(Duration.ofDays(1)), Math.max(Files.size(path1), Files.size(path2)));
+
+    assertThat(_storage.loadCachedObject(network, "key1", String.class), nullValue());
+    assertThat(_storage.loadCachedObject(network, "key2", String.class), equalTo("value2"));
+  }
+
+  @Test
+  public void pruneCachedObjectsDeletesAbandonedTemporaryFiles() throws IOException {
+    NetworkId network = new NetworkId("network");
+    Instant now = Instant.now();
+    _storage.storeCachedObject("value", network, "key");
+    Path cacheDir = _storage.getCachedObjectPath(network, "key").getParent();
+    Path abandoned = Files.createTempFile(cacheDir, null, ".tmp");
+    Path inProgress = Files.createTempFile(cacheDir, null, ".tmp");
+    Files.setLastModifiedTime(
+        abandoned,
+        FileTime.from(now.minus(FileBasedStorage.CACHE_TMP_FILE_GRACE_PERIOD).minusSeconds(60)));
+
+    _storage.pruneCachedObjects(network, now.minus(Duration.ofDays(1)), Long.MAX_VALUE);
+
+    assertThat(Files.exists(abandoned), equalTo(false));
+    assertThat(Files.exists(inProgress), equalTo(true));
+    assertThat(_storage.loadCachedObject(network, "key", String.class), equalTo("value"));
+  }
+
   @Test
   public void loadMissingConfigurationsReturnsNull() {
     assertThat(
@@ -269,4 +351,25 @@ public final class FileBasedStorageTest {
     _thrown.expectMessage(containsString("Unable to create directory"));
     mkdirs(dir);
   }
+
+  @Test
+  public void testStoreColumnarAnswerThenLoad() throws IOException {
+    AnswerId answerId = new AnswerId("answer");
+    TableAnswerElement table =
+        new TableAnswerElement(
+            new TableMetadata(
+                ImmutableList.of(new ColumnMetadata("col", Schema.INTEGER, "desc")), "text"));
+    table.addRow(Row.of("col", 1));
+    Answer answer = new Answer();
+    answer.addAnswerElement(table);
+    answer.setStatus(AnswerStatus.SUCCESS);
+
+    _storage.storeAnswer(BatfishObjectMapper.writeString(answer), answerId);
+    _storage.storeColumnarAnswer(answer, answerId);
+
+    assertThat(_storage.hasColumnarAnswer(answerId), equalTo(true));
+    try (ColumnarTable columnarTable = ColumnarTable.open(_storage.loadColumnarAnswer(answerId))) {
+      assertThat(columnarTable.readColumn("col"), equalTo(ImmutableList.of("1")));
+    }
+  }
 }
@@ -3,6 +3,9 @@ package org.batfish.storage;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.channels.SeekableByteChannel;
+import java.time.Instant;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
@@ -14,6 +17,7 @@ import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.Edge;
 import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.answers.Answer;
 import org.batfish.datamodel.answers.AnswerMetadata;
 import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
 import org.batfish.datamodel.answers.MajorIssueConfig;
@@ -157,6 +161,27 @@ public class TestStorageProvider implements StorageProvider {
     throw new UnsupportedOperationException("no implementation for generated method");
   }
 
+  @Override
+  public void storeColumnarAnswer(InputStream inputStream, AnswerId answerId) throws IOException {
+    throw new UnsupportedOperationException("no implementation for generated method");
+  }
+
+  @Override
+  public void storeColumnarAnswer(Answer answer, AnswerId answerId) throws IOException {
+    throw new UnsupportedOperationException("no implementation for generated method");
+  }
+
+  @Override
+  public SeekableByteChannel loadColumnarAnswer(AnswerId answerId)
+      throws FileNotFoundException, IOException {
+    throw new UnsupportedOperationException("no implementation for generated method");
+  }
+
+  @Override
+  public boolean hasColumnarAnswer(AnswerId answerId) {
+    throw new UnsupportedOperationException("no implementation for generated method");
+  }
+
   @Override
   public AnswerMetadata loadAnswerMetadata(AnswerId answerId)
       throws FileNotFoundException, IOException {
@@ -296,4 +321,20 @@ public class TestStorageProvider implements StorageProvider {
       String logOutput, NetworkId network, SnapshotId snapshot, String workId) {
     throw new UnsupportedOperationException();
   }
+
+  @Override
+  public <S extends Serializable> S loadCachedObject(
+      NetworkId network, String key, Class<S> outputClass) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void storeCachedObject(Serializable object, NetworkId network, String key) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void pruneCachedObjects(NetworkId network, Instant oldestUse, long maxBytes) {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -4,16 +4,24 @@ import static org.batfish.common.util.CommonUtil.toImmutableMap;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import net.sf.javabdd.BDD;
+import net.sf.javabdd.BDDFactory;
 import org.batfish.common.bdd.BDDPacket;
 import org.batfish.z3.IngressLocation;
 import org.batfish.z3.expr.StateExpr;
@@ -59,6 +67,9 @@ public class BDDReachabilityAnalysis {
 
   private final BDD _queryHeaderSpaceBdd;
 
+  // strongly connected components of the graph, used to schedule fixpoint computations
+  private final Supplier<StronglyConnectedComponents<StateExpr>> _components;
+
   BDDReachabilityAnalysis(
       BDDPacket packet,
       Set<StateExpr> ingressLocationStates,
@@ -69,6 +80,7 @@ public class BDDReachabilityAnalysis {
     _reverseEdges = computeReverseEdges(_edges);
     _ingressLocationStates = ImmutableSet.copyOf(ingressLocationStates);
     _queryHeaderSpaceBdd = queryHeaderSpaceBdd;
+    _components = Suppliers.memoize(() -> StronglyConnectedComponents.compute(_edges));
   }
 
   private static Map<StateExpr, Map<StateExpr, Edge>> computeReverseEdges(
@@ -95,40 +107,94 @@ public class BDDReachabilityAnalysis {
     return ImmutableMap.copyOf(reverseReachableStates);
   }
 
+  /**
+   * Compute the least fixpoint of backward propagation from the states in {@code
+   * reverseReachableStates}, updating the map in place.
+   *
+   * <p>The fixpoint is semi-naive: each state keeps the fragment of its reachable set that has not
+   * yet been pushed across its in-edges, and only that fragment is propagated when the state is
+   * visited. This relies on edge traversal distributing over union, which holds for every edge
+   * (they are compositions of conjunction, existential quantification, and variable renaming).
+   * Dirty states are visited in order of their strongly connected component, starting with the
+   * components closest to the query, so each component is saturated before its predecessors are
+   * visited.
+   */
   private void backwardFixpoint(Map<StateExpr, BDD> reverseReachableStates) {
-    Set<StateExpr> dirty = ImmutableSet.copyOf(reverseReachableStates.keySet());
+    fixpoint(
+        reverseReachableStates,
+        _reverseEdges,
+        Edge::traverseBackward,
+        Comparator.comparingInt(this::componentIndex),
+        (state, newBits) -> false);
+  }
+
+  /**
+   * Semi-naive fixpoint over {@code edges}, shared by forward and backward propagation. Returns
+   * true if the propagation was cut short because {@code stop} held for a state and the packets
+   * that newly reached it.
+   */
+  private static boolean fixpoint(
+      Map<StateExpr, BDD> reachable,
+      Map<StateExpr, Map<StateExpr, Edge>> edges,
+      BiFunction<Edge, BDD, BDD> traverse,
+      Comparator<StateExpr> order,
+      BiPredicate<StateExpr, BDD> stop) {
+    // packets that reached a state but have not been propagated across its edges yet
+    Map<StateExpr, BDD> deltas = new HashMap<>(reachable);
+    PriorityQueue<StateExpr> dirty = new PriorityQueue<>(order);
+    dirty.addAll(deltas.keySet());
 
     while (!dirty.isEmpty()) {
-      Set<StateExpr> newDirty = new HashSet<>();
-
-      dirty.forEach(
-          postState -> {
-            Map<StateExpr, Edge> postStateInEdges = _reverseEdges.get(postState);
-            if (postStateInEdges == null) {
-              // postState has no in-edges
-              return;
-            }
-
-            BDD postStateBDD = reverseReachableStates.get(postState);
-            postStateInEdges.forEach(
-                (preState, edge) -> {
-                  BDD result = edge.traverseBackward(postStateBDD);
-                  if (result.isZero()) {
-                    return;
-                  }
-
-                  // update preState BDD reverse-reachable from leaf
-                  BDD oldReach = reverseReachableStates.get(preState);
-                  BDD newReach = oldReach == null ? result : oldReach.or(result);
-                  if (oldReach == null || !oldReach.equals(newReach)) {
-                    reverseReachableStates.put(preState, newReach);
-                    newDirty.add(preState);
-                  }
-                });
-          });
-
-      dirty = newDirty;
+      StateExpr state = dirty.poll();
+      BDD delta = deltas.remove(state);
+      Map<StateExpr, Edge> stateEdges = edges.get(state);
+      if (stateEdges == null) {
+        // state has no edges to propagate along
+        continue;
+      }
+
+      for (Entry<StateExpr, Edge> entry : stateEdges.entrySet()) {
+        StateExpr neighbor = entry.getKey();
+        BDD result = traverse.apply(entry.getValue(), delta);
+        if (result.isZero()) {
+          continue;
+        }
+
+        BDD oldReach = reachable.get(neighbor);
+        BDD newBits = oldReach == null ? result : result.apply(oldReach, BDDFactory.diff);
+        if (newBits.isZero()) {
+          continue;
+        }
+        reachable.put(neighbor, oldReach == null ? newBits : oldReach.or(newBits));
+        if (stop.test(neighbor, newBits)) {
+          return true;
+        }
+
+        BDD oldDelta = deltas.get(neighbor);
+        if (oldDelta == null) {
+          deltas.put(neighbor, newBits);
+          dirty.add(neighbor);
+        } else {
+          deltas.put(neighbor, oldDelta.or(newBits));
+        }
+      }
     }
+    return false;
+  }
+
+  private StronglyConnectedComponents<StateExpr> getComponents() {
+    return _components.get();
+  }
+
+  /**
+   * The index of the strongly connected component of {@code state}. Edges only lead to components
+   * with the same or a smaller index.
+   */
+  private int componentIndex(StateExpr state) {
+    // states without any edges do not take part in propagation, so their position is irrelevant
+    return _edges.containsKey(state) || _reverseEdges.containsKey(state)
+        ? getComponents().getComponentIndex(state)
+        : 0;
   }
 
   private Map<StateExpr, BDD> reachableInNRounds(int numRounds) {
@@ -144,10 +210,37 @@ public class BDDReachabilityAnalysis {
     return reachableInNRounds;
   }
 
-  /*
-   * Detect infinite routing loops in the network.
-   */
+  /** Detect infinite routing loops in the network, using {@link LoopDetectionMode#FIXED_ROUNDS}. */
   public Map<IngressLocation, BDD> detectLoops() {
+    return detectLoops(LoopDetectionMode.FIXED_ROUNDS);
+  }
+
+  /** Detect infinite routing loops in the network, using the specified algorithm. */
+  public Map<IngressLocation, BDD> detectLoops(LoopDetectionMode mode) {
+    Map<StateExpr, BDD> loopBDDs;
+    switch (mode) {
+      case FIXED_ROUNDS:
+        loopBDDs = computeLoopBDDsFixedRounds();
+        break;
+      case SCC:
+        loopBDDs = computeLoopBDDsScc();
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported loop detection mode: " + mode);
+    }
+
+    /*
+     * Run backward to find the ingress locations/headerspaces that lead to loops.
+     */
+    backwardFixpoint(loopBDDs);
+
+    /*
+     * Extract the ingress location BDDs.
+     */
+    return getIngressLocationBDDs(loopBDDs);
+  }
+
+  private Map<StateExpr, BDD> computeLoopBDDsFixedRounds() {
     /*
      * Run enough rounds to exceed the max TTL (255). It takes at most 5 iterations to go between
      * hops:
@@ -163,22 +256,72 @@ public class BDDReachabilityAnalysis {
     /*
      * Identify which of the candidates are actually on loops
      */
-    Map<StateExpr, BDD> loopBDDs =
-        reachableInNRounds
-            .entrySet()
-            .stream()
-            .filter(entry -> confirmLoop(entry.getKey(), entry.getValue()))
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+    return reachableInNRounds
+        .entrySet()
+        .stream()
+        .filter(entry -> confirmLoop(entry.getKey(), entry.getValue()))
+        .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+  }
 
-    /*
-     * Run backward to find the ingress locations/headerspaces that lead to loops.
-     */
-    backwardFixpoint(loopBDDs);
+  /**
+   * A packet loops forever iff it can follow an infinite path, and every infinite path eventually
+   * stays inside a single strongly connected component. So for each component that contains a
+   * cycle, compute the greatest fixpoint of the packets at each state that can take an edge to
+   * another state of the component and keep looping from there. Only the (typically few and
+   * small) cyclic components are iterated, and the number of rounds depends on the components
+   * rather than on the max TTL.
+   */
+  private Map<StateExpr, BDD> computeLoopBDDsScc() {
+    Map<StateExpr, BDD> loopBDDs = new HashMap<>();
+    for (Set<StateExpr> component : getComponents().getComponents()) {
+      if (component.size() == 1) {
+        StateExpr state = component.iterator().next();
+        if (!_edges.getOrDefault(state, ImmutableMap.of()).containsKey(state)) {
+          // acyclic component
+          continue;
+        }
+      }
+      loopBDDs.putAll(componentLoopBDDs(component));
+    }
+    return loopBDDs;
+  }
 
-    /*
-     * Extract the ingress location BDDs.
-     */
-    return getIngressLocationBDDs(loopBDDs);
+  /** The packets at each state of {@code component} that can stay in the component forever. */
+  private Map<StateExpr, BDD> componentLoopBDDs(Set<StateExpr> component) {
+    BDD zero = _bddPacket.getFactory().zero();
+    BDD one = _bddPacket.getFactory().one();
+    Map<StateExpr, BDD> looping = new HashMap<>();
+    component.forEach(state -> looping.put(state, one));
+
+    // states whose looping packets need to be recomputed
+    Set<StateExpr> dirty = new LinkedHashSet<>(component);
+    while (!dirty.isEmpty()) {
+      Iterator<StateExpr> iterator = dirty.iterator();
+      StateExpr preState = iterator.next();
+      iterator.remove();
+
+      BDD newLooping = zero;
+      for (Entry<StateExpr, Edge> entry : _edges.get(preState).entrySet()) {
+        StateExpr postState = entry.getKey();
+        if (component.contains(postState)) {
+          newLooping = newLooping.or(entry.getValue().traverseBackward(looping.get(postState)));
+        }
+      }
+      if (newLooping.equals(looping.get(preState))) {
+        continue;
+      }
+
+      // looping packets only ever shrink, so predecessors in the component need to be revisited
+      looping.put(preState, newLooping);
+      _reverseEdges
+          .get(preState)
+          .keySet()
+          .stream()
+          .filter(component::contains)
+          .forEach(dirty::add);
+    }
+    looping.values().removeIf(BDD::isZero);
+    return looping;
   }
 
   private Map<StateExpr, BDD> propagate(Map<StateExpr, BDD> bdds) {
@@ -200,51 +343,20 @@ public class BDDReachabilityAnalysis {
   }
 
   /**
-   * Run BFS from one step past the initial state. Each round, check if the initial state has been
-   * reached yet.
+   * Run a forward fixpoint from one step past the initial state, stopping as soon as any packet in
+   * {@code bdd} gets back to the initial state.
    */
   private boolean confirmLoop(StateExpr stateExpr, BDD bdd) {
     Map<StateExpr, BDD> reachable = propagate(ImmutableMap.of(stateExpr, bdd));
-    Set<StateExpr> dirty = new HashSet<>(reachable.keySet());
-
-    BDD zero = _bddPacket.getFactory().zero();
-    while (!dirty.isEmpty()) {
-      Set<StateExpr> newDirty = new HashSet<>();
-
-      dirty.forEach(
-          preState -> {
-            Map<StateExpr, Edge> preStateOutEdges = _edges.get(preState);
-            if (preStateOutEdges == null) {
-              // preState has no out-edges
-              return;
-            }
-
-            BDD preStateBDD = reachable.get(preState);
-            preStateOutEdges.forEach(
-                (postState, edge) -> {
-                  BDD result = edge.traverseForward(preStateBDD);
-                  if (result.isZero()) {
-                    return;
-                  }
-
-                  // update postState BDD reverse-reachable from leaf
-                  BDD oldReach = reachable.getOrDefault(postState, zero);
-                  BDD newReach = oldReach == null ? result : oldReach.or(result);
-                  if (oldReach == null || !oldReach.equals(newReach)) {
-                    reachable.put(postState, newReach);
-                    newDirty.add(postState);
-                  }
-                });
-          });
-
-      dirty = newDirty;
-      if (dirty.contains(stateExpr)) {
-        if (!reachable.get(stateExpr).and(bdd).isZero()) {
-          return true;
-        }
-      }
+    if (!reachable.getOrDefault(stateExpr, _bddPacket.getFactory().zero()).and(bdd).isZero()) {
+      return true;
     }
-    return false;
+    return fixpoint(
+        reachable,
+        _edges,
+        Edge::traverseForward,
+        Comparator.comparingInt(this::componentIndex).reversed(),
+        (state, newBits) -> state.equals(stateExpr) && !newBits.and(bdd).isZero());
   }
 
   public BDDPacket getBDDPacket() {
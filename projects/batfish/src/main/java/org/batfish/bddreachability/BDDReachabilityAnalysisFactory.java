@@ -133,6 +133,9 @@ public final class BDDReachabilityAnalysisFactory {
 
   private final boolean _ignoreFilters;
 
+  // the same graph with the opposite value of ignoreFilters, sharing all BDDs with this one.
+  private final Supplier<BDDReachabilityAnalysisFactory> _ignoreFiltersComplement;
+
   /*
    * node --> vrf --> interface --> set of packets that get routed out the interface but do not
    * reach the neighbor, or exits network, or delivered to subnet
@@ -148,6 +151,12 @@ public final class BDDReachabilityAnalysisFactory {
 
   private final BDD _one;
 
+  /*
+   * Edges that depend on neither the query nor the final nodes. Computed once and shared by every
+   * analysis created by this factory.
+   */
+  private final Supplier<List<Edge>> _queryIndependentEdges;
+
   private final BDD _requiredTransitNodeBDD;
 
   // node --> vrf --> set of packets routable by the vrf
@@ -198,6 +207,46 @@ public final class BDDReachabilityAnalysisFactory {
     _vrfNotAcceptBDDs = computeVrfNotAcceptBDDs(_vrfAcceptBDDs);
 
     _sourceIpVars = Arrays.stream(_bddPacket.getSrcIp().getBitvec()).reduce(_one, BDD::and);
+
+    _queryIndependentEdges = Suppliers.memoize(this::computeQueryIndependentEdges);
+    _ignoreFiltersComplement =
+        Suppliers.memoize(() -> new BDDReachabilityAnalysisFactory(this, !_ignoreFilters));
+  }
+
+  /** Create a factory sharing all BDDs with {@code other}, but with a different ignoreFilters. */
+  private BDDReachabilityAnalysisFactory(
+      BDDReachabilityAnalysisFactory other, boolean ignoreFilters) {
+    _aclDenyBDDs = other._aclDenyBDDs;
+    _aclPermitBDDs = other._aclPermitBDDs;
+    _arpTrueEdgeBDDs = other._arpTrueEdgeBDDs;
+    _bddPacket = other._bddPacket;
+    _bddSourceManagers = other._bddSourceManagers;
+    _configs = other._configs;
+    _deliveredToSubnetBDDs = other._deliveredToSubnetBDDs;
+    _dstIpSpaceToBDD = other._dstIpSpaceToBDD;
+    _exitsNetworkBDDs = other._exitsNetworkBDDs;
+    _forwardingAnalysis = other._forwardingAnalysis;
+    _ignoreFilters = ignoreFilters;
+    _ignoreFiltersComplement = Suppliers.ofInstance(other);
+    _insufficientInfoBDDs = other._insufficientInfoBDDs;
+    _neighborUnreachableBDDs = other._neighborUnreachableBDDs;
+    _one = other._one;
+    _queryIndependentEdges = Suppliers.memoize(this::computeQueryIndependentEdges);
+    _requiredTransitNodeBDD = other._requiredTransitNodeBDD;
+    _routableBDDs = other._routableBDDs;
+    _sourceIpVars = other._sourceIpVars;
+    _vrfAcceptBDDs = other._vrfAcceptBDDs;
+    _vrfNotAcceptBDDs = other._vrfNotAcceptBDDs;
+    _zero = other._zero;
+  }
+
+  /**
+   * Returns a factory for the same network that does (or does not) ignore filters. The returned
+   * factory shares its {@link BDDPacket} and all precomputed BDDs with this one, so a factory can
+   * be kept per snapshot and reused for questions with either setting.
+   */
+  public BDDReachabilityAnalysisFactory withIgnoreFilters(boolean ignoreFilters) {
+    return ignoreFilters == _ignoreFilters ? this : _ignoreFiltersComplement.get();
   }
 
   /**
@@ -419,8 +468,7 @@ public final class BDDReachabilityAnalysisFactory {
   }
 
   /*
-   * These edges do not depend on the query. Compute them separately so that we can later cache them
-   * across queries if we want to.
+   * These edges do not depend on the query, but do depend on the final nodes.
    */
   private Stream<Edge> generateEdges(Set<String> finalNodes) {
     return Streams.concat(
@@ -433,21 +481,31 @@ public final class BDDReachabilityAnalysisFactory {
         generateRules_NodeInterfaceExitsNetwork_ExitsNetwork(finalNodes),
         generateRules_NodeInterfaceInsufficientInfo_InsufficientInfo(finalNodes),
         generateRules_NodeInterfaceNeighborUnreachable_NeighborUnreachable(finalNodes),
-        generateRules_PreInInterface_NodeDropAclIn(),
-        generateRules_PreInInterface_PostInVrf(),
-        generateRules_PostInVrf_NodeAccept(),
-        generateRules_PostInVrf_NodeDropNoRoute(),
-        generateRules_PostInVrf_PreOutVrf(),
-        generateRules_PreOutEdge_PreOutEdgePostNat(),
-        generateRules_PreOutEdgePostNat_NodeDropAclOut(),
-        generateRules_PreOutEdgePostNat_PreInInterface(),
-        generateRules_PreOutVrf_NodeDropAclOut(),
-        generateRules_PreOutVrf_NodeDropNullRoute(),
-        generateRules_PreOutVrf_NodeInterfaceNeighborUnreachable(),
-        generateRules_PreOutVrf_NodeInterfaceDeliveredToSubnet(),
-        generateRules_PreOutVrf_NodeInterfaceExitsNetwork(),
-        generateRules_PreOutVrf_NodeInterfaceInsufficientInfo(),
-        generateRules_PreOutVrf_PreOutEdge());
+        _queryIndependentEdges.get().stream());
+  }
+
+  /*
+   * These edges do not depend on the query or the final nodes, so we compute them once and reuse
+   * them across queries.
+   */
+  private List<Edge> computeQueryIndependentEdges() {
+    return Streams.concat(
+            generateRules_PreInInterface_NodeDropAclIn(),
+            generateRules_PreInInterface_PostInVrf(),
+            generateRules_PostInVrf_NodeAccept(),
+            generateRules_PostInVrf_NodeDropNoRoute(),
+            generateRules_PostInVrf_PreOutVrf(),
+            generateRules_PreOutEdge_PreOutEdgePostNat(),
+            generateRules_PreOutEdgePostNat_NodeDropAclOut(),
+            generateRules_PreOutEdgePostNat_PreInInterface(),
+            generateRules_PreOutVrf_NodeDropAclOut(),
+            generateRules_PreOutVrf_NodeDropNullRoute(),
+            generateRules_PreOutVrf_NodeInterfaceNeighborUnreachable(),
+            generateRules_PreOutVrf_NodeInterfaceDeliveredToSubnet(),
+            generateRules_PreOutVrf_NodeInterfaceExitsNetwork(),
+            generateRules_PreOutVrf_NodeInterfaceInsufficientInfo(),
+            generateRules_PreOutVrf_PreOutEdge())
+        .collect(ImmutableList.toImmutableList());
   }
 
   private Stream<Edge> generateRules_NodeAccept_Accept(Set<String> finalNodes) {
@@ -1354,6 +1412,10 @@ public final class BDDReachabilityAnalysisFactory {
         });
   }
 
+  public BDDPacket getBDDPacket() {
+    return _bddPacket;
+  }
+
   public Map<String, BDDSourceManager> getBDDSourceManagers() {
     return _bddSourceManagers;
   }
@@ -0,0 +1,15 @@
+package org.batfish.bddreachability;
+
+/** Algorithms used by {@link BDDReachabilityAnalysis#detectLoops(LoopDetectionMode)}. */
+public enum LoopDetectionMode {
+  /**
+   * Propagate packets forward from the ingress locations for more rounds than the max TTL, then
+   * confirm which of the remaining candidates are on loops.
+   */
+  FIXED_ROUNDS,
+  /**
+   * Compute, inside each strongly connected component of the graph that contains a cycle, the
+   * packets that can stay in the component forever.
+   */
+  SCC
+}
@@ -0,0 +1,127 @@
+package org.batfish.bddreachability;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Strongly connected components of a graph given as adjacency maps (source --> target --> label),
+ * computed using an iterative version of Tarjan's algorithm.
+ *
+ * <p>Components are numbered in reverse topological order: every edge goes from a component to
+ * itself or to a component with a smaller index. In particular, sinks of the condensed graph come
+ * first.
+ */
+@ParametersAreNonnullByDefault
+final class StronglyConnectedComponents<T> {
+  private final List<Set<T>> _components;
+
+  private final Map<T, Integer> _componentIndices;
+
+  private StronglyConnectedComponents(List<Set<T>> components, Map<T, Integer> componentIndices) {
+    _components = components;
+    _componentIndices = componentIndices;
+  }
+
+  /** A DFS stack frame: a vertex and an iterator over its unexplored successors. */
+  private static final class Frame<T> {
+    private final T _vertex;
+    private final Iterator<T> _successors;
+
+    private Frame(T vertex, Iterator<T> successors) {
+      _vertex = vertex;
+      _successors = successors;
+    }
+  }
+
+  static <T> StronglyConnectedComponents<T> compute(Map<T, ? extends Map<T, ?>> edges) {
+    Map<T, Integer> discovery = new HashMap<>();
+    Map<T, Integer> lowLink = new HashMap<>();
+    Set<T> onStack = new HashSet<>();
+    Deque<T> stack = new ArrayDeque<>();
+    Deque<Frame<T>> callStack = new ArrayDeque<>();
+    ImmutableList.Builder<Set<T>> components = ImmutableList.builder();
+    ImmutableMap.Builder<T, Integer> componentIndices = ImmutableMap.builder();
+    int numComponents = 0;
+
+    for (T root : edges.keySet()) {
+      if (discovery.containsKey(root)) {
+        continue;
+      }
+      discovery.put(root, discovery.size());
+      lowLink.put(root, discovery.get(root));
+      stack.push(root);
+      onStack.add(root);
+      callStack.push(new Frame<>(root, successors(edges, root)));
+
+      while (!callStack.isEmpty()) {
+        Frame<T> frame = callStack.peek();
+        T vertex = frame._vertex;
+        if (frame._successors.hasNext()) {
+          T successor = frame._successors.next();
+          Integer successorDiscovery = discovery.get(successor);
+          if (successorDiscovery == null) {
+            discovery.put(successor, discovery.size());
+            lowLink.put(successor, discovery.get(successor));
+            stack.push(successor);
+            onStack.add(successor);
+            callStack.push(new Frame<>(successor, successors(edges, successor)));
+          } else if (onStack.contains(successor)) {
+            lowLink.put(vertex, Math.min(lowLink.get(vertex), successorDiscovery));
+          }
+          continue;
+        }
+
+        // all successors of vertex are explored
+        callStack.pop();
+        int vertexLowLink = lowLink.get(vertex);
+        if (!callStack.isEmpty()) {
+          T parent = callStack.peek()._vertex;
+          lowLink.put(parent, Math.min(lowLink.get(parent), vertexLowLink));
+        }
+        if (vertexLowLink == discovery.get(vertex)) {
+          // vertex is the root of a component
+          ImmutableSet.Builder<T> component = ImmutableSet.builder();
+          T member;
+          do {
+            member = stack.pop();
+            onStack.remove(member);
+            component.add(member);
+            componentIndices.put(member, numComponents);
+          } while (!member.equals(vertex));
+          components.add(component.build());
+          numComponents++;
+        }
+      }
+    }
+    return new StronglyConnectedComponents<>(components.build(), componentIndices.build());
+  }
+
+  private static <T> Iterator<T> successors(Map<T, ? extends Map<T, ?>> edges, T vertex) {
+    Map<T, ?> outEdges = edges.get(vertex);
+    return outEdges == null ? ImmutableSet.<T>of().iterator() : outEdges.keySet().iterator();
+  }
+
+  /** The components, in reverse topological order. */
+  List<Set<T>> getComponents() {
+    return _components;
+  }
+
+  /** The index in {@link #getComponents()} of the component containing {@code vertex}. */
+  int getComponentIndex(T vertex) {
+    Integer index = _componentIndices.get(vertex);
+    if (index == null) {
+      throw new IllegalArgumentException("Not a vertex of the graph: " + vertex);
+    }
+    return index;
+  }
+}
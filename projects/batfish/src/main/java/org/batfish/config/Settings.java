@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import org.batfish.bddreachability.LoopDetectionMode;
 import org.batfish.common.BaseSettings;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
@@ -24,6 +25,10 @@ import org.batfish.storage.FileBasedStorageDirectoryProvider;
 
 public final class Settings extends BaseSettings implements GrammarSettings {
 
+  private static final String ARG_CACHE_HEAP_PERCENT = "cacheheappercent";
+
+  private static final String ARG_CACHE_SPILL_DATA_PLANES = "cachespilldataplanes";
+
   public static final String ARG_CHECK_BGP_REACHABILITY = "checkbgpsessionreachability";
 
   public static final String ARG_COORDINATOR_HOST = "coordinatorhost";
@@ -58,6 +63,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   private static final String ARG_LOG_TEE = "logtee";
 
+  private static final String ARG_LOOP_DETECTION_MODE = "loopdetectionmode";
+
+  private static final String ARG_MAX_CONCURRENT_TASKS = "maxconcurrenttasks";
+
   private static final String ARG_MAX_PARSER_CONTEXT_LINES = "maxparsercontextlines";
 
   private static final String ARG_MAX_PARSER_CONTEXT_TOKENS = "maxparsercontexttokens";
@@ -66,14 +75,24 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   private static final String ARG_MAX_RUNTIME_MS = "maxruntime";
 
+  private static final String ARG_NO_PARSE_CACHE = "noparsecache";
+
   private static final String ARG_NO_SHUFFLE = "noshuffle";
 
   public static final String ARG_PARENT_PID = "parentpid";
 
+  private static final String ARG_PARSE_CACHE_MAX_AGE_DAYS = "parsecachemaxagedays";
+
+  private static final String ARG_PARSE_CACHE_MAX_SIZE_MB = "parsecachemaxsizemb";
+
+  private static final String ARG_PIPELINE_CONVERSION = "pipelineconversion";
+
   private static final String ARG_PRINT_PARSE_TREES = "ppt";
 
   private static final String ARG_PRINT_PARSE_TREE_LINE_NUMS = "printparsetreelinenums";
 
+  public static final String ARG_REUSE_PARENT_DATA_PLANE = "reuseparentdataplane";
+
   public static final String ARG_RUN_MODE = "runmode";
 
   private static final String ARG_SEQUENTIAL = "sequential";
@@ -216,6 +235,19 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _baseTestrigSettings;
   }
 
+  /** Percentage of the maximum heap a worker may fill with cached snapshot data. */
+  public int getCacheHeapPercent() {
+    return _config.getInt(ARG_CACHE_HEAP_PERCENT);
+  }
+
+  /**
+   * Whether a freshly computed data plane is cached as a view of its serialized form on disk
+   * rather than kept in memory.
+   */
+  public boolean getCacheSpillDataPlanes() {
+    return _config.getBoolean(ARG_CACHE_SPILL_DATA_PLANES);
+  }
+
   public NetworkId getContainer() {
     String id = _config.getString(BfConsts.ARG_CONTAINER);
     return id != null ? new NetworkId(id) : null;
@@ -330,10 +362,46 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getBoolean(ARG_LOG_TEE);
   }
 
+  /** Return the algorithm used to detect forwarding loops */
+  public LoopDetectionMode getLoopDetectionMode() {
+    return LoopDetectionMode.valueOf(_config.getString(ARG_LOOP_DETECTION_MODE).toUpperCase());
+  }
+
+  /**
+   * Whether the results of parsing and converting configuration files are cached with the network,
+   * so that files unchanged since an earlier snapshot are not processed again.
+   */
+  public boolean getParseCache() {
+    return !_config.getBoolean(ARG_NO_PARSE_CACHE);
+  }
+
   public int getParentPid() {
     return _config.getInt(ARG_PARENT_PID);
   }
 
+  /** Returns after how many days without use a cached parsing or conversion result is deleted. */
+  public int getParseCacheMaxAgeDays() {
+    return _config.getInt(ARG_PARSE_CACHE_MAX_AGE_DAYS);
+  }
+
+  /** Returns how many megabytes of parsing and conversion results are cached per network. */
+  public int getParseCacheMaxSizeMb() {
+    return _config.getInt(ARG_PARSE_CACHE_MAX_SIZE_MB);
+  }
+
+  /**
+   * Whether each network configuration file is converted to vendor-independent format right after
+   * it is parsed, instead of after all vendor configurations are serialized and deserialized again.
+   * Only takes effect when both parsing and conversion are requested.
+   */
+  public boolean getPipelineConversion() {
+    return _config.getBoolean(ARG_PIPELINE_CONVERSION);
+  }
+
+  public int getMaxConcurrentTasks() {
+    return _config.getInt(ARG_MAX_CONCURRENT_TASKS);
+  }
+
   @Override
   public int getMaxParserContextLines() {
     return _config.getInt(ARG_MAX_PARSER_CONTEXT_LINES);
@@ -538,6 +606,8 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     setDefaultProperty(BfConsts.ARG_BDP_PRINT_ALL_ITERATIONS, false);
     setDefaultProperty(BfConsts.ARG_BDP_PRINT_OSCILLATING_ITERATIONS, false);
     setDefaultProperty(BfConsts.ARG_BDP_RECORD_ALL_ITERATIONS, false);
+    setDefaultProperty(ARG_CACHE_HEAP_PERCENT, 40);
+    setDefaultProperty(ARG_CACHE_SPILL_DATA_PLANES, false);
     setDefaultProperty(CAN_EXECUTE, true);
     setDefaultProperty(BfConsts.ARG_CONTAINER, null);
     setDefaultProperty(ARG_COORDINATOR_REGISTER, false);
@@ -567,20 +637,27 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     setDefaultProperty(ARG_IGNORE_UNKNOWN, true);
     setDefaultProperty(ARG_JOBS, Integer.MAX_VALUE);
     setDefaultProperty(ARG_LOG_TEE, false);
+    setDefaultProperty(ARG_LOOP_DETECTION_MODE, LoopDetectionMode.FIXED_ROUNDS.toString());
     setDefaultProperty(BfConsts.ARG_LOG_LEVEL, "debug");
+    setDefaultProperty(ARG_MAX_CONCURRENT_TASKS, 4);
     setDefaultProperty(ARG_MAX_PARSER_CONTEXT_LINES, 10);
     setDefaultProperty(ARG_MAX_PARSER_CONTEXT_TOKENS, 10);
     setDefaultProperty(ARG_MAX_PARSE_TREE_PRINT_LENGTH, 0);
     setDefaultProperty(ARG_MAX_RUNTIME_MS, 0);
     setDefaultProperty(ARG_CHECK_BGP_REACHABILITY, true);
+    setDefaultProperty(ARG_NO_PARSE_CACHE, false);
     setDefaultProperty(ARG_NO_SHUFFLE, false);
     setDefaultProperty(BfConsts.ARG_PEDANTIC_SUPPRESS, false);
     setDefaultProperty(BfConsts.ARG_PRETTY_PRINT_ANSWER, false);
     setDefaultProperty(ARG_PARENT_PID, -1);
+    setDefaultProperty(ARG_PARSE_CACHE_MAX_AGE_DAYS, 30);
+    setDefaultProperty(ARG_PARSE_CACHE_MAX_SIZE_MB, 2048);
+    setDefaultProperty(ARG_PIPELINE_CONVERSION, false);
     setDefaultProperty(ARG_PRINT_PARSE_TREES, false);
     setDefaultProperty(ARG_PRINT_PARSE_TREE_LINE_NUMS, false);
     setDefaultProperty(BfConsts.ARG_QUESTION_NAME, null);
     setDefaultProperty(BfConsts.ARG_RED_FLAG_SUPPRESS, false);
+    setDefaultProperty(ARG_REUSE_PARENT_DATA_PLANE, false);
     setDefaultProperty(ARG_RUN_MODE, RunMode.WORKER.toString());
     setDefaultProperty(ARG_SEQUENTIAL, false);
     setDefaultProperty(ARG_SERIALIZE_TO_TEXT, false);
@@ -652,6 +729,15 @@ public final class Settings extends BaseSettings implements GrammarSettings {
         "Set to true to record all iterations, including during oscillation. Ignores max recorded "
             + "iterations value.");
 
+    addOption(
+        ARG_CACHE_HEAP_PERCENT,
+        "percentage of the heap a worker may use to cache configurations and data planes",
+        ARGNAME_NUMBER);
+
+    addBooleanOption(
+        ARG_CACHE_SPILL_DATA_PLANES,
+        "cache computed data planes as views of their serialized form instead of in memory");
+
     addBooleanOption(
         ARG_CHECK_BGP_REACHABILITY,
         "whether to check BGP session reachability during data plane computation");
@@ -742,6 +828,16 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addBooleanOption(ARG_LOG_TEE, "print output to both logfile and standard out");
 
+    addOption(
+        ARG_LOOP_DETECTION_MODE,
+        "algorithm used to detect forwarding loops (fixed_rounds or scc)",
+        ARGNAME_NAME);
+
+    addOption(
+        ARG_MAX_CONCURRENT_TASKS,
+        "maximum number of tasks a worker runs at once, subject to available memory",
+        ARGNAME_NUMBER);
+
     addOption(
         ARG_MAX_PARSER_CONTEXT_LINES,
         "max number of surrounding lines to print on parser error",
@@ -760,10 +856,29 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addOption(ARG_MAX_RUNTIME_MS, "maximum time (in ms) to allow a task to run", ARGNAME_NUMBER);
 
+    addBooleanOption(
+        ARG_NO_PARSE_CACHE,
+        "do not reuse results of parsing and converting unchanged configuration files");
+
     addBooleanOption(ARG_NO_SHUFFLE, "do not shuffle parallel jobs");
 
     addOption(ARG_PARENT_PID, "name of parent PID", ARGNAME_NUMBER);
 
+    addOption(
+        ARG_PARSE_CACHE_MAX_AGE_DAYS,
+        "days after which unused cached parsing and conversion results are deleted",
+        ARGNAME_NUMBER);
+
+    addOption(
+        ARG_PARSE_CACHE_MAX_SIZE_MB,
+        "megabytes of parsing and conversion results to cache per network",
+        ARGNAME_NUMBER);
+
+    addBooleanOption(
+        ARG_PIPELINE_CONVERSION,
+        "convert each configuration file as soon as it is parsed, while serializing parsed vendor "
+            + "configurations in the background");
+
     addBooleanOption(BfConsts.ARG_PEDANTIC_SUPPRESS, "suppresses pedantic warnings");
 
     addBooleanOption(BfConsts.ARG_PRETTY_PRINT_ANSWER, "pretty print answer");
@@ -777,6 +892,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addBooleanOption(BfConsts.ARG_RED_FLAG_SUPPRESS, "suppresses red-flag warnings");
 
+    addBooleanOption(
+        ARG_REUSE_PARENT_DATA_PLANE,
+        "compute data planes of forked snapshots by reusing routes of the parent snapshot");
+
     addOption(
         ARG_RUN_MODE,
         "mode to run in",
@@ -896,6 +1015,8 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getIntOptionValue(BfConsts.ARG_BDP_MAX_RECORDED_ITERATIONS);
     getBooleanOptionValue(BfConsts.ARG_BDP_PRINT_ALL_ITERATIONS);
     getBooleanOptionValue(BfConsts.ARG_BDP_PRINT_OSCILLATING_ITERATIONS);
+    getIntOptionValue(ARG_CACHE_HEAP_PERCENT);
+    getBooleanOptionValue(ARG_CACHE_SPILL_DATA_PLANES);
     getBooleanOptionValue(ARG_CHECK_BGP_REACHABILITY);
     getStringOptionValue(BfConsts.ARG_CONTAINER);
     getStringOptionValue(ARG_COORDINATOR_HOST);
@@ -922,17 +1043,24 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getBooleanOptionValue(BfConsts.COMMAND_INIT_INFO);
     getIntOptionValue(ARG_JOBS);
     getBooleanOptionValue(ARG_LOG_TEE);
+    getStringOptionValue(ARG_LOOP_DETECTION_MODE);
+    getIntOptionValue(ARG_MAX_CONCURRENT_TASKS);
     getIntOptionValue(ARG_MAX_PARSER_CONTEXT_LINES);
     getIntOptionValue(ARG_MAX_PARSER_CONTEXT_TOKENS);
     getIntOptionValue(ARG_MAX_PARSE_TREE_PRINT_LENGTH);
     getIntOptionValue(ARG_MAX_RUNTIME_MS);
+    getBooleanOptionValue(ARG_NO_PARSE_CACHE);
     getIntOptionValue(ARG_PARENT_PID);
+    getIntOptionValue(ARG_PARSE_CACHE_MAX_AGE_DAYS);
+    getIntOptionValue(ARG_PARSE_CACHE_MAX_SIZE_MB);
+    getBooleanOptionValue(ARG_PIPELINE_CONVERSION);
     getBooleanOptionValue(BfConsts.ARG_PEDANTIC_SUPPRESS);
     getBooleanOptionValue(BfConsts.ARG_PRETTY_PRINT_ANSWER);
     getBooleanOptionValue(ARG_PRINT_PARSE_TREES);
     getBooleanOptionValue(ARG_PRINT_PARSE_TREE_LINE_NUMS);
     getStringOptionValue(BfConsts.ARG_QUESTION_NAME);
     getBooleanOptionValue(BfConsts.ARG_RED_FLAG_SUPPRESS);
+    getBooleanOptionValue(ARG_REUSE_PARENT_DATA_PLANE);
     getStringOptionValue(ARG_RUN_MODE);
     getBooleanOptionValue(ARG_SEQUENTIAL);
     getBooleanOptionValue(BfConsts.COMMAND_PARSE_VENDOR_INDEPENDENT);
@@ -0,0 +1,440 @@
+package org.batfish.dataplane;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.google.common.collect.TreeBasedTable;
+import com.google.common.graph.ValueGraph;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.batfish.common.BatfishException;
+import org.batfish.common.util.DeduplicatingObjectInputStream;
+import org.batfish.common.util.DeduplicatingObjectOutputStream;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.BgpPeerConfigId;
+import org.batfish.datamodel.BgpRoute;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.Edge;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.ForwardingAnalysis;
+import org.batfish.datamodel.GenericRib;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.Topology;
+
+/**
+ * A {@link DataPlane} stored in a single file that is partitioned by node and VRF, and read
+ * lazily through memory-mapped segments of that file.
+ *
+ * <p>The file starts with a magic number and a format version, followed by one segment per node
+ * and VRF holding its main RIB, FIB, BGP routes, and prefix tracing summary, a segment holding the
+ * configurations, a segment holding the forwarding analysis, and finally an index segment. The
+ * last 12 bytes of the file hold the position and length of the index. Each segment is written
+ * with a {@link DeduplicatingObjectOutputStream} and LZ4 compression.
+ *
+ * <p>Opening the file only reads the index, which also holds the topology and IP owners. The data
+ * of a VRF is read the first time it is requested, and is softly referenced afterwards, so that
+ * questions about a few nodes only read those nodes, and unused data can be reclaimed when the heap
+ * is full. The forwarding analysis is computed when the file is written and read on first use, so
+ * that questions about flows do not read every VRF. As for a deserialized {@code
+ * IncrementalDataPlane}, the BGP topology is not stored.
+ */
+@ParametersAreNonnullByDefault
+public final class PartitionedDataPlane implements DataPlane {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int MAGIC = 0x42464450; // "BFDP"
+
+  private static final int VERSION = 2;
+
+  /** The position and length of a segment of the file */
+  private static final class Segment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long _position;
+
+    private final int _length;
+
+    private Segment(long position, int length) {
+      _position = position;
+      _length = length;
+    }
+  }
+
+  /** The data of a single VRF */
+  private static final class VrfData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<BgpRoute> _bgpRoutes;
+
+    private final @Nullable Fib _fib;
+
+    private final @Nullable Map<Prefix, Map<String, Set<String>>> _prefixTracingSummary;
+
+    private final GenericRib<AbstractRoute> _rib;
+
+    private VrfData(
+        Set<BgpRoute> bgpRoutes,
+        @Nullable Fib fib,
+        @Nullable Map<Prefix, Map<String, Set<String>>> prefixTracingSummary,
+        GenericRib<AbstractRoute> rib) {
+      _bgpRoutes = bgpRoutes;
+      _fib = fib;
+      _prefixTracingSummary = prefixTracingSummary;
+      _rib = rib;
+    }
+  }
+
+  /** The index of the file, which is read when the file is opened */
+  private static final class Index implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Segment _configurations;
+
+    private final Segment _forwardingAnalysis;
+
+    private final Map<Ip, Map<String, Set<String>>> _ipVrfOwners;
+
+    private final Topology _topology;
+
+    /** Hostname -&gt; VRF name -&gt; segment holding its {@link VrfData} */
+    private final ImmutableSortedMap<String, ImmutableSortedMap<String, Segment>> _vrfSegments;
+
+    private Index(
+        Segment configurations,
+        Segment forwardingAnalysis,
+        Map<Ip, Map<String, Set<String>>> ipVrfOwners,
+        Topology topology,
+        ImmutableSortedMap<String, ImmutableSortedMap<String, Segment>> vrfSegments) {
+      _configurations = configurations;
+      _forwardingAnalysis = forwardingAnalysis;
+      _ipVrfOwners = ipVrfOwners;
+      _topology = topology;
+      _vrfSegments = vrfSegments;
+    }
+  }
+
+  /** An {@link InputStream} reading the remaining bytes of a {@link ByteBuffer} */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer _buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      _buffer = buffer;
+    }
+
+    @Override
+    public int available() {
+      return _buffer.remaining();
+    }
+
+    @Override
+    public int read() {
+      return _buffer.hasRemaining() ? _buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      if (!_buffer.hasRemaining()) {
+        return -1;
+      }
+      int n = Math.min(len, _buffer.remaining());
+      _buffer.get(b, off, n);
+      return n;
+    }
+  }
+
+  /** Returns {@code true} iff the file at {@code path} was written by {@link #write}. */
+  public static boolean isPartitionedDataPlane(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+      while (magic.hasRemaining()) {
+        if (channel.read(magic) < 0) {
+          return false;
+        }
+      }
+      magic.flip();
+      return magic.getInt() == MAGIC;
+    }
+  }
+
+  /** Opens the data plane stored at {@code path}, reading only its index. */
+  public static @Nonnull PartitionedDataPlane open(Path path) throws IOException {
+    ByteBuffer header;
+    ByteBuffer footer;
+    long size;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      size = channel.size();
+      header = channel.map(MapMode.READ_ONLY, 0, 2 * Integer.BYTES);
+      footer = channel.map(MapMode.READ_ONLY, size - 12, 12);
+    }
+    if (header.getInt() != MAGIC) {
+      throw new IOException("Not a partitioned data plane: " + path);
+    }
+    int version = header.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported partitioned data plane version: " + version);
+    }
+    Segment indexSegment = new Segment(footer.getLong(), footer.getInt());
+    return new PartitionedDataPlane(path, readSegment(path, indexSegment, Index.class), size);
+  }
+
+  /**
+   * Writes {@code dataPlane} to {@code path} in the format read by {@link #open(Path)}. The
+   * forwarding analysis of {@code dataPlane} is computed if it was not already, and must be {@link
+   * Serializable}.
+   */
+  public static void write(DataPlane dataPlane, Path path) throws IOException {
+    ForwardingAnalysis forwardingAnalysis = dataPlane.getForwardingAnalysis();
+    if (!(forwardingAnalysis instanceof Serializable)) {
+      throw new NotSerializableException(forwardingAnalysis.getClass().getName());
+    }
+    SortedMap<String, SortedMap<String, GenericRib<AbstractRoute>>> ribs = dataPlane.getRibs();
+    Map<String, Map<String, Fib>> fibs = dataPlane.getFibs();
+    Table<String, String, Set<BgpRoute>> bgpRoutes = dataPlane.getBgpRoutes(false);
+    SortedMap<String, SortedMap<String, Map<Prefix, Map<String, Set<String>>>>> prefixTracing =
+        dataPlane.getPrefixTracingInfoSummary();
+    try (OutputStream fileOut = Files.newOutputStream(path);
+        CountingOutputStream out = new CountingOutputStream(new BufferedOutputStream(fileOut))) {
+      DataOutputStream dataOut = new DataOutputStream(out);
+      dataOut.writeInt(MAGIC);
+      dataOut.writeInt(VERSION);
+
+      ImmutableSortedMap.Builder<String, ImmutableSortedMap<String, Segment>> vrfSegments =
+          ImmutableSortedMap.naturalOrder();
+      for (Entry<String, SortedMap<String, GenericRib<AbstractRoute>>> nodeEntry :
+          ribs.entrySet()) {
+        String hostname = nodeEntry.getKey();
+        Map<String, Fib> nodeFibs = fibs.getOrDefault(hostname, ImmutableMap.of());
+        Map<String, Map<Prefix, Map<String, Set<String>>>> nodePrefixTracing =
+            prefixTracing.getOrDefault(hostname, ImmutableSortedMap.of());
+        ImmutableSortedMap.Builder<String, Segment> nodeSegments =
+            ImmutableSortedMap.naturalOrder();
+        for (Entry<String, GenericRib<AbstractRoute>> vrfEntry : nodeEntry.getValue().entrySet()) {
+          String vrfName = vrfEntry.getKey();
+          Set<BgpRoute> vrfBgpRoutes = bgpRoutes.get(hostname, vrfName);
+          VrfData vrfData =
+              new VrfData(
+                  vrfBgpRoutes == null ? ImmutableSet.of() : ImmutableSet.copyOf(vrfBgpRoutes),
+                  nodeFibs.get(vrfName),
+                  nodePrefixTracing.get(vrfName),
+                  vrfEntry.getValue());
+          nodeSegments.put(vrfName, writeSegment(vrfData, out));
+        }
+        vrfSegments.put(hostname, nodeSegments.build());
+      }
+      Segment configurations =
+          writeSegment(ImmutableSortedMap.copyOf(dataPlane.getConfigurations()), out);
+      Segment forwardingAnalysisSegment = writeSegment((Serializable) forwardingAnalysis, out);
+      Index index =
+          new Index(
+              configurations,
+              forwardingAnalysisSegment,
+              dataPlane.getIpVrfOwners(),
+              dataPlane.getTopology(),
+              vrfSegments.build());
+      Segment indexSegment = writeSegment(index, out);
+      dataOut.writeLong(indexSegment._position);
+      dataOut.writeInt(indexSegment._length);
+      dataOut.flush();
+    }
+  }
+
+  private static Segment writeSegment(Serializable object, CountingOutputStream out)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos =
+        new DeduplicatingObjectOutputStream(new LZ4FrameOutputStream(bytes))) {
+      oos.writeObject(object);
+    }
+    long position = out.getCount();
+    bytes.writeTo(out);
+    return new Segment(position, bytes.size());
+  }
+
+  private static <T> T readSegment(Path path, Segment segment, Class<T> outputClass) {
+    try {
+      ByteBuffer buffer;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        // the mapping remains valid after the channel is closed
+        buffer = channel.map(MapMode.READ_ONLY, segment._position, segment._length);
+      }
+      try (ObjectInputStream ois =
+          new DeduplicatingObjectInputStream(
+              new LZ4FrameInputStream(new ByteBufferInputStream(buffer)),
+              PartitionedDataPlane.class.getClassLoader())) {
+        return outputClass.cast(ois.readObject());
+      }
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      throw new BatfishException(
+          String.format(
+              "Failed to read %s at position %s of data plane file %s",
+              outputClass.getSimpleName(), segment._position, path),
+          e);
+    }
+  }
+
+  private final transient Supplier<Map<String, Configuration>> _configurations;
+
+  private final transient Supplier<ForwardingAnalysis> _forwardingAnalysis;
+
+  private final transient Index _index;
+
+  private final transient Path _path;
+
+  private final transient long _serializedSize;
+
+  private final transient LoadingCache<Segment, VrfData> _vrfData;
+
+  private PartitionedDataPlane(Path path, Index index, long serializedSize) {
+    _path = path;
+    _index = index;
+    _serializedSize = serializedSize;
+    _configurations = Suppliers.memoize(this::readConfigurations);
+    _forwardingAnalysis =
+        Suppliers.memoize(
+            () -> readSegment(_path, _index._forwardingAnalysis, ForwardingAnalysis.class));
+    _vrfData =
+        CacheBuilder.newBuilder()
+            .softValues()
+            .build(CacheLoader.from(segment -> readSegment(_path, segment, VrfData.class)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Configuration> readConfigurations() {
+    return readSegment(_path, _index._configurations, ImmutableSortedMap.class);
+  }
+
+  private VrfData getVrfData(String hostname, String vrfName) {
+    try {
+      return _vrfData.getUnchecked(_index._vrfSegments.get(hostname).get(vrfName));
+    } catch (UncheckedExecutionException e) {
+      throw new BatfishException(
+          String.format("Failed to load data plane of VRF %s on node %s", vrfName, hostname),
+          e.getCause());
+    }
+  }
+
+  /**
+   * Returns a lazy view of the per-VRF values of {@code extractor}. Map structure: hostname -&gt;
+   * VRF name -&gt; value.
+   */
+  private <T> SortedMap<String, SortedMap<String, T>> vrfView(Function<VrfData, T> extractor) {
+    return Maps.asMap(
+        _index._vrfSegments.keySet(),
+        hostname ->
+            Maps.asMap(
+                _index._vrfSegments.get(hostname).keySet(),
+                vrfName -> extractor.apply(getVrfData(hostname, vrfName))));
+  }
+
+  @Override
+  public Table<String, String, Set<BgpRoute>> getBgpRoutes(boolean multipath) {
+    Table<String, String, Set<BgpRoute>> table = TreeBasedTable.create();
+    vrfView(vrfData -> vrfData._bgpRoutes)
+        .forEach(
+            (hostname, vrfs) ->
+                vrfs.forEach((vrfName, routes) -> table.put(hostname, vrfName, routes)));
+    return table;
+  }
+
+  @Override
+  public @Nullable ValueGraph<BgpPeerConfigId, BgpSessionProperties> getBgpTopology() {
+    return null;
+  }
+
+  @Override
+  public Map<String, Configuration> getConfigurations() {
+    return _configurations.get();
+  }
+
+  @Override
+  public Map<String, Map<String, Fib>> getFibs() {
+    return Collections.unmodifiableMap(vrfView(vrfData -> vrfData._fib));
+  }
+
+  @Override
+  public ForwardingAnalysis getForwardingAnalysis() {
+    return _forwardingAnalysis.get();
+  }
+
+  @Override
+  public Map<Ip, Map<String, Set<String>>> getIpVrfOwners() {
+    return _index._ipVrfOwners;
+  }
+
+  @Override
+  public SortedMap<String, SortedMap<String, Map<Prefix, Map<String, Set<String>>>>>
+      getPrefixTracingInfoSummary() {
+    return vrfView(vrfData -> vrfData._prefixTracingSummary);
+  }
+
+  @Override
+  public SortedMap<String, SortedMap<String, GenericRib<AbstractRoute>>> getRibs() {
+    return vrfView(vrfData -> vrfData._rib);
+  }
+
+  /** Returns the size (in bytes) of the file this data plane is read from. */
+  public long getSerializedSize() {
+    return _serializedSize;
+  }
+
+  @Override
+  public Topology getTopology() {
+    return _index._topology;
+  }
+
+  @Override
+  public SortedSet<Edge> getTopologyEdges() {
+    return _index._topology.getEdges();
+  }
+
+  /** Instances are views of a file, and must be reopened rather than serialized. */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    throw new NotSerializableException(PartitionedDataPlane.class.getName());
+  }
+}
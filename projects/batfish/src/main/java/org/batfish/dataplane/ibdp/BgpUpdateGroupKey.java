@@ -0,0 +1,152 @@
+package org.batfish.dataplane.ibdp;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.BgpActivePeerConfig;
+import org.batfish.datamodel.BgpPassivePeerConfig;
+import org.batfish.datamodel.BgpPeerConfig;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.BgpSessionProperties.SessionType;
+import org.batfish.datamodel.Ip;
+import org.batfish.dataplane.protocols.BgpProtocolHelper;
+
+/**
+ * Identifies an update group: the outgoing BGP sessions of a {@link VirtualRouter} that select and
+ * transform exported routes the same way, so that each route needs to be exported only once per
+ * group (as Cisco and Juniper routers do).
+ *
+ * <p>The key holds every attribute of the session and of its two ends that {@link
+ * BgpProtocolHelper#transformBgpRouteOnExport(BgpPeerConfig, BgpPeerConfig, BgpSessionProperties,
+ * org.batfish.datamodel.Vrf, org.batfish.datamodel.AbstractRoute)} and the choice of routes to
+ * export depend on, plus the export policy. Whether the export policy depends on the peer can only
+ * be told per route, while evaluating it.
+ */
+@ParametersAreNonnullByDefault
+final class BgpUpdateGroupKey {
+
+  static @Nonnull BgpUpdateGroupKey of(
+      BgpPeerConfig ourConfig, BgpPeerConfig remoteConfig, BgpSessionProperties session) {
+    boolean passive = ourConfig instanceof BgpPassivePeerConfig;
+    return new BgpUpdateGroupKey(
+        session.getAdditionalPaths(),
+        session.getAdvertiseExternal(),
+        session.getAdvertiseInactive(),
+        ourConfig.getAllowRemoteAsOut(),
+        ourConfig.getExportPolicy(),
+        ourConfig.getLocalAs(),
+        ourConfig.getLocalIp(),
+        passive,
+        remoteConfig.getLocalAs(),
+        passive && remoteConfig instanceof BgpActivePeerConfig
+            ? ((BgpActivePeerConfig) remoteConfig).getPeerAddress()
+            : null,
+        remoteConfig.getRouteReflectorClient(),
+        ourConfig.getRouteReflectorClient(),
+        ourConfig.getSendCommunity(),
+        session.getSessionType());
+  }
+
+  private final boolean _additionalPaths;
+
+  private final boolean _advertiseExternal;
+
+  private final boolean _advertiseInactive;
+
+  private final boolean _allowRemoteAsOut;
+
+  @Nullable private final String _exportPolicy;
+
+  @Nullable private final Long _localAs;
+
+  @Nullable private final Ip _localIp;
+
+  private final boolean _passive;
+
+  @Nullable private final Long _remoteLocalAs;
+
+  @Nullable private final Ip _remotePeerAddress;
+
+  private final boolean _remoteRouteReflectorClient;
+
+  private final boolean _routeReflectorClient;
+
+  private final boolean _sendCommunity;
+
+  private final SessionType _sessionType;
+
+  private BgpUpdateGroupKey(
+      boolean additionalPaths,
+      boolean advertiseExternal,
+      boolean advertiseInactive,
+      boolean allowRemoteAsOut,
+      @Nullable String exportPolicy,
+      @Nullable Long localAs,
+      @Nullable Ip localIp,
+      boolean passive,
+      @Nullable Long remoteLocalAs,
+      @Nullable Ip remotePeerAddress,
+      boolean remoteRouteReflectorClient,
+      boolean routeReflectorClient,
+      boolean sendCommunity,
+      SessionType sessionType) {
+    _additionalPaths = additionalPaths;
+    _advertiseExternal = advertiseExternal;
+    _advertiseInactive = advertiseInactive;
+    _allowRemoteAsOut = allowRemoteAsOut;
+    _exportPolicy = exportPolicy;
+    _localAs = localAs;
+    _localIp = localIp;
+    _passive = passive;
+    _remoteLocalAs = remoteLocalAs;
+    _remotePeerAddress = remotePeerAddress;
+    _remoteRouteReflectorClient = remoteRouteReflectorClient;
+    _routeReflectorClient = routeReflectorClient;
+    _sendCommunity = sendCommunity;
+    _sessionType = sessionType;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof BgpUpdateGroupKey)) {
+      return false;
+    }
+    BgpUpdateGroupKey other = (BgpUpdateGroupKey) o;
+    return _additionalPaths == other._additionalPaths
+        && _advertiseExternal == other._advertiseExternal
+        && _advertiseInactive == other._advertiseInactive
+        && _allowRemoteAsOut == other._allowRemoteAsOut
+        && _passive == other._passive
+        && _remoteRouteReflectorClient == other._remoteRouteReflectorClient
+        && _routeReflectorClient == other._routeReflectorClient
+        && _sendCommunity == other._sendCommunity
+        && _sessionType == other._sessionType
+        && Objects.equals(_exportPolicy, other._exportPolicy)
+        && Objects.equals(_localAs, other._localAs)
+        && Objects.equals(_localIp, other._localIp)
+        && Objects.equals(_remoteLocalAs, other._remoteLocalAs)
+        && Objects.equals(_remotePeerAddress, other._remotePeerAddress);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        _additionalPaths,
+        _advertiseExternal,
+        _advertiseInactive,
+        _allowRemoteAsOut,
+        _exportPolicy,
+        _localAs,
+        _localIp,
+        _passive,
+        _remoteLocalAs,
+        _remotePeerAddress,
+        _remoteRouteReflectorClient,
+        _routeReflectorClient,
+        _sendCommunity,
+        _sessionType);
+  }
+}
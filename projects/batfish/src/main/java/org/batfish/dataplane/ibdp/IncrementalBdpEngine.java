@@ -1,5 +1,6 @@
 package org.batfish.dataplane.ibdp;
 
+import static com.google.common.base.MoreObjects.firstNonNull;
 import static org.batfish.common.topology.TopologyUtil.computeIpNodeOwners;
 import static org.batfish.common.topology.TopologyUtil.computeIpVrfOwners;
 import static org.batfish.common.topology.TopologyUtil.computeNodeInterfaces;
@@ -7,15 +8,31 @@ import static org.batfish.common.util.CommonUtil.toImmutableSortedMap;
 import static org.batfish.datamodel.bgp.BgpTopologyUtils.initBgpTopology;
 import static org.batfish.dataplane.rib.AbstractRib.importRib;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graphs;
+import com.google.common.graph.ImmutableValueGraph;
+import com.google.common.graph.MutableValueGraph;
 import com.google.common.graph.Network;
 import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -31,11 +48,14 @@ import org.batfish.datamodel.BgpProcess;
 import org.batfish.datamodel.BgpRoute;
 import org.batfish.datamodel.BgpSessionProperties;
 import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.GenericRib;
 import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.IsisRoute;
 import org.batfish.datamodel.NetworkConfigurations;
 import org.batfish.datamodel.OspfExternalType1Route;
 import org.batfish.datamodel.OspfExternalType2Route;
+import org.batfish.datamodel.Prefix;
 import org.batfish.datamodel.Topology;
 import org.batfish.datamodel.answers.IncrementalBdpAnswerElement;
 import org.batfish.datamodel.eigrp.EigrpEdge;
@@ -84,7 +104,10 @@ class IncrementalBdpEngine {
 
     // Generate our nodes, keyed by name, sorted for determinism
     SortedMap<String, Node> nodes =
-        toImmutableSortedMap(configurations.values(), Configuration::getHostname, Node::new);
+        toImmutableSortedMap(
+            configurations.values(),
+            Configuration::getHostname,
+            c -> new Node(c, _settings.getRibTreeType()));
     NetworkConfigurations networkConfigurations = NetworkConfigurations.of(configurations);
     dpBuilder.setNodes(nodes);
     dpBuilder.setTopology(topology);
@@ -166,6 +189,108 @@ class IncrementalBdpEngine {
     return new ComputeDataPlaneResult(answerElement, dp);
   }
 
+  /**
+   * Compute the data plane like {@link #computeDataPlane(Map, Topology, Set)}, but reuse the
+   * converged routes of {@code reference} for the nodes whose routes cannot have changed (see
+   * {@link ReferenceDataPlane#computeReusableNodes(Map, Topology, Set)}), and only run the
+   * computation on the other nodes.
+   *
+   * @param configurations configurations keyed by hostname
+   * @param topology the layer-3 topology
+   * @param externalAdverts external BGP advertisements
+   * @param reference the converged data plane of a reference snapshot
+   */
+  ComputeDataPlaneResult computeDataPlane(
+      Map<String, Configuration> configurations,
+      Topology topology,
+      Set<BgpAdvertisement> externalAdverts,
+      ReferenceDataPlane reference) {
+    Set<String> reusable =
+        reference.computeReusableNodes(configurations, topology, externalAdverts);
+    if (reusable.isEmpty()) {
+      return computeDataPlane(configurations, topology, externalAdverts);
+    }
+    _bfLogger.infof(
+        "Reusing converged routes of %s of %s nodes from reference data plane\n",
+        reusable.size(), configurations.size());
+
+    /*
+     * Reusable nodes make up whole connected components of layer-3 edges and BGP sessions, so
+     * the remaining nodes can be computed on their own.
+     */
+    Map<String, Configuration> recomputedConfigurations =
+        ImmutableMap.copyOf(Maps.filterKeys(configurations, h -> !reusable.contains(h)));
+    SortedMap<String, Node> nodes = new TreeMap<>();
+    IncrementalBdpAnswerElement answerElement;
+    MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology;
+    if (recomputedConfigurations.isEmpty()) {
+      answerElement = new IncrementalBdpAnswerElement();
+      answerElement.setVersion(Version.getVersion());
+      bgpTopology = ValueGraphBuilder.directed().allowsSelfLoops(false).build();
+    } else {
+      Topology recomputedTopology =
+          new Topology(
+              topology
+                  .getEdges()
+                  .stream()
+                  .filter(edge -> !reusable.contains(edge.getNode1()))
+                  .collect(ImmutableSortedSet.toImmutableSortedSet(Comparator.naturalOrder())));
+      Set<BgpAdvertisement> recomputedAdverts =
+          externalAdverts
+              .stream()
+              .filter(advert -> !reusable.contains(advert.getDstNode()))
+              .collect(ImmutableSet.toImmutableSet());
+      ComputeDataPlaneResult recomputed =
+          computeDataPlane(recomputedConfigurations, recomputedTopology, recomputedAdverts);
+      IncrementalDataPlane recomputedDp = (IncrementalDataPlane) recomputed._dataPlane;
+      nodes.putAll(recomputedDp.getNodes());
+      answerElement = (IncrementalBdpAnswerElement) recomputed._answerElement;
+      bgpTopology = Graphs.copyOf(recomputedDp.getBgpTopology());
+    }
+
+    // Install the reference routes on the reusable nodes
+    DataPlane referenceDp = reference.getDataPlane();
+    SortedMap<String, SortedMap<String, GenericRib<AbstractRoute>>> ribs = referenceDp.getRibs();
+    Table<String, String, Set<BgpRoute>> bgpRoutes = referenceDp.getBgpRoutes(false);
+    SortedMap<String, SortedMap<String, Map<Prefix, Map<String, Set<String>>>>> prefixTracing =
+        referenceDp.getPrefixTracingInfoSummary();
+    for (String hostname : reusable) {
+      Node node = new Node(configurations.get(hostname), _settings.getRibTreeType());
+      node.getVirtualRouters()
+          .forEach(
+              (vrfName, vr) ->
+                  vr.reuseRoutes(
+                      ribs.get(hostname).get(vrfName).getRoutes(),
+                      firstNonNull(bgpRoutes.get(hostname, vrfName), ImmutableSet.of()),
+                      prefixTracing.getOrDefault(hostname, ImmutableSortedMap.of()).get(vrfName)));
+      nodes.put(hostname, node);
+    }
+    IncrementalDataPlane.Builder dpBuilder =
+        IncrementalDataPlane.builder()
+            .setIpVrfOwners(computeIpVrfOwners(true, computeNodeInterfaces(configurations)))
+            .setNodes(nodes)
+            .setTopology(topology);
+
+    // Sessions between reusable nodes, checked against their converged routes
+    ValueGraph<BgpPeerConfigId, BgpSessionProperties> reusedBgpTopology =
+        initBgpTopology(
+            ImmutableMap.copyOf(Maps.filterKeys(configurations, reusable::contains)),
+            computeIpNodeOwners(configurations, true),
+            false,
+            true,
+            TracerouteEngineImpl.getInstance(),
+            dpBuilder.build());
+    reusedBgpTopology.nodes().forEach(bgpTopology::addNode);
+    for (EndpointPair<BgpPeerConfigId> session : reusedBgpTopology.edges()) {
+      bgpTopology.putEdgeValue(
+          session.source(),
+          session.target(),
+          reusedBgpTopology.edgeValue(session.source(), session.target()).get());
+    }
+    return new ComputeDataPlaneResult(
+        answerElement, dpBuilder.setBgpTopology(ImmutableValueGraph.copyOf(bgpTopology)).build());
+  }
+
   /**
    * Perform one iteration of the "dependent routes" dataplane computation. Dependent routes refers
    * to routes that could change because other routes have changed. For example, this includes:
@@ -176,14 +301,15 @@ class IncrementalBdpEngine {
    *   <li>EGP routes (various protocols)
    * </ul>
    *
-   * @param nodes nodes that are participating in the computation
+   * @param routersByNode virtual routers that are participating in the computation, grouped by
+   *     hostname
    * @param topology network Topology
    * @param iteration iteration number (for stats tracking)
    * @param allNodes all nodes in the network (for correct neighbor referencing)
    * @param bgpTopology the bgp peering relationships
    */
   private void computeDependentRoutesIteration(
-      Map<String, Node> nodes,
+      Map<String, Collection<VirtualRouter>> routersByNode,
       Topology topology,
       int iteration,
       Map<String, Node> allNodes,
@@ -191,22 +317,23 @@ class IncrementalBdpEngine {
       NetworkConfigurations networkConfigurations) {
 
     // (Re)initialization of dependent route calculation
-    nodes
+    routersByNode
         .values()
         .parallelStream()
-        .flatMap(n -> n.getVirtualRouters().values().parallelStream())
+        .flatMap(Collection::parallelStream)
         .forEach(VirtualRouter::reinitForNewIteration);
 
     // Static nextHopIp routes
     AtomicInteger recomputeStaticCompleted =
         _newBatch.apply(
-            "Iteration " + iteration + ": Recompute static routes with next-hop IP", nodes.size());
-    nodes
+            "Iteration " + iteration + ": Recompute static routes with next-hop IP",
+            routersByNode.size());
+    routersByNode
         .values()
         .parallelStream()
         .forEach(
-            n -> {
-              for (VirtualRouter vr : n.getVirtualRouters().values()) {
+            vrs -> {
+              for (VirtualRouter vr : vrs) {
                 vr.activateStaticRoutes();
               }
               recomputeStaticCompleted.incrementAndGet();
@@ -215,13 +342,14 @@ class IncrementalBdpEngine {
     // Generated/aggregate routes
     AtomicInteger recomputeAggregateCompleted =
         _newBatch.apply(
-            "Iteration " + iteration + ": Recompute aggregate/generated routes", nodes.size());
-    nodes
+            "Iteration " + iteration + ": Recompute aggregate/generated routes",
+            routersByNode.size());
+    routersByNode
         .values()
         .parallelStream()
         .forEach(
-            n -> {
-              for (VirtualRouter vr : n.getVirtualRouters().values()) {
+            vrs -> {
+              for (VirtualRouter vr : vrs) {
                 vr.recomputeGeneratedRoutes();
               }
               recomputeAggregateCompleted.incrementAndGet();
@@ -229,12 +357,12 @@ class IncrementalBdpEngine {
 
     // EIGRP external routes
     // recompute exports
-    nodes
+    routersByNode
         .values()
         .parallelStream()
         .forEach(
-            n -> {
-              for (VirtualRouter vr : n.getVirtualRouters().values()) {
+            vrs -> {
+              for (VirtualRouter vr : vrs) {
                 vr.initEigrpExports(allNodes);
               }
             });
@@ -250,14 +378,14 @@ class IncrementalBdpEngine {
                   + iteration
                   + ": Propagate EIGRP external routes: subIteration: "
                   + eigrpExternalSubIterations,
-              nodes.size());
+              routersByNode.size());
       eigrpExternalChanged.set(false);
-      nodes
+      routersByNode
           .values()
           .parallelStream()
           .forEach(
-              n -> {
-                for (VirtualRouter vr : n.getVirtualRouters().values()) {
+              vrs -> {
+                for (VirtualRouter vr : vrs) {
                   if (vr.propagateEigrpExternalRoutes(allNodes, networkConfigurations)) {
                     eigrpExternalChanged.set(true);
                   }
@@ -267,12 +395,12 @@ class IncrementalBdpEngine {
     }
 
     // Re-initialize IS-IS exports.
-    nodes
+    routersByNode
         .values()
         .parallelStream()
         .forEach(
-            n -> {
-              for (VirtualRouter vr : n.getVirtualRouters().values()) {
+            vrs -> {
+              for (VirtualRouter vr : vrs) {
                 vr.initIsisExports(allNodes, networkConfigurations);
               }
             });
@@ -287,14 +415,14 @@ class IncrementalBdpEngine {
                   + iteration
                   + ": Propagate IS-IS routes: subIteration: "
                   + isisSubIterations,
-              nodes.size());
+              routersByNode.size());
       isisChanged.set(false);
-      nodes
+      routersByNode
           .values()
           .parallelStream()
           .forEach(
-              n -> {
-                for (VirtualRouter vr : n.getVirtualRouters().values()) {
+              vrs -> {
+                for (VirtualRouter vr : vrs) {
                   Entry<RibDelta<IsisRoute>, RibDelta<IsisRoute>> p =
                       vr.propagateIsisRoutes(allNodes, networkConfigurations);
                   if (p != null
@@ -309,12 +437,12 @@ class IncrementalBdpEngine {
 
     // OSPF external routes
     // recompute exports
-    nodes
+    routersByNode
         .values()
         .parallelStream()
         .forEach(
-            n -> {
-              for (VirtualRouter vr : n.getVirtualRouters().values()) {
+            vrs -> {
+              for (VirtualRouter vr : vrs) {
                 vr.initOspfExports();
               }
             });
@@ -330,14 +458,14 @@ class IncrementalBdpEngine {
                   + iteration
                   + ": Propagate OSPF external routes: subIteration: "
                   + ospfExternalSubIterations,
-              nodes.size());
+              routersByNode.size());
       ospfExternalChanged.set(false);
-      nodes
+      routersByNode
           .values()
           .parallelStream()
           .forEach(
-              n -> {
-                for (VirtualRouter vr : n.getVirtualRouters().values()) {
+              vrs -> {
+                for (VirtualRouter vr : vrs) {
                   Entry<RibDelta<OspfExternalType1Route>, RibDelta<OspfExternalType2Route>> p =
                       vr.propagateOspfExternalRoutes(allNodes, topology);
                   if (p != null && vr.unstageOspfExternalRoutes(p.getKey(), p.getValue())) {
@@ -348,36 +476,37 @@ class IncrementalBdpEngine {
               });
     }
 
-    computeIterationOfBgpRoutes(nodes, iteration, allNodes, bgpTopology, networkConfigurations);
+    computeIterationOfBgpRoutes(
+        routersByNode, iteration, allNodes, bgpTopology, networkConfigurations);
   }
 
   private void computeIterationOfBgpRoutes(
-      Map<String, Node> nodes,
+      Map<String, Collection<VirtualRouter>> routersByNode,
       int iteration,
       Map<String, Node> allNodes,
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology,
       NetworkConfigurations networkConfigurations) {
     // BGP routes
     // first let's initialize nodes-level generated/aggregate routes
-    nodes
+    routersByNode
         .values()
         .parallelStream()
         .forEach(
-            n -> {
-              for (VirtualRouter vr : n.getVirtualRouters().values()) {
+            vrs -> {
+              for (VirtualRouter vr : vrs) {
                 if (vr._vrf.getBgpProcess() != null) {
                   vr.initBgpAggregateRoutes();
                 }
               }
             });
     AtomicInteger propagateBgpCompleted =
-        _newBatch.apply("Iteration " + iteration + ": Propagate BGP routes", nodes.size());
-    nodes
+        _newBatch.apply("Iteration " + iteration + ": Propagate BGP routes", routersByNode.size());
+    routersByNode
         .values()
         .parallelStream()
         .forEach(
-            n -> {
-              for (VirtualRouter vr : n.getVirtualRouters().values()) {
+            vrs -> {
+              for (VirtualRouter vr : vrs) {
                 BgpProcess proc = vr._vrf.getBgpProcess();
                 if (proc == null) {
                   continue;
@@ -547,6 +676,18 @@ class IncrementalBdpEngine {
 
     AtomicBoolean dependentRoutesChanged = new AtomicBoolean(false);
 
+    /*
+     * In worklist mode, every router has to be visited at least once per pass, since queues may
+     * have been re-initialized since the previous pass.
+     */
+    boolean useWorklist = _settings.getUseWorklist();
+    WorklistIterationState worklistState = new WorklistIterationState();
+    if (useWorklist) {
+      nodes
+          .values()
+          .forEach(n -> n.getVirtualRouters().values().forEach(VirtualRouter::markPendingWork));
+    }
+
     // Go into iteration mode, until the routes converge (or oscillation is detected)
     do {
       _numIterations++;
@@ -559,10 +700,12 @@ class IncrementalBdpEngine {
       IbdpSchedule schedule = IbdpSchedule.getSchedule(_settings, nodes, bgpTopology);
 
       // compute dependent routes for each allowable set of nodes until we cover all nodes
+      List<VirtualRouter> iterationRouters = new ArrayList<>();
       while (schedule.hasNext()) {
-        Map<String, Node> iterationNodes = schedule.next();
+        Map<String, Collection<VirtualRouter>> routersByNode = selectRouters(schedule.next());
         computeDependentRoutesIteration(
-            iterationNodes, topology, _numIterations, nodes, bgpTopology, networkConfigurations);
+            routersByNode, topology, _numIterations, nodes, bgpTopology, networkConfigurations);
+        routersByNode.values().forEach(iterationRouters::addAll);
       }
 
       /*
@@ -571,7 +714,17 @@ class IncrementalBdpEngine {
        * - Compute iteration hashcode
        * - Check for oscillations
        */
-      computeIterationStatistics(nodes, ae, _numIterations);
+      if (useWorklist) {
+        // Routers whose RIBs changed this iteration need another round for dependent routes
+        iterationRouters
+            .parallelStream()
+            .filter(VirtualRouter::hasOutstandingRoutes)
+            .forEach(VirtualRouter::markPendingWork);
+        worklistState.update(nodes, iterationRouters);
+        worklistState.recordStatistics(ae, _numIterations);
+      } else {
+        computeIterationStatistics(nodes, ae, _numIterations);
+      }
 
       // Check to see if hash has changed
       AtomicInteger checkFixedPointCompleted =
@@ -579,7 +732,8 @@ class IncrementalBdpEngine {
               "Iteration " + _numIterations + ": Check if fixed-point reached", nodes.size());
 
       // This hashcode uniquely identifies the iteration (i.e., network state)
-      int iterationHashCode = computeIterationHashCode(nodes);
+      int iterationHashCode =
+          useWorklist ? worklistState.getHashCode() : computeIterationHashCode(nodes);
       SortedSet<Integer> iterationsWithThisHashCode =
           iterationsByHashCode.computeIfAbsent(iterationHashCode, h -> new TreeSet<>());
 
@@ -597,13 +751,58 @@ class IncrementalBdpEngine {
         }
       }
 
-      compareToPreviousIteration(nodes, dependentRoutesChanged, checkFixedPointCompleted);
-    } while (!areQueuesEmpty(nodes) || dependentRoutesChanged.get());
+      if (useWorklist) {
+        checkFixedPointCompleted.set(nodes.size());
+      } else {
+        compareToPreviousIteration(nodes, dependentRoutesChanged, checkFixedPointCompleted);
+      }
+    } while (useWorklist
+        ? hasPendingWork(nodes)
+        : !areQueuesEmpty(nodes) || dependentRoutesChanged.get());
 
     ae.setDependentRoutesIterations(_numIterations);
     return false; // No oscillations
   }
 
+  /**
+   * Select the virtual routers of the given nodes that should be run in the current step of an
+   * iteration. In worklist mode, only routers with pending work are selected (and their pending
+   * work is claimed). Otherwise, all routers are selected.
+   *
+   * @param nodes nodes that are scheduled for the current step, keyed by hostname
+   * @return selected virtual routers, grouped by hostname
+   */
+  private Map<String, Collection<VirtualRouter>> selectRouters(Map<String, Node> nodes) {
+    if (!_settings.getUseWorklist()) {
+      return Maps.transformValues(nodes, n -> n.getVirtualRouters().values());
+    }
+    ImmutableMap.Builder<String, Collection<VirtualRouter>> routersByNode = ImmutableMap.builder();
+    nodes.forEach(
+        (hostname, n) -> {
+          List<VirtualRouter> routers =
+              n.getVirtualRouters()
+                  .values()
+                  .stream()
+                  .filter(VirtualRouter::claimPendingWork)
+                  .collect(ImmutableList.toImmutableList());
+          if (!routers.isEmpty()) {
+            routersByNode.put(hostname, routers);
+          }
+        });
+    return routersByNode.build();
+  }
+
+  /**
+   * Check whether any router still has pending work (worklist mode only). If not, the
+   * computation has converged.
+   *
+   * @param nodes nodes to check
+   * @return true iff some router has pending work
+   */
+  private static boolean hasPendingWork(Map<String, Node> nodes) {
+    return nodes.values().parallelStream().anyMatch(Node::hasPendingWork);
+  }
+
   private static void compareToPreviousIteration(
       Map<String, Node> nodes,
       AtomicBoolean dependentRoutesChanged,
@@ -671,7 +870,7 @@ class IncrementalBdpEngine {
             .values()
             .stream()
             .flatMap(n -> n.getVirtualRouters().values().stream())
-            .mapToInt(vr -> vr.getBgpRib().getBestPathRoutes().size())
+            .mapToInt(vr -> vr.getBgpRib().getNumBestPathRoutes())
             .sum();
     ae.getBgpBestPathRibRoutesByIteration().put(dependentRoutesIterations, numBgpBestPathRibRoutes);
     int numBgpMultipathRibRoutes =
@@ -679,7 +878,7 @@ class IncrementalBdpEngine {
             .values()
             .stream()
             .flatMap(n -> n.getVirtualRouters().values().stream())
-            .mapToInt(vr -> vr.getBgpRib().getRoutes().size())
+            .mapToInt(vr -> vr.getBgpRib().getNumRoutes())
             .sum();
     ae.getBgpMultipathRibRoutesByIteration()
         .put(dependentRoutesIterations, numBgpMultipathRibRoutes);
@@ -688,7 +887,7 @@ class IncrementalBdpEngine {
             .values()
             .stream()
             .flatMap(n -> n.getVirtualRouters().values().stream())
-            .mapToInt(vr -> vr._mainRib.getRoutes().size())
+            .mapToInt(vr -> vr._mainRib.getNumRoutes())
             .sum();
     ae.getMainRibRoutesByIteration().put(dependentRoutesIterations, numMainRibRoutes);
   }
@@ -697,18 +896,16 @@ class IncrementalBdpEngine {
    * Return the main RIB routes for each node. Map structure: Hostname -&gt; VRF name -&gt; Set of
    * routes
    */
-  static SortedMap<String, SortedMap<String, SortedSet<AbstractRoute>>> getRoutes(
-      IncrementalDataPlane dp) {
-    // Scan through all Nodes and their virtual routers, retrieve main rib routes
+  static SortedMap<String, SortedMap<String, SortedSet<AbstractRoute>>> getRoutes(DataPlane dp) {
+    // Scan through all nodes and their VRFs, retrieve main rib routes
     return toImmutableSortedMap(
-        dp.getNodes(),
+        dp.getRibs(),
         Entry::getKey,
         nodeEntry ->
             toImmutableSortedMap(
-                nodeEntry.getValue().getVirtualRouters(),
+                nodeEntry.getValue(),
                 Entry::getKey,
-                vrfEntry ->
-                    ImmutableSortedSet.copyOf(vrfEntry.getValue().getMainRib().getRoutes())));
+                vrfEntry -> ImmutableSortedSet.copyOf(vrfEntry.getValue().getRoutes())));
   }
 
   /**
@@ -241,7 +241,7 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
             toImmutableSortedMap(
                 nodeEntry.getValue().getVirtualRouters(),
                 Entry::getKey,
-                vrfEntry -> vrfEntry.getValue().getPrefixTracer().summarize()));
+                vrfEntry -> vrfEntry.getValue().getPrefixTracingSummary()));
   }
 
   @Override
@@ -1,7 +1,12 @@
 package org.batfish.dataplane.ibdp;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.google.auto.service.AutoService;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -9,6 +14,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.batfish.common.Version;
 import org.batfish.common.plugin.DataPlanePlugin;
 import org.batfish.common.plugin.ITracerouteEngine;
 import org.batfish.common.plugin.Plugin;
@@ -29,10 +37,30 @@ public class IncrementalDataPlanePlugin extends DataPlanePlugin {
 
   public static final String PLUGIN_NAME = "ibdp";
 
-  private final Map<IncrementalDataPlane, Map<Flow, Set<FlowTrace>>> _flowTraces;
+  /**
+   * Returns the key identifying the build and the settings that affect which routes are computed.
+   * Settings that only affect how the same routes are computed or stored are left out.
+   */
+  @VisibleForTesting
+  static @Nonnull String computeReuseKey(IncrementalDataPlaneSettings settings) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(Version.getBuildFingerprint(), UTF_8).putChar('\0');
+    hasher.putBoolean(settings.getCheckBgpSessionReachability());
+    // the order in which routers are processed may change the routes of oscillating networks
+    hasher.putString(settings.getScheduleName().toString(), UTF_8).putChar('\0');
+    hasher.putString(settings.getColoringType().toString(), UTF_8);
+    return hasher.hash().toString();
+  }
+
+  private final Map<DataPlane, Map<Flow, Set<FlowTrace>>> _flowTraces;
 
   private IncrementalBdpEngine _engine;
 
+  /** The reuse key of data planes computed by this plugin, before the engine alters any setting */
+  private String _reuseKey;
+
+  private IncrementalDataPlaneSettings _settings;
+
   public IncrementalDataPlanePlugin() {
     _flowTraces = new HashMap<>();
   }
@@ -41,22 +69,33 @@ public class IncrementalDataPlanePlugin extends DataPlanePlugin {
   public ComputeDataPlaneResult computeDataPlane(boolean differentialContext) {
     Map<String, Configuration> configurations = _batfish.loadConfigurations();
     Topology topology = _batfish.getEnvironmentTopology();
-    return computeDataPlane(differentialContext, configurations, topology);
+    ReferenceDataPlane reference = _settings.getReuseParentDataPlane() ? loadParent() : null;
+    return computeDataPlane(configurations, topology, reference);
   }
 
   @Override
   public ComputeDataPlaneResult computeDataPlane(
       boolean differentialContext, Map<String, Configuration> configurations, Topology topology) {
+    return computeDataPlane(configurations, topology, null);
+  }
+
+  private ComputeDataPlaneResult computeDataPlane(
+      Map<String, Configuration> configurations,
+      Topology topology,
+      @Nullable ReferenceDataPlane reference) {
     Set<BgpAdvertisement> externalAdverts = _batfish.loadExternalBgpAnnouncements(configurations);
     ComputeDataPlaneResult answer =
-        _engine.computeDataPlane(configurations, topology, externalAdverts);
+        reference == null
+            ? _engine.computeDataPlane(configurations, topology, externalAdverts)
+            : _engine.computeDataPlane(configurations, topology, externalAdverts, reference);
+    ((IncrementalBdpAnswerElement) answer._answerElement).setReuseKey(_reuseKey);
     double averageRoutes =
         ((IncrementalDataPlane) answer._dataPlane)
             .getNodes()
             .values()
             .stream()
             .flatMap(n -> n.getVirtualRouters().values().stream())
-            .mapToInt(vr -> vr._mainRib.getRoutes().size())
+            .mapToInt(vr -> vr._mainRib.getNumRoutes())
             .average()
             .orElse(0.00d);
     _logger.infof(
@@ -69,11 +108,35 @@ public class IncrementalDataPlanePlugin extends DataPlanePlugin {
 
   @Override
   protected void dataPlanePluginInitialize() {
-    _engine =
-        new IncrementalBdpEngine(
-            new IncrementalDataPlaneSettings(_batfish.getSettingsConfiguration()),
-            _batfish.getLogger(),
-            _batfish::newBatch);
+    _settings = new IncrementalDataPlaneSettings(_batfish.getSettingsConfiguration());
+    _reuseKey = computeReuseKey(_settings);
+    _engine = new IncrementalBdpEngine(_settings, _batfish.getLogger(), _batfish::newBatch);
+  }
+
+  /**
+   * Load the data plane of the snapshot the current snapshot was forked from, along with its
+   * inputs, or return {@code null} if there is none or it was computed by another build or with
+   * settings that may change its routes.
+   */
+  @Nullable
+  private ReferenceDataPlane loadParent() {
+    if (!_batfish.pushParentSnapshot(
+        answerElement ->
+            answerElement instanceof IncrementalBdpAnswerElement
+                && _reuseKey.equals(
+                    ((IncrementalBdpAnswerElement) answerElement).getReuseKey()))) {
+      return null;
+    }
+    try {
+      Map<String, Configuration> configurations = _batfish.loadConfigurations();
+      return new ReferenceDataPlane(
+          configurations,
+          _batfish.getEnvironmentTopology(),
+          _batfish.loadExternalBgpAnnouncements(configurations),
+          _batfish.loadDataPlane());
+    } finally {
+      _batfish.popSnapshot();
+    }
   }
 
   @Override
@@ -83,8 +146,7 @@ public class IncrementalDataPlanePlugin extends DataPlanePlugin {
 
   @Override
   public List<Flow> getHistoryFlows(DataPlane dataPlane) {
-    IncrementalDataPlane dp = (IncrementalDataPlane) dataPlane;
-    Map<Flow, Set<FlowTrace>> traces = _flowTraces.get(dp);
+    Map<Flow, Set<FlowTrace>> traces = _flowTraces.get(dataPlane);
     if (traces == null) {
       return ImmutableList.of();
     }
@@ -97,8 +159,7 @@ public class IncrementalDataPlanePlugin extends DataPlanePlugin {
 
   @Override
   public List<FlowTrace> getHistoryFlowTraces(DataPlane dataPlane) {
-    IncrementalDataPlane dp = (IncrementalDataPlane) dataPlane;
-    Map<Flow, Set<FlowTrace>> traces = _flowTraces.get(dp);
+    Map<Flow, Set<FlowTrace>> traces = _flowTraces.get(dataPlane);
     if (traces == null) {
       return ImmutableList.of();
     }
@@ -107,13 +168,13 @@ public class IncrementalDataPlanePlugin extends DataPlanePlugin {
 
   @Override
   public SortedMap<String, SortedMap<String, SortedSet<AbstractRoute>>> getRoutes(DataPlane dp) {
-    return IncrementalBdpEngine.getRoutes((IncrementalDataPlane) dp);
+    return IncrementalBdpEngine.getRoutes(dp);
   }
 
   @Override
   public void processFlows(Set<Flow> flows, DataPlane dataPlane, boolean ignoreFilters) {
     _flowTraces.put(
-        (IncrementalDataPlane) dataPlane,
+        dataPlane,
         TracerouteEngineImpl.getInstance()
             .processFlows(dataPlane, flows, dataPlane.getFibs(), ignoreFilters));
   }
@@ -125,10 +186,6 @@ public class IncrementalDataPlanePlugin extends DataPlanePlugin {
         .buildFlows(dataPlane, flows, dataPlane.getFibs(), ignoreFilters);
   }
 
-  private IncrementalDataPlane loadDataPlane() {
-    return (IncrementalDataPlane) _batfish.loadDataPlane();
-  }
-
   @Override
   public String getName() {
     return PLUGIN_NAME;
@@ -10,6 +10,7 @@ import org.apache.commons.configuration2.PropertiesConfiguration;
 import org.batfish.dataplane.ibdp.schedule.IbdpSchedule.Schedule;
 import org.batfish.dataplane.ibdp.schedule.NodeColoredSchedule;
 import org.batfish.dataplane.ibdp.schedule.NodeColoredSchedule.Coloring;
+import org.batfish.dataplane.rib.RibTreeType;
 
 /** Settings for {@link IncrementalDataPlanePlugin} */
 public class IncrementalDataPlaneSettings {
@@ -20,6 +21,9 @@ public class IncrementalDataPlaneSettings {
   public static final String PROP_SCHEDULE = "schedule";
   public static final String PROP_LOG_ROUTES = "logiterationroutes";
   public static final String PROP_CHECK_BGP_REACHABILITY = "checkbgpsessionreachability";
+  public static final String PROP_USE_WORKLIST = "useworklist";
+  public static final String PROP_RIB_TREE = "ribtree";
+  public static final String PROP_REUSE_PARENT_DATA_PLANE = "reuseparentdataplane";
 
   /**
    * Return the underlying configuration (it will be mutable).
@@ -53,6 +57,9 @@ public class IncrementalDataPlaneSettings {
     _config.setProperty(PROP_SCHEDULE, NODE_COLORED.toString());
     _config.setProperty(PROP_LOG_ROUTES, true);
     _config.setProperty(PROP_CHECK_BGP_REACHABILITY, true);
+    _config.setProperty(PROP_USE_WORKLIST, false);
+    _config.setProperty(PROP_RIB_TREE, RibTreeType.STANDARD.toString());
+    _config.setProperty(PROP_REUSE_PARENT_DATA_PLANE, false);
   }
 
   /** Return the dataplane computation {@link Schedule} */
@@ -65,6 +72,55 @@ public class IncrementalDataPlaneSettings {
     return _config.getBoolean(PROP_CHECK_BGP_REACHABILITY);
   }
 
+  /**
+   * Whether each dataplane iteration should only visit virtual routers with pending work (i.e.,
+   * routers that received route advertisements or whose main RIB changed in the previous
+   * iteration)
+   */
+  public boolean getUseWorklist() {
+    return _config.getBoolean(PROP_USE_WORKLIST);
+  }
+
+  /**
+   * Set whether each dataplane iteration should only visit virtual routers with pending work
+   *
+   * @param useWorklist whether to enable worklist mode
+   */
+  public void setUseWorklist(boolean useWorklist) {
+    _config.setProperty(PROP_USE_WORKLIST, useWorklist);
+  }
+
+  /**
+   * Whether to compute the dataplane of a snapshot forked from another by reusing the converged
+   * routes of the parent snapshot for nodes the changes cannot affect
+   */
+  public boolean getReuseParentDataPlane() {
+    return _config.getBoolean(PROP_REUSE_PARENT_DATA_PLANE);
+  }
+
+  /**
+   * Set whether to reuse the converged routes of the parent snapshot
+   *
+   * @param reuseParentDataPlane whether to enable reuse
+   */
+  public void setReuseParentDataPlane(boolean reuseParentDataPlane) {
+    _config.setProperty(PROP_REUSE_PARENT_DATA_PLANE, reuseParentDataPlane);
+  }
+
+  /** Return the {@link RibTreeType} used to store the routes of each RIB */
+  public RibTreeType getRibTreeType() {
+    return RibTreeType.valueOf(_config.getString(PROP_RIB_TREE));
+  }
+
+  /**
+   * Set the {@link RibTreeType} used to store the routes of each RIB
+   *
+   * @param ribTreeType the new RIB tree type
+   */
+  public void setRibTreeType(RibTreeType ribTreeType) {
+    _config.setProperty(PROP_RIB_TREE, ribTreeType.toString());
+  }
+
   /**
    * Set the dataplane computation {@link Schedule}
    *
@@ -5,6 +5,7 @@ import java.io.Serializable;
 import java.util.SortedMap;
 import javax.annotation.Nonnull;
 import org.batfish.datamodel.Configuration;
+import org.batfish.dataplane.rib.RibTreeType;
 
 /** Dataplane-specific encapsulation of {@link Configuration} */
 public final class Node implements Serializable {
@@ -22,10 +23,21 @@ public final class Node implements Serializable {
    * @param configuration the {@link Configuration} backing this node
    */
   public Node(@Nonnull Configuration configuration) {
+    this(configuration, RibTreeType.STANDARD);
+  }
+
+  /**
+   * Create a new node based on the configuration, whose RIBs store their routes in trees of the
+   * given type.
+   *
+   * @param configuration the {@link Configuration} backing this node
+   * @param ribTreeType the kind of tree storing the routes of each RIB
+   */
+  public Node(@Nonnull Configuration configuration, @Nonnull RibTreeType ribTreeType) {
     _c = configuration;
     ImmutableSortedMap.Builder<String, VirtualRouter> b = ImmutableSortedMap.naturalOrder();
     for (String vrfName : _c.getVrfs().keySet()) {
-      VirtualRouter vr = new VirtualRouter(vrfName, _c);
+      VirtualRouter vr = new VirtualRouter(vrfName, _c, ribTreeType);
       b.put(vrfName, vr);
     }
     _virtualRouters = b.build();
@@ -37,6 +49,14 @@ public final class Node implements Serializable {
     return _c;
   }
 
+  /**
+   * Check whether any virtual router at this node has pending work in the current dataplane
+   * iteration (see {@link IncrementalDataPlaneSettings#getUseWorklist()})
+   */
+  public boolean hasPendingWork() {
+    return _virtualRouters.values().stream().anyMatch(VirtualRouter::hasPendingWork);
+  }
+
   /**
    * Return the virtual routers at this node
    *
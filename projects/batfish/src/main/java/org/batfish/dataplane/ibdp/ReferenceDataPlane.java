@@ -0,0 +1,184 @@
+package org.batfish.dataplane.ibdp;
+
+import static org.batfish.common.topology.TopologyUtil.computeIpNodeOwners;
+import static org.batfish.datamodel.bgp.BgpTopologyUtils.initBgpTopology;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.BatfishException;
+import org.batfish.datamodel.BgpAdvertisement;
+import org.batfish.datamodel.BgpPeerConfigId;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.Edge;
+import org.batfish.datamodel.Topology;
+
+/**
+ * The converged data plane of a reference snapshot, such as the snapshot a snapshot was forked
+ * from, along with the inputs it was computed from.
+ *
+ * <p>The routes of a node only depend on the nodes it shares a layer-3 edge or a candidate BGP
+ * session with. So the converged routes of the nodes in a connected component of these
+ * dependencies stay the same unless one of those nodes changes: its configuration, its edges, its
+ * candidate BGP sessions or the external BGP advertisements it receives.
+ */
+@ParametersAreNonnullByDefault
+final class ReferenceDataPlane {
+
+  /** The inputs of the data plane computation of a snapshot, grouped by node. */
+  private static final class Inputs {
+
+    private final Map<String, Set<EndpointPair<BgpPeerConfigId>>> _bgpEdges;
+
+    private final Map<String, HashCode> _configurationHashes;
+
+    private final Map<String, Set<Edge>> _edges;
+
+    private final Map<String, Set<BgpAdvertisement>> _externalAdverts;
+
+    /** Nodes each node shares a layer-3 edge or a candidate BGP session with */
+    private final Map<String, Set<String>> _neighbors;
+
+    private Inputs(
+        Map<String, Configuration> configurations,
+        Topology topology,
+        Set<BgpAdvertisement> externalAdverts) {
+      _bgpEdges = new HashMap<>();
+      _configurationHashes =
+          configurations
+              .entrySet()
+              .parallelStream()
+              .collect(
+                  ImmutableMap.toImmutableMap(
+                      Map.Entry::getKey, e -> hashConfiguration(e.getValue())));
+      _edges = new HashMap<>();
+      _externalAdverts = new HashMap<>();
+      _neighbors = new HashMap<>();
+      for (Edge edge : topology.getEdges()) {
+        addNeighbors(edge.getNode1(), edge.getNode2());
+        _edges.computeIfAbsent(edge.getNode1(), n -> new HashSet<>()).add(edge);
+        _edges.computeIfAbsent(edge.getNode2(), n -> new HashSet<>()).add(edge);
+      }
+      // candidate sessions, whether or not they are established
+      ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
+          initBgpTopology(configurations, computeIpNodeOwners(configurations, true), true);
+      for (EndpointPair<BgpPeerConfigId> session : bgpTopology.edges()) {
+        String source = session.source().getHostname();
+        String target = session.target().getHostname();
+        addNeighbors(source, target);
+        _bgpEdges.computeIfAbsent(source, n -> new HashSet<>()).add(session);
+        _bgpEdges.computeIfAbsent(target, n -> new HashSet<>()).add(session);
+      }
+      for (BgpAdvertisement advert : externalAdverts) {
+        _externalAdverts.computeIfAbsent(advert.getDstNode(), n -> new HashSet<>()).add(advert);
+      }
+    }
+
+    private void addNeighbors(String node1, String node2) {
+      _neighbors.computeIfAbsent(node1, n -> new HashSet<>()).add(node2);
+      _neighbors.computeIfAbsent(node2, n -> new HashSet<>()).add(node1);
+    }
+
+    /** Whether node {@code hostname} has the same inputs in {@code this} and {@code other} */
+    private boolean sameInputs(String hostname, Inputs other) {
+      return Objects.equals(
+              _configurationHashes.get(hostname), other._configurationHashes.get(hostname))
+          && Objects.equals(_edges.get(hostname), other._edges.get(hostname))
+          && Objects.equals(_bgpEdges.get(hostname), other._bgpEdges.get(hostname))
+          && Objects.equals(_externalAdverts.get(hostname), other._externalAdverts.get(hostname));
+    }
+  }
+
+  /**
+   * Hash all the serialized state of {@code configuration}. Equal configurations may hash
+   * differently (e.g., if their maps iterate in different orders), which only prevents reuse.
+   */
+  private static @Nonnull HashCode hashConfiguration(Configuration configuration) {
+    HashingOutputStream out =
+        new HashingOutputStream(Hashing.sha256(), ByteStreams.nullOutputStream());
+    try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+      oos.writeObject(configuration);
+    } catch (IOException e) {
+      throw new BatfishException(
+          "Failed to hash configuration of " + configuration.getHostname(), e);
+    }
+    return out.hash();
+  }
+
+  private final DataPlane _dataPlane;
+
+  private final Inputs _inputs;
+
+  /**
+   * Create a reference from the converged {@code dataPlane} of a snapshot with the given {@code
+   * configurations}, {@code topology} and {@code externalAdverts}.
+   */
+  ReferenceDataPlane(
+      Map<String, Configuration> configurations,
+      Topology topology,
+      Set<BgpAdvertisement> externalAdverts,
+      DataPlane dataPlane) {
+    _dataPlane = dataPlane;
+    _inputs = new Inputs(configurations, topology, externalAdverts);
+  }
+
+  /**
+   * Compute the nodes of a snapshot whose converged routes are those of the same nodes in the
+   * reference data plane: the nodes of connected components (of layer-3 edges and candidate BGP
+   * sessions) in which no node changed. The nodes of every other component, i.e. changed nodes and
+   * their routing neighbors transitively, must be recomputed.
+   *
+   * @param configurations configurations of the snapshot, keyed by hostname
+   * @param topology the layer-3 topology of the snapshot
+   * @param externalAdverts external BGP advertisements of the snapshot
+   */
+  @Nonnull
+  Set<String> computeReusableNodes(
+      Map<String, Configuration> configurations,
+      Topology topology,
+      Set<BgpAdvertisement> externalAdverts) {
+    Inputs inputs = new Inputs(configurations, topology, externalAdverts);
+    Deque<String> changed = new ArrayDeque<>();
+    for (String hostname : configurations.keySet()) {
+      if (!inputs.sameInputs(hostname, _inputs)) {
+        changed.add(hostname);
+      }
+    }
+    Set<String> recomputed = new HashSet<>();
+    while (!changed.isEmpty()) {
+      String hostname = changed.pop();
+      if (recomputed.add(hostname)) {
+        changed.addAll(inputs._neighbors.getOrDefault(hostname, ImmutableSet.of()));
+      }
+    }
+    return configurations
+        .keySet()
+        .stream()
+        .filter(hostname -> !recomputed.contains(hostname))
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  /** Return the converged data plane of the reference snapshot */
+  @Nonnull
+  DataPlane getDataPlane() {
+    return _dataPlane;
+  }
+}
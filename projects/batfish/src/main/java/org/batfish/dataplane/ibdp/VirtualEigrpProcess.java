@@ -39,6 +39,7 @@ import org.batfish.dataplane.rib.EigrpInternalRib;
 import org.batfish.dataplane.rib.EigrpRib;
 import org.batfish.dataplane.rib.Rib;
 import org.batfish.dataplane.rib.RibDelta;
+import org.batfish.dataplane.rib.RibTreeType;
 import org.batfish.dataplane.rib.RouteAdvertisement;
 import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
 
@@ -68,6 +69,9 @@ class VirtualEigrpProcess {
   /** Helper RIBs containing EIGRP internal and external paths. */
   private final EigrpRib _rib;
 
+  /** The kind of tree storing the routes of each RIB of this process */
+  private final RibTreeType _ribTreeType;
+
   /** Routing policy to determine whether and how to export */
   @Nullable private final RoutingPolicy _exportPolicy;
 
@@ -78,17 +82,26 @@ class VirtualEigrpProcess {
   private EigrpExternalRib _externalStagingRib;
 
   VirtualEigrpProcess(final EigrpProcess process, final String vrfName, final Configuration c) {
+    this(process, vrfName, c, RibTreeType.STANDARD);
+  }
+
+  VirtualEigrpProcess(
+      final EigrpProcess process,
+      final String vrfName,
+      final Configuration c,
+      final RibTreeType ribTreeType) {
     _asn = process.getAsn();
     _defaultExternalAdminCost =
         RoutingProtocol.EIGRP_EX.getDefaultAdministrativeCost(c.getConfigurationFormat());
     _defaultInternalAdminCost =
         RoutingProtocol.EIGRP.getDefaultAdministrativeCost(c.getConfigurationFormat());
-    _externalRib = new EigrpExternalRib();
-    _externalStagingRib = new EigrpExternalRib();
+    _externalRib = new EigrpExternalRib(ribTreeType);
+    _externalStagingRib = new EigrpExternalRib(ribTreeType);
     _interfaces = new ArrayList<>();
-    _internalRib = new EigrpInternalRib();
-    _internalStagingRib = new EigrpInternalRib();
-    _rib = new EigrpRib();
+    _internalRib = new EigrpInternalRib(ribTreeType);
+    _internalStagingRib = new EigrpInternalRib(ribTreeType);
+    _rib = new EigrpRib(ribTreeType);
+    _ribTreeType = ribTreeType;
     _vrfName = vrfName;
 
     /*
@@ -182,7 +195,7 @@ class VirtualEigrpProcess {
    * @return integer hashcode
    */
   int computeIterationHashCode() {
-    return _externalRib.getRoutes().hashCode()
+    return _externalRib.getRoutesHashCode()
         + _incomingRoutes
             .values()
             .stream()
@@ -364,17 +377,19 @@ class VirtualEigrpProcess {
   private void queueOutgoingExternalRoutes(
       Map<String, Node> allNodes, @Nullable RibDelta<EigrpExternalRoute> delta) {
     // Loop over neighbors, enqueue messages
+    if (delta == null) {
+      return;
+    }
     for (EigrpEdge edge : _incomingRoutes.keySet()) {
+      VirtualRouter remoteVr =
+          allNodes
+              .get(edge.getNode1().getHostname())
+              .getVirtualRouters()
+              .get(edge.getNode1().getVrf());
       Queue<RouteAdvertisement<EigrpExternalRoute>> queue =
-          requireNonNull(
-                  allNodes
-                      .get(edge.getNode1().getHostname())
-                      .getVirtualRouters()
-                      .get(edge.getNode1().getVrf())
-                      .getEigrpProcess(_asn))
-              ._incomingRoutes
-              .get(edge.reverse());
+          requireNonNull(remoteVr.getEigrpProcess(_asn))._incomingRoutes.get(edge.reverse());
       VirtualRouter.queueDelta(queue, delta);
+      remoteVr.markPendingWork();
     }
   }
 
@@ -383,7 +398,7 @@ class VirtualEigrpProcess {
     /*
      * Staging RIBs can be re-initialized
      */
-    _externalStagingRib = new EigrpExternalRib();
+    _externalStagingRib = new EigrpExternalRib(_ribTreeType);
     /*
      * Re-add independent EIGRP routes to eigrpRib for tie-breaking
      */
@@ -19,6 +19,8 @@ import com.google.common.graph.Network;
 import com.google.common.graph.ValueGraph;
 import java.io.Serializable;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -30,6 +32,7 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -110,6 +113,7 @@ import org.batfish.dataplane.rib.OspfRib;
 import org.batfish.dataplane.rib.Rib;
 import org.batfish.dataplane.rib.RibDelta;
 import org.batfish.dataplane.rib.RibDelta.Builder;
+import org.batfish.dataplane.rib.RibTreeType;
 import org.batfish.dataplane.rib.RipInternalRib;
 import org.batfish.dataplane.rib.RipRib;
 import org.batfish.dataplane.rib.RouteAdvertisement;
@@ -227,18 +231,38 @@ public class VirtualRouter implements Serializable {
 
   private transient Map<Prefix, OspfLink> _ospfNeighbors;
 
+  /**
+   * Whether this router received route advertisements or had unmerged main RIB changes since it
+   * was last run in a dataplane iteration
+   */
+  private final transient AtomicBoolean _pendingWork = new AtomicBoolean(true);
+
   /** Metadata about propagated prefixes to/from neighbors */
   private PrefixTracer _prefixTracer;
 
+  /**
+   * Summary of {@link #_prefixTracer} taken from a reference data plane, if the routes of this
+   * router were reused rather than computed
+   */
+  @Nullable private Map<Prefix, Map<String, Set<String>>> _prefixTracingSummary;
+
   /** List of all EIGRP processes in this VRF */
   @VisibleForTesting transient ImmutableMap<Long, VirtualEigrpProcess> _virtualEigrpProcesses;
 
+  /** The kind of tree storing the routes of each RIB of this router */
+  private final RibTreeType _ribTreeType;
+
   /** A {@link Vrf} that this virtual router represents */
   final Vrf _vrf;
 
   VirtualRouter(final String name, final Configuration c) {
+    this(name, c, RibTreeType.STANDARD);
+  }
+
+  VirtualRouter(final String name, final Configuration c, final RibTreeType ribTreeType) {
     _c = c;
     _name = name;
+    _ribTreeType = ribTreeType;
     _vrf = c.getVrfs().get(name);
     initRibs();
     _bgpIncomingRoutes = new TreeMap<>();
@@ -298,7 +322,7 @@ public class VirtualRouter implements Serializable {
         _vrf.getEigrpProcesses()
             .values()
             .stream()
-            .map(eigrpProcess -> new VirtualEigrpProcess(eigrpProcess, _name, _c))
+            .map(eigrpProcess -> new VirtualEigrpProcess(eigrpProcess, _name, _c, _ribTreeType))
             .collect(ImmutableMap.toImmutableMap(VirtualEigrpProcess::getAsn, Function.identity()));
   }
 
@@ -1150,13 +1174,13 @@ public class VirtualRouter implements Serializable {
   @VisibleForTesting
   final void initRibs() {
     // Non-learned-protocol RIBs
-    _connectedRib = new ConnectedRib();
-    _localRib = new LocalRib();
-    _generatedRib = new Rib();
-    _independentRib = new Rib();
+    _connectedRib = new ConnectedRib(_ribTreeType);
+    _localRib = new LocalRib(_ribTreeType);
+    _generatedRib = new Rib(_ribTreeType);
+    _independentRib = new Rib(_ribTreeType);
 
     // Main RIB + delta builder
-    _mainRib = new Rib();
+    _mainRib = new Rib(_ribTreeType);
     _mainRibRouteDeltaBuiler = new RibDelta.Builder<>(_mainRib);
 
     // BGP
@@ -1169,52 +1193,55 @@ public class VirtualRouter implements Serializable {
             _mainRib,
             tieBreaker,
             proc == null || proc.getMultipathEbgp() ? null : 1,
-            mpTieBreaker);
+            mpTieBreaker,
+            _ribTreeType);
     _ibgpRib =
         new BgpRib(
             null,
             _mainRib,
             tieBreaker,
             proc == null || proc.getMultipathIbgp() ? null : 1,
-            mpTieBreaker);
+            mpTieBreaker,
+            _ribTreeType);
     _bgpRib =
         new BgpRib(
             null,
             _mainRib,
             tieBreaker,
             proc == null || proc.getMultipathEbgp() || proc.getMultipathIbgp() ? null : 1,
-            mpTieBreaker);
+            mpTieBreaker,
+            _ribTreeType);
     _bgpDeltaBuilder = new RibDelta.Builder<>(_bgpRib);
 
-    _ebgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker);
-    _ibgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker);
+    _ebgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker, _ribTreeType);
+    _ibgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker, _ribTreeType);
 
     // ISIS
-    _isisRib = new IsisRib(isL1Only());
-    _isisL1Rib = new IsisLevelRib(new TreeMap<>());
-    _isisL2Rib = new IsisLevelRib(new TreeMap<>());
-    _isisL1StagingRib = new IsisLevelRib(null);
-    _isisL2StagingRib = new IsisLevelRib(null);
+    _isisRib = new IsisRib(isL1Only(), _ribTreeType);
+    _isisL1Rib = new IsisLevelRib(new TreeMap<>(), _ribTreeType);
+    _isisL2Rib = new IsisLevelRib(new TreeMap<>(), _ribTreeType);
+    _isisL1StagingRib = new IsisLevelRib(null, _ribTreeType);
+    _isisL2StagingRib = new IsisLevelRib(null, _ribTreeType);
 
     // OSPF
-    _ospfExternalType1Rib = new OspfExternalType1Rib(getHostname(), new TreeMap<>());
-    _ospfExternalType2Rib = new OspfExternalType2Rib(getHostname(), new TreeMap<>());
-    _ospfExternalType1StagingRib = new OspfExternalType1Rib(getHostname(), null);
-    _ospfExternalType2StagingRib = new OspfExternalType2Rib(getHostname(), null);
-    _ospfInterAreaRib = new OspfInterAreaRib();
-    _ospfInterAreaStagingRib = new OspfInterAreaRib();
-    _ospfIntraAreaRib = new OspfIntraAreaRib();
-    _ospfIntraAreaStagingRib = new OspfIntraAreaRib();
-    _ospfRib = new OspfRib();
+    _ospfExternalType1Rib = new OspfExternalType1Rib(getHostname(), new TreeMap<>(), _ribTreeType);
+    _ospfExternalType2Rib = new OspfExternalType2Rib(getHostname(), new TreeMap<>(), _ribTreeType);
+    _ospfExternalType1StagingRib = new OspfExternalType1Rib(getHostname(), null, _ribTreeType);
+    _ospfExternalType2StagingRib = new OspfExternalType2Rib(getHostname(), null, _ribTreeType);
+    _ospfInterAreaRib = new OspfInterAreaRib(_ribTreeType);
+    _ospfInterAreaStagingRib = new OspfInterAreaRib(_ribTreeType);
+    _ospfIntraAreaRib = new OspfIntraAreaRib(_ribTreeType);
+    _ospfIntraAreaStagingRib = new OspfIntraAreaRib(_ribTreeType);
+    _ospfRib = new OspfRib(_ribTreeType);
 
     // RIP
-    _ripInternalRib = new RipInternalRib();
-    _ripInternalStagingRib = new RipInternalRib();
-    _ripRib = new RipRib();
+    _ripInternalRib = new RipInternalRib(_ribTreeType);
+    _ripInternalStagingRib = new RipInternalRib(_ribTreeType);
+    _ripRib = new RipRib(_ribTreeType);
 
     // Static
-    _staticNextHopRib = new StaticRib();
-    _staticInterfaceRib = new StaticRib();
+    _staticNextHopRib = new StaticRib(_ribTreeType);
+    _staticInterfaceRib = new StaticRib(_ribTreeType);
   }
 
   private BgpTieBreaker getBestPathTieBreaker() {
@@ -1956,6 +1983,9 @@ public class VirtualRouter implements Serializable {
   /**
    * Queue advertised BGP routes to all BGP neighbors.
    *
+   * <p>Sessions are grouped into update groups (see {@link BgpUpdateGroupKey}); each route is
+   * exported once per group and the result is shared by all sessions of the group.
+   *
    * @param ebgpBestPathDelta {@link RibDelta} indicating what changed in the {@link #_ebgpRib}
    * @param bgpMultiPathDelta a {@link RibDelta} indicating what changed in the {@link #_bgpRib}
    * @param mainDelta a {@link RibDelta} indicating what changed in the {@link #_mainRib}
@@ -1969,6 +1999,8 @@ public class VirtualRouter implements Serializable {
       final Map<String, Node> allNodes,
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology,
       NetworkConfigurations networkConfigurations) {
+    Map<BgpUpdateGroupKey, RibDelta<AbstractRoute>> routesToExportByGroup = new HashMap<>();
+    Map<BgpUpdateGroupKey, Map<AbstractRoute, GroupExport>> exportsByGroup = new HashMap<>();
     for (BgpEdgeId edge : _bgpIncomingRoutes.keySet()) {
       final BgpSessionProperties session = getBgpSessionProperties(bgpTopology, edge);
 
@@ -1981,40 +2013,17 @@ public class VirtualRouter implements Serializable {
         continue;
       }
 
-      Builder<AbstractRoute> finalBuilder = new Builder<>(null);
-
-      // Definitely queue mainRib updates
-      finalBuilder.from(mainDelta);
-      // These knobs control which additional BGP routes get advertised
-      if (session.getAdvertiseExternal()) {
-        /*
-         * Advertise external ensures that even if we withdrew an external route from the RIB
-         */
-        finalBuilder.from(ebgpBestPathDelta);
-      }
-      if (session.getAdvertiseInactive()) {
-        /*
-         * In case BGP routes were deleted from the main RIB
-         * (e.g., preempted by a better IGP route)
-         * and advertiseInactive is true, re-add inactive BGP routes from the BGP best-path RIB.
-         * If the BGP routes are already active, this will have no effect.
-         */
-        if (mainDelta != null) {
-          for (Prefix p : mainDelta.getPrefixes()) {
-            if (_bgpRib.getRoutes(p) == null) {
-              continue;
-            }
-            finalBuilder.add(_bgpRib.getRoutes(p));
-          }
-        }
-      }
-      if (session.getAdditionalPaths()) {
-        finalBuilder.from(bgpMultiPathDelta);
-      }
-      RibDelta<AbstractRoute> routesToExport = finalBuilder.build();
+      BgpUpdateGroupKey group = BgpUpdateGroupKey.of(ourConfig, remoteConfig, session);
+      RibDelta<AbstractRoute> routesToExport =
+          routesToExportByGroup.computeIfAbsent(
+              group,
+              g -> computeRoutesToExport(session, ebgpBestPathDelta, bgpMultiPathDelta, mainDelta));
       if (routesToExport == null) {
         continue;
       }
+      // routesToExport is shared by the group, so its routes can be told apart by identity
+      Map<AbstractRoute, GroupExport> groupExports =
+          exportsByGroup.computeIfAbsent(group, g -> new IdentityHashMap<>());
 
       // Compute a set of advertisements that can be queued on remote VR
       Set<RouteAdvertisement<BgpRoute>> exportedAdvertisements =
@@ -2026,10 +2035,12 @@ public class VirtualRouter implements Serializable {
                     BgpRoute transformedRoute =
                         exportBgpRoute(
                             adv.getRoute(),
+                            groupExports,
                             ourConfigId,
                             remoteConfigId,
                             ourConfig,
                             remoteConfig,
+                            remoteVirtualRouter,
                             allNodes,
                             session);
                     return transformedRoute == null
@@ -2048,6 +2059,49 @@ public class VirtualRouter implements Serializable {
     }
   }
 
+  /**
+   * Returns the routes to advertise on a session with the given properties, or {@code null} if
+   * there are none.
+   */
+  @Nullable
+  private RibDelta<AbstractRoute> computeRoutesToExport(
+      BgpSessionProperties session,
+      RibDelta<BgpRoute> ebgpBestPathDelta,
+      @Nullable RibDelta<BgpRoute> bgpMultiPathDelta,
+      @Nullable RibDelta<AbstractRoute> mainDelta) {
+    Builder<AbstractRoute> finalBuilder = new Builder<>(null);
+
+    // Definitely queue mainRib updates
+    finalBuilder.from(mainDelta);
+    // These knobs control which additional BGP routes get advertised
+    if (session.getAdvertiseExternal()) {
+      /*
+       * Advertise external ensures that even if we withdrew an external route from the RIB
+       */
+      finalBuilder.from(ebgpBestPathDelta);
+    }
+    if (session.getAdvertiseInactive()) {
+      /*
+       * In case BGP routes were deleted from the main RIB
+       * (e.g., preempted by a better IGP route)
+       * and advertiseInactive is true, re-add inactive BGP routes from the BGP best-path RIB.
+       * If the BGP routes are already active, this will have no effect.
+       */
+      if (mainDelta != null) {
+        for (Prefix p : mainDelta.getPrefixes()) {
+          if (_bgpRib.getRoutes(p) == null) {
+            continue;
+          }
+          finalBuilder.add(_bgpRib.getRoutes(p));
+        }
+      }
+    }
+    if (session.getAdditionalPaths()) {
+      finalBuilder.from(bgpMultiPathDelta);
+    }
+    return finalBuilder.build();
+  }
+
   private static BgpSessionProperties getBgpSessionProperties(
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology, BgpEdgeId edge) {
     /*
@@ -2119,6 +2173,9 @@ public class VirtualRouter implements Serializable {
                   queueDelta(queue, upgradedRoutes.build());
                 }
               }
+              if (l1delta != null || l2delta != null) {
+                remoteVr.markPendingWork();
+              }
             });
   }
 
@@ -2147,6 +2204,9 @@ public class VirtualRouter implements Serializable {
                 ospfLink._remoteVirtualRouter._ospfExternalIncomingRoutes.get(key);
             queueDelta(q, type1delta);
             queueDelta(q, type2delta);
+            if (type1delta != null || type2delta != null) {
+              ospfLink._remoteVirtualRouter.markPendingWork();
+            }
           });
     }
   }
@@ -2252,18 +2312,18 @@ public class VirtualRouter implements Serializable {
     /*
      * RIBs not read from can just be re-initialized
      */
-    _ospfRib = new OspfRib();
-    _ripRib = new RipRib();
+    _ospfRib = new OspfRib(_ribTreeType);
+    _ripRib = new RipRib(_ribTreeType);
 
     /*
      * Staging RIBs can also be re-initialized
      */
     BgpTieBreaker tieBreaker = getBestPathTieBreaker();
     MultipathEquivalentAsPathMatchMode mpTieBreaker = getBgpMpTieBreaker();
-    _ebgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker);
-    _ibgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker);
-    _ospfExternalType1StagingRib = new OspfExternalType1Rib(getHostname(), null);
-    _ospfExternalType2StagingRib = new OspfExternalType2Rib(getHostname(), null);
+    _ebgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker, _ribTreeType);
+    _ibgpStagingRib = new BgpRib(null, _mainRib, tieBreaker, null, mpTieBreaker, _ribTreeType);
+    _ospfExternalType1StagingRib = new OspfExternalType1Rib(getHostname(), null, _ribTreeType);
+    _ospfExternalType2StagingRib = new OspfExternalType2Rib(getHostname(), null, _ribTreeType);
 
     /*
      * Add routes that cannot change (does not affect below computation)
@@ -2316,6 +2376,31 @@ public class VirtualRouter implements Serializable {
         || _bgpDeltaBuilder.build() != null;
   }
 
+  /**
+   * Schedule this router to be run in the next dataplane iteration (used when the dataplane is
+   * computed in worklist mode).
+   */
+  void markPendingWork() {
+    _pendingWork.set(true);
+  }
+
+  /**
+   * Check if this router received route advertisements or had unmerged main RIB changes since it
+   * was last run.
+   */
+  boolean hasPendingWork() {
+    return _pendingWork.get();
+  }
+
+  /**
+   * Atomically clear the pending work flag of this router.
+   *
+   * @return true if this router had pending work, i.e., it needs to be run
+   */
+  boolean claimPendingWork() {
+    return _pendingWork.getAndSet(false);
+  }
+
   /**
    * Check if this router has processed all its incoming BGP messages (i.e., all router queues are
    * empty)
@@ -2379,6 +2464,9 @@ public class VirtualRouter implements Serializable {
   private void enqueueBgpMessages(
       @Nonnull BgpEdgeId edgeId, @Nonnull Set<RouteAdvertisement<BgpRoute>> routes) {
     _bgpIncomingRoutes.get(edgeId).addAll(routes);
+    if (!routes.isEmpty()) {
+      markPendingWork();
+    }
   }
 
   /** Deal with a newly established BGP session. */
@@ -2562,9 +2650,9 @@ public class VirtualRouter implements Serializable {
    * @return integer hashcode
    */
   int computeIterationHashCode() {
-    return _mainRib.getRoutes().hashCode()
-        + _ospfExternalType1Rib.getRoutes().hashCode()
-        + _ospfExternalType2Rib.getRoutes().hashCode()
+    return _mainRib.getRoutesHashCode()
+        + _ospfExternalType1Rib.getRoutesHashCode()
+        + _ospfExternalType2Rib.getRoutesHashCode()
         + _bgpIncomingRoutes
             .values()
             .stream()
@@ -2594,6 +2682,160 @@ public class VirtualRouter implements Serializable {
     return _prefixTracer;
   }
 
+  /** Return the summary of prefix tracing information, see {@link PrefixTracer#summarize()} */
+  Map<Prefix, Map<String, Set<String>>> getPrefixTracingSummary() {
+    return _prefixTracingSummary != null ? _prefixTracingSummary : _prefixTracer.summarize();
+  }
+
+  /**
+   * Install the converged routes of an identical router in a reference data plane, instead of
+   * computing them, and compute the FIB.
+   *
+   * @param mainRibRoutes routes of the reference main RIB
+   * @param bgpRoutes routes of the reference BGP RIB
+   * @param prefixTracingSummary prefix tracing summary of the reference router
+   */
+  void reuseRoutes(
+      Collection<AbstractRoute> mainRibRoutes,
+      Collection<BgpRoute> bgpRoutes,
+      @Nullable Map<Prefix, Map<String, Set<String>>> prefixTracingSummary) {
+    // Merging the converged routes selects all of them again; the main RIB goes first, since BGP
+    // best-path selection depends on IGP costs
+    mainRibRoutes.forEach(_mainRib::mergeRoute);
+    bgpRoutes.forEach(_bgpRib::mergeRoute);
+    _prefixTracingSummary = prefixTracingSummary;
+    computeFib();
+  }
+
+  /**
+   * The outcome of exporting a route once for all sessions of an update group, before the checks
+   * that depend on the receiving router.
+   */
+  private static final class GroupExport {
+
+    private static final GroupExport NOT_EXPORTABLE = new GroupExport(null, false, null);
+
+    private static final GroupExport PEER_SPECIFIC = new GroupExport(null, true, null);
+
+    /** The transformed route's cluster list, or {@code null} if the route is not exportable. */
+    @Nullable private final Set<Long> _clusterList;
+
+    /** Whether the export policy read the peer, so the route must be exported per session. */
+    private final boolean _peerSpecific;
+
+    /** The exported route, or {@code null} if the export policy rejected it. */
+    @Nullable private final BgpRoute _route;
+
+    private GroupExport(
+        @Nullable Set<Long> clusterList, boolean peerSpecific, @Nullable BgpRoute route) {
+      _clusterList = clusterList;
+      _peerSpecific = peerSpecific;
+      _route = route;
+    }
+  }
+
+  /**
+   * Exports {@code exportCandidate} on a session of an update group, reusing the outcome of
+   * exporting it on other sessions of the group recorded in {@code groupExports}. The outcome is
+   * the same as that of {@link #exportBgpRoute(AbstractRoute, BgpPeerConfigId, BgpPeerConfigId,
+   * BgpPeerConfig, BgpPeerConfig, Map, BgpSessionProperties)}.
+   */
+  @Nullable
+  private BgpRoute exportBgpRoute(
+      @Nonnull AbstractRoute exportCandidate,
+      @Nonnull Map<AbstractRoute, GroupExport> groupExports,
+      @Nonnull BgpPeerConfigId ourConfigId,
+      @Nonnull BgpPeerConfigId remoteConfigId,
+      @Nonnull BgpPeerConfig ourConfig,
+      @Nonnull BgpPeerConfig remoteConfig,
+      @Nonnull VirtualRouter remoteVr,
+      @Nonnull Map<String, Node> allNodes,
+      @Nonnull BgpSessionProperties sessionProperties) {
+    if (BgpProtocolHelper.isOriginatedByReceiver(
+        sessionProperties, remoteVr._vrf, exportCandidate)) {
+      return null;
+    }
+    GroupExport export =
+        groupExports.computeIfAbsent(
+            exportCandidate,
+            r ->
+                exportBgpRouteForGroup(
+                    r, ourConfigId, ourConfig, remoteConfig, sessionProperties));
+    if (export._peerSpecific) {
+      return exportBgpRoute(
+          exportCandidate,
+          ourConfigId,
+          remoteConfigId,
+          ourConfig,
+          remoteConfig,
+          allNodes,
+          sessionProperties);
+    }
+    if (export._clusterList == null
+        || BgpProtocolHelper.isInClusterList(remoteVr._vrf, export._clusterList)) {
+      return null;
+    }
+    if (export._route == null) {
+      _prefixTracer.filtered(
+          exportCandidate.getNetwork(),
+          remoteVr.getHostname(),
+          remoteConfig.getLocalIp(),
+          remoteConfigId.getVrfName(),
+          ourConfig.getExportPolicy(),
+          Direction.OUT);
+      return null;
+    }
+    _prefixTracer.sentTo(
+        export._route.getNetwork(),
+        remoteVr.getHostname(),
+        remoteConfig.getLocalIp(),
+        remoteConfigId.getVrfName(),
+        ourConfig.getExportPolicy());
+    return export._route;
+  }
+
+  /**
+   * Exports {@code exportCandidate} on behalf of all sessions of the update group of the session
+   * from {@code ourConfig} to {@code remoteConfig}.
+   */
+  @Nonnull
+  private GroupExport exportBgpRouteForGroup(
+      @Nonnull AbstractRoute exportCandidate,
+      @Nonnull BgpPeerConfigId ourConfigId,
+      @Nonnull BgpPeerConfig ourConfig,
+      @Nonnull BgpPeerConfig remoteConfig,
+      @Nonnull BgpSessionProperties sessionProperties) {
+    RoutingPolicy exportPolicy = _c.getRoutingPolicies().get(ourConfig.getExportPolicy());
+    BgpRoute.Builder transformedOutgoingRouteBuilder;
+    try {
+      transformedOutgoingRouteBuilder =
+          BgpProtocolHelper.transformBgpRouteOnExport(
+              ourConfig, remoteConfig, sessionProperties, _vrf, exportCandidate);
+    } catch (BgpRoutePropagationException e) {
+      return GroupExport.NOT_EXPORTABLE;
+    }
+    if (transformedOutgoingRouteBuilder == null) {
+      return GroupExport.NOT_EXPORTABLE;
+    }
+    Set<Long> clusterList = ImmutableSet.copyOf(transformedOutgoingRouteBuilder.getClusterList());
+
+    boolean[] peerAttributesRead = new boolean[1];
+    boolean shouldExport =
+        exportPolicy.process(
+            exportCandidate,
+            transformedOutgoingRouteBuilder,
+            remoteConfig.getLocalIp(),
+            ourConfigId.getRemotePeerPrefix(),
+            ourConfigId.getVrfName(),
+            Direction.OUT,
+            environment -> peerAttributesRead[0] = environment.getPeerAttributesRead());
+    if (peerAttributesRead[0]) {
+      return GroupExport.PEER_SPECIFIC;
+    }
+    return new GroupExport(
+        clusterList, false, shouldExport ? transformedOutgoingRouteBuilder.build() : null);
+  }
+
   /**
    * Given an {@link AbstractRoute}, run it through the BGP outbound transformations and export
    * routing policy.
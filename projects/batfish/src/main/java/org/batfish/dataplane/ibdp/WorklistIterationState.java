@@ -0,0 +1,101 @@
+package org.batfish.dataplane.ibdp;
+
+import com.google.common.hash.Hashing;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.batfish.datamodel.answers.IncrementalBdpAnswerElement;
+
+/**
+ * Hash codes and RIB sizes of the virtual routers as of the end of the latest dependent-routes
+ * iteration in worklist mode. A router that was not run in an iteration and has no pending work
+ * after it cannot have changed during that iteration, so only the other routers are recomputed.
+ */
+final class WorklistIterationState {
+
+  private static final class RouterState {
+
+    private final int _hashCode;
+
+    private final int _numBgpBestPathRibRoutes;
+
+    private final int _numBgpMultipathRibRoutes;
+
+    private final int _numMainRibRoutes;
+
+    private RouterState(VirtualRouter vr) {
+      // Two iterations only reach the same state if the same routers have pending work
+      _hashCode =
+          Hashing.murmur3_32()
+              .newHasher()
+              .putInt(vr.computeIterationHashCode())
+              .putBoolean(vr.hasPendingWork())
+              .hash()
+              .asInt();
+      _numBgpBestPathRibRoutes = vr.getBgpRib().getNumBestPathRoutes();
+      _numBgpMultipathRibRoutes = vr.getBgpRib().getNumRoutes();
+      _numMainRibRoutes = vr._mainRib.getNumRoutes();
+    }
+  }
+
+  private int _hashCode;
+
+  private int _numBgpBestPathRibRoutes;
+
+  private int _numBgpMultipathRibRoutes;
+
+  private int _numMainRibRoutes;
+
+  private final Map<VirtualRouter, RouterState> _routerStates = new IdentityHashMap<>();
+
+  /** Hash of the state of all routers, including which of them have pending work */
+  int getHashCode() {
+    return _hashCode;
+  }
+
+  void recordStatistics(IncrementalBdpAnswerElement ae, int dependentRoutesIterations) {
+    ae.getBgpBestPathRibRoutesByIteration()
+        .put(dependentRoutesIterations, _numBgpBestPathRibRoutes);
+    ae.getBgpMultipathRibRoutesByIteration()
+        .put(dependentRoutesIterations, _numBgpMultipathRibRoutes);
+    ae.getMainRibRoutesByIteration().put(dependentRoutesIterations, _numMainRibRoutes);
+  }
+
+  /**
+   * Recompute the state of the routers that were run in the latest iteration or have pending work
+   * after it.
+   */
+  void update(Map<String, Node> nodes, Collection<VirtualRouter> iterationRouters) {
+    Set<VirtualRouter> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+    changed.addAll(iterationRouters);
+    nodes
+        .values()
+        .forEach(
+            n ->
+                n.getVirtualRouters()
+                    .values()
+                    .stream()
+                    .filter(VirtualRouter::hasPendingWork)
+                    .forEach(changed::add));
+    Map<VirtualRouter, RouterState> newStates =
+        changed.parallelStream().collect(Collectors.toMap(vr -> vr, RouterState::new));
+    newStates.forEach(
+        (vr, newState) -> {
+          RouterState oldState = _routerStates.put(vr, newState);
+          if (oldState != null) {
+            add(oldState, -1);
+          }
+          add(newState, 1);
+        });
+  }
+
+  private void add(RouterState state, int sign) {
+    _hashCode += sign * state._hashCode;
+    _numBgpBestPathRibRoutes += sign * state._numBgpBestPathRibRoutes;
+    _numBgpMultipathRibRoutes += sign * state._numBgpMultipathRibRoutes;
+    _numMainRibRoutes += sign * state._numMainRibRoutes;
+  }
+}
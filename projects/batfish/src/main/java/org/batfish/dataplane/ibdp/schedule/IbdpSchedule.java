@@ -79,6 +79,14 @@ public abstract class IbdpSchedule implements Iterator<Map<String, Node>> {
       IncrementalDataPlaneSettings settings,
       Map<String, Node> allNodes,
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology) {
+    IbdpSchedule schedule = getBaseSchedule(settings, allNodes, bgpTopology);
+    return settings.getUseWorklist() ? new WorklistSchedule(allNodes, schedule) : schedule;
+  }
+
+  private static IbdpSchedule getBaseSchedule(
+      IncrementalDataPlaneSettings settings,
+      Map<String, Node> allNodes,
+      ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology) {
     Schedule schedule = settings.getScheduleName();
     switch (schedule) {
       case ALL:
@@ -0,0 +1,48 @@
+package org.batfish.dataplane.ibdp.schedule;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+import org.batfish.dataplane.ibdp.Node;
+
+/**
+ * A dataplane computation schedule that restricts another schedule to the nodes with pending work.
+ * Each step of the underlying schedule is filtered at the time it is requested, so nodes that
+ * received route advertisements during earlier steps of the same iteration are still visited.
+ * Steps with no pending work are skipped entirely.
+ */
+public class WorklistSchedule extends IbdpSchedule {
+
+  private final IbdpSchedule _schedule;
+
+  @Nullable private Map<String, Node> _next;
+
+  WorklistSchedule(Map<String, Node> nodes, IbdpSchedule schedule) {
+    super(nodes);
+    _schedule = schedule;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (_next == null && _schedule.hasNext()) {
+      Map<String, Node> candidates =
+          ImmutableMap.copyOf(Maps.filterValues(_schedule.next(), Node::hasPendingWork));
+      if (!candidates.isEmpty()) {
+        _next = candidates;
+      }
+    }
+    return _next != null;
+  }
+
+  @Override
+  public Map<String, Node> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Map<String, Node> next = _next;
+    _next = null;
+    return next;
+  }
+}
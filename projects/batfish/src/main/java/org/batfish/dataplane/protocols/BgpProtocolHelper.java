@@ -12,6 +12,7 @@ import org.batfish.datamodel.AsSet;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPassivePeerConfig;
 import org.batfish.datamodel.BgpPeerConfig;
+import org.batfish.datamodel.BgpProcess;
 import org.batfish.datamodel.BgpRoute;
 import org.batfish.datamodel.BgpSessionProperties;
 import org.batfish.datamodel.ConfigurationFormat;
@@ -27,6 +28,30 @@ import org.batfish.dataplane.exceptions.BgpRoutePropagationException;
 
 public class BgpProtocolHelper {
 
+  /**
+   * Returns whether the router of {@code toVrf} is in the cluster list of an exported route, and
+   * so would reject it.
+   */
+  public static boolean isInClusterList(Vrf toVrf, Set<Long> outgoingClusterList) {
+    return !outgoingClusterList.isEmpty()
+        && toVrf.getBgpProcess().getClusterIds().stream().anyMatch(outgoingClusterList::contains);
+  }
+
+  /**
+   * Returns whether the router of {@code toVrf} originated {@code route}, in which case an iBGP
+   * speaker does not send the route back to it.
+   */
+  public static boolean isOriginatedByReceiver(
+      BgpSessionProperties sessionProperties, Vrf toVrf, AbstractRoute route) {
+    RoutingProtocol remoteRouteProtocol = route.getProtocol();
+    BgpProcess toProcess = toVrf.getBgpProcess();
+    return !sessionProperties.isEbgp()
+        && (remoteRouteProtocol == RoutingProtocol.IBGP
+            || remoteRouteProtocol == RoutingProtocol.BGP)
+        && toProcess != null
+        && toProcess.getRouterId().equals(((BgpRoute) route).getOriginatorIp());
+  }
+
   /**
    * Perform BGP export transformations on a given route when sending an advertisement from {@code
    * fromNeighbor} to {@code toNeighbor}
@@ -40,6 +65,33 @@ public class BgpProtocolHelper {
       Vrf toVrf,
       AbstractRoute route)
       throws BgpRoutePropagationException {
+    if (isOriginatedByReceiver(sessionProperties, toVrf, route)) {
+      return null;
+    }
+    BgpRoute.Builder transformedOutgoingRouteBuilder =
+        transformBgpRouteOnExport(fromNeighbor, toNeighbor, sessionProperties, fromVrf, route);
+    if (transformedOutgoingRouteBuilder == null
+        || isInClusterList(toVrf, transformedOutgoingRouteBuilder.getClusterList())) {
+      return null;
+    }
+    return transformedOutgoingRouteBuilder;
+  }
+
+  /**
+   * Perform BGP export transformations on a given route when sending an advertisement from {@code
+   * fromNeighbor} to {@code toNeighbor}, without the checks of {@link #isOriginatedByReceiver} and
+   * {@link #isInClusterList}. The result depends on {@code toNeighbor} only through its local AS,
+   * whether it is a route reflector client and (if {@code fromNeighbor} is passive) its peer
+   * address.
+   */
+  @Nullable
+  public static BgpRoute.Builder transformBgpRouteOnExport(
+      BgpPeerConfig fromNeighbor,
+      BgpPeerConfig toNeighbor,
+      BgpSessionProperties sessionProperties,
+      Vrf fromVrf,
+      AbstractRoute route)
+      throws BgpRoutePropagationException {
 
     BgpRoute.Builder transformedOutgoingRouteBuilder = new BgpRoute.Builder();
 
@@ -93,15 +145,6 @@ public class BgpProtocolHelper {
        * originator
        */
 
-      Ip remoteOriginatorIp = bgpRemoteRoute.getOriginatorIp();
-      /*
-       *  iBGP speaker should not send out routes to iBGP neighbor whose router-id is
-       *  same as originator id of advertisement
-       */
-      if (!sessionProperties.isEbgp()
-          && toVrf.getBgpProcess().getRouterId().equals(remoteOriginatorIp)) {
-        return null;
-      }
       if (remoteRouteProtocol.equals(RoutingProtocol.IBGP) && !sessionProperties.isEbgp()) {
         /*
          *  The remote route is iBGP. The session is iBGP. We consider whether to reflect, and
@@ -132,14 +175,6 @@ public class BgpProtocolHelper {
           long newClusterId = remoteReceivedFromSession.getClusterId();
           transformedOutgoingRouteBuilder.addToClusterList(newClusterId);
         }
-        Set<Long> localClusterIds = toVrf.getBgpProcess().getClusterIds();
-        Set<Long> outgoingClusterList = transformedOutgoingRouteBuilder.getClusterList();
-        if (localClusterIds.stream().anyMatch(outgoingClusterList::contains)) {
-          /*
-           *  receiver will reject new route if it contains any of its local cluster ids
-           */
-          return null;
-        }
       }
     }
 
@@ -7,6 +7,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.GenericRib;
@@ -36,21 +37,41 @@ public abstract class AbstractRib<R extends AbstractRoute> implements GenericRib
   /** Map to keep track when routes were merged in. */
   protected Map<R, Long> _logicalArrivalTime;
 
-  private RibTree<R> _tree;
+  private GenericRibTree<R> _tree;
 
   @Nullable private Set<R> _allRoutes;
 
+  /** Number of routes in {@link #_tree}, maintained as routes are added and removed */
+  private int _numRoutes;
+
+  /**
+   * Sum of the hash codes of routes in {@link #_tree}, maintained as routes are added and removed.
+   * Equal to the hash code of {@link #getRoutes()}.
+   */
+  private int _routesHashCode;
+
   /**
    * Keep a Sorted Set of alternative routes. Used to update the RIB if best routes are withdrawn
    */
   @Nullable protected final Map<Prefix, SortedSet<R>> _backupRoutes;
 
   public AbstractRib(@Nullable Map<Prefix, SortedSet<R>> backupRoutes) {
+    this(backupRoutes, RibTreeType.STANDARD);
+  }
+
+  /**
+   * Create a RIB whose routes are stored in a tree of the given {@link RibTreeType}.
+   *
+   * @param backupRoutes alternative routes by prefix, or {@code null} to not keep any
+   * @param treeType the kind of tree storing the routes of this RIB
+   */
+  public AbstractRib(
+      @Nullable Map<Prefix, SortedSet<R>> backupRoutes, @Nonnull RibTreeType treeType) {
     _allRoutes = ImmutableSet.of();
     _backupRoutes = backupRoutes;
     _logicalArrivalTime = new HashMap<>();
     _logicalClock = 0;
-    _tree = new RibTree<>(this);
+    _tree = treeType == RibTreeType.COMPACT ? new CompactRibTree<>(this) : new RibTree<>(this);
   }
 
   /**
@@ -105,6 +126,34 @@ public abstract class AbstractRib<R extends AbstractRoute> implements GenericRib
     return _allRoutes;
   }
 
+  /**
+   * Return the number of routes in this RIB, without materializing them. Same as calling {@code
+   * getRoutes().size()}.
+   */
+  public int getNumRoutes() {
+    return _numRoutes;
+  }
+
+  /**
+   * Return the hash code of the routes in this RIB, without materializing them. Same as calling
+   * {@code getRoutes().hashCode()}, but maintained incrementally as routes are added and removed.
+   */
+  public int getRoutesHashCode() {
+    return _routesHashCode;
+  }
+
+  /** Account for a route that was added to the underlying {@link GenericRibTree} */
+  void routeAdded(R route) {
+    _numRoutes++;
+    _routesHashCode += route.hashCode();
+  }
+
+  /** Account for a route that was removed from the underlying {@link GenericRibTree} */
+  void routeRemoved(R route) {
+    _numRoutes--;
+    _routesHashCode -= route.hashCode();
+  }
+
   public final Set<R> getRoutes(Prefix p) {
     // Collect routes that match the prefix
     return getRoutes()
@@ -132,11 +181,21 @@ public abstract class AbstractRib<R extends AbstractRoute> implements GenericRib
 
   @Override
   public Set<R> longestPrefixMatch(Ip address) {
-    return longestPrefixMatch(address, Prefix.MAX_PREFIX_LENGTH);
+    return longestPrefixMatch(address.asLong(), Prefix.MAX_PREFIX_LENGTH);
   }
 
   @Override
   public Set<R> longestPrefixMatch(Ip address, int maxPrefixLength) {
+    return longestPrefixMatch(address.asLong(), maxPrefixLength);
+  }
+
+  @Override
+  public Set<R> longestPrefixMatch(long address) {
+    return longestPrefixMatch(address, Prefix.MAX_PREFIX_LENGTH);
+  }
+
+  @Override
+  public Set<R> longestPrefixMatch(long address, int maxPrefixLength) {
     return _tree.getLongestPrefixMatch(address, maxPrefixLength);
   }
 
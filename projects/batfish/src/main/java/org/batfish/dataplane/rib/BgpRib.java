@@ -48,13 +48,32 @@ public class BgpRib extends AbstractRib<BgpRoute> {
   // evicted
   @Nonnull private final Map<Prefix, BgpRoute> _bestPaths;
 
+  /** Sum of the hash codes of {@link #_bestPaths} values, updated along with {@link #_bestPaths} */
+  private int _bestPathsHashCode;
+
   public BgpRib(
       @Nullable Map<Prefix, SortedSet<BgpRoute>> backupRoutes,
       @Nullable Rib mainRib,
       BgpTieBreaker tieBreaker,
       @Nullable Integer maxPaths,
       @Nullable MultipathEquivalentAsPathMatchMode multipathEquivalentAsPathMatchMode) {
-    super(backupRoutes);
+    this(
+        backupRoutes,
+        mainRib,
+        tieBreaker,
+        maxPaths,
+        multipathEquivalentAsPathMatchMode,
+        RibTreeType.STANDARD);
+  }
+
+  public BgpRib(
+      @Nullable Map<Prefix, SortedSet<BgpRoute>> backupRoutes,
+      @Nullable Rib mainRib,
+      BgpTieBreaker tieBreaker,
+      @Nullable Integer maxPaths,
+      @Nullable MultipathEquivalentAsPathMatchMode multipathEquivalentAsPathMatchMode,
+      RibTreeType treeType) {
+    super(backupRoutes, treeType);
     _mainRib = mainRib;
     _tieBreaker = tieBreaker;
     checkArgument(maxPaths == null || maxPaths > 0, "Invalid max-paths value %s", maxPaths);
@@ -155,6 +174,21 @@ public class BgpRib extends AbstractRib<BgpRoute> {
     return _bestPaths.values().stream().collect(ImmutableSet.toImmutableSet());
   }
 
+  /** Return the number of best-path routes. Same as calling {@code getBestPathRoutes().size()} */
+  public int getNumBestPathRoutes() {
+    return _bestPaths.size();
+  }
+
+  @Override
+  public int getNumRoutes() {
+    return isMultipath() ? super.getNumRoutes() : getNumBestPathRoutes();
+  }
+
+  @Override
+  public int getRoutesHashCode() {
+    return isMultipath() ? super.getRoutesHashCode() : _bestPathsHashCode;
+  }
+
   private int compareRouteAsPath(BgpRoute lhs, BgpRoute rhs) {
     return compareAsPath(lhs.getAsPath(), rhs.getAsPath());
   }
@@ -184,12 +218,18 @@ public class BgpRib extends AbstractRib<BgpRoute> {
     // Get routes, sort to determine best path
     ImmutableSortedSet<BgpRoute> s =
         ImmutableSortedSet.copyOf(this::bestPathComparator, extractRoutes(prefix));
+    BgpRoute oldBestPath;
     if (s.isEmpty()) {
       // Remove best path and return
-      _bestPaths.remove(prefix);
-      return;
+      oldBestPath = _bestPaths.remove(prefix);
+    } else {
+      BgpRoute bestPath = s.last();
+      oldBestPath = _bestPaths.put(prefix, bestPath);
+      _bestPathsHashCode += bestPath.hashCode();
+    }
+    if (oldBestPath != null) {
+      _bestPathsHashCode -= oldBestPath.hashCode();
     }
-    _bestPaths.put(prefix, s.last());
   }
 
   /**
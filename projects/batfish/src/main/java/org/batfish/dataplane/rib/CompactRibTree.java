@@ -0,0 +1,424 @@
+package org.batfish.dataplane.rib;
+
+import static org.batfish.dataplane.rib.RouteAdvertisement.Reason.REPLACE;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpWildcard;
+import org.batfish.datamodel.IpWildcardSetIpSpace;
+import org.batfish.datamodel.Prefix;
+import org.batfish.dataplane.rib.RibDelta.Builder;
+import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
+
+/**
+ * A memory-compact alternative to {@link RibTree} with the same semantics.
+ *
+ * <p>This is a path-compressed binary trie (a.k.a. Patricia trie) whose nodes are keyed by the
+ * primitive network bits and length of a prefix, rather than by a {@link Prefix} object. Routes for
+ * a given prefix are stored in a small array that is scanned linearly (typically it holds a single
+ * route, or a handful of multipath routes), rather than in a hash set. The owning RIB is referenced
+ * once by the tree, rather than by every node.
+ *
+ * <p>Nodes that hold no routes are only kept as long as they are needed to branch, so the shape of
+ * the tree only depends on the set of prefixes currently in the RIB.
+ */
+final class CompactRibTree<R extends AbstractRoute> implements GenericRibTree<R> {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final AbstractRoute[] NO_ROUTES = new AbstractRoute[0];
+
+  /** A node of the trie, representing a single prefix */
+  private static final class Node implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The network bits of the prefix, i.e., the start IP as an unsigned int */
+    private final int _bits;
+
+    private final int _length;
+
+    @Nullable private Node _left;
+
+    @Nullable private Node _right;
+
+    /** Routes for exactly this prefix, all of equal preference */
+    @Nonnull private AbstractRoute[] _routes;
+
+    private Node(int bits, int length) {
+      _bits = bits;
+      _length = length;
+      _routes = NO_ROUTES;
+    }
+
+    @Nullable
+    private Node getChild(boolean right) {
+      return right ? _right : _left;
+    }
+
+    private void setChild(boolean right, @Nullable Node child) {
+      if (right) {
+        _right = child;
+      } else {
+        _left = child;
+      }
+    }
+
+    private boolean containsRoute(AbstractRoute route) {
+      for (AbstractRoute r : _routes) {
+        if (r.equals(route)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private Prefix getPrefix() {
+      return new Prefix(new Ip(Integer.toUnsignedLong(_bits)), _length);
+    }
+  }
+
+  private final AbstractRib<R> _owner;
+
+  private final Node _root;
+
+  CompactRibTree(AbstractRib<R> owner) {
+    _owner = owner;
+    _root = new Node(0, 0);
+  }
+
+  /** Return the bit of {@code bits} at the given position, 0 being the most significant bit */
+  private static boolean getBit(int bits, int position) {
+    return (bits << position) < 0;
+  }
+
+  /** Return the network mask for the given prefix length */
+  private static int mask(int length) {
+    return length == 0 ? 0 : -1 << (Prefix.MAX_PREFIX_LENGTH - length);
+  }
+
+  private static int getBits(Prefix prefix) {
+    return (int) prefix.getStartIp().asLong();
+  }
+
+  /** Return the node storing routes for exactly the given prefix, or {@code null} if none exists */
+  @Nullable
+  private Node findNode(int bits, int length) {
+    Node node = _root;
+    while (node != null && node._length < length) {
+      node = node.getChild(getBit(bits, node._length));
+    }
+    return node != null && node._length == length && node._bits == bits ? node : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<R> toSet(AbstractRoute[] routes) {
+    return (Set<R>) ImmutableSet.copyOf(routes);
+  }
+
+  private void addRoute(Node node, R route) {
+    AbstractRoute[] routes = Arrays.copyOf(node._routes, node._routes.length + 1);
+    routes[routes.length - 1] = route;
+    node._routes = routes;
+    _owner.routeAdded(route);
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean removeLocalRoute(Node node, R route) {
+    AbstractRoute[] routes = node._routes;
+    for (int i = 0; i < routes.length; i++) {
+      if (routes[i].equals(route)) {
+        AbstractRoute[] newRoutes =
+            routes.length == 1 ? NO_ROUTES : new AbstractRoute[routes.length - 1];
+        System.arraycopy(routes, 0, newRoutes, 0, i);
+        System.arraycopy(routes, i + 1, newRoutes, i, routes.length - i - 1);
+        node._routes = newRoutes;
+        _owner.routeRemoved((R) routes[i]);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void clearLocalRoutes(Node node) {
+    for (AbstractRoute r : node._routes) {
+      _owner.routeRemoved((R) r);
+    }
+    node._routes = NO_ROUTES;
+  }
+
+  @Override
+  public boolean containsRoute(R route) {
+    Prefix prefix = route.getNetwork();
+    Node node = findNode(getBits(prefix), prefix.getPrefixLength());
+    return node != null && node.containsRoute(route);
+  }
+
+  @Override
+  public Set<R> getLongestPrefixMatch(long address, int maxPrefixLength) {
+    int bits = (int) address;
+    Node best = null;
+    Node node = _root;
+    while (node != null
+        && node._length <= maxPrefixLength
+        && (bits & mask(node._length)) == node._bits) {
+      if (node._routes.length > 0) {
+        best = node;
+      }
+      if (node._length == Prefix.MAX_PREFIX_LENGTH) {
+        break;
+      }
+      node = node.getChild(getBit(bits, node._length));
+    }
+    return best == null ? ImmutableSet.of() : toSet(best._routes);
+  }
+
+  @Override
+  public Set<R> getRoutes() {
+    ImmutableSet.Builder<AbstractRoute> routes = ImmutableSet.builder();
+    collectRoutes(_root, routes);
+    @SuppressWarnings("unchecked")
+    Set<R> result = (Set<R>) routes.build();
+    return result;
+  }
+
+  private static void collectRoutes(
+      @Nullable Node node, ImmutableSet.Builder<AbstractRoute> routes) {
+    if (node == null) {
+      return;
+    }
+    collectRoutes(node._left, routes);
+    collectRoutes(node._right, routes);
+    routes.add(node._routes);
+  }
+
+  @Override
+  public Set<R> getRoutes(Prefix prefix) {
+    Node node = findNode(getBits(prefix), prefix.getPrefixLength());
+    return node == null ? ImmutableSet.of() : toSet(node._routes);
+  }
+
+  @Nullable
+  @Override
+  public RibDelta<R> mergeRoute(R route) {
+    Prefix prefix = route.getNetwork();
+    int bits = getBits(prefix);
+    int length = prefix.getPrefixLength();
+    Node node = _root;
+    while (node._length < length) {
+      boolean right = getBit(bits, node._length);
+      Node child = node.getChild(right);
+      if (child == null) {
+        // No more specific prefix on this side, so insert a new leaf
+        child = new Node(bits, length);
+        node.setChild(right, child);
+        node = child;
+        break;
+      }
+      // Length of the longest prefix shared by the route and the child
+      int common =
+          Math.min(
+              Math.min(length, child._length), Integer.numberOfLeadingZeros(bits ^ child._bits));
+      if (common == child._length) {
+        // Child prefix contains the route prefix, keep descending
+        node = child;
+        continue;
+      }
+      // Insert a new node between the current node and the child
+      Node middle = new Node(bits & mask(common), common);
+      node.setChild(right, middle);
+      middle.setChild(getBit(child._bits, common), child);
+      if (common == length) {
+        // Route prefix contains the child prefix, the new node holds the route
+        node = middle;
+      } else {
+        // Prefixes diverge, the route and the child become siblings under the new node
+        node = new Node(bits, length);
+        middle.setChild(getBit(bits, common), node);
+      }
+      break;
+    }
+    return mergeIntoNode(node, route);
+  }
+
+  /** Merge a route into the node for its prefix, applying {@link RibTreeNode} semantics */
+  @Nullable
+  private RibDelta<R> mergeIntoNode(Node node, R route) {
+    // No routes with this prefix, so just add it. No comparison necessary
+    if (node._routes.length == 0) {
+      addRoute(node, route);
+      return new Builder<>(_owner).add(route).build();
+    }
+    // All routes in the node have the same preference, so compare to one of them only
+    @SuppressWarnings("unchecked")
+    R oldRoute = (R) node._routes[0];
+    int preferenceComparison = _owner.comparePreference(route, oldRoute);
+    if (preferenceComparison < 0) {
+      return null;
+    }
+    if (preferenceComparison == 0) {
+      if (node.containsRoute(route)) {
+        return null;
+      }
+      addRoute(node, route);
+      return new Builder<>(_owner).add(route).build();
+    }
+    // Better than all pre-existing routes for this prefix, so replace them
+    RibDelta<R> delta =
+        new Builder<>(_owner).remove(toSet(node._routes), REPLACE).add(route).build();
+    clearLocalRoutes(node);
+    addRoute(node, route);
+    return delta;
+  }
+
+  @Nullable
+  @Override
+  public RibDelta<R> removeRouteGetDelta(R route, Reason reason) {
+    Prefix prefix = route.getNetwork();
+    int bits = getBits(prefix);
+    int length = prefix.getPrefixLength();
+    Node grandparent = null;
+    Node parent = null;
+    Node node = _root;
+    while (node != null && node._length < length) {
+      grandparent = parent;
+      parent = node;
+      node = node.getChild(getBit(bits, node._length));
+    }
+    if (node == null || node._length != length || node._bits != bits) {
+      return null;
+    }
+    Builder<R> b = new Builder<>(_owner);
+    if (removeLocalRoute(node, route)) {
+      b.remove(route, reason);
+      if (node._routes.length == 0 && _owner._backupRoutes != null) {
+        SortedSet<? extends R> backups =
+            _owner._backupRoutes.getOrDefault(prefix, Collections.emptySortedSet());
+        if (!backups.isEmpty()) {
+          addRoute(node, backups.first());
+          b.add(backups.first());
+        }
+      }
+      prune(grandparent, parent, node);
+    }
+    return b.build();
+  }
+
+  @Nullable
+  @Override
+  public RibDelta<R> clearRoutes(Prefix prefix) {
+    int bits = getBits(prefix);
+    int length = prefix.getPrefixLength();
+    Node grandparent = null;
+    Node parent = null;
+    Node node = _root;
+    while (node != null && node._length < length) {
+      grandparent = parent;
+      parent = node;
+      node = node.getChild(getBit(bits, node._length));
+    }
+    if (node == null || node._length != length || node._bits != bits) {
+      return null;
+    }
+    RibDelta<R> delta = new Builder<>(_owner).remove(toSet(node._routes), REPLACE).build();
+    clearLocalRoutes(node);
+    prune(grandparent, parent, node);
+    return delta;
+  }
+
+  /**
+   * Unlink {@code node} from the tree if it no longer holds routes and is not needed for branching.
+   * If that leaves {@code parent} as an empty node with a single child, unlink {@code parent} too.
+   */
+  private static void prune(@Nullable Node grandparent, @Nullable Node parent, Node node) {
+    if (parent == null || node._routes.length > 0 || (node._left != null && node._right != null)) {
+      return;
+    }
+    Node replacement = node._left != null ? node._left : node._right;
+    parent.setChild(getBit(node._bits, parent._length), replacement);
+    if (replacement == null && grandparent != null && parent._routes.length == 0) {
+      Node remaining = parent._left != null ? parent._left : parent._right;
+      grandparent.setChild(getBit(parent._bits, grandparent._length), remaining);
+    }
+  }
+
+  @Override
+  public Map<Prefix, IpSpace> getMatchingIps() {
+    ImmutableMap.Builder<Prefix, IpSpace> builder = ImmutableMap.builder();
+    addMatchingIps(_root, builder);
+    return builder.build();
+  }
+
+  private static void addMatchingIps(
+      @Nullable Node node, ImmutableMap.Builder<Prefix, IpSpace> builder) {
+    if (node == null) {
+      return;
+    }
+    addMatchingIps(node._left, builder);
+    addMatchingIps(node._right, builder);
+    if (node._routes.length > 0) {
+      IpWildcardSetIpSpace.Builder matchingIps = IpWildcardSetIpSpace.builder();
+      excludeRoutableIps(node._left, matchingIps);
+      excludeRoutableIps(node._right, matchingIps);
+      Prefix prefix = node.getPrefix();
+      matchingIps.including(new IpWildcard(prefix));
+      builder.put(prefix, matchingIps.build());
+    }
+  }
+
+  private static void excludeRoutableIps(
+      @Nullable Node node, IpWildcardSetIpSpace.Builder builder) {
+    if (node == null) {
+      return;
+    }
+    if (node._routes.length > 0) {
+      builder.excluding(new IpWildcard(node.getPrefix()));
+    } else {
+      excludeRoutableIps(node._left, builder);
+      excludeRoutableIps(node._right, builder);
+    }
+  }
+
+  @Override
+  public IpSpace getRoutableIps() {
+    IpWildcardSetIpSpace.Builder builder = IpWildcardSetIpSpace.builder();
+    addRoutableIps(_root, builder);
+    return builder.build();
+  }
+
+  private static void addRoutableIps(@Nullable Node node, IpWildcardSetIpSpace.Builder builder) {
+    if (node == null) {
+      return;
+    }
+    if (node._routes.length > 0) {
+      builder.including(new IpWildcard(node.getPrefix()));
+    } else {
+      addRoutableIps(node._left, builder);
+      addRoutableIps(node._right, builder);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return getRoutes().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return (obj == this)
+        || (obj instanceof CompactRibTree
+            && getRoutes().equals(((CompactRibTree<?>) obj).getRoutes()));
+  }
+}
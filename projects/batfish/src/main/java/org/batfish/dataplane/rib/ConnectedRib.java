@@ -8,7 +8,11 @@ public class ConnectedRib extends AbstractRib<ConnectedRoute> {
   private static final long serialVersionUID = 1L;
 
   public ConnectedRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public ConnectedRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
@@ -10,7 +10,11 @@ public class EigrpExternalRib extends AbstractRib<EigrpExternalRoute> {
   private static final long serialVersionUID = 1L;
 
   public EigrpExternalRib() {
-    super(new TreeMap<>());
+    this(RibTreeType.STANDARD);
+  }
+
+  public EigrpExternalRib(RibTreeType treeType) {
+    super(new TreeMap<>(), treeType);
   }
 
   @Override
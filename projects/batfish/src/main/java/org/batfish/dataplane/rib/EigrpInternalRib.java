@@ -9,7 +9,11 @@ public class EigrpInternalRib extends AbstractRib<EigrpInternalRoute> {
   private static final long serialVersionUID = 1L;
 
   public EigrpInternalRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public EigrpInternalRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
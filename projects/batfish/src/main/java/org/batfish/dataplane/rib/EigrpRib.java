@@ -10,7 +10,11 @@ public class EigrpRib extends AbstractRib<EigrpRoute> {
   private static final long serialVersionUID = 1L;
 
   public EigrpRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public EigrpRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   private static int getTypeCost(EigrpRoute route) {
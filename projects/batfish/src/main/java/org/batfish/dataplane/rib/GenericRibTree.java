@@ -0,0 +1,74 @@
+package org.batfish.dataplane.rib;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.Prefix;
+import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
+
+/**
+ * Storage for the routes of an {@link AbstractRib}, indexed by route prefix and supporting the
+ * longest prefix match operation.
+ *
+ * <p>Implementations are responsible for notifying the owning RIB of every route added to or
+ * removed from the tree (see {@link AbstractRib#routeAdded} and {@link AbstractRib#routeRemoved}).
+ *
+ * @param <R> type of route stored in the tree
+ */
+interface GenericRibTree<R extends AbstractRoute> extends Serializable {
+
+  /**
+   * Remove a single route from the RIB, if it exists
+   *
+   * @param route route to remove
+   * @return {@link RibDelta} if the route was removed, otherwise {@code null};
+   */
+  @Nullable
+  RibDelta<R> removeRouteGetDelta(R route, Reason reason);
+
+  /**
+   * Check if the route is present in the RIB
+   *
+   * @param route route to find
+   * @return true if the route exists in the RIB
+   */
+  boolean containsRoute(R route);
+
+  /**
+   * Return the routes with the longest prefix match for the IP address represented by {@code
+   * address}, considering only routes with prefix length at most {@code maxPrefixLength}
+   */
+  Set<R> getLongestPrefixMatch(long address, int maxPrefixLength);
+
+  /** Return a set of all routes contained in this RIB */
+  Set<R> getRoutes();
+
+  /** Retrieve stored routes for a particular prefix only. */
+  Set<R> getRoutes(Prefix prefix);
+
+  /**
+   * Add a new route into the RIB, potentially replacing other routes
+   *
+   * @param route route to add
+   * @return a {@link RibDelta} objects indicating which routes where added and evicted from this
+   *     RIB
+   */
+  @Nullable
+  RibDelta<R> mergeRoute(R route);
+
+  /** Remove all routes with exactly the given prefix */
+  @Nullable
+  RibDelta<R> clearRoutes(Prefix prefix);
+
+  /**
+   * Return a map from each prefix with routes to the IPs for which that prefix is the longest
+   * prefix match
+   */
+  Map<Prefix, IpSpace> getMatchingIps();
+
+  /** Return the IPs matched by at least one route */
+  IpSpace getRoutableIps();
+}
@@ -13,7 +13,13 @@ public class IsisLevelRib extends AbstractRib<IsisRoute> {
   private static final long serialVersionUID = 1L;
 
   public IsisLevelRib(@Nullable Map<Prefix, SortedSet<IsisRoute>> backupRoutes) {
-    super(backupRoutes);
+    this(backupRoutes, RibTreeType.STANDARD);
+  }
+
+  public IsisLevelRib(
+      @Nullable Map<Prefix, SortedSet<IsisRoute>> backupRoutes,
+      RibTreeType treeType) {
+    super(backupRoutes, treeType);
   }
 
   @Override
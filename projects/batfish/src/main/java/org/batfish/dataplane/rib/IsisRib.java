@@ -25,7 +25,11 @@ public class IsisRib extends AbstractRib<IsisRoute> {
   private final boolean _l1Only;
 
   public IsisRib(boolean l1Only) {
-    super(null);
+    this(l1Only, RibTreeType.STANDARD);
+  }
+
+  public IsisRib(boolean l1Only, RibTreeType treeType) {
+    super(null, treeType);
     _l1Only = l1Only;
   }
 
@@ -7,7 +7,11 @@ public class LocalRib extends AbstractRib<LocalRoute> {
   private static final long serialVersionUID = 1L;
 
   public LocalRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public LocalRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
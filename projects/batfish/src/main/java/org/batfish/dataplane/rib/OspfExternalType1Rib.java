@@ -16,7 +16,14 @@ public class OspfExternalType1Rib extends AbstractRib<OspfExternalType1Route> {
   public OspfExternalType1Rib(
       @Nonnull String hostname,
       @Nullable Map<Prefix, SortedSet<OspfExternalType1Route>> backupRoutes) {
-    super(backupRoutes);
+    this(hostname, backupRoutes, RibTreeType.STANDARD);
+  }
+
+  public OspfExternalType1Rib(
+      @Nonnull String hostname,
+      @Nullable Map<Prefix, SortedSet<OspfExternalType1Route>> backupRoutes,
+      RibTreeType treeType) {
+    super(backupRoutes, treeType);
     _hostname = hostname;
   }
 
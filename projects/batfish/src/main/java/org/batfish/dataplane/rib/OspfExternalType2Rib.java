@@ -16,7 +16,14 @@ public class OspfExternalType2Rib extends AbstractRib<OspfExternalType2Route> {
   public OspfExternalType2Rib(
       @Nonnull String hostname,
       @Nullable Map<Prefix, SortedSet<OspfExternalType2Route>> backupRoutes) {
-    super(backupRoutes);
+    this(hostname, backupRoutes, RibTreeType.STANDARD);
+  }
+
+  public OspfExternalType2Rib(
+      @Nonnull String hostname,
+      @Nullable Map<Prefix, SortedSet<OspfExternalType2Route>> backupRoutes,
+      RibTreeType treeType) {
+    super(backupRoutes, treeType);
     _hostname = hostname;
   }
 
@@ -7,7 +7,11 @@ public class OspfInterAreaRib extends AbstractRib<OspfInterAreaRoute> {
   private static final long serialVersionUID = 1L;
 
   public OspfInterAreaRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public OspfInterAreaRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
@@ -8,7 +8,11 @@ public class OspfIntraAreaRib extends AbstractRib<OspfIntraAreaRoute> {
   private static final long serialVersionUID = 1L;
 
   public OspfIntraAreaRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public OspfIntraAreaRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
@@ -9,7 +9,11 @@ public class OspfRib extends AbstractRib<OspfRoute> {
   private static final long serialVersionUID = 1L;
 
   public OspfRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public OspfRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
@@ -16,7 +16,12 @@ public class Rib extends AbstractRib<AbstractRoute> implements Serializable {
 
   /** Create a new empty RIB. */
   public Rib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  /** Create a new empty RIB storing its routes in a tree of the given type. */
+  public Rib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
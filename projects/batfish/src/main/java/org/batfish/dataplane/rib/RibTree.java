@@ -2,12 +2,10 @@ package org.batfish.dataplane.rib;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.batfish.datamodel.AbstractRoute;
-import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.IpSpace;
 import org.batfish.datamodel.IpWildcardSetIpSpace;
 import org.batfish.datamodel.Prefix;
@@ -20,7 +18,7 @@ import org.batfish.dataplane.rib.RouteAdvertisement.Reason;
  * where the wildcard symbols can appear only after (to-the-right-of) non wildcard symbols in the
  * bit vector. E.g., 101010**, but not 1*001***
  */
-class RibTree<R extends AbstractRoute> implements Serializable {
+class RibTree<R extends AbstractRoute> implements GenericRibTree<R> {
 
   private static final long serialVersionUID = 1L;
 
@@ -36,8 +34,9 @@ class RibTree<R extends AbstractRoute> implements Serializable {
    * @param route route to remove
    * @return {@link RibDelta} if the route was removed, otherwise {@code null};
    */
+  @Override
   @Nullable
-  RibDelta<R> removeRouteGetDelta(R route, Reason reason) {
+  public RibDelta<R> removeRouteGetDelta(R route, Reason reason) {
     Prefix prefix = route.getNetwork();
     int prefixLength = prefix.getPrefixLength();
     long bits = prefix.getStartIp().asLong();
@@ -50,16 +49,17 @@ class RibTree<R extends AbstractRoute> implements Serializable {
    * @param route route to find
    * @return true if the route exists in the RIB
    */
-  boolean containsRoute(R route) {
+  @Override
+  public boolean containsRoute(R route) {
     Prefix prefix = route.getNetwork();
     int prefixLength = prefix.getPrefixLength();
     long bits = prefix.getStartIp().asLong();
     return _root.containsRoute(route, bits, prefixLength);
   }
 
-  Set<R> getLongestPrefixMatch(Ip address, int maxPrefixLength) {
-    long addressBits = address.asLong();
-    return _root.getLongestPrefixMatch(address, addressBits, 0, maxPrefixLength);
+  @Override
+  public Set<R> getLongestPrefixMatch(long address, int maxPrefixLength) {
+    return _root.getLongestPrefixMatch(address, 0, maxPrefixLength);
   }
 
   /**
@@ -67,6 +67,7 @@ class RibTree<R extends AbstractRoute> implements Serializable {
    *
    * @return a {@link Set} of routes
    */
+  @Override
   public Set<R> getRoutes() {
     ImmutableSet.Builder<R> routes = ImmutableSet.builder();
     _root.collectRoutes(routes);
@@ -74,6 +75,7 @@ class RibTree<R extends AbstractRoute> implements Serializable {
   }
 
   /** Retrieve stored routes for a particular prefix only. */
+  @Override
   public Set<R> getRoutes(Prefix prefix) {
     return _root.getRoutes(prefix);
   }
@@ -85,8 +87,9 @@ class RibTree<R extends AbstractRoute> implements Serializable {
    * @return a {@link RibDelta} objects indicating which routes where added and evicted from this
    *     RIB
    */
+  @Override
   @Nullable
-  RibDelta<R> mergeRoute(R route) {
+  public RibDelta<R> mergeRoute(R route) {
     Prefix prefix = route.getNetwork();
     int prefixLength = prefix.getPrefixLength();
     long bits = prefix.getStartIp().asLong();
@@ -103,17 +106,20 @@ class RibTree<R extends AbstractRoute> implements Serializable {
     return (obj == this) || (obj instanceof RibTree && this._root.equals(((RibTree<?>) obj)._root));
   }
 
+  @Override
   public RibDelta<R> clearRoutes(Prefix prefix) {
     return _root.clearRoutes(prefix);
   }
 
+  @Override
   public Map<Prefix, IpSpace> getMatchingIps() {
     ImmutableMap.Builder<Prefix, IpSpace> builder = ImmutableMap.builder();
     _root.addMatchingIps(builder);
     return builder.build();
   }
 
-  IpSpace getRoutableIps() {
+  @Override
+  public IpSpace getRoutableIps() {
     IpWildcardSetIpSpace.Builder builder = IpWildcardSetIpSpace.builder();
     _root.addRoutableIps(builder);
     return builder.build();
@@ -46,6 +46,38 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
     _owner = owner;
   }
 
+  /**
+   * Add a route to this node, keeping the owner's route statistics up to date
+   *
+   * @return true if the route was not already present
+   */
+  private boolean addRoute(R route) {
+    if (_routes.add(route)) {
+      _owner.routeAdded(route);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Remove a route from this node, keeping the owner's route statistics up to date
+   *
+   * @return true if the route was present
+   */
+  private boolean removeLocalRoute(R route) {
+    if (_routes.remove(route)) {
+      _owner.routeRemoved(route);
+      return true;
+    }
+    return false;
+  }
+
+  /** Remove all routes from this node, keeping the owner's route statistics up to date */
+  private void clearLocalRoutes() {
+    _routes.forEach(_owner::routeRemoved);
+    _routes.clear();
+  }
+
   void collectRoutes(ImmutableCollection.Builder<R> routes) {
     if (_left != null) {
       _left.collectRoutes(routes);
@@ -100,7 +132,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
     return node != null && node._routes.contains(route);
   }
 
-  private Set<R> getLongestPrefixMatch(Ip address) {
+  private Set<R> getLongestPrefixMatch(long address) {
     return _routes
         .stream()
         .filter(r -> r.getNetwork().containsIp(address))
@@ -110,16 +142,15 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
   /**
    * Returns a set of routes with the longest prefix match for a given IP address
    *
-   * @param address IP address
-   * @param bits IP address represented as a set of bits
+   * @param bits IP address represented as a long
    * @param index the position of the bit up to which the match has already been found
    *     (tail-recursion way of keeping track how deep we are)
    * @param maxPrefixLength only return routes with prefix length less than or equal to given value
    * @return a set of routes
    */
-  Set<R> getLongestPrefixMatch(Ip address, long bits, int index, int maxPrefixLength) {
+  Set<R> getLongestPrefixMatch(long bits, int index, int maxPrefixLength) {
     // Get the list of routes stored in our node that contain the IP address
-    Set<R> longestPrefixMatches = getLongestPrefixMatch(address);
+    Set<R> longestPrefixMatches = getLongestPrefixMatch(bits);
     // If we reached the max prefix length (e.g., 32 for for IPv4) then return routes
     // from the current node
     if (index >= maxPrefixLength) {
@@ -142,8 +173,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
 
     // Represents any potentially longer route matches (than ones stored at this node)
     Set<R> longerMatches =
-        child.getLongestPrefixMatch(
-            address, bits, child._prefix.getPrefixLength(), maxPrefixLength);
+        child.getLongestPrefixMatch(bits, child._prefix.getPrefixLength(), maxPrefixLength);
 
     // If we found no better matches, return the ones from this node
     if (longerMatches == null || longerMatches.isEmpty()) {
@@ -203,7 +233,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
     // for the given route
     if (node == null) {
       node = new RibTreeNode<>(route.getNetwork(), _owner);
-      node._routes.add(route);
+      node.addRoute(route);
       // don't forget to assign new node object to parent node
       assignChild(parent, node, rightBranch);
       return new RibDelta.Builder<>(_owner).add(route).build();
@@ -253,7 +283,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
       currentNodeAddressBit = Ip.getBitAtPosition(nodeAddressBits, nextUnmatchedBit);
       RibTreeNode<R> oldNode = node;
       node = new RibTreeNode<>(route.getNetwork(), _owner);
-      node._routes.add(route);
+      node.addRoute(route);
       assignChild(parent, node, rightBranch);
       assignChild(node, oldNode, currentNodeAddressBit);
       return new RibDelta.Builder<>(_owner).add(route).build();
@@ -273,7 +303,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
     Prefix newNetwork = new Prefix(route.getNetwork().getStartIp(), nextUnmatchedBit);
     node = new RibTreeNode<>(newNetwork, _owner); // node is the node we are inserting in the middle
     RibTreeNode<R> child = new RibTreeNode<>(route.getNetwork(), _owner);
-    child._routes.add(route);
+    child.addRoute(route);
     assignChild(parent, node, rightBranch);
     // child and old node become siblings, children of the newly inserted node
     assignChild(node, child, currentAddressBit);
@@ -293,7 +323,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
 
       // No routes with this prefix, so just add it. No comparison necessary
       if (_routes.isEmpty()) {
-        _routes.add(route);
+        addRoute(route);
         return new RibDelta.Builder<>(_owner).add(route).build();
       }
 
@@ -314,7 +344,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
           return null;
         }
         // Otherwise add the route
-        if (_routes.add(route)) {
+        if (addRoute(route)) {
           return new RibDelta.Builder<>(_owner).add(route).build();
         } else {
           return null;
@@ -326,8 +356,8 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
        * replace them with this one.
        */
       RibDelta<R> delta = new Builder<>(_owner).remove(_routes, REPLACE).add(route).build();
-      _routes.clear();
-      _routes.add(route);
+      clearLocalRoutes();
+      addRoute(route);
       return delta;
     }
     /*
@@ -353,13 +383,13 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
       return null;
     }
     Builder<R> b = new Builder<>(_owner);
-    if (node._routes.remove(route)) {
+    if (node.removeLocalRoute(route)) {
       b.remove(route, reason);
       if (node._routes.isEmpty() && _owner._backupRoutes != null) {
         SortedSet<? extends R> backups =
             _owner._backupRoutes.getOrDefault(route.getNetwork(), Collections.emptySortedSet());
         if (!backups.isEmpty()) {
-          node._routes.add(backups.first());
+          node.addRoute(backups.first());
           b.add(backups.first());
         }
       }
@@ -401,7 +431,7 @@ class RibTreeNode<R extends AbstractRoute> implements Serializable {
       return null;
     }
     RibDelta<R> delta = new Builder<>(_owner).remove(node._routes, REPLACE).build();
-    node._routes.clear();
+    node.clearLocalRoutes();
     return delta;
   }
 
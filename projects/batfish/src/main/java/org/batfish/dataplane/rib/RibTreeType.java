@@ -0,0 +1,9 @@
+package org.batfish.dataplane.rib;
+
+/** The {@link GenericRibTree} implementation used to store the routes of an {@link AbstractRib} */
+public enum RibTreeType {
+  /** Prefix-per-node trie with hash set route buckets, see {@link RibTree} */
+  STANDARD,
+  /** Trie keyed by primitive prefix bits, with array route buckets, see {@link CompactRibTree} */
+  COMPACT
+}
@@ -8,7 +8,11 @@ public class RipInternalRib extends AbstractRib<RipInternalRoute> {
   private static final long serialVersionUID = 1L;
 
   public RipInternalRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public RipInternalRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
@@ -14,7 +14,11 @@ public class RipRib extends AbstractRib<RipRoute> {
   private static final long serialVersionUID = 1L;
 
   public RipRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public RipRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
@@ -7,7 +7,11 @@ public class StaticRib extends AbstractRib<StaticRoute> {
   private static final long serialVersionUID = 1L;
 
   public StaticRib() {
-    super(null);
+    this(RibTreeType.STANDARD);
+  }
+
+  public StaticRib(RibTreeType treeType) {
+    super(null, treeType);
   }
 
   @Override
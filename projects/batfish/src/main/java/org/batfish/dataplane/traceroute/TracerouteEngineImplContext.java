@@ -321,7 +321,7 @@ public class TracerouteEngineImplContext {
         .get(transmissionContext._currentNode.getName())
         .get(c.getAllInterfaces().get(nextHopInterfaceName).getVrfName())
         .get(nextHopInterfaceName)
-        .containsIp(arpIp, c.getIpSpaces())) {
+        .containsIp(arpIp.asLong(), c.getIpSpaces())) {
       FlowDisposition disposition =
           computeDisposition(
               currentNodeName,
@@ -495,7 +495,7 @@ public class TracerouteEngineImplContext {
 
       // .. and what the next hops are based on the FIB.
       Fib currentFib = _fibs.get(currentNodeName).get(vrfName);
-      Set<String> nextHopInterfaces = currentFib.getNextHopInterfaces(dstIp);
+      Set<String> nextHopInterfaces = currentFib.getNextHopInterfaces(dstIp.asLong());
       if (nextHopInterfaces.isEmpty()) {
         // add a step for  NO_ROUTE from source to output interface
         Builder routingStepBuilder = RoutingStep.builder();
@@ -518,7 +518,7 @@ public class TracerouteEngineImplContext {
               .getRibs()
               .get(currentNodeName)
               .get(vrfName)
-              .longestPrefixMatch(dstIp)
+              .longestPrefixMatch(dstIp.asLong())
               .stream()
               .sorted()
               .map(rc -> new RouteInfo(rc.getProtocol(), rc.getNetwork(), rc.getNextHopIp()))
@@ -726,28 +726,28 @@ public class TracerouteEngineImplContext {
         .get(hostname)
         .get(vrfName)
         .get(outgoingInterfaceName)
-        .containsIp(dstIp, ImmutableMap.of())) {
+        .containsIp(dstIp.asLong(), ImmutableMap.of())) {
       return FlowDisposition.DELIVERED_TO_SUBNET;
     } else if (_forwardingAnalysis
         .getExitsNetwork()
         .get(hostname)
         .get(vrfName)
         .get(outgoingInterfaceName)
-        .containsIp(dstIp, ImmutableMap.of())) {
+        .containsIp(dstIp.asLong(), ImmutableMap.of())) {
       return FlowDisposition.EXITS_NETWORK;
     } else if (_forwardingAnalysis
         .getInsufficientInfo()
         .get(hostname)
         .get(vrfName)
         .get(outgoingInterfaceName)
-        .containsIp(dstIp, ImmutableMap.of())) {
+        .containsIp(dstIp.asLong(), ImmutableMap.of())) {
       return FlowDisposition.INSUFFICIENT_INFO;
     } else if (_forwardingAnalysis
         .getNeighborUnreachable()
         .get(hostname)
         .get(vrfName)
         .get(outgoingInterfaceName)
-        .containsIp(dstIp, ImmutableMap.of())) {
+        .containsIp(dstIp.asLong(), ImmutableMap.of())) {
       return FlowDisposition.NEIGHBOR_UNREACHABLE;
     } else {
       throw new BatfishException(
@@ -77,7 +77,7 @@ final class TracerouteUtils {
         .getArpReplies()
         .get(node.getHostname())
         .get(iface)
-        .containsIp(arpIp, node.getIpSpaces());
+        .containsIp(arpIp.asLong(), node.getIpSpaces());
   }
 
   /**
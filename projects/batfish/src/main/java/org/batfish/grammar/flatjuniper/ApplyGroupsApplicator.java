@@ -3,9 +3,9 @@ package org.batfish.grammar.flatjuniper;
 import static org.batfish.grammar.flatjuniper.ConfigurationBuilder.unquote;
 
 import com.google.common.base.Throwables;
-import java.util.ArrayList;
 import java.util.List;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.batfish.common.BatfishException;
 import org.batfish.common.Warnings;
@@ -22,6 +22,33 @@ import org.batfish.main.UndefinedGroupBatfishException;
 
 public class ApplyGroupsApplicator extends FlatJuniperParserBaseListener {
 
+  private static class ContainsApplyGroups extends FlatJuniperParserBaseListener {
+
+    private boolean _containsApplyGroups;
+
+    @Override
+    public void enterApply_groups(Apply_groupsContext ctx) {
+      _containsApplyGroups = true;
+    }
+
+    @Override
+    public void enterApply_groups_except(Apply_groups_exceptContext ctx) {
+      _containsApplyGroups = true;
+    }
+
+    private static boolean containsApplyGroups(List<ParseTree> lines) {
+      ContainsApplyGroups listener = new ContainsApplyGroups();
+      ParseTreeWalker walker = new ParseTreeWalker();
+      for (ParseTree line : lines) {
+        walker.walk(listener, line);
+        if (listener._containsApplyGroups) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   private boolean _changed;
 
   private Flat_juniper_configurationContext _configurationContext;
@@ -36,7 +63,7 @@ public class ApplyGroupsApplicator extends FlatJuniperParserBaseListener {
 
   private boolean _inGroup;
 
-  private List<ParseTree> _newConfigurationLines;
+  private final LineRewriter _lines = new LineRewriter();
 
   private boolean _reenablePathRecording;
 
@@ -72,8 +99,9 @@ public class ApplyGroupsApplicator extends FlatJuniperParserBaseListener {
       List<ParseTree> applyGroupsLines =
           _hierarchy.getApplyGroupsLines(
               groupName, _currentPath, _configurationContext, clusterGroup);
-      int insertionIndex = _newConfigurationLines.indexOf(_currentSetLine);
-      _newConfigurationLines.addAll(insertionIndex, applyGroupsLines);
+      _lines.insertBefore(_currentSetLine, applyGroupsLines);
+      // only the inserted lines may have apply-groups statements left for another pass
+      _changed |= ContainsApplyGroups.containsApplyGroups(applyGroupsLines);
     } catch (PartialGroupMatchException e) {
       _w.pedantic(applyGroupsExceptionMessage(groupName, e));
     } catch (UndefinedGroupBatfishException e) {
@@ -87,9 +115,8 @@ public class ApplyGroupsApplicator extends FlatJuniperParserBaseListener {
       _w.redFlag(applyGroupsExceptionMessage(groupName, e));
     }
     if (removeApplyLine) {
-      _newConfigurationLines.remove(_currentSetLine);
+      _lines.remove(_currentSetLine);
     }
-    _changed = true;
   }
 
   @Override
@@ -97,14 +124,12 @@ public class ApplyGroupsApplicator extends FlatJuniperParserBaseListener {
     if (_inGroup) {
       _w.redFlag("Do not know how to handle apply-groups-except occcurring within group statement");
     }
-    _newConfigurationLines.remove(_currentSetLine);
+    _lines.remove(_currentSetLine);
   }
 
   @Override
   public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
     _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
   }
 
   @Override
@@ -135,7 +160,7 @@ public class ApplyGroupsApplicator extends FlatJuniperParserBaseListener {
 
   @Override
   public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
+    _lines.apply(ctx);
   }
 
   @Override
@@ -162,6 +187,10 @@ public class ApplyGroupsApplicator extends FlatJuniperParserBaseListener {
     _enablePathRecording = false;
   }
 
+  /**
+   * Whether this pass inserted lines with apply-groups or apply-groups-except statements of their
+   * own, which another pass must process.
+   */
   public boolean getChanged() {
     return _changed;
   }
@@ -1,6 +1,5 @@
 package org.batfish.grammar.flatjuniper;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
@@ -25,7 +24,7 @@ public class ApplyPathApplicator extends FlatJuniperParserBaseListener {
 
   private Hierarchy _hierarchy;
 
-  private List<ParseTree> _newConfigurationLines;
+  private final LineRewriter _lines = new LineRewriter();
 
   private boolean _reenablePathRecording;
 
@@ -39,8 +38,6 @@ public class ApplyPathApplicator extends FlatJuniperParserBaseListener {
   @Override
   public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
     _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
   }
 
   @Override
@@ -68,7 +65,6 @@ public class ApplyPathApplicator extends FlatJuniperParserBaseListener {
         applyPathPath.addNode(pathComponent, line);
       }
     }
-    int insertionIndex = _newConfigurationLines.indexOf(_currentSetLine);
     List<ParseTree> newLines = null;
     try {
       newLines = _hierarchy.getApplyPathLines(_currentPath, applyPathPath, _configurationContext);
@@ -80,7 +76,7 @@ public class ApplyPathApplicator extends FlatJuniperParserBaseListener {
               + "addresses or prefixes");
     }
     if (newLines != null) {
-      _newConfigurationLines.addAll(insertionIndex + 1, newLines);
+      _lines.insertAfter(_currentSetLine, newLines);
     }
   }
 
@@ -97,7 +93,7 @@ public class ApplyPathApplicator extends FlatJuniperParserBaseListener {
 
   @Override
   public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
+    _lines.apply(ctx);
   }
 
   @Override
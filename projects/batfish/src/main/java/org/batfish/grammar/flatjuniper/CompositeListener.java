@@ -0,0 +1,58 @@
+package org.batfish.grammar.flatjuniper;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * Forwards every event of a single walk of a parse tree to each of several listeners, in order, so
+ * that independent preprocessing passes share one walk.
+ *
+ * <p>Listeners that edit the lines of the configuration do so when exiting it, in the order given.
+ * Lines that a listener inserts next to a line removed by an earlier listener are dropped. So a
+ * listener that removes lines must come after listeners whose insertions next to those lines are
+ * to be kept, and before listeners whose insertions next to them are to be dropped.
+ */
+@ParametersAreNonnullByDefault
+final class CompositeListener implements ParseTreeListener {
+
+  private final List<ParseTreeListener> _listeners;
+
+  CompositeListener(ParseTreeListener... listeners) {
+    _listeners = ImmutableList.copyOf(listeners);
+  }
+
+  @Override
+  public void enterEveryRule(ParserRuleContext ctx) {
+    for (ParseTreeListener listener : _listeners) {
+      listener.enterEveryRule(ctx);
+      ctx.enterRule(listener);
+    }
+  }
+
+  @Override
+  public void exitEveryRule(ParserRuleContext ctx) {
+    for (ParseTreeListener listener : _listeners) {
+      ctx.exitRule(listener);
+      listener.exitEveryRule(ctx);
+    }
+  }
+
+  @Override
+  public void visitErrorNode(ErrorNode node) {
+    for (ParseTreeListener listener : _listeners) {
+      listener.visitErrorNode(node);
+    }
+  }
+
+  @Override
+  public void visitTerminal(TerminalNode node) {
+    for (ParseTreeListener listener : _listeners) {
+      listener.visitTerminal(node);
+    }
+  }
+}
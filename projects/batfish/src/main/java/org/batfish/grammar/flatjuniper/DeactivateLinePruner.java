@@ -1,31 +1,19 @@
 package org.batfish.grammar.flatjuniper;
 
-import java.util.ArrayList;
-import java.util.List;
-import org.antlr.v4.runtime.tree.ParseTree;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Deactivate_lineContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Flat_juniper_configurationContext;
 
 public class DeactivateLinePruner extends FlatJuniperParserBaseListener {
 
-  private Flat_juniper_configurationContext _configurationContext;
-
-  private List<ParseTree> _newConfigurationLines;
-
-  @Override
-  public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
-  }
+  private final LineRewriter _lines = new LineRewriter();
 
   @Override
   public void exitDeactivate_line(Deactivate_lineContext ctx) {
-    _newConfigurationLines.remove(ctx);
+    _lines.remove(ctx);
   }
 
   @Override
   public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
+    _lines.apply(ctx);
   }
 }
@@ -1,8 +1,5 @@
 package org.batfish.grammar.flatjuniper;
 
-import java.util.ArrayList;
-import java.util.List;
-import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Flat_juniper_configurationContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Interface_idContext;
@@ -14,15 +11,13 @@ public class DeactivatedLinePruner extends FlatJuniperParserBaseListener {
 
   private boolean _checkLine;
 
-  private Flat_juniper_configurationContext _configurationContext;
-
   private HierarchyPath _currentPath;
 
   private boolean _enablePathRecording;
 
   private Hierarchy _hierarchy;
 
-  private List<ParseTree> _newConfigurationLines;
+  private final LineRewriter _lines = new LineRewriter();
 
   private boolean _reenablePathRecording;
 
@@ -30,13 +25,6 @@ public class DeactivatedLinePruner extends FlatJuniperParserBaseListener {
     _hierarchy = hierarchy;
   }
 
-  @Override
-  public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
-  }
-
   @Override
   public void enterInterface_id(Interface_idContext ctx) {
     if (_enablePathRecording && (ctx.unit != null || ctx.suffix != null || ctx.node != null)) {
@@ -60,7 +48,7 @@ public class DeactivatedLinePruner extends FlatJuniperParserBaseListener {
 
   @Override
   public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
+    _lines.apply(ctx);
   }
 
   @Override
@@ -75,7 +63,7 @@ public class DeactivatedLinePruner extends FlatJuniperParserBaseListener {
   public void exitSet_line(Set_lineContext ctx) {
     if (_checkLine) {
       if (_hierarchy.isDeactivated(_currentPath)) {
-        _newConfigurationLines.remove(ctx);
+        _lines.remove(ctx);
       }
       _currentPath = null;
     }
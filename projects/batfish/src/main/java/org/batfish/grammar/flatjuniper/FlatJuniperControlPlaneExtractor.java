@@ -30,27 +30,26 @@ public class FlatJuniperControlPlaneExtractor implements ControlPlaneExtractor {
   public void processParseTree(ParserRuleContext tree) {
     Hierarchy hierarchy = new Hierarchy();
     ParseTreeWalker walker = new ParseTreeWalker();
-    DeactivateTreeBuilder dtb = new DeactivateTreeBuilder(hierarchy);
-    walker.walk(dtb, tree);
-    DeactivateLinePruner dp = new DeactivateLinePruner();
-    walker.walk(dp, tree);
+    // independent passes share walks (see CompositeListener for the order of their edits)
+    walker.walk(
+        new CompositeListener(new DeactivateTreeBuilder(hierarchy), new DeactivateLinePruner()),
+        tree);
     DeactivatedLinePruner dlp = new DeactivatedLinePruner(hierarchy);
     walker.walk(dlp, tree);
-    InitialTreeBuilder tb = new InitialTreeBuilder(hierarchy);
-    walker.walk(tb, tree);
-    GroupTreeBuilder gb = new GroupTreeBuilder(_parser, hierarchy);
-    walker.walk(gb, tree);
+    walker.walk(
+        new CompositeListener(
+            new InitialTreeBuilder(hierarchy), new GroupTreeBuilder(_parser, hierarchy)),
+        tree);
     ApplyGroupsApplicator hb;
     do {
       hb = new ApplyGroupsApplicator(hierarchy, _w);
       walker.walk(hb, tree);
     } while (hb.getChanged());
-    GroupPruner gp = new GroupPruner();
-    walker.walk(gp, tree);
-    WildcardApplicator wa = new WildcardApplicator(hierarchy);
-    walker.walk(wa, tree);
-    WildcardPruner wp = new WildcardPruner();
-    walker.walk(wp, tree);
+    // prune groups first, so that the lines their wildcards expand to are dropped with them
+    walker.walk(
+        new CompositeListener(
+            new GroupPruner(), new WildcardApplicator(hierarchy), new WildcardPruner()),
+        tree);
     walker.walk(dlp, tree);
     ApplyPathApplicator ap = new ApplyPathApplicator(hierarchy, _w);
     walker.walk(ap, tree);
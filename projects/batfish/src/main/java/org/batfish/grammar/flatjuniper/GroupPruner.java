@@ -1,30 +1,18 @@
 package org.batfish.grammar.flatjuniper;
 
-import java.util.ArrayList;
-import java.util.List;
-import org.antlr.v4.runtime.tree.ParseTree;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Flat_juniper_configurationContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.S_groupsContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Set_lineContext;
 
 public class GroupPruner extends FlatJuniperParserBaseListener {
 
-  private Flat_juniper_configurationContext _configurationContext;
-
   private boolean _isGroupsLine;
 
-  private List<ParseTree> _newConfigurationLines;
-
-  @Override
-  public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
-  }
+  private final LineRewriter _lines = new LineRewriter();
 
   @Override
   public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
+    _lines.apply(ctx);
   }
 
   @Override
@@ -35,7 +23,7 @@ public class GroupPruner extends FlatJuniperParserBaseListener {
   @Override
   public void exitSet_line(Set_lineContext ctx) {
     if (_isGroupsLine) {
-      _newConfigurationLines.remove(ctx);
+      _lines.remove(ctx);
     }
     _isGroupsLine = false;
   }
@@ -2,14 +2,11 @@ package org.batfish.grammar.flatjuniper;
 
 import static org.batfish.grammar.flatjuniper.ConfigurationBuilder.unquote;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.antlr.v4.runtime.Lexer;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.misc.Interval;
-import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
-import org.batfish.grammar.flatjuniper.FlatJuniperParser.Flat_juniper_configurationContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Interface_idContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.S_groups_namedContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Set_lineContext;
@@ -22,8 +19,6 @@ public class GroupTreeBuilder extends FlatJuniperParserBaseListener {
 
   private final FlatJuniperCombinedParser _combinedParser;
 
-  private Flat_juniper_configurationContext _configurationContext;
-
   private HierarchyPath _currentPath;
 
   private Set_lineContext _currentSetLine;
@@ -32,8 +27,6 @@ public class GroupTreeBuilder extends FlatJuniperParserBaseListener {
 
   private final Hierarchy _hierarchy;
 
-  private List<ParseTree> _newConfigurationLines;
-
   private boolean _reenablePathRecording;
 
   public GroupTreeBuilder(FlatJuniperCombinedParser combinedParser, Hierarchy hierarchy) {
@@ -41,13 +34,6 @@ public class GroupTreeBuilder extends FlatJuniperParserBaseListener {
     _hierarchy = hierarchy;
   }
 
-  @Override
-  public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
-  }
-
   @Override
   public void enterInterface_id(Interface_idContext ctx) {
     if (_enablePathRecording && (ctx.unit != null || ctx.suffix != null || ctx.node != null)) {
@@ -69,11 +55,6 @@ public class GroupTreeBuilder extends FlatJuniperParserBaseListener {
     _currentPath = new HierarchyPath();
   }
 
-  @Override
-  public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
-  }
-
   @Override
   public void exitInterface_id(Interface_idContext ctx) {
     if (_reenablePathRecording) {
@@ -1,5 +1,9 @@
 package org.batfish.grammar.flatjuniper;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -8,6 +12,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 import org.antlr.v4.runtime.CommonToken;
 import org.antlr.v4.runtime.tree.ParseTree;
@@ -32,6 +37,16 @@ import org.batfish.main.UndefinedGroupBatfishException;
 
 public class Hierarchy {
 
+  /** Maximum number of compiled Juniper wildcard patterns kept for reuse */
+  private static final int MAX_CACHED_PATTERNS = 1 << 12;
+
+  /**
+   * Compiled patterns of Juniper wildcards, shared by all the wildcard nodes (and their copies) of
+   * all hierarchies with the same wildcard.
+   */
+  private static final Cache<String, Pattern> JUNIPER_REGEX_PATTERNS =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_PATTERNS).build();
+
   private static class IsHostnameStatement extends FlatJuniperParserBaseListener {
 
     private boolean _isHostname;
@@ -59,6 +74,8 @@ public class Hierarchy {
 
     private abstract static class HierarchyChildNode extends HierarchyNode {
 
+      /** Position of this node among the children of its parent */
+      protected int _childIndex;
       private Set_lineContext _line;
       protected int _lineNumber;
       protected String _sourceGroup;
@@ -97,7 +114,7 @@ public class Hierarchy {
 
       @Override
       public boolean isMatchedBy(HierarchyWildcardNode node) {
-        return matchWithJuniperRegex(_text, node._wildcard);
+        return node.getPattern().matcher(_text).matches();
       }
 
       @Override
@@ -125,9 +142,16 @@ public class Hierarchy {
       protected Set<String> _blacklistedGroups;
       private Map<String, HierarchyChildNode> _children;
 
+      /**
+       * The wildcard children, in the order they were added. A literal node only matches the child
+       * with the same text and these.
+       */
+      private List<HierarchyWildcardNode> _wildcardChildren;
+
       public HierarchyNode() {
         _children = new LinkedHashMap<>();
         _blacklistedGroups = new HashSet<>();
+        _wildcardChildren = new ArrayList<>();
       }
 
       public void addBlacklistedGroup(String groupName) {
@@ -135,7 +159,16 @@ public class Hierarchy {
       }
 
       public void addChildNode(HierarchyChildNode node) {
+        node._childIndex = _children.size();
         _children.put(node._text, node);
+        if (node.isWildcard()) {
+          _wildcardChildren.add((HierarchyWildcardNode) node);
+        }
+      }
+
+      public void clearChildren() {
+        _children.clear();
+        _wildcardChildren.clear();
       }
 
       public HierarchyChildNode getChildNode(String text) {
@@ -148,12 +181,24 @@ public class Hierarchy {
 
       @Nullable
       public HierarchyChildNode getFirstMatchingChildNode(HierarchyChildNode node) {
-        for (HierarchyChildNode child : _children.values()) {
+        HierarchyChildNode sameText = _children.get(node._text);
+        if (sameText != null && !sameText.matches(node)) {
+          sameText = null;
+        }
+        if (node.isWildcard()) {
+          // a wildcard only matches the wildcard with the same text
+          return sameText;
+        }
+        // the first child in order among the child with the same text and the wildcard children
+        for (HierarchyWildcardNode child : _wildcardChildren) {
+          if (sameText != null && sameText._childIndex < child._childIndex) {
+            break;
+          }
           if (child.matches(node)) {
             return child;
           }
         }
-        return null;
+        return sameText;
       }
 
       public boolean isWildcard() {
@@ -209,6 +254,9 @@ public class Hierarchy {
 
     private static final class HierarchyWildcardNode extends HierarchyChildNode {
 
+      /** The compiled {@link #_wildcard}, or {@code null} if not yet used for matching */
+      @Nullable private Pattern _pattern;
+
       private String _wildcard;
 
       private HierarchyWildcardNode(String text, int lineNumber) {
@@ -221,7 +269,16 @@ public class Hierarchy {
 
       @Override
       public HierarchyChildNode copy() {
-        return new HierarchyWildcardNode(_text, _lineNumber);
+        HierarchyWildcardNode copy = new HierarchyWildcardNode(_text, _lineNumber);
+        copy._pattern = _pattern;
+        return copy;
+      }
+
+      private Pattern getPattern() {
+        if (_pattern == null) {
+          _pattern = juniperRegexPattern(_wildcard);
+        }
+        return _pattern;
       }
 
       @Override
@@ -260,10 +317,14 @@ public class Hierarchy {
 
     private String _groupName;
 
+    /** Settings for parsing generated lines, shared by the trees of a hierarchy */
+    private final Supplier<Settings> _parserSettings;
+
     private HierarchyRootNode _root;
 
-    private HierarchyTree(@Nullable String groupName) {
+    private HierarchyTree(@Nullable String groupName, Supplier<Settings> parserSettings) {
       _groupName = groupName;
+      _parserSettings = parserSettings;
       _root = new HierarchyRootNode();
     }
 
@@ -379,7 +440,7 @@ public class Hierarchy {
             return;
           }
           newDestinationTreeRoot = currentPathNode.copy();
-          destinationTreeRoot._children.put(newDestinationTreeRoot._text, newDestinationTreeRoot);
+          destinationTreeRoot.addChildNode(newDestinationTreeRoot);
         }
         newPath._nodes.add(newDestinationTreeRoot);
         if (startingIndex == path._nodes.size() - 1) {
@@ -461,7 +522,7 @@ public class Hierarchy {
      * Populate the specified setLine's children with the supplied path and return the generated set
      * statement
      */
-    private static StatementContext setLineHelper(
+    private StatementContext setLineHelper(
         Set_lineContext setLine, HierarchyPath path, int overrideLine, boolean markWildcards) {
       StringBuilder sb = new StringBuilder();
       for (HierarchyChildNode pathNode : path._nodes) {
@@ -479,8 +540,8 @@ public class Hierarchy {
       setLine.children.add(set);
       setLine.children.add(setLineTail);
       setLine.children.add(newline);
-      Settings settings = parserSettings();
-      FlatJuniperCombinedParser parser = new FlatJuniperCombinedParser(newStatementText, settings);
+      FlatJuniperCombinedParser parser =
+          new FlatJuniperCombinedParser(newStatementText, _parserSettings.get());
       // Use the supplied line number for the constructed nodes
       parser.getLexer().setOverrideTokenStartLine(overrideLine);
       if (markWildcards) {
@@ -635,7 +696,7 @@ public class Hierarchy {
 
     public void pruneAfterPath(HierarchyPath path) {
       HierarchyChildNode pathEnd = findExactPathMatchNode(path);
-      pathEnd.getChildren().clear();
+      pathEnd.clearChildren();
     }
 
     public void setApplyGroupsExcept(HierarchyPath path, String groupName) {
@@ -648,12 +709,16 @@ public class Hierarchy {
 
   private HierarchyTree _masterTree;
 
+  /** Creating settings is expensive compared to parsing a single generated line */
+  private Supplier<Settings> _parserSettings;
+
   private Map<String, HierarchyTree> _trees;
 
   public Hierarchy() {
+    _parserSettings = Suppliers.memoize(HierarchyTree::parserSettings);
     _trees = new HashMap<>();
-    _masterTree = new HierarchyTree(null);
-    _deactivateTree = new HierarchyTree(null);
+    _masterTree = new HierarchyTree(null, _parserSettings);
+    _deactivateTree = new HierarchyTree(null, _parserSettings);
   }
 
   public void addDeactivatePath(HierarchyPath path, Deactivate_lineContext ctx) {
@@ -700,7 +765,7 @@ public class Hierarchy {
   }
 
   public HierarchyTree newTree(String groupName) {
-    HierarchyTree newTree = new HierarchyTree(groupName);
+    HierarchyTree newTree = new HierarchyTree(groupName, _parserSettings);
     _trees.put(groupName, newTree);
     return newTree;
   }
@@ -709,8 +774,18 @@ public class Hierarchy {
     _masterTree.setApplyGroupsExcept(path, groupName);
   }
 
+  /** Returns the compiled pattern of the given Juniper wildcard, shared by all its users */
+  private static Pattern juniperRegexPattern(String juniperRegex) {
+    Pattern pattern = JUNIPER_REGEX_PATTERNS.getIfPresent(juniperRegex);
+    if (pattern == null) {
+      // not a loading cache, so that invalid wildcards throw the same exceptions as before
+      pattern = Pattern.compile(juniperRegex.replace("*", ".*"));
+      JUNIPER_REGEX_PATTERNS.put(juniperRegex, pattern);
+    }
+    return pattern;
+  }
+
   static boolean matchWithJuniperRegex(String candidate, String juniperRegex) {
-    String regex = juniperRegex.replaceAll("\\*", ".*");
-    return candidate.matches(regex);
+    return juniperRegexPattern(juniperRegex).matcher(candidate).matches();
   }
 }
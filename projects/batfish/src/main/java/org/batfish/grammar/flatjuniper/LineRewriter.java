@@ -0,0 +1,70 @@
+package org.batfish.grammar.flatjuniper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.batfish.grammar.flatjuniper.FlatJuniperParser.Flat_juniper_configurationContext;
+
+/**
+ * Collects the lines that a preprocessing pass inserts into or removes from a flat Juniper
+ * configuration, and applies them all at once at the end of the pass.
+ *
+ * <p>Editing the list of lines in place takes time linear in the number of lines per edit, which is
+ * quadratic in the size of configurations where most lines are edited (e.g., by apply-groups).
+ */
+@ParametersAreNonnullByDefault
+final class LineRewriter {
+
+  private final Map<ParseTree, List<ParseTree>> _insertionsAfter = new IdentityHashMap<>();
+
+  private final Map<ParseTree, List<ParseTree>> _insertionsBefore = new IdentityHashMap<>();
+
+  private final Set<ParseTree> _removals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /** Apply the collected edits to the lines of {@code configuration}, and forget them. */
+  void apply(Flat_juniper_configurationContext configuration) {
+    List<ParseTree> lines = new ArrayList<>(configuration.children.size());
+    for (ParseTree line : configuration.children) {
+      List<ParseTree> before = _insertionsBefore.get(line);
+      if (before != null) {
+        lines.addAll(before);
+      }
+      if (!_removals.contains(line)) {
+        lines.add(line);
+      }
+      List<ParseTree> after = _insertionsAfter.get(line);
+      if (after != null) {
+        lines.addAll(after);
+      }
+    }
+    configuration.children = lines;
+    _insertionsAfter.clear();
+    _insertionsBefore.clear();
+    _removals.clear();
+  }
+
+  /**
+   * Insert {@code newLines} right after {@code line}, and after the lines inserted after it so far.
+   * The lines are inserted even if {@code line} is removed.
+   */
+  void insertAfter(ParseTree line, List<ParseTree> newLines) {
+    _insertionsAfter.computeIfAbsent(line, l -> new ArrayList<>()).addAll(newLines);
+  }
+
+  /**
+   * Insert {@code newLines} right before {@code line}, and after the lines inserted before it so
+   * far. The lines are inserted even if {@code line} is removed.
+   */
+  void insertBefore(ParseTree line, List<ParseTree> newLines) {
+    _insertionsBefore.computeIfAbsent(line, l -> new ArrayList<>()).addAll(newLines);
+  }
+
+  void remove(ParseTree line) {
+    _removals.add(line);
+  }
+}
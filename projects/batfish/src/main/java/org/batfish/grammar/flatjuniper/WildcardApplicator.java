@@ -1,6 +1,5 @@
 package org.batfish.grammar.flatjuniper;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
@@ -20,7 +19,7 @@ public class WildcardApplicator extends FlatJuniperParserBaseListener {
 
   private Hierarchy _hierarchy;
 
-  private List<ParseTree> _newConfigurationLines;
+  private final LineRewriter _lines = new LineRewriter();
 
   private boolean _reenablePathRecording;
 
@@ -31,8 +30,6 @@ public class WildcardApplicator extends FlatJuniperParserBaseListener {
   @Override
   public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
     _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
   }
 
   @Override
@@ -53,7 +50,7 @@ public class WildcardApplicator extends FlatJuniperParserBaseListener {
 
   @Override
   public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
+    _lines.apply(ctx);
   }
 
   @Override
@@ -69,8 +66,7 @@ public class WildcardApplicator extends FlatJuniperParserBaseListener {
     if (_currentPath.containsWildcard()) {
       List<ParseTree> lines =
           _hierarchy.getMasterTree().applyWildcardPath(_currentPath, _configurationContext);
-      int insertionIndex = _newConfigurationLines.indexOf(ctx);
-      _newConfigurationLines.addAll(insertionIndex, lines);
+      _lines.insertBefore(ctx, lines);
     }
     _currentPath = null;
   }
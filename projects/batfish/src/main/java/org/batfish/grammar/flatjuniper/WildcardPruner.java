@@ -1,8 +1,5 @@
 package org.batfish.grammar.flatjuniper;
 
-import java.util.ArrayList;
-import java.util.List;
-import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Flat_juniper_configurationContext;
 import org.batfish.grammar.flatjuniper.FlatJuniperParser.Set_lineContext;
@@ -11,20 +8,11 @@ import org.batfish.grammar.flatjuniper.Hierarchy.HierarchyTree.HierarchyPath;
 
 public class WildcardPruner extends FlatJuniperParserBaseListener {
 
-  private Flat_juniper_configurationContext _configurationContext;
-
   private HierarchyPath _currentPath;
 
   private boolean _enablePathRecording;
 
-  private List<ParseTree> _newConfigurationLines;
-
-  @Override
-  public void enterFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext = ctx;
-    _newConfigurationLines = new ArrayList<>();
-    _newConfigurationLines.addAll(ctx.children);
-  }
+  private final LineRewriter _lines = new LineRewriter();
 
   @Override
   public void enterSet_line_tail(Set_line_tailContext ctx) {
@@ -34,13 +22,13 @@ public class WildcardPruner extends FlatJuniperParserBaseListener {
 
   @Override
   public void exitFlat_juniper_configuration(Flat_juniper_configurationContext ctx) {
-    _configurationContext.children = _newConfigurationLines;
+    _lines.apply(ctx);
   }
 
   @Override
   public void exitSet_line(Set_lineContext ctx) {
     if (_currentPath.containsWildcard()) {
-      _newConfigurationLines.remove(ctx);
+      _lines.remove(ctx);
     }
     _currentPath = null;
   }
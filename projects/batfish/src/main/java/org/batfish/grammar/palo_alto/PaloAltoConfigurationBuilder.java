@@ -190,7 +190,7 @@ public class PaloAltoConfigurationBuilder extends PaloAltoParserBaseListener {
     if (ctx.ANY() != null) {
       return UniverseIpSpace.INSTANCE;
     } else if (ctx.IP_ADDRESS() != null) {
-      return new Ip(ctx.IP_ADDRESS().getText()).toIpSpace();
+      return Ip.parse(ctx.IP_ADDRESS().getText()).toIpSpace();
     } else if (ctx.IP_PREFIX() != null) {
       return Prefix.parse(ctx.IP_PREFIX().getText()).toIpSpace();
     }
@@ -399,7 +399,7 @@ public class PaloAltoConfigurationBuilder extends PaloAltoParserBaseListener {
 
   @Override
   public void exitSnvrrt_nexthop(Snvrrt_nexthopContext ctx) {
-    _currentStaticRoute.setNextHopIp(new Ip(ctx.address.getText()));
+    _currentStaticRoute.setNextHopIp(Ip.parse(ctx.address.getText()));
   }
 
   @Override
@@ -9,6 +9,7 @@ import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.util.CommonUtil;
@@ -68,7 +69,45 @@ public class BatfishJobExecutor {
           boolean haltOnProcessingError,
           String description) {
     getBatfishJobExecutor(settings, logger)
-        .executeJobs(jobs, output, answerElement, haltOnProcessingError, description);
+        .executeJobs(
+            jobs,
+            output,
+            answerElement,
+            haltOnProcessingError,
+            description,
+            Integer.MAX_VALUE,
+            result -> {});
+  }
+
+  /**
+   * Like {@link #runJobsInExecutor(Settings, BatfishLogger, List, Object, AnswerElement, boolean,
+   * String)}, but submits at most {@code maxInFlight} jobs whose results have not been handled yet,
+   * and passes each result to {@code onResult} right after it is applied to {@code output}. This
+   * keeps the memory held by pending jobs and results bounded, and lets the caller stream results
+   * into a later stage.
+   *
+   * @param maxInFlight maximum number of submitted jobs whose results have not been handled yet
+   * @param onResult called on the thread running this method with each result that was applied to
+   *     {@code output}
+   */
+  public static <
+          JobT extends BatfishJob<JobResultT>,
+          AnswerElementT extends AnswerElement,
+          JobResultT extends BatfishJobResult<OutputT, AnswerElementT>,
+          OutputT>
+      void runJobsInExecutor(
+          Settings settings,
+          BatfishLogger logger,
+          List<JobT> jobs,
+          OutputT output,
+          AnswerElementT answerElement,
+          boolean haltOnProcessingError,
+          String description,
+          int maxInFlight,
+          Consumer<JobResultT> onResult) {
+    getBatfishJobExecutor(settings, logger)
+        .executeJobs(
+            jobs, output, answerElement, haltOnProcessingError, description, maxInFlight, onResult);
   }
 
   static BatfishJobExecutor getBatfishJobExecutor(Settings settings, BatfishLogger logger) {
@@ -82,6 +121,8 @@ public class BatfishJobExecutor {
    * @param answerElement {@link AnswerElement} containing the detail of the jobs executed
    * @param haltOnProcessingError whether to halt on processing error
    * @param description description of the jobs submitted to the executor
+   * @param maxInFlight maximum number of submitted jobs whose results have not been handled yet
+   * @param onResult called with each result that was applied to {@code output}
    * @param <JobT> type of job executed in the executor
    * @param <AnswerElementT> type of {@link AnswerElement} to which {@link BatfishJobResult} will be
    *     applied
@@ -98,7 +139,9 @@ public class BatfishJobExecutor {
           OutputT output,
           AnswerElementT answerElement,
           boolean haltOnProcessingError,
-          String description) {
+          String description,
+          int maxInFlight,
+          Consumer<JobResultT> onResult) {
 
     // Initializing executors
     ExecutorService pool = createExecutorService();
@@ -108,15 +151,17 @@ public class BatfishJobExecutor {
       Collections.shuffle(jobs);
     }
 
-    for (JobT job : jobs) {
-      completionService.submit(job);
-    }
-
     initializeJobsStats(jobs, description);
     boolean processingError = false;
     List<BatfishException> failureCauses = new ArrayList<>();
+    int submitted = 0;
     try {
       for (int i = 0; i < jobs.size(); i++) {
+        // keep at most maxInFlight jobs submitted but not yet handled
+        while (submitted < jobs.size() && submitted - i < maxInFlight) {
+          completionService.submit(jobs.get(submitted));
+          submitted++;
+        }
 
         JobResultT result = null;
         try {
@@ -135,6 +180,9 @@ public class BatfishJobExecutor {
         if (jobResultError) {
           processingError = true;
         }
+        if (!jobResultError || !haltOnProcessingError) {
+          onResult.accept(result);
+        }
       }
     } finally {
       pool.shutdown();
@@ -0,0 +1,290 @@
+package org.batfish.job;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Multimap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.BatfishException;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.BatfishLogger.BatfishLoggerHistory;
+import org.batfish.common.ParseTreeSentences;
+import org.batfish.common.Version;
+import org.batfish.common.Warnings;
+import org.batfish.config.Settings;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
+import org.batfish.datamodel.answers.ParseStatus;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.main.Batfish;
+import org.batfish.storage.StorageProvider;
+import org.batfish.vendor.VendorConfiguration;
+
+/**
+ * Caches the results of {@link ParseVendorConfigurationJob} and {@link ConvertConfigurationJob} in
+ * the storage of a network, so that configuration files that did not change since an earlier
+ * snapshot of the network are neither parsed nor converted again.
+ *
+ * <p>Entries are keyed by a hash of everything a result depends on: the contents, name and format
+ * of the file, the Batfish build (which determines the grammars and conversion), and the settings
+ * that affect parsing or conversion. Results of conversion are additionally keyed by the hashes of
+ * the parsed vendor configuration and of its overlay, as recorded by {@link
+ * VendorConfiguration#getSourceHash()}.
+ *
+ * <p>Entries written by other builds are never hit again, so {@link #prune(BatfishLogger)} bounds
+ * the cache by deleting entries that have not been used recently.
+ */
+@ParametersAreNonnullByDefault
+public final class ConfigurationCache {
+
+  /** The cached result of converting one vendor configuration. */
+  static final class ConvertEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ConvertConfigurationAnswerElement _answerElement;
+
+    private final Map<String, Configuration> _configurations;
+
+    private final Map<String, Warnings> _warningsByHost;
+
+    ConvertEntry(
+        ConvertConfigurationAnswerElement answerElement,
+        Map<String, Configuration> configurations,
+        Map<String, Warnings> warningsByHost) {
+      _answerElement = answerElement;
+      _configurations = configurations;
+      _warningsByHost = warningsByHost;
+    }
+
+    @Nonnull
+    ConvertConfigurationResult toResult(
+        long elapsedTime, BatfishLoggerHistory history, String name, Settings settings) {
+      // recording flags of warnings are not serialized
+      _warningsByHost.replaceAll((hostname, warnings) -> restoreWarnings(warnings, settings));
+      return new ConvertConfigurationResult(
+          elapsedTime, history, _warningsByHost, name, _configurations, _answerElement);
+    }
+  }
+
+  /** The cached result of parsing one configuration file without failure. */
+  static final class ParseEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nullable private final ParseTreeSentences _parseTree;
+
+    @Nullable private final ParseStatus _status;
+
+    private final boolean _unrecognized;
+
+    @Nullable private final VendorConfiguration _vendorConfiguration;
+
+    private final Warnings _warnings;
+
+    ParseEntry(ParseVendorConfigurationResult result) {
+      _parseTree = result.getParseTree();
+      _status = result.getStatus();
+      _vendorConfiguration = result.getVendorConfiguration();
+      // not serialized with the vendor configuration
+      _unrecognized = _vendorConfiguration != null && _vendorConfiguration.getUnrecognized();
+      _warnings = result.getWarnings();
+    }
+
+    @Nonnull
+    ParseVendorConfigurationResult toResult(
+        long elapsedTime,
+        BatfishLoggerHistory history,
+        String filename,
+        Warnings warnings,
+        Multimap<String, String> duplicateHostnames) {
+      copyWarnings(_warnings, warnings);
+      if (_vendorConfiguration == null) {
+        return new ParseVendorConfigurationResult(
+            elapsedTime, history, filename, warnings, _status);
+      }
+      _vendorConfiguration.setUnrecognized(_unrecognized);
+      return new ParseVendorConfigurationResult(
+          elapsedTime,
+          history,
+          filename,
+          _vendorConfiguration,
+          warnings,
+          _parseTree,
+          duplicateHostnames);
+    }
+  }
+
+  /**
+   * Returns the cache for the network of the given {@link Settings}, or {@code null} if caching is
+   * disabled or there is no network.
+   */
+  public static @Nullable ConfigurationCache create(Settings settings, StorageProvider storage) {
+    NetworkId network = settings.getContainer();
+    if (!settings.getParseCache() || network == null) {
+      return null;
+    }
+    return new ConfigurationCache(settings, storage, network);
+  }
+
+  private static void copyWarnings(Warnings from, Warnings to) {
+    to.getParseWarnings().addAll(from.getParseWarnings());
+    to.getPedanticWarnings().addAll(from.getPedanticWarnings());
+    to.getRedFlagWarnings().addAll(from.getRedFlagWarnings());
+    to.getUnimplementedWarnings().addAll(from.getUnimplementedWarnings());
+  }
+
+  private static @Nonnull Hasher putString(Hasher hasher, @Nullable String string) {
+    // prefix the length so that adjacent strings cannot run into each other
+    return string == null
+        ? hasher.putInt(-1)
+        : hasher.putInt(string.length()).putString(string, UTF_8);
+  }
+
+  private static @Nonnull Warnings restoreWarnings(Warnings warnings, Settings settings) {
+    Warnings restored = Batfish.buildWarnings(settings);
+    copyWarnings(warnings, restored);
+    return restored;
+  }
+
+  /** Hash of everything besides the converted vendor configuration that conversion depends on. */
+  private final HashCode _convertSettingsHash;
+
+  private final int _maxAgeDays;
+
+  private final long _maxBytes;
+
+  private final NetworkId _network;
+
+  /** Hash of everything besides the parsed file that parsing depends on. */
+  private final HashCode _parseSettingsHash;
+
+  private final StorageProvider _storage;
+
+  private ConfigurationCache(Settings settings, StorageProvider storage, NetworkId network) {
+    _maxAgeDays = settings.getParseCacheMaxAgeDays();
+    _maxBytes = settings.getParseCacheMaxSizeMb() * 1024L * 1024L;
+    _network = network;
+    _storage = storage;
+    Hasher common = Hashing.sha256().newHasher();
+    putString(common, Version.getBuildFingerprint());
+    putString(common, settings.getLogLevel());
+    common
+        .putBoolean(settings.getPedanticRecord())
+        .putBoolean(settings.getRedFlagRecord())
+        .putBoolean(settings.getUnimplementedRecord());
+    HashCode commonHash = common.hash();
+    _convertSettingsHash =
+        putString(Hashing.sha256().newHasher().putBytes(commonHash.asBytes()), "convert").hash();
+    Hasher parse = Hashing.sha256().newHasher().putBytes(commonHash.asBytes());
+    putString(parse, "parse");
+    parse
+        .putBoolean(settings.getDisableUnrecognized())
+        .putBoolean(settings.getEnableCiscoNxParser())
+        .putBoolean(settings.flattenOnTheFly())
+        .putBoolean(settings.ignoreUnknown())
+        .putBoolean(settings.ignoreUnsupported())
+        .putInt(settings.getMaxParserContextLines())
+        .putInt(settings.getMaxParserContextTokens())
+        .putInt(settings.getMaxParseTreePrintLength())
+        .putBoolean(settings.getPrintParseTree())
+        .putBoolean(settings.getPrintParseTreeLineNums())
+        .putBoolean(settings.getThrowOnLexerError())
+        .putBoolean(settings.getThrowOnParserError());
+    parse.putInt(settings.ignoreFilesWithStrings().size());
+    settings.ignoreFilesWithStrings().forEach(s -> putString(parse, s));
+    _parseSettingsHash = parse.hash();
+  }
+
+  /**
+   * Returns the key of the result of converting {@code configObject}, the vendor configuration of
+   * the node {@code name}, or {@code null} if that result cannot be cached.
+   */
+  @Nullable
+  String getConvertKey(Object configObject, String name) {
+    if (!(configObject instanceof VendorConfiguration)) {
+      return null;
+    }
+    VendorConfiguration vc = (VendorConfiguration) configObject;
+    VendorConfiguration overlay = vc.getOverlayConfiguration();
+    String sourceHash = vc.getSourceHash();
+    String overlaySourceHash = overlay != null ? overlay.getSourceHash() : "";
+    if (sourceHash == null || overlaySourceHash == null) {
+      return null;
+    }
+    Hasher hasher = Hashing.sha256().newHasher().putBytes(_convertSettingsHash.asBytes());
+    putString(hasher, name);
+    putString(hasher, vc.getHostname());
+    putString(hasher, sourceHash);
+    putString(hasher, overlaySourceHash);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Returns the key of the result of parsing the file {@code filename} with text {@code fileText}
+   * and format {@code format}.
+   */
+  @Nonnull
+  String getParseKey(String fileText, String filename, ConfigurationFormat format) {
+    Hasher hasher = Hashing.sha256().newHasher().putBytes(_parseSettingsHash.asBytes());
+    putString(hasher, filename);
+    putString(hasher, format.name());
+    putString(hasher, fileText);
+    return hasher.hash().toString();
+  }
+
+  @Nullable
+  ConvertEntry loadConvertEntry(String key, BatfishLogger logger) {
+    return load(key, ConvertEntry.class, logger);
+  }
+
+  @Nullable
+  ParseEntry loadParseEntry(String key, BatfishLogger logger) {
+    return load(key, ParseEntry.class, logger);
+  }
+
+  private @Nullable <S extends Serializable> S load(
+      String key, Class<S> entryClass, BatfishLogger logger) {
+    try {
+      return _storage.loadCachedObject(_network, key, entryClass);
+    } catch (BatfishException e) {
+      // e.g., written by an incompatible build; treat as missing so that it gets replaced
+      logger.warnf(
+          "Ignoring unreadable cache entry %s: %s\n", key, Throwables.getStackTraceAsString(e));
+      return null;
+    }
+  }
+
+  /**
+   * Deletes the entries of the network that were not used in the configured number of days, and
+   * then the least recently used entries until the cache fits in the configured size.
+   */
+  public void prune(BatfishLogger logger) {
+    try {
+      _storage.pruneCachedObjects(
+          _network, Instant.now().minus(Duration.ofDays(_maxAgeDays)), _maxBytes);
+    } catch (BatfishException e) {
+      logger.warnf(
+          "Could not prune configuration cache: %s\n", Throwables.getStackTraceAsString(e));
+    }
+  }
+
+  void store(String key, Serializable entry, BatfishLogger logger) {
+    try {
+      _storage.storeCachedObject(entry, _network, key);
+    } catch (BatfishException e) {
+      logger.warnf(
+          "Could not write cache entry %s: %s\n", key, Throwables.getStackTraceAsString(e));
+    }
+  }
+}
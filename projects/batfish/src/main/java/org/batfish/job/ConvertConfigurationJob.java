@@ -2,11 +2,13 @@ package org.batfish.job;
 
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.batfish.common.BatfishException;
 import org.batfish.common.Warnings;
 import org.batfish.config.Settings;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
+import org.batfish.job.ConfigurationCache.ConvertEntry;
 import org.batfish.main.Batfish;
 import org.batfish.representation.aws.AwsConfiguration;
 import org.batfish.representation.host.HostConfiguration;
@@ -15,18 +17,49 @@ import org.batfish.vendor.VendorConfiguration;
 
 public class ConvertConfigurationJob extends BatfishJob<ConvertConfigurationResult> {
 
+  @Nullable private final ConfigurationCache _cache;
+
   private Object _configObject;
 
   private String _name;
 
   public ConvertConfigurationJob(Settings settings, Object configObject, String name) {
+    this(settings, configObject, name, null);
+  }
+
+  public ConvertConfigurationJob(
+      Settings settings, Object configObject, String name, @Nullable ConfigurationCache cache) {
     super(settings);
+    _cache = cache;
     _configObject = configObject;
     _name = name;
   }
 
   @Override
   public ConvertConfigurationResult call() {
+    String key = _cache != null ? _cache.getConvertKey(_configObject, _name) : null;
+    if (key == null) {
+      return convert();
+    }
+    long startTime = System.currentTimeMillis();
+    ConvertEntry cached = _cache.loadConvertEntry(key, _logger);
+    if (cached != null) {
+      _logger.infof("Reusing cached conversion of: \"%s\"\n", _name);
+      return cached.toResult(
+          System.currentTimeMillis() - startTime, _logger.getHistory(), _name, _settings);
+    }
+    ConvertConfigurationResult result = convert();
+    if (result.getFailureCause() == null) {
+      _cache.store(
+          key,
+          new ConvertEntry(
+              result.getAnswerElement(), result.getConfigurations(), result.getWarningsByHost()),
+          _logger);
+    }
+    return result;
+  }
+
+  private ConvertConfigurationResult convert() {
     long startTime = System.currentTimeMillis();
     long elapsedTime;
     _logger.infof("Processing: \"%s\"", _name);
@@ -81,6 +81,10 @@ public class ConvertConfigurationResult
     }
   }
 
+  ConvertConfigurationAnswerElement getAnswerElement() {
+    return _answerElement;
+  }
+
   public Map<String, Configuration> getConfigurations() {
     return _configurations;
   }
@@ -94,6 +98,10 @@ public class ConvertConfigurationResult
     return _name;
   }
 
+  Map<String, Warnings> getWarningsByHost() {
+    return _warningsByHost;
+  }
+
   @Override
   public String toString() {
     if (_configurations != null) {
@@ -4,6 +4,7 @@ import com.google.common.collect.Multimap;
 import java.nio.file.Paths;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.batfish.common.BatfishException;
 import org.batfish.common.ParseTreeSentences;
@@ -29,6 +30,7 @@ import org.batfish.grammar.mrv.MrvCombinedParser;
 import org.batfish.grammar.mrv.MrvControlPlaneExtractor;
 import org.batfish.grammar.palo_alto.PaloAltoCombinedParser;
 import org.batfish.grammar.palo_alto.PaloAltoControlPlaneExtractor;
+import org.batfish.job.ConfigurationCache.ParseEntry;
 import org.batfish.main.Batfish;
 import org.batfish.main.ParserBatfishException;
 import org.batfish.representation.host.HostConfiguration;
@@ -66,6 +68,8 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
     }
   }
 
+  @Nullable private final ConfigurationCache _cache;
+
   /** Information about duplicate hostnames is collected here */
   private Multimap<String, String> _duplicateHostnames;
 
@@ -87,7 +91,19 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
       Warnings warnings,
       ConfigurationFormat configurationFormat,
       Multimap<String, String> duplicateHostnames) {
+    this(settings, fileText, filename, warnings, configurationFormat, duplicateHostnames, null);
+  }
+
+  public ParseVendorConfigurationJob(
+      Settings settings,
+      String fileText,
+      String filename,
+      Warnings warnings,
+      ConfigurationFormat configurationFormat,
+      Multimap<String, String> duplicateHostnames,
+      @Nullable ConfigurationCache cache) {
     super(settings);
+    _cache = cache;
     _fileText = fileText;
     _filename = filename;
     _ptSentences = new ParseTreeSentences();
@@ -96,9 +112,36 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
     _duplicateHostnames = duplicateHostnames;
   }
 
-  @SuppressWarnings("fallthrough")
   @Override
   public ParseVendorConfigurationResult call() throws Exception {
+    if (_cache == null) {
+      return parse();
+    }
+    long startTime = System.currentTimeMillis();
+    String key = _cache.getParseKey(_fileText, _filename, _format);
+    ParseEntry cached = _cache.loadParseEntry(key, _logger);
+    if (cached != null) {
+      _logger.infof("Reusing cached parse of: '%s'\n", _filename);
+      return cached.toResult(
+          System.currentTimeMillis() - startTime,
+          _logger.getHistory(),
+          _filename,
+          _warnings,
+          _duplicateHostnames);
+    }
+    ParseVendorConfigurationResult result = parse();
+    if (result.getFailureCause() == null) {
+      VendorConfiguration vc = result.getVendorConfiguration();
+      if (vc != null) {
+        vc.setSourceHash(key);
+      }
+      _cache.store(key, new ParseEntry(result), _logger);
+    }
+    return result;
+  }
+
+  @SuppressWarnings("fallthrough")
+  private ParseVendorConfigurationResult parse() throws Exception {
     long startTime = System.currentTimeMillis();
     long elapsedTime;
     VendorConfiguration vc = null;
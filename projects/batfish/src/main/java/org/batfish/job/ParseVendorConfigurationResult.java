@@ -3,7 +3,10 @@ package org.batfish.job;
 import com.google.common.collect.Multimap;
 import java.io.File;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BatfishLogger.BatfishLoggerHistory;
@@ -88,19 +91,44 @@ public class ParseVendorConfigurationResult
       Map<String, VendorConfiguration> vendorConfigurations,
       BatfishLogger logger,
       ParseVendorConfigurationAnswerElement answerElement) {
+    applyTo(
+        vendorConfigurations,
+        VendorConfiguration::getFilename,
+        VendorConfiguration::setHostname,
+        Function.identity(),
+        logger,
+        answerElement);
+  }
+
+  /**
+   * Like {@link #applyTo(Map, BatfishLogger, ParseVendorConfigurationAnswerElement)}, but for
+   * callers that track parsed configurations by hostname as entries of their own type.
+   *
+   * @param entries entries by hostname of the configurations parsed so far
+   * @param getFilename returns the name of the file an entry was parsed from
+   * @param rename renames an entry whose hostname turns out to be a duplicate
+   * @param toEntry creates the entry for the parsed configuration once its hostname is resolved
+   */
+  public <T> void applyTo(
+      Map<String, T> entries,
+      Function<T, String> getFilename,
+      BiConsumer<T, String> rename,
+      Function<VendorConfiguration, T> toEntry,
+      BatfishLogger logger,
+      ParseVendorConfigurationAnswerElement answerElement) {
     appendHistory(logger);
     if (_vc != null) {
       String hostname = _vc.getHostname();
-      if (vendorConfigurations.containsKey(hostname)) {
+      if (entries.containsKey(hostname)) {
         /*
-         * Modify the hostname of what is already in the vendorConfigurations map. Ideally, we'd add
-         * a warning but the getWarnings object around here is null
+         * Modify the hostname of what is already in the entries map. Ideally, we'd add a warning
+         * but the getWarnings object around here is null
          */
-        VendorConfiguration oldVc = vendorConfigurations.get(hostname);
-        String modifiedOldName = getModifiedName(hostname, oldVc.getFilename());
-        oldVc.setHostname(modifiedOldName);
-        vendorConfigurations.remove(hostname);
-        vendorConfigurations.put(modifiedOldName, oldVc);
+        T oldEntry = entries.get(hostname);
+        String modifiedOldName = getModifiedName(hostname, getFilename.apply(oldEntry));
+        rename.accept(oldEntry, modifiedOldName);
+        entries.remove(hostname);
+        entries.put(modifiedOldName, oldEntry);
         _duplicateHostnames.put(hostname, modifiedOldName);
       }
       if (_duplicateHostnames.containsKey(hostname)) {
@@ -111,7 +139,7 @@ public class ParseVendorConfigurationResult
         _duplicateHostnames.put(hostname, modifiedNewName);
         hostname = modifiedNewName;
       }
-      vendorConfigurations.put(hostname, _vc);
+      entries.put(hostname, toEntry.apply(_vc));
       answerElement.getFileMap().put(hostname, _filename);
       if (!_warnings.isEmpty()) {
         answerElement.getWarnings().put(hostname, _warnings);
@@ -145,6 +173,11 @@ public class ParseVendorConfigurationResult
     return _history;
   }
 
+  @Nullable
+  ParseTreeSentences getParseTree() {
+    return _parseTree;
+  }
+
   private String getModifiedName(String baseName, String filename) {
     String modifiedName = getModifiedNameBase(baseName, filename);
     int index = 0;
@@ -160,10 +193,20 @@ public class ParseVendorConfigurationResult
     return baseName + "__" + filename.replaceAll(File.separator, "__");
   }
 
+  /** Returns the status of parsing, or {@code null} if determined by the vendor configuration. */
+  @Nullable
+  ParseStatus getStatus() {
+    return _status;
+  }
+
   public VendorConfiguration getVendorConfiguration() {
     return _vc;
   }
 
+  Warnings getWarnings() {
+    return _warnings;
+  }
+
   @Override
   public String toString() {
     if (_vc == null) {
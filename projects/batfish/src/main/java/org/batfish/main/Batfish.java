@@ -26,6 +26,7 @@ import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.opentracing.ActiveSpan;
 import io.opentracing.util.GlobalTracer;
 import java.io.File;
@@ -36,6 +37,7 @@ import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -53,8 +55,16 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -64,7 +74,6 @@ import net.sf.javabdd.BDD;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.apache.commons.configuration2.ImmutableConfiguration;
-import org.apache.commons.lang3.SerializationUtils;
 import org.batfish.bddreachability.BDDReachabilityAnalysis;
 import org.batfish.bddreachability.BDDReachabilityAnalysisFactory;
 import org.batfish.common.Answerer;
@@ -121,6 +130,7 @@ import org.batfish.datamodel.IpSpace;
 import org.batfish.datamodel.IpsecVpn;
 import org.batfish.datamodel.RipNeighbor;
 import org.batfish.datamodel.RipProcess;
+import org.batfish.datamodel.SnapshotMetadata;
 import org.batfish.datamodel.SubRange;
 import org.batfish.datamodel.SwitchportMode;
 import org.batfish.datamodel.Topology;
@@ -160,6 +170,8 @@ import org.batfish.datamodel.questions.Question;
 import org.batfish.datamodel.questions.smt.HeaderLocationQuestion;
 import org.batfish.datamodel.questions.smt.HeaderQuestion;
 import org.batfish.datamodel.questions.smt.RoleQuestion;
+import org.batfish.datamodel.table.ColumnarTable;
+import org.batfish.dataplane.PartitionedDataPlane;
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BgpTableFormat;
 import org.batfish.grammar.ParseTreePrettyPrinter;
@@ -178,12 +190,17 @@ import org.batfish.identifiers.NodeRolesId;
 import org.batfish.identifiers.QuestionId;
 import org.batfish.identifiers.QuestionSettingsId;
 import org.batfish.identifiers.SnapshotId;
+import org.batfish.job.BatfishJob;
 import org.batfish.job.BatfishJobExecutor;
+import org.batfish.job.BatfishJobResult;
+import org.batfish.job.ConfigurationCache;
 import org.batfish.job.ConvertConfigurationJob;
+import org.batfish.job.ConvertConfigurationResult;
 import org.batfish.job.FlattenVendorConfigurationJob;
 import org.batfish.job.ParseEnvironmentBgpTableJob;
 import org.batfish.job.ParseEnvironmentRoutingTableJob;
 import org.batfish.job.ParseVendorConfigurationJob;
+import org.batfish.job.ParseVendorConfigurationResult;
 import org.batfish.question.ReachabilityParameters;
 import org.batfish.question.ResolvedReachabilityParameters;
 import org.batfish.question.SearchFiltersParameters;
@@ -415,6 +432,9 @@ public class Batfish extends PluginConsumer implements IBatfish {
 
   private SortedMap<BgpTableFormat, BgpTablePlugin> _bgpTablePlugins;
 
+  private final Cache<NetworkSnapshot, BDDReachabilityAnalysisFactory>
+      _cachedBddReachabilityAnalysisFactories;
+
   private final Cache<NetworkSnapshot, SortedMap<String, Configuration>>
       _cachedCompressedConfigurations;
 
@@ -460,11 +480,14 @@ public class Batfish extends PluginConsumer implements IBatfish {
       Cache<NetworkSnapshot, DataPlane> cachedDataPlanes,
       Map<NetworkSnapshot, SortedMap<String, BgpAdvertisementsByVrf>> cachedEnvironmentBgpTables,
       Map<NetworkSnapshot, SortedMap<String, RoutesByVrf>> cachedEnvironmentRoutingTables,
+      Cache<NetworkSnapshot, BDDReachabilityAnalysisFactory>
+          cachedBddReachabilityAnalysisFactories,
       @Nullable StorageProvider alternateStorageProvider,
       @Nullable IdResolver alternateIdResolver) {
     super(settings.getSerializeToText());
     _settings = settings;
     _bgpTablePlugins = new TreeMap<>();
+    _cachedBddReachabilityAnalysisFactories = cachedBddReachabilityAnalysisFactories;
     _cachedCompressedConfigurations = cachedCompressedConfigurations;
     _cachedConfigurations = cachedConfigurations;
     _cachedCompressedDataPlanes = cachedCompressedDataPlanes;
@@ -742,7 +765,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
         loadConfigurations()
             .entrySet()
             .parallelStream()
-            .collect(toMap(Entry::getKey, entry -> SerializationUtils.clone(entry.getValue())));
+            .collect(toMap(Entry::getKey, entry -> CommonUtil.deepClone(entry.getValue())));
 
     Map<String, Configuration> configs =
         new BatfishCompressor(new BDDPacket(), this, clonedConfigs).compress(headerSpace);
@@ -780,15 +803,27 @@ public class Batfish extends PluginConsumer implements IBatfish {
     Cache<NetworkSnapshot, DataPlane> cache =
         compressed ? _cachedCompressedDataPlanes : _cachedDataPlanes;
 
-    cache.put(getNetworkSnapshot(), dataPlane);
+    if (!compressed) {
+      // the cached reachability graph was built from the old data plane
+      _cachedBddReachabilityAnalysisFactories.invalidate(getNetworkSnapshot());
+    }
+    if (!_settings.getCacheSpillDataPlanes()) {
+      cache.put(getNetworkSnapshot(), dataPlane);
+    }
 
     _logger.resetTimer();
     newBatch("Writing data plane to disk", 0);
     try (ActiveSpan writeDataplane =
         GlobalTracer.get().buildSpan("Writing data plane").startActive()) {
       assert writeDataplane != null; // avoid unused warning
-      serializeObject(dataPlane, dataPlanePath);
+      PartitionedDataPlane.write(dataPlane, dataPlanePath);
       serializeObject(answerElement, answerElementPath);
+      if (_settings.getCacheSpillDataPlanes()) {
+        // cache the on-disk form, which loads partitions on demand, instead of the full data plane
+        cache.put(getNetworkSnapshot(), PartitionedDataPlane.open(dataPlanePath));
+      }
+    } catch (IOException e) {
+      throw new BatfishException("Failed to write data plane to: " + dataPlanePath, e);
     }
     _logger.printElapsedTime();
   }
@@ -859,9 +894,11 @@ public class Batfish extends PluginConsumer implements IBatfish {
     _logger.resetTimer();
     Map<String, Configuration> configurations = new TreeMap<>();
     List<ConvertConfigurationJob> jobs = new ArrayList<>();
+    ConfigurationCache cache = ConfigurationCache.create(_settings, _storage);
     for (Entry<String, GenericConfigObject> config : vendorConfigurations.entrySet()) {
       GenericConfigObject vc = config.getValue();
-      ConvertConfigurationJob job = new ConvertConfigurationJob(_settings, vc, config.getKey());
+      ConvertConfigurationJob job =
+          new ConvertConfigurationJob(_settings, vc, config.getKey(), cache);
       jobs.add(job);
     }
     BatfishJobExecutor.runJobsInExecutor(
@@ -873,6 +910,9 @@ public class Batfish extends PluginConsumer implements IBatfish {
         _settings.getHaltOnConvertError(),
         "Convert configurations to vendor-independent format");
     _logger.printElapsedTime();
+    if (cache != null) {
+      cache.prune(_logger);
+    }
     return configurations;
   }
 
@@ -1678,6 +1718,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
     }
 
     _cachedConfigurations.put(snapshot, configurations);
+    _cachedBddReachabilityAnalysisFactories.invalidate(snapshot);
     return configurations;
   }
 
@@ -1745,7 +1786,15 @@ public class Batfish extends PluginConsumer implements IBatfish {
       dp = cache.getIfPresent(snapshot);
       if (dp == null) {
         newBatch("Loading data plane from disk", 0);
-        dp = deserializeObject(path, DataPlane.class);
+        try {
+          // data planes written before partitioning was introduced are plain serialized objects
+          dp =
+              PartitionedDataPlane.isPartitionedDataPlane(path)
+                  ? PartitionedDataPlane.open(path)
+                  : deserializeObject(path, DataPlane.class);
+        } catch (IOException e) {
+          throw new BatfishException("Failed to read data plane from: " + path, e);
+        }
         cache.put(snapshot, dp);
       }
     }
@@ -1971,7 +2020,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
       String answerString = BatfishObjectMapper.writePrettyString(answer) + '\n';
       _logger.debug(answerString);
       @Nullable String logString = writeLog ? answerString : null;
-      writeJsonAnswerWithLog(logString, answerString);
+      writeJsonAnswerWithLog(logString, answerString, answer);
     } catch (Exception e) {
       BatfishException be = new BatfishException("Error in sending answer", e);
       try {
@@ -1980,7 +2029,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
         String answerString = BatfishObjectMapper.writePrettyString(failureAnswer) + '\n';
         _logger.error(answerString);
         @Nullable String logString = writeLog ? answerString : null;
-        writeJsonAnswerWithLog(logString, answerString);
+        writeJsonAnswerWithLog(logString, answerString, failureAnswer);
       } catch (Exception e1) {
         _logger.errorf(
             "Could not serialize failure answer. %s", Throwables.getStackTraceAsString(e1));
@@ -2145,6 +2194,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
     _logger.resetTimer();
     SortedMap<String, VendorConfiguration> vendorConfigurations = new TreeMap<>();
     List<ParseVendorConfigurationJob> jobs = new ArrayList<>();
+    ConfigurationCache cache = ConfigurationCache.create(_settings, _storage);
     for (Entry<Path, String> vendorFile : configurationData.entrySet()) {
       Path currentFile = vendorFile.getKey();
       String fileText = vendorFile.getValue();
@@ -2157,7 +2207,13 @@ public class Batfish extends PluginConsumer implements IBatfish {
           _settings.getActiveTestrigSettings().getInputPath().relativize(currentFile).toString();
       ParseVendorConfigurationJob job =
           new ParseVendorConfigurationJob(
-              _settings, fileText, filename, warnings, configurationFormat, duplicateHostnames);
+              _settings,
+              fileText,
+              filename,
+              warnings,
+              configurationFormat,
+              duplicateHostnames,
+              cache);
       jobs.add(job);
     }
     BatfishJobExecutor.runJobsInExecutor(
@@ -2169,6 +2225,9 @@ public class Batfish extends PluginConsumer implements IBatfish {
         _settings.getHaltOnParseError(),
         "Parse configurations");
     _logger.printElapsedTime();
+    if (cache != null) {
+      cache.prune(_logger);
+    }
     return vendorConfigurations;
   }
 
@@ -2614,6 +2673,38 @@ public class Batfish extends PluginConsumer implements IBatfish {
     _testrigSettings = _deltaTestrigSettings;
   }
 
+  @Override
+  public boolean pushParentSnapshot(Predicate<DataPlaneAnswerElement> reusable) {
+    NetworkId network = _settings.getContainer();
+    SnapshotId parent;
+    try {
+      parent =
+          BatfishObjectMapper.mapper()
+              .readValue(
+                  _storage.loadSnapshotMetadata(network, _testrigSettings.getName()),
+                  SnapshotMetadata.class)
+              .getParentSnapshotId();
+    } catch (IOException e) {
+      _logger.warnf("Could not read metadata of snapshot: %s\n", e.getMessage());
+      return false;
+    }
+    if (parent == null) {
+      return false;
+    }
+    TestrigSettings parentSettings = new TestrigSettings();
+    applyBaseDir(parentSettings, _settings.getStorageBase().resolve(network.getId()), parent);
+    Path answerPath = parentSettings.getDataPlaneAnswerPath();
+    if (!Files.exists(answerPath) || !Files.exists(parentSettings.getDataPlanePath())) {
+      return false;
+    }
+    if (!reusable.test(deserializeObject(answerPath, DataPlaneAnswerElement.class))) {
+      return false;
+    }
+    _testrigSettingsStack.add(_testrigSettings);
+    _testrigSettings = parentSettings;
+    return true;
+  }
+
   private SortedMap<Path, String> readConfigurationFiles(Path testRigPath, String configsType) {
     _logger.infof("\n*** READING %s FILES ***\n", configsType);
     _logger.resetTimer();
@@ -3001,17 +3092,26 @@ public class Batfish extends PluginConsumer implements IBatfish {
       return answer;
     }
 
-    if (_settings.getSerializeVendor()) {
+    if (_settings.getSerializeVendor()
+        && _settings.getSerializeIndependent()
+        && _settings.getPipelineConversion()) {
       Path testRigPath = _testrigSettings.getInputPath();
       Path outputPath = _testrigSettings.getSerializeVendorPath();
-      answer.append(serializeVendorConfigs(testRigPath, outputPath));
+      answer.append(serializeVendorAndIndependentConfigs(testRigPath, outputPath));
       action = true;
-    }
+    } else {
+      if (_settings.getSerializeVendor()) {
+        Path testRigPath = _testrigSettings.getInputPath();
+        Path outputPath = _testrigSettings.getSerializeVendorPath();
+        answer.append(serializeVendorConfigs(testRigPath, outputPath));
+        action = true;
+      }
 
-    if (_settings.getSerializeIndependent()) {
-      Path inputPath = _testrigSettings.getSerializeVendorPath();
-      answer.append(serializeIndependentConfigs(inputPath));
-      action = true;
+      if (_settings.getSerializeIndependent()) {
+        Path inputPath = _testrigSettings.getSerializeVendorPath();
+        answer.append(serializeIndependentConfigs(inputPath));
+        action = true;
+      }
     }
 
     if (_settings.getInitInfo()) {
@@ -3056,7 +3156,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
     }
   }
 
-  private void serializeAwsConfigs(
+  private AwsConfiguration serializeAwsConfigs(
       Path testRigPath, Path outputPath, ParseVendorConfigurationAnswerElement pvcae) {
     Map<Path, String> configurationData =
         readConfigurationFiles(testRigPath, BfConsts.RELPATH_AWS_CONFIGS_DIR);
@@ -3075,6 +3175,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
     serializeObject(config, currentOutputPath);
     _logger.debug("OK\n");
     _logger.printElapsedTime();
+    return config;
   }
 
   private Answer serializeEnvironmentBgpTables(Path inputPath, Path outputPath) {
@@ -3139,6 +3240,10 @@ public class Batfish extends PluginConsumer implements IBatfish {
     _logger.printElapsedTime();
   }
 
+  /**
+   * Parses and serializes the host configurations of the testrig. Returns all parsed host
+   * configurations, including the overlay configurations, which are not serialized.
+   */
   private SortedMap<String, VendorConfiguration> serializeHostConfigs(
       Path testRigPath, Path outputPath, ParseVendorConfigurationAnswerElement answerElement) {
     SortedMap<Path, String> configurationData =
@@ -3158,13 +3263,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
         "Testrig:%s in container:%s has total number of host configs:%d",
         getTestrigName(), getContainerName(), allHostConfigurations.size());
 
-    // split into hostConfigurations and overlayConfigurations
-    SortedMap<String, VendorConfiguration> overlayConfigurations =
-        allHostConfigurations
-            .entrySet()
-            .stream()
-            .filter(e -> ((HostConfiguration) e.getValue()).getOverlay())
-            .collect(toMap(Entry::getKey, Entry::getValue, (v1, v2) -> v1, TreeMap::new));
+    // overlay configurations are not serialized on their own
     SortedMap<String, VendorConfiguration> nonOverlayHostConfigurations =
         allHostConfigurations
             .entrySet()
@@ -3205,7 +3304,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
     // serialize warnings
     serializeObject(answerElement, _testrigSettings.getParseAnswerPath());
     _logger.printElapsedTime();
-    return overlayConfigurations;
+    return allHostConfigurations;
   }
 
   private Answer serializeIndependentConfigs(Path vendorConfigPath) {
@@ -3216,6 +3315,16 @@ public class Batfish extends PluginConsumer implements IBatfish {
       answer.addAnswerElement(answerElement);
     }
     Map<String, Configuration> configurations = getConfigurations(vendorConfigPath, answerElement);
+    serializeIndependentConfigs(configurations, answerElement);
+    return answer;
+  }
+
+  /**
+   * Stores the given converted configurations along with the topologies and node roles computed
+   * from them.
+   */
+  private void serializeIndependentConfigs(
+      Map<String, Configuration> configurations, ConvertConfigurationAnswerElement answerElement) {
     Topology testrigTopology = computeTestrigTopology(configurations);
     serializeAsJson(_testrigSettings.getTopologyPath(), testrigTopology, "testrig topology");
     checkTopology(configurations, testrigTopology);
@@ -3232,7 +3341,6 @@ public class Batfish extends PluginConsumer implements IBatfish {
         _testrigSettings.getSerializeTopologyPath(), envTopology, "environment topology");
 
     updateSnapshotNodeRoles();
-    return answer;
   }
 
   private void updateSnapshotNodeRoles() {
@@ -3333,6 +3441,369 @@ public class Batfish extends PluginConsumer implements IBatfish {
             });
   }
 
+  /**
+   * Parses the configurations of the testrig and converts them to vendor-independent format without
+   * deserializing the serialized vendor configurations again. Network configurations flow through
+   * parsing, serialization, and conversion one file at a time (see {@link
+   * #pipelineNetworkConfigs}).
+   */
+  Answer serializeVendorAndIndependentConfigs(Path testRigPath, Path outputPath) {
+    Answer answer = new Answer();
+    boolean configsFound = false;
+    ParseVendorConfigurationAnswerElement parseAnswerElement =
+        new ParseVendorConfigurationAnswerElement();
+    parseAnswerElement.setVersion(Version.getVersion());
+    ConvertConfigurationAnswerElement convertAnswerElement =
+        new ConvertConfigurationAnswerElement();
+    convertAnswerElement.setVersion(Version.getVersion());
+    if (_settings.getVerboseParse()) {
+      answer.addAnswerElement(parseAnswerElement);
+      answer.addAnswerElement(convertAnswerElement);
+    }
+
+    // host and AWS configurations are converted together once all files are parsed
+    Map<String, GenericConfigObject> configurationsToConvert = new TreeMap<>();
+    SortedMap<String, VendorConfiguration> overlayHostConfigurations = new TreeMap<>();
+    Path hostConfigsPath = testRigPath.resolve(BfConsts.RELPATH_HOST_CONFIGS_DIR);
+    if (Files.exists(hostConfigsPath)) {
+      serializeHostConfigs(testRigPath, outputPath, parseAnswerElement)
+          .forEach(
+              (name, vc) -> {
+                if (((HostConfiguration) vc).getOverlay()) {
+                  overlayHostConfigurations.put(name, vc);
+                } else {
+                  configurationsToConvert.put(name, vc);
+                }
+              });
+      configsFound = true;
+    }
+
+    List<ConvertConfigurationResult> networkConvertResults = ImmutableList.of();
+    Path networkConfigsPath = testRigPath.resolve(BfConsts.RELPATH_CONFIGURATIONS_DIR);
+    if (Files.exists(networkConfigsPath)) {
+      networkConvertResults =
+          pipelineNetworkConfigs(
+              testRigPath,
+              outputPath,
+              parseAnswerElement,
+              overlayHostConfigurations,
+              configurationsToConvert);
+      configsFound = true;
+    }
+
+    Path awsVpcConfigsPath = testRigPath.resolve(BfConsts.RELPATH_AWS_CONFIGS_DIR);
+    if (Files.exists(awsVpcConfigsPath)) {
+      configurationsToConvert.put(
+          BfConsts.RELPATH_AWS_CONFIGS_FILE,
+          serializeAwsConfigs(testRigPath, outputPath, parseAnswerElement));
+      configsFound = true;
+    }
+
+    if (!configsFound) {
+      throw new BatfishException("No valid configurations found in snapshot path " + testRigPath);
+    }
+
+    // serialize warnings
+    serializeObject(parseAnswerElement, _testrigSettings.getParseAnswerPath());
+
+    Map<String, Configuration> configurations =
+        convertConfigurations(configurationsToConvert, convertAnswerElement);
+    applyConvertResults(networkConvertResults, configurations, convertAnswerElement);
+    identifyDeviceTypes(configurations.values());
+    serializeIndependentConfigs(configurations, convertAnswerElement);
+    return answer;
+  }
+
+  /**
+   * A parsed network configuration in {@link #pipelineNetworkConfigs}, tracked under its hostname
+   * while the configuration itself is serialized and converted in the background. Duplicate
+   * hostnames found later rename the entry on the parsing thread, and the configuration can be
+   * freed as soon as it is converted.
+   */
+  private static final class PipelinedEntry {
+
+    /** The conversion of the configuration under {@link #_convertedName}, if it was started */
+    @Nullable private final CompletableFuture<ConvertConfigurationResult> _conversion;
+
+    private final String _convertedName;
+
+    private final String _filename;
+
+    private String _hostname;
+
+    /** Where the configuration was serialized before conversion, if it was */
+    @Nullable private final Path _pendingPath;
+
+    private PipelinedEntry(
+        String filename,
+        String hostname,
+        @Nullable Path pendingPath,
+        @Nullable CompletableFuture<ConvertConfigurationResult> conversion) {
+      _conversion = conversion;
+      _convertedName = hostname;
+      _filename = filename;
+      _hostname = hostname;
+      _pendingPath = pendingPath;
+    }
+  }
+
+  /** Parses a network configuration file into a {@link PipelinedEntry}. */
+  private static final class PipelinedParseJob extends BatfishJob<PipelinedParseResult> {
+
+    private final ParseVendorConfigurationJob _job;
+
+    private final Function<VendorConfiguration, PipelinedEntry> _toEntry;
+
+    private PipelinedParseJob(
+        Settings settings,
+        ParseVendorConfigurationJob job,
+        Function<VendorConfiguration, PipelinedEntry> toEntry) {
+      super(settings);
+      _job = job;
+      _toEntry = toEntry;
+    }
+
+    @Override
+    public PipelinedParseResult call() throws Exception {
+      return new PipelinedParseResult(_job.call(), _toEntry);
+    }
+  }
+
+  /**
+   * The result of a {@link PipelinedParseJob}, applied like a {@link
+   * ParseVendorConfigurationResult} but to {@link PipelinedEntry PipelinedEntries} by hostname.
+   */
+  private static final class PipelinedParseResult
+      extends BatfishJobResult<Map<String, PipelinedEntry>, ParseVendorConfigurationAnswerElement> {
+
+    private final ParseVendorConfigurationResult _result;
+
+    private final Function<VendorConfiguration, PipelinedEntry> _toEntry;
+
+    private PipelinedParseResult(
+        ParseVendorConfigurationResult result,
+        Function<VendorConfiguration, PipelinedEntry> toEntry) {
+      super(result.getElapsedTime(), result.getHistory(), result.getFailureCause());
+      _result = result;
+      _toEntry = toEntry;
+    }
+
+    @Override
+    public void appendHistory(BatfishLogger logger) {
+      _result.appendHistory(logger);
+    }
+
+    @Override
+    public void applyTo(
+        Map<String, PipelinedEntry> entries,
+        BatfishLogger logger,
+        ParseVendorConfigurationAnswerElement answerElement) {
+      _result.applyTo(
+          entries,
+          entry -> entry._filename,
+          (entry, hostname) -> entry._hostname = hostname,
+          _toEntry,
+          logger,
+          answerElement);
+    }
+
+    @Override
+    public String toString() {
+      return _result.toString();
+    }
+  }
+
+  /**
+   * Parses, serializes, and converts the network configurations of the testrig. Each parsed vendor
+   * configuration is serialized and then converted in the background while other files are still
+   * parsed, with a bounded number of files in flight. A vendor configuration is no longer
+   * referenced once it is converted, so at most the configurations in flight are held at once
+   * rather than all of them; the converted configurations are all held, as they are in the
+   * two-phase mode.
+   *
+   * <p>Duplicate hostnames are only resolved once all files are parsed. Configurations renamed
+   * after they were converted are added to {@code configurationsToConvert} to be converted again;
+   * the results of converting all other configurations are returned.
+   */
+  private List<ConvertConfigurationResult> pipelineNetworkConfigs(
+      Path testRigPath,
+      Path outputPath,
+      ParseVendorConfigurationAnswerElement answerElement,
+      SortedMap<String, VendorConfiguration> overlayHostConfigurations,
+      Map<String, GenericConfigObject> configurationsToConvert) {
+    Map<Path, String> configurationData =
+        readConfigurationFiles(testRigPath, BfConsts.RELPATH_CONFIGURATIONS_DIR);
+    _logger.info("\n*** PARSING, SERIALIZING, AND CONVERTING VENDOR CONFIGURATIONS ***\n");
+    _logger.resetTimer();
+    CommonUtil.createDirectories(outputPath);
+    // vendor configurations are serialized here until their names are final
+    Path pendingPath = outputPath.resolveSibling(outputPath.getFileName() + ".pending");
+    CommonUtil.deleteDirectory(pendingPath);
+    CommonUtil.createDirectories(pendingPath);
+    ConfigurationCache cache = ConfigurationCache.create(_settings, _storage);
+    Path inputPath = _settings.getActiveTestrigSettings().getInputPath();
+    int maxInFlight = 2 * _settings.getAvailableThreads();
+    Semaphore inFlight = new Semaphore(maxInFlight);
+    ExecutorService pool =
+        _settings.getSequential()
+            ? Executors.newSingleThreadExecutor()
+            : Executors.newFixedThreadPool(_settings.getAvailableThreads());
+    List<CompletableFuture<ConvertConfigurationResult>> conversions = new ArrayList<>();
+    // called on this thread for each parsed configuration once its hostname is resolved
+    Function<VendorConfiguration, PipelinedEntry> toEntry =
+        vc -> {
+          String name = vc.getHostname();
+          if (name.contains(File.separator)) {
+            // bad hostnames are reported once all files are parsed
+            return new PipelinedEntry(vc.getFilename(), name, null, null);
+          }
+          VendorConfiguration overlayConfig = overlayHostConfigurations.get(name);
+          if (overlayConfig != null) {
+            vc.setOverlayConfiguration(overlayConfig);
+          }
+          Path pendingOutputPath = pendingPath.resolve(Integer.toString(conversions.size()));
+          inFlight.acquireUninterruptibly();
+          CompletableFuture<ConvertConfigurationResult> conversion =
+              CompletableFuture.supplyAsync(
+                      () -> {
+                        // serialize first, since conversion may modify the configuration
+                        serializeObject(vc, pendingOutputPath);
+                        return new ConvertConfigurationJob(_settings, vc, name, cache).call();
+                      },
+                      pool)
+                  .whenComplete((convertResult, t) -> inFlight.release());
+          conversions.add(conversion);
+          // from here on, vc belongs to the background stage
+          return new PipelinedEntry(vc.getFilename(), name, pendingOutputPath, conversion);
+        };
+    List<PipelinedParseJob> jobs = new ArrayList<>();
+    configurationData.forEach(
+        (file, fileText) ->
+            jobs.add(
+                new PipelinedParseJob(
+                    _settings,
+                    new ParseVendorConfigurationJob(
+                        _settings,
+                        fileText,
+                        inputPath.relativize(file).toString(),
+                        buildWarnings(_settings),
+                        ConfigurationFormat.UNKNOWN,
+                        HashMultimap.create(),
+                        cache),
+                    toEntry)));
+
+    // parsed configurations by hostname
+    Map<String, PipelinedEntry> entries = new TreeMap<>();
+    try (ActiveSpan parseNetworkConfigsSpan =
+        GlobalTracer.get().buildSpan("Parse and convert network configs").startActive()) {
+      assert parseNetworkConfigsSpan != null; // avoid unused warning
+      BatfishJobExecutor.runJobsInExecutor(
+          _settings,
+          _logger,
+          jobs,
+          entries,
+          answerElement,
+          _settings.getHaltOnParseError(),
+          "Parse configurations",
+          maxInFlight,
+          result -> {});
+      CompletableFuture.allOf(conversions.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new BatfishException("Failed to serialize or convert configurations", e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+
+    List<ConvertConfigurationResult> convertResults = new ArrayList<>();
+    entries.forEach(
+        (name, entry) -> {
+          if (name.contains(File.separator)) {
+            // iptables will get a hostname like configs/iptables-save if they
+            // are not set up correctly using host files
+            _logger.errorf("Cannot serialize configuration with hostname %s\n", name);
+            answerElement.addRedFlagWarning(
+                name,
+                new Warning(
+                    "Cannot serialize network config. Bad hostname " + name.replace("\\", "/"),
+                    "MISCELLANEOUS"));
+            return;
+          }
+          VendorConfiguration overlayConfig = overlayHostConfigurations.remove(name);
+          assert entry._pendingPath != null && entry._conversion != null;
+          Path currentOutputPath = outputPath.resolve(name);
+          if (name.equals(entry._convertedName)) {
+            try {
+              Files.move(
+                  entry._pendingPath, currentOutputPath, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+              throw new BatfishException("Failed to move serialized configuration: " + name, e);
+            }
+            convertResults.add(entry._conversion.join());
+            return;
+          }
+          // renamed because of a duplicate hostname, so start over from the parsed configuration
+          VendorConfiguration renamed =
+              deserializeObject(entry._pendingPath, VendorConfiguration.class);
+          renamed.setHostname(name);
+          renamed.setOverlayConfiguration(overlayConfig);
+          serializeObject(renamed, currentOutputPath);
+          configurationsToConvert.put(name, renamed);
+        });
+    CommonUtil.deleteDirectory(pendingPath);
+
+    // warn about unused overlays
+    overlayHostConfigurations.forEach(
+        (name, overlay) ->
+            answerElement.getParseStatus().put(overlay.getFilename(), ParseStatus.ORPHANED));
+    _logger.infof(
+        "Testrig:%s in container:%s has total number of network configs:%d",
+        getTestrigName(), getContainerName(), entries.size());
+    _logger.printElapsedTime();
+    if (cache != null) {
+      cache.prune(_logger);
+    }
+    return convertResults;
+  }
+
+  /**
+   * Applies results of conversion computed outside of {@link #convertConfigurations}, failing on
+   * conversion errors in the same way.
+   */
+  private void applyConvertResults(
+      List<ConvertConfigurationResult> convertResults,
+      Map<String, Configuration> configurations,
+      ConvertConfigurationAnswerElement answerElement) {
+    boolean haltOnConvertError = _settings.getHaltOnConvertError();
+    List<BatfishException> failureCauses = new ArrayList<>();
+    for (ConvertConfigurationResult convertResult : convertResults) {
+      Throwable failureCause = convertResult.getFailureCause();
+      if (failureCause != null) {
+        BatfishException bfc =
+            new BatfishException(
+                "Failure converting configuration: " + convertResult.getName(), failureCause);
+        if (_settings.getExitOnFirstError()) {
+          convertResult.appendHistory(_logger);
+          throw bfc;
+        }
+        _logger.errorf(
+            "Failure converting configuration: %s:\n\t%s",
+            convertResult.getName(), Throwables.getStackTraceAsString(failureCause));
+        failureCauses.add(bfc);
+        if (haltOnConvertError) {
+          convertResult.appendHistory(_logger);
+          continue;
+        }
+      }
+      convertResult.applyTo(configurations, _logger, answerElement);
+    }
+    if (haltOnConvertError && !failureCauses.isEmpty()) {
+      BatfishException e = new BatfishException("Exiting due to conversion error(s)");
+      failureCauses.forEach(e::addSuppressed);
+      throw e;
+    }
+  }
+
   Answer serializeVendorConfigs(Path testRigPath, Path outputPath) {
     Answer answer = new Answer();
     boolean configsFound = false;
@@ -3350,7 +3821,13 @@ public class Batfish extends PluginConsumer implements IBatfish {
     SortedMap<String, VendorConfiguration> overlayHostConfigurations = new TreeMap<>();
     Path hostConfigsPath = testRigPath.resolve(BfConsts.RELPATH_HOST_CONFIGS_DIR);
     if (Files.exists(hostConfigsPath)) {
-      overlayHostConfigurations = serializeHostConfigs(testRigPath, outputPath, answerElement);
+      serializeHostConfigs(testRigPath, outputPath, answerElement)
+          .forEach(
+              (name, vc) -> {
+                if (((HostConfiguration) vc).getOverlay()) {
+                  overlayHostConfigurations.put(name, vc);
+                }
+              });
       configsFound = true;
     }
 
@@ -3757,50 +4234,53 @@ public class Batfish extends PluginConsumer implements IBatfish {
         params.getSrcNatted() == SrcNattedConstraint.UNCONSTRAINED,
         "Requiring or forbidding Source NAT is currently unsupported");
 
-    BDDPacket pkt = new BDDPacket();
     boolean ignoreFilters = params.getIgnoreFilters();
     BDDReachabilityAnalysisFactory bddReachabilityAnalysisFactory =
-        getBddReachabilityAnalysisFactory(pkt, ignoreFilters);
-
-    Map<IngressLocation, BDD> reachableBDDs =
-        bddReachabilityAnalysisFactory.getAllBDDs(
-            params.getSourceIpAssignment(),
-            params.getHeaderSpace(),
-            params.getForbiddenTransitNodes(),
-            params.getRequiredTransitNodes(),
-            params.getFinalNodes(),
-            params.getActions());
+        getBddReachabilityAnalysisFactory(ignoreFilters);
+    BDDPacket pkt = bddReachabilityAnalysisFactory.getBDDPacket();
 
     String flowTag = getFlowTag();
-    Set<Flow> flows =
-        reachableBDDs
-            .entrySet()
-            .stream()
-            .flatMap(
-                entry -> {
-                  IngressLocation loc = entry.getKey();
-                  BDD headerSpace = entry.getValue();
-                  Optional<Flow.Builder> optionalFlow = pkt.getFlow(headerSpace);
-                  if (!optionalFlow.isPresent()) {
-                    return Stream.of();
-                  }
-                  Flow.Builder flow = optionalFlow.get();
-                  flow.setIngressNode(loc.getNode());
-                  flow.setTag(flowTag);
-                  switch (loc.getType()) {
-                    case INTERFACE_LINK:
-                      flow.setIngressInterface(loc.getInterface());
-                      break;
-                    case VRF:
-                      flow.setIngressVrf(loc.getVrf());
-                      break;
-                    default:
-                      throw new BatfishException(
-                          "Unexpected IngressLocation Type: " + loc.getType().name());
-                  }
-                  return Stream.of(flow.build());
-                })
-            .collect(ImmutableSet.toImmutableSet());
+    Set<Flow> flows;
+    synchronized (pkt) {
+      Map<IngressLocation, BDD> reachableBDDs =
+          bddReachabilityAnalysisFactory.getAllBDDs(
+              params.getSourceIpAssignment(),
+              params.getHeaderSpace(),
+              params.getForbiddenTransitNodes(),
+              params.getRequiredTransitNodes(),
+              params.getFinalNodes(),
+              params.getActions());
+
+      flows =
+          reachableBDDs
+              .entrySet()
+              .stream()
+              .flatMap(
+                  entry -> {
+                    IngressLocation loc = entry.getKey();
+                    BDD headerSpace = entry.getValue();
+                    Optional<Flow.Builder> optionalFlow = pkt.getFlow(headerSpace);
+                    if (!optionalFlow.isPresent()) {
+                      return Stream.of();
+                    }
+                    Flow.Builder flow = optionalFlow.get();
+                    flow.setIngressNode(loc.getNode());
+                    flow.setTag(flowTag);
+                    switch (loc.getType()) {
+                      case INTERFACE_LINK:
+                        flow.setIngressInterface(loc.getInterface());
+                        break;
+                      case VRF:
+                        flow.setIngressVrf(loc.getVrf());
+                        break;
+                      default:
+                        throw new BatfishException(
+                            "Unexpected IngressLocation Type: " + loc.getType().name());
+                    }
+                    return Stream.of(flow.build());
+                  })
+              .collect(ImmutableSet.toImmutableSet());
+    }
 
     DataPlane dp = loadDataPlane();
     if (_settings.debugFlagEnabled("oldtraceroute")) {
@@ -3813,51 +4293,55 @@ public class Batfish extends PluginConsumer implements IBatfish {
 
   @Override
   public Set<Flow> bddLoopDetection() {
-    BDDPacket pkt = new BDDPacket();
     // TODO add ignoreFilters parameter
     boolean ignoreFilters = false;
     BDDReachabilityAnalysisFactory bddReachabilityAnalysisFactory =
-        getBddReachabilityAnalysisFactory(pkt, ignoreFilters);
-    BDDReachabilityAnalysis analysis =
-        bddReachabilityAnalysisFactory.bddReachabilityAnalysis(
-            getAllSourcesInferFromLocationIpSpaceAssignment());
-    Map<IngressLocation, BDD> loopBDDs = analysis.detectLoops();
+        getBddReachabilityAnalysisFactory(ignoreFilters);
+    BDDPacket pkt = bddReachabilityAnalysisFactory.getBDDPacket();
+    IpSpaceAssignment srcIpSpaceAssignment = getAllSourcesInferFromLocationIpSpaceAssignment();
 
     String flowTag = getFlowTag();
-    return loopBDDs
-        .entrySet()
-        .stream()
-        .map(
-            entry ->
-                pkt.getFlow(entry.getValue())
-                    .map(
-                        fb -> {
-                          IngressLocation loc = entry.getKey();
-                          fb.setTag(flowTag);
-                          fb.setIngressNode(loc.getNode());
-                          switch (loc.getType()) {
-                            case INTERFACE_LINK:
-                              fb.setIngressInterface(loc.getInterface());
-                              break;
-                            case VRF:
-                              fb.setIngressVrf(loc.getVrf());
-                              break;
-                            default:
-                              throw new BatfishException("Unknown Location Type: " + loc.getType());
-                          }
-                          return fb.build();
-                        }))
-        .flatMap(optional -> optional.map(Stream::of).orElse(Stream.empty()))
-        .collect(ImmutableSet.toImmutableSet());
+    synchronized (pkt) {
+      BDDReachabilityAnalysis analysis =
+          bddReachabilityAnalysisFactory.bddReachabilityAnalysis(srcIpSpaceAssignment);
+      Map<IngressLocation, BDD> loopBDDs = analysis.detectLoops(_settings.getLoopDetectionMode());
+
+      return loopBDDs
+          .entrySet()
+          .stream()
+          .map(
+              entry ->
+                  pkt.getFlow(entry.getValue())
+                      .map(
+                          fb -> {
+                            IngressLocation loc = entry.getKey();
+                            fb.setTag(flowTag);
+                            fb.setIngressNode(loc.getNode());
+                            switch (loc.getType()) {
+                              case INTERFACE_LINK:
+                                fb.setIngressInterface(loc.getInterface());
+                                break;
+                              case VRF:
+                                fb.setIngressVrf(loc.getVrf());
+                                break;
+                              default:
+                                throw new BatfishException(
+                                    "Unknown Location Type: " + loc.getType());
+                            }
+                            return fb.build();
+                          }))
+          .flatMap(optional -> optional.map(Stream::of).orElse(Stream.empty()))
+          .collect(ImmutableSet.toImmutableSet());
+    }
   }
 
   @Override
   public Set<Flow> bddMultipathConsistency(MultipathConsistencyParameters parameters) {
-    BDDPacket pkt = new BDDPacket();
     // TODO add ignoreFilters parameter
     boolean ignoreFilters = false;
     BDDReachabilityAnalysisFactory bddReachabilityAnalysisFactory =
-        getBddReachabilityAnalysisFactory(pkt, ignoreFilters);
+        getBddReachabilityAnalysisFactory(ignoreFilters);
+    BDDPacket pkt = bddReachabilityAnalysisFactory.getBDDPacket();
     IpSpaceAssignment srcIpSpaceAssignment = parameters.getSrcIpSpaceAssignment();
     Set<String> finalNodes = parameters.getFinalNodes();
     Set<FlowDisposition> failureDispositions =
@@ -3876,25 +4360,28 @@ public class Batfish extends PluginConsumer implements IBatfish {
             FlowDisposition.EXITS_NETWORK);
     Set<String> forbiddenTransitNodes = parameters.getForbiddenTransitNodes();
     Set<String> requiredTransitNodes = parameters.getRequiredTransitNodes();
-    Map<IngressLocation, BDD> successBdds =
-        bddReachabilityAnalysisFactory.getAllBDDs(
-            srcIpSpaceAssignment,
-            parameters.getHeaderSpace(),
-            forbiddenTransitNodes,
-            requiredTransitNodes,
-            finalNodes,
-            successDispositions);
-    Map<IngressLocation, BDD> failureBdds =
-        bddReachabilityAnalysisFactory.getAllBDDs(
-            srcIpSpaceAssignment,
-            parameters.getHeaderSpace(),
-            forbiddenTransitNodes,
-            requiredTransitNodes,
-            finalNodes,
-            failureDispositions);
-
-    return ImmutableSet.copyOf(
-        computeMultipathInconsistencies(pkt, getFlowTag(), successBdds, failureBdds));
+    String flowTag = getFlowTag();
+    synchronized (pkt) {
+      Map<IngressLocation, BDD> successBdds =
+          bddReachabilityAnalysisFactory.getAllBDDs(
+              srcIpSpaceAssignment,
+              parameters.getHeaderSpace(),
+              forbiddenTransitNodes,
+              requiredTransitNodes,
+              finalNodes,
+              successDispositions);
+      Map<IngressLocation, BDD> failureBdds =
+          bddReachabilityAnalysisFactory.getAllBDDs(
+              srcIpSpaceAssignment,
+              parameters.getHeaderSpace(),
+              forbiddenTransitNodes,
+              requiredTransitNodes,
+              finalNodes,
+              failureDispositions);
+
+      return ImmutableSet.copyOf(
+          computeMultipathInconsistencies(pkt, flowTag, successBdds, failureBdds));
+    }
   }
 
   @Nonnull
@@ -3908,6 +4395,29 @@ public class Batfish extends PluginConsumer implements IBatfish {
     return InferFromLocationIpSpaceSpecifier.INSTANCE.resolve(locations, specifierContext);
   }
 
+  /**
+   * Returns the {@link BDDReachabilityAnalysisFactory} for the current snapshot. The factory, along
+   * with the query-independent part of the reachability graph it builds, is cached per snapshot and
+   * shared by all questions, so callers must hold the lock on its {@link BDDPacket} while using it
+   * or any {@link BDD} it creates.
+   */
+  @Nonnull
+  private BDDReachabilityAnalysisFactory getBddReachabilityAnalysisFactory(boolean ignoreFilters) {
+    BDDReachabilityAnalysisFactory factory;
+    try {
+      // concurrent questions on the same snapshot wait for a single factory to be built
+      factory =
+          _cachedBddReachabilityAnalysisFactories.get(
+              getNetworkSnapshot(),
+              () -> getBddReachabilityAnalysisFactory(new BDDPacket(), ignoreFilters));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new BatfishException(
+          "Failed to build the BDD reachability analysis factory", e.getCause());
+    }
+    return factory.withIgnoreFilters(ignoreFilters);
+  }
+
   @Nonnull
   private BDDReachabilityAnalysisFactory getBddReachabilityAnalysisFactory(
       BDDPacket pkt, boolean ignoreFilters) {
@@ -4103,7 +4613,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
         .build();
   }
 
-  private void writeJsonAnswer(String structuredAnswerString) {
+  private void writeJsonAnswer(String structuredAnswerString, Answer answer) {
     SnapshotId deltaSnapshot = _settings.getDiffQuestion() ? _deltaTestrigSettings.getName() : null;
     NetworkId networkId = _settings.getContainer();
     QuestionId questionId = _settings.getQuestionName();
@@ -4133,9 +4643,20 @@ public class Batfish extends PluginConsumer implements IBatfish {
             deltaSnapshot,
             analysisId);
     _storage.storeAnswer(structuredAnswerString, baseAnswerId);
+    if (ColumnarTable.canEncode(answer)) {
+      // Table answers are also stored in columnar form, so that the coordinator can serve pages of
+      // large answers without parsing them entirely. The JSON answer remains authoritative.
+      try {
+        _storage.storeColumnarAnswer(answer, baseAnswerId);
+      } catch (IOException | RuntimeException e) {
+        _logger.warnf(
+            "Could not store columnar answer: %s\n", Throwables.getStackTraceAsString(e));
+      }
+    }
   }
 
-  private void writeJsonAnswerWithLog(@Nullable String logString, String structuredAnswerString) {
+  private void writeJsonAnswerWithLog(
+      @Nullable String logString, String structuredAnswerString, Answer answer) {
     // Write log of WorkItem task to the configured path for logs
     if (logString != null && _settings.getTaskId() != null) {
       Path jsonPath =
@@ -4150,7 +4671,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
     }
     // Write answer.json and answer-pretty.json if WorkItem was answering a question
     if (_settings.getQuestionName() != null) {
-      writeJsonAnswer(structuredAnswerString);
+      writeJsonAnswer(structuredAnswerString, answer);
     }
   }
 
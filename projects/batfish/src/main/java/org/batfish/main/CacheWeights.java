@@ -0,0 +1,117 @@
+package org.batfish.main;
+
+import java.util.Collection;
+import java.util.Map;
+import org.batfish.datamodel.AbstractRoute;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.GenericRib;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.RouteFilterList;
+import org.batfish.datamodel.Vrf;
+import org.batfish.datamodel.collections.BgpAdvertisementsByVrf;
+import org.batfish.datamodel.collections.RoutesByVrf;
+import org.batfish.dataplane.PartitionedDataPlane;
+
+/**
+ * Coarse estimates of the heap retained by the values the worker caches per snapshot, used to
+ * weigh cache entries. The estimates are meant to tell a lab snapshot from a production network,
+ * not to account for every byte.
+ */
+final class CacheWeights {
+
+  private static final long BYTES_PER_ACL_LINE = 512L;
+
+  private static final long BYTES_PER_BGP_ADVERTISEMENT = 512L;
+
+  private static final long BYTES_PER_CONFIGURATION = 32L * 1024L;
+
+  private static final long BYTES_PER_ENVIRONMENT_ROUTE = 256L;
+
+  private static final long BYTES_PER_INTERFACE = 2L * 1024L;
+
+  private static final long BYTES_PER_ROUTE_FILTER_LINE = 256L;
+
+  /** Includes the route's share of protocol RIBs and the FIB. */
+  private static final long BYTES_PER_ROUTE = 1024L;
+
+  private static final long BYTES_PER_ROUTING_POLICY = 4L * 1024L;
+
+  private static final long BYTES_PER_STATIC_ROUTE = 256L;
+
+  private static final long BYTES_PER_VRF = 4L * 1024L;
+
+  /** Ratio of the heap taken by a fully loaded {@link PartitionedDataPlane} to its file size. */
+  private static final long SERIALIZED_EXPANSION = 4L;
+
+  /** Estimated heap (in bytes) retained by environment BGP tables. */
+  static long estimateBgpTables(Map<String, BgpAdvertisementsByVrf> bgpTables) {
+    long advertisements = 0L;
+    for (BgpAdvertisementsByVrf byVrf : bgpTables.values()) {
+      advertisements += sumSizes(byVrf.values());
+    }
+    return advertisements * BYTES_PER_BGP_ADVERTISEMENT;
+  }
+
+  /** Estimated heap (in bytes) retained by {@code configurations}. */
+  static long estimateConfigurations(Map<String, Configuration> configurations) {
+    long bytes = 0L;
+    for (Configuration c : configurations.values()) {
+      bytes += BYTES_PER_CONFIGURATION;
+      bytes += c.getAllInterfaces().size() * BYTES_PER_INTERFACE;
+      bytes += c.getVrfs().size() * BYTES_PER_VRF;
+      bytes += c.getRoutingPolicies().size() * BYTES_PER_ROUTING_POLICY;
+      for (IpAccessList acl : c.getIpAccessLists().values()) {
+        bytes += acl.getLines().size() * BYTES_PER_ACL_LINE;
+      }
+      for (RouteFilterList list : c.getRouteFilterLists().values()) {
+        bytes += list.getLines().size() * BYTES_PER_ROUTE_FILTER_LINE;
+      }
+      for (Vrf vrf : c.getVrfs().values()) {
+        bytes += vrf.getStaticRoutes().size() * BYTES_PER_STATIC_ROUTE;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Estimated heap (in bytes) retained by {@code dataPlane}. A {@link PartitionedDataPlane} is
+   * weighed by its file size, so that estimating does not load it.
+   */
+  static long estimateDataPlane(DataPlane dataPlane) {
+    if (dataPlane instanceof PartitionedDataPlane) {
+      return ((PartitionedDataPlane) dataPlane).getSerializedSize() * SERIALIZED_EXPANSION;
+    }
+    long routes = 0L;
+    for (Map<String, GenericRib<AbstractRoute>> ribsByVrf : dataPlane.getRibs().values()) {
+      for (GenericRib<AbstractRoute> rib : ribsByVrf.values()) {
+        routes += rib.getRoutes().size();
+      }
+    }
+    return estimateConfigurations(dataPlane.getConfigurations()) + routes * BYTES_PER_ROUTE;
+  }
+
+  /** Estimated heap (in bytes) retained by environment routing tables. */
+  static long estimateRoutingTables(Map<String, RoutesByVrf> routingTables) {
+    long routes = 0L;
+    for (RoutesByVrf byVrf : routingTables.values()) {
+      routes += sumSizes(byVrf.values());
+    }
+    return routes * BYTES_PER_ENVIRONMENT_ROUTE;
+  }
+
+  private static long sumSizes(Collection<? extends Collection<?>> collections) {
+    long size = 0L;
+    for (Collection<?> collection : collections) {
+      size += collection.size();
+    }
+    return size;
+  }
+
+  /** Converts an estimate in bytes to a cache weight (in kibibytes), capped at {@code max}. */
+  static int toWeight(long bytes, long max) {
+    return (int) Math.max(1L, Math.min(Math.min(max, Integer.MAX_VALUE), bytes / 1024L));
+  }
+
+  private CacheWeights() {}
+}
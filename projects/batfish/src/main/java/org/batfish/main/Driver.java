@@ -3,7 +3,10 @@ package org.batfish.main;
 import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.uber.jaeger.Configuration.ReporterConfiguration;
 import com.uber.jaeger.Configuration.SamplerConfiguration;
 import com.uber.jaeger.samplers.ConstSampler;
@@ -21,17 +24,18 @@ import java.lang.management.RuntimeMXBean;
 import java.net.URI;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -42,8 +46,8 @@ import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.SystemUtils;
+import org.batfish.bddreachability.BDDReachabilityAnalysisFactory;
 import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
@@ -54,6 +58,7 @@ import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.QuestionException;
 import org.batfish.common.Task;
 import org.batfish.common.Task.Batch;
+import org.batfish.common.TaskKind;
 import org.batfish.common.Version;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.config.ConfigurationLocator;
@@ -107,7 +112,7 @@ public class Driver {
     }
   }
 
-  private static boolean _idle = true;
+  private static TaskAdmissionController _admissionController;
 
   private static Date _lastPollFromCoordinator = new Date();
 
@@ -117,24 +122,45 @@ public class Driver {
 
   private static Settings _mainSettings = null;
 
+  /** The address this worker registered with the coordinator as, if it registered */
+  @Nullable private static volatile String _registeredWorker = null;
+
   private static ConcurrentMap<String, Task> _taskLog;
 
-  private static final Cache<NetworkSnapshot, DataPlane> CACHED_COMPRESSED_DATA_PLANES =
-      buildDataPlaneCache();
+  private static final Cache<NetworkSnapshot, BDDReachabilityAnalysisFactory>
+      CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES = buildBddReachabilityAnalysisFactoryCache();
+
+  /*
+   * Snapshot caches are bounded by the estimated heap their entries retain (see CacheWeights), in
+   * kibibytes. They are built once settings are known, with the following shares of the budget.
+   */
+
+  private static final double CACHE_SHARE_COMPRESSED_DATA_PLANES = 0.1;
+
+  private static final double CACHE_SHARE_COMPRESSED_TESTRIGS = 0.1;
+
+  private static final double CACHE_SHARE_DATA_PLANES = 0.3;
+
+  private static final double CACHE_SHARE_ENVIRONMENT_BGP_TABLES = 0.1;
+
+  private static final double CACHE_SHARE_ENVIRONMENT_ROUTING_TABLES = 0.1;
+
+  private static final double CACHE_SHARE_TESTRIGS = 0.3;
 
-  private static final Cache<NetworkSnapshot, DataPlane> CACHED_DATA_PLANES = buildDataPlaneCache();
+  private static Cache<NetworkSnapshot, DataPlane> _cachedCompressedDataPlanes;
 
-  private static final Map<NetworkSnapshot, SortedMap<String, BgpAdvertisementsByVrf>>
-      CACHED_ENVIRONMENT_BGP_TABLES = buildEnvironmentBgpTablesCache();
+  private static Cache<NetworkSnapshot, SortedMap<String, Configuration>>
+      _cachedCompressedTestrigs;
 
-  private static final Map<NetworkSnapshot, SortedMap<String, RoutesByVrf>>
-      CACHED_ENVIRONMENT_ROUTING_TABLES = buildEnvironmentRoutingTablesCache();
+  private static Cache<NetworkSnapshot, DataPlane> _cachedDataPlanes;
 
-  private static final Cache<NetworkSnapshot, SortedMap<String, Configuration>> CACHED_TESTRIGS =
-      buildTestrigCache();
+  private static Cache<NetworkSnapshot, SortedMap<String, BgpAdvertisementsByVrf>>
+      _cachedEnvironmentBgpTables;
 
-  private static final Cache<NetworkSnapshot, SortedMap<String, Configuration>>
-      CACHED_COMPRESSED_TESTRIGS = buildTestrigCache();
+  private static Cache<NetworkSnapshot, SortedMap<String, RoutesByVrf>>
+      _cachedEnvironmentRoutingTables;
+
+  private static Cache<NetworkSnapshot, SortedMap<String, Configuration>> _cachedTestrigs;
 
   private static final int COORDINATOR_CHECK_INTERVAL_MS = 1 * 60 * 1000; // 1 min
 
@@ -146,47 +172,101 @@ public class Driver {
 
   static Logger httpServerLogger = Logger.getLogger(HttpServer.class.getName());
 
-  private static final int MAX_CACHED_DATA_PLANES = 2;
+  private static final int MAX_CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES = 2;
 
-  private static final int MAX_CACHED_ENVIRONMENT_BGP_TABLES = 4;
+  static Logger networkListenerLogger =
+      Logger.getLogger("org.glassfish.grizzly.http.server.NetworkListener");
 
-  private static final int MAX_CACHED_ENVIRONMENT_ROUTING_TABLES = 4;
+  private static Cache<NetworkSnapshot, BDDReachabilityAnalysisFactory>
+      buildBddReachabilityAnalysisFactoryCache() {
+    // the BDD node tables are large and easily rebuilt, so let the GC reclaim them under pressure
+    return CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES)
+        .softValues()
+        .build();
+  }
 
-  private static final int MAX_CACHED_TESTRIGS = 5;
+  /**
+   * Builds a cache holding at most {@code share} of {@code budgetBytes}, as estimated by {@code
+   * estimator}. An entry larger than the whole cache is still kept, alone.
+   */
+  private static <V> Cache<NetworkSnapshot, V> buildWeightedCache(
+      long budgetBytes, double share, ToLongFunction<V> estimator) {
+    long maxWeight = Math.max(1L, (long) (budgetBytes * share) / 1024L);
+    return CacheBuilder.newBuilder()
+        // a single segment, so that the capacity is not split among segments
+        .concurrencyLevel(1)
+        .maximumWeight(maxWeight)
+        .weigher(
+            (NetworkSnapshot snapshot, V value) ->
+                CacheWeights.toWeight(estimator.applyAsLong(value), maxWeight))
+        .recordStats()
+        .build();
+  }
 
-  static Logger networkListenerLogger =
-      Logger.getLogger("org.glassfish.grizzly.http.server.NetworkListener");
+  private static void initCaches(Settings settings) {
+    long budgetBytes = Runtime.getRuntime().maxMemory() / 100L * settings.getCacheHeapPercent();
+    _cachedCompressedDataPlanes =
+        buildWeightedCache(
+            budgetBytes, CACHE_SHARE_COMPRESSED_DATA_PLANES, CacheWeights::estimateDataPlane);
+    _cachedCompressedTestrigs =
+        buildWeightedCache(
+            budgetBytes, CACHE_SHARE_COMPRESSED_TESTRIGS, CacheWeights::estimateConfigurations);
+    _cachedDataPlanes =
+        buildWeightedCache(budgetBytes, CACHE_SHARE_DATA_PLANES, CacheWeights::estimateDataPlane);
+    _cachedEnvironmentBgpTables =
+        buildWeightedCache(
+            budgetBytes, CACHE_SHARE_ENVIRONMENT_BGP_TABLES, CacheWeights::estimateBgpTables);
+    _cachedEnvironmentRoutingTables =
+        buildWeightedCache(
+            budgetBytes,
+            CACHE_SHARE_ENVIRONMENT_ROUTING_TABLES,
+            CacheWeights::estimateRoutingTables);
+    _cachedTestrigs =
+        buildWeightedCache(budgetBytes, CACHE_SHARE_TESTRIGS, CacheWeights::estimateConfigurations);
+  }
 
-  private static Cache<NetworkSnapshot, DataPlane> buildDataPlaneCache() {
-    return CacheBuilder.newBuilder().maximumSize(MAX_CACHED_DATA_PLANES).weakValues().build();
+  /** Returns hit, miss and eviction statistics of the snapshot caches, by cache name. */
+  public static Map<String, CacheStats> getCacheStats() {
+    return ImmutableSortedMap.<String, CacheStats>naturalOrder()
+        .put("compresseddataplanes", _cachedCompressedDataPlanes.stats())
+        .put("compressedtestrigs", _cachedCompressedTestrigs.stats())
+        .put("dataplanes", _cachedDataPlanes.stats())
+        .put("environmentbgptables", _cachedEnvironmentBgpTables.stats())
+        .put("environmentroutingtables", _cachedEnvironmentRoutingTables.stats())
+        .put("testrigs", _cachedTestrigs.stats())
+        .build();
   }
 
-  private static Map<NetworkSnapshot, SortedMap<String, BgpAdvertisementsByVrf>>
-      buildEnvironmentBgpTablesCache() {
-    return Collections.synchronizedMap(new LRUMap<>(MAX_CACHED_ENVIRONMENT_BGP_TABLES));
+  /** Returns the snapshots whose data planes are currently held in memory by this worker. */
+  public static Set<NetworkSnapshot> getCachedDataPlaneSnapshots() {
+    return ImmutableSet.copyOf(_cachedDataPlanes.asMap().keySet());
   }
 
-  private static Map<NetworkSnapshot, SortedMap<String, RoutesByVrf>>
-      buildEnvironmentRoutingTablesCache() {
-    return Collections.synchronizedMap(new LRUMap<>(MAX_CACHED_ENVIRONMENT_ROUTING_TABLES));
+  /** Returns the snapshots whose configurations are currently held in memory by this worker. */
+  public static Set<NetworkSnapshot> getCachedTestrigSnapshots() {
+    return ImmutableSet.copyOf(_cachedTestrigs.asMap().keySet());
   }
 
-  private static Cache<NetworkSnapshot, SortedMap<String, Configuration>> buildTestrigCache() {
-    return CacheBuilder.newBuilder().maximumSize(MAX_CACHED_TESTRIGS).build();
+  /** Returns the heap (in bytes) not reserved by running tasks. */
+  public static long getAvailableHeap() {
+    return _admissionController.getAvailableHeap();
   }
 
-  private static synchronized boolean claimIdle() {
-    if (_idle) {
-      _idle = false;
-      return true;
-    }
+  /** Returns how many more (inexpensive) tasks this worker would accept right now. */
+  public static int getAvailableTasks() {
+    return _admissionController.getAvailableTasks();
+  }
 
-    return false;
+  /** Returns how many more tasks of each kind this worker would accept right now. */
+  public static Map<TaskKind, Integer> getAvailableTasksByKind() {
+    return _admissionController.getAvailableTasksByKind();
   }
 
+  /** Returns whether this worker would accept another task right now. */
   public static synchronized boolean getIdle() {
     _lastPollFromCoordinator = new Date();
-    return _idle;
+    return _admissionController.getAvailableTasks() > 0;
   }
 
   public static BatfishLogger getMainLogger() {
@@ -262,7 +342,9 @@ public class Driver {
       task.setTerminated(new Date());
       task.setErrMessage("Terminated by user");
 
-      // we die after a little bit, to allow for the response making it back to the coordinator
+      // we die after a little bit, to allow for the response making it back to the coordinator.
+      // other tasks running on this worker die with us; the coordinator reschedules them once it
+      // finds this worker unreachable.
       new java.util.Timer()
           .schedule(
               new java.util.TimerTask() {
@@ -308,6 +390,10 @@ public class Driver {
     _mainArgs = args;
     try {
       _mainSettings = new Settings(args);
+      initCaches(_mainSettings);
+      _admissionController =
+          new TaskAdmissionController(
+              _mainSettings.getMaxConcurrentTasks(), Runtime.getRuntime().maxMemory());
       networkListenerLogger.setLevel(Level.WARNING);
       httpServerLogger.setLevel(Level.WARNING);
     } catch (Exception e) {
@@ -492,10 +578,6 @@ public class Driver {
     }
   }
 
-  private static synchronized void makeIdle() {
-    _idle = true;
-  }
-
   public static synchronized AtomicInteger newBatch(
       Settings settings, String description, int jobs) {
     Batch batch = null;
@@ -509,28 +591,59 @@ public class Driver {
     }
   }
 
+  private static String getCoordinatorPoolMgrUrl(String resource) {
+    String protocol = _mainSettings.getSslDisable() ? "http" : "https";
+    return String.format(
+        "%s://%s:%s%s/%s",
+        protocol,
+        _mainSettings.getCoordinatorHost(),
+        _mainSettings.getCoordinatorPoolPort(),
+        CoordConsts.SVC_CFG_POOL_MGR,
+        resource);
+  }
+
+  /**
+   * Tells the coordinator that the task {@code taskId} terminated, so that it need not wait to poll
+   * for the status of the task. Does nothing if this worker did not register with a coordinator.
+   */
+  private static void notifyTaskCompleted(String taskId) {
+    String worker = _registeredWorker;
+    if (worker == null) {
+      return;
+    }
+    Map<String, String> params = new HashMap<>();
+    params.put(CoordConsts.SVC_KEY_WORKID, taskId);
+    params.put(CoordConsts.SVC_KEY_WORKER, worker);
+    try {
+      talkToCoordinator(
+          getCoordinatorPoolMgrUrl(CoordConsts.SVC_RSC_POOL_TASK_COMPLETED), params, _mainLogger);
+    } catch (BatfishException e) {
+      // the coordinator still polls for the status of the task
+      _mainLogger.errorf(
+          "Could not report completion of task %s: %s\n",
+          taskId, Throwables.getStackTraceAsString(e));
+    }
+  }
+
   private static boolean registerWithCoordinator(String poolRegUrl, int listenPort) {
+    String worker = _mainSettings.getServiceHost() + ":" + listenPort;
     Map<String, String> params = new HashMap<>();
-    params.put(CoordConsts.SVC_KEY_ADD_WORKER, _mainSettings.getServiceHost() + ":" + listenPort);
+    params.put(CoordConsts.SVC_KEY_ADD_WORKER, worker);
     params.put(CoordConsts.SVC_KEY_VERSION, Version.getVersion());
 
     Object response = talkToCoordinator(poolRegUrl, params, _mainLogger);
-    return response != null;
+    if (response == null) {
+      return false;
+    }
+    _registeredWorker = worker;
+    return true;
   }
 
   private static void registerWithCoordinatorPersistent(int listenPort)
       throws InterruptedException {
     boolean registrationSuccess;
 
-    String protocol = _mainSettings.getSslDisable() ? "http" : "https";
-    String poolRegUrl =
-        String.format(
-            "%s://%s:%s%s/%s",
-            protocol,
-            _mainSettings.getCoordinatorHost(),
-            +_mainSettings.getCoordinatorPoolPort(),
-            CoordConsts.SVC_CFG_POOL_MGR,
-            CoordConsts.SVC_RSC_POOL_UPDATE);
+    String poolRegUrl = getCoordinatorPoolMgrUrl(CoordConsts.SVC_RSC_POOL_UPDATE);
 
     do {
       registrationSuccess = registerWithCoordinator(poolRegUrl, listenPort);
@@ -549,12 +662,13 @@ public class Driver {
       final Batfish batfish =
           new Batfish(
               settings,
-              CACHED_COMPRESSED_TESTRIGS,
-              CACHED_TESTRIGS,
-              CACHED_COMPRESSED_DATA_PLANES,
-              CACHED_DATA_PLANES,
-              CACHED_ENVIRONMENT_BGP_TABLES,
-              CACHED_ENVIRONMENT_ROUTING_TABLES,
+              _cachedCompressedTestrigs,
+              _cachedTestrigs,
+              _cachedCompressedDataPlanes,
+              _cachedDataPlanes,
+              _cachedEnvironmentBgpTables.asMap(),
+              _cachedEnvironmentRoutingTables.asMap(),
+              CACHED_BDD_REACHABILITY_ANALYSIS_FACTORIES,
               null,
               null);
 
@@ -678,11 +792,14 @@ public class Driver {
       return Arrays.asList(BfConsts.SVC_FAILURE_KEY, "Non-executable command");
     }
 
-    if (!claimIdle()) {
-      return Arrays.asList(BfConsts.SVC_FAILURE_KEY, "Not idle");
+    TaskKind taskKind =
+        TaskAdmissionController.classify(settings, _cachedDataPlanes.asMap().keySet());
+    if (!_admissionController.tryAdmit(taskId, taskKind)) {
+      // not a failure of the task: the coordinator retries it later, possibly on another worker
+      return Arrays.asList(BfConsts.SVC_BUSY_KEY, "Not enough capacity for " + taskKind + " task");
     }
 
-    // try/catch so that the worker becomes idle again in case of problem submitting thread.
+    // try/catch so that the task's capacity is released in case of problem submitting thread.
     try {
 
       final BatfishLogger jobLogger =
@@ -704,7 +821,7 @@ public class Driver {
               ? null
               : GlobalTracer.get().activeSpan().context();
 
-      // run batfish on a new thread and set idle to true when done
+      // run batfish on a new thread and release its capacity when done
       Thread thread =
           new Thread(
               () -> {
@@ -724,7 +841,8 @@ public class Driver {
                   }
                   task.setTerminated(new Date());
                   jobLogger.close();
-                  makeIdle();
+                  _admissionController.release(taskId);
+                  notifyTaskCompleted(taskId);
                 }
               });
 
@@ -733,7 +851,7 @@ public class Driver {
       return Arrays.asList(BfConsts.SVC_SUCCESS_KEY, "running now");
     } catch (Exception e) {
       _mainLogger.error("Exception while running task: " + e.getMessage());
-      makeIdle();
+      _admissionController.release(taskId);
       return Arrays.asList(BfConsts.SVC_FAILURE_KEY, e.getMessage());
     }
   }
@@ -1,10 +1,14 @@
 package org.batfish.main;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.CacheStats;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -13,9 +17,12 @@ import javax.ws.rs.core.MediaType;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
 import org.batfish.common.BfConsts.TaskStatus;
+import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.Task;
+import org.batfish.common.TaskKind;
 import org.batfish.common.util.BatfishObjectMapper;
 import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
 @Path(BfConsts.SVC_BASE_RSC)
@@ -41,12 +48,61 @@ public class Service {
       return new JSONArray(
           Arrays.asList(
               BfConsts.SVC_SUCCESS_KEY,
-              (new JSONObject().put("idle", Driver.getIdle())).toString()));
+              new JSONObject()
+                  .put("idle", Driver.getIdle())
+                  .put(BfConsts.SVC_AVAILABLE_TASKS_KEY, Driver.getAvailableTasks())
+                  .put(
+                      BfConsts.SVC_AVAILABLE_TASKS_BY_KIND_KEY,
+                      availableTasksToJson(Driver.getAvailableTasksByKind()))
+                  .put(BfConsts.SVC_AVAILABLE_HEAP_KEY, Driver.getAvailableHeap())
+                  .put(BfConsts.SVC_CACHE_STATS_KEY, cacheStatsToJson(Driver.getCacheStats()))
+                  .put(
+                      BfConsts.SVC_CACHED_DATA_PLANES_KEY,
+                      snapshotsToJson(Driver.getCachedDataPlaneSnapshots()))
+                  .put(
+                      BfConsts.SVC_CACHED_TESTRIGS_KEY,
+                      snapshotsToJson(Driver.getCachedTestrigSnapshots()))
+                  .toString()));
     } catch (Exception e) {
       return new JSONArray(Arrays.asList(BfConsts.SVC_FAILURE_KEY, e.getMessage()));
     }
   }
 
+  private static JSONObject availableTasksToJson(Map<TaskKind, Integer> availableTasks)
+      throws JSONException {
+    JSONObject json = new JSONObject();
+    for (Entry<TaskKind, Integer> entry : availableTasks.entrySet()) {
+      json.put(entry.getKey().name(), entry.getValue().intValue());
+    }
+    return json;
+  }
+
+  private static JSONObject cacheStatsToJson(Map<String, CacheStats> statsByCache)
+      throws JSONException {
+    JSONObject json = new JSONObject();
+    for (Entry<String, CacheStats> entry : statsByCache.entrySet()) {
+      CacheStats stats = entry.getValue();
+      json.put(
+          entry.getKey(),
+          new JSONObject()
+              .put("hits", stats.hitCount())
+              .put("misses", stats.missCount())
+              .put("evictions", stats.evictionCount()));
+    }
+    return json;
+  }
+
+  private static JSONArray snapshotsToJson(Set<NetworkSnapshot> snapshots) throws JSONException {
+    JSONArray array = new JSONArray();
+    for (NetworkSnapshot snapshot : snapshots) {
+      array.put(
+          new JSONObject()
+              .put(BfConsts.ARG_CONTAINER, snapshot.getNetwork().getId())
+              .put(BfConsts.ARG_TESTRIG, snapshot.getSnapshot().getId()));
+    }
+    return array;
+  }
+
   @GET
   @Path(BfConsts.SVC_GET_TASKSTATUS_RSC)
   @Produces(MediaType.APPLICATION_JSON)
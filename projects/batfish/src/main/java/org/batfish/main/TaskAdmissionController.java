@@ -0,0 +1,142 @@
+package org.batfish.main;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.TaskKind;
+import org.batfish.config.Settings;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+
+/**
+ * Decides whether a worker may start another task, based on the number of tasks it is already
+ * running and an estimate of the heap each of them needs.
+ *
+ * <p>Every running task reserves the estimated heap of its {@link TaskKind} until it is released. A
+ * new task is admitted if a task slot is free and its estimate fits in the unreserved heap. A
+ * worker that runs no tasks admits any task, so that tasks larger than the estimates assume still
+ * run, one at a time.
+ */
+final class TaskAdmissionController {
+
+  private final long _heapBytes;
+
+  private final int _maxTasks;
+
+  private final Map<String, Long> _reservations;
+
+  private long _reservedBytes;
+
+  /**
+   * Creates a controller that runs at most {@code maxTasks} tasks at once, sharing {@code
+   * heapBytes} of heap.
+   */
+  TaskAdmissionController(int maxTasks, long heapBytes) {
+    checkArgument(maxTasks > 0, "maxTasks must be positive");
+    _heapBytes = heapBytes;
+    _maxTasks = maxTasks;
+    _reservations = new HashMap<>();
+  }
+
+  /**
+   * Returns the kind of the task described by {@code settings}, given the snapshots whose data
+   * planes are already in memory.
+   *
+   * <p>A question only counts as cached if the data planes of all snapshots it uses are in memory.
+   * Whether the question needs the data plane is not known until it is parsed, and computing or
+   * loading one costs far more than {@link TaskKind#CACHED_QUESTION} assumes.
+   */
+  static TaskKind classify(Settings settings, Set<NetworkSnapshot> cachedDataPlanes) {
+    if (settings.getDataPlane()) {
+      return TaskKind.DATA_PLANE;
+    }
+    if (settings.getSerializeVendor() || settings.getSerializeIndependent()) {
+      return TaskKind.PARSING;
+    }
+    return isDataPlaneCached(settings, cachedDataPlanes)
+        ? TaskKind.CACHED_QUESTION
+        : TaskKind.QUESTION;
+  }
+
+  private static boolean isDataPlaneCached(
+      Settings settings, Set<NetworkSnapshot> cachedDataPlanes) {
+    NetworkId network = settings.getContainer();
+    SnapshotId snapshot = settings.getTestrig();
+    if (network == null
+        || snapshot == null
+        || !cachedDataPlanes.contains(new NetworkSnapshot(network, snapshot))) {
+      return false;
+    }
+    SnapshotId deltaSnapshot = settings.getDeltaTestrig();
+    return deltaSnapshot == null
+        || cachedDataPlanes.contains(new NetworkSnapshot(network, deltaSnapshot));
+  }
+
+  private long estimate(TaskKind kind) {
+    return (long) (_heapBytes * kind.getHeapFraction());
+  }
+
+  /** Returns the heap (in bytes) not reserved by running tasks. */
+  synchronized long getAvailableHeap() {
+    return Math.max(0L, _heapBytes - _reservedBytes);
+  }
+
+  /**
+   * Returns how many more tasks could be admitted right now, assuming they are all of the cheapest
+   * kind.
+   */
+  synchronized int getAvailableTasks() {
+    return getAvailableTasks(TaskKind.CACHED_QUESTION);
+  }
+
+  /** Returns how many more tasks of the given {@code kind} could be admitted right now. */
+  synchronized int getAvailableTasks(TaskKind kind) {
+    int freeSlots = _maxTasks - _reservations.size();
+    if (_reservations.isEmpty()) {
+      return freeSlots;
+    }
+    long fitting = getAvailableHeap() / Math.max(1L, estimate(kind));
+    return (int) Math.min(freeSlots, fitting);
+  }
+
+  /** Returns how many more tasks of each kind could be admitted right now. */
+  synchronized Map<TaskKind, Integer> getAvailableTasksByKind() {
+    ImmutableMap.Builder<TaskKind, Integer> availableTasks = ImmutableMap.builder();
+    for (TaskKind kind : TaskKind.values()) {
+      availableTasks.put(kind, getAvailableTasks(kind));
+    }
+    return availableTasks.build();
+  }
+
+  synchronized int getRunningTasks() {
+    return _reservations.size();
+  }
+
+  /** Releases the heap reserved by the task {@code taskId}, if it was admitted. */
+  synchronized void release(String taskId) {
+    Long reservation = _reservations.remove(taskId);
+    if (reservation != null) {
+      _reservedBytes -= reservation;
+    }
+  }
+
+  /**
+   * Admits the task {@code taskId} of the given {@code kind} and reserves its estimated heap if it
+   * fits. Returns whether the task was admitted.
+   */
+  synchronized boolean tryAdmit(String taskId, TaskKind kind) {
+    checkArgument(!_reservations.containsKey(taskId), "Task %s was already admitted", taskId);
+    long estimate = estimate(kind);
+    if (!_reservations.isEmpty()
+        && (_reservations.size() >= _maxTasks || estimate > getAvailableHeap())) {
+      return false;
+    }
+    _reservations.put(taskId, estimate);
+    _reservedBytes += estimate;
+    return true;
+  }
+}
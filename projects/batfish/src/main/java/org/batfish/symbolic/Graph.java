@@ -19,9 +19,9 @@ import java.util.TreeMap;
 import java.util.regex.Matcher;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import org.apache.commons.lang3.SerializationUtils;
 import org.batfish.common.BatfishException;
 import org.batfish.common.plugin.IBatfish;
+import org.batfish.common.util.CommonUtil;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPeerConfig;
 import org.batfish.datamodel.BgpProcess;
@@ -172,7 +172,7 @@ public class Graph {
               .loadConfigurations()
               .entrySet()
               .parallelStream()
-              .collect(toMap(Entry::getKey, entry -> SerializationUtils.clone(entry.getValue())));
+              .collect(toMap(Entry::getKey, entry -> CommonUtil.deepClone(entry.getValue())));
 
       _configurations = clonedConfigs;
     }
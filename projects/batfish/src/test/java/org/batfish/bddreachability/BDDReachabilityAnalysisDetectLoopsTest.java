@@ -2,13 +2,18 @@ package org.batfish.bddreachability;
 
 import static org.batfish.bddreachability.TestNetwork.LINK_1_NETWORK;
 import static org.batfish.bddreachability.TestNetwork.LINK_2_NETWORK;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
+import net.sf.javabdd.BDD;
 import org.batfish.common.bdd.BDDPacket;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.Configuration.Builder;
@@ -25,6 +30,7 @@ import org.batfish.main.BatfishTestUtils;
 import org.batfish.specifier.IpSpaceAssignment;
 import org.batfish.specifier.Location;
 import org.batfish.specifier.LocationSpecifiers;
+import org.batfish.z3.IngressLocation;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -37,8 +43,9 @@ public class BDDReachabilityAnalysisDetectLoopsTest {
 
   public @Rule TemporaryFolder _temporaryFolder = new TemporaryFolder();
 
-  @Test
-  public void testDetectLoops() throws IOException {
+  private BDDPacket _pkt;
+
+  private BDDReachabilityAnalysis loopingNetworkAnalysis() throws IOException {
     NetworkFactory nf = new NetworkFactory();
     Builder cb = nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS);
     Interface.Builder ib = nf.interfaceBuilder().setBandwidth(1E9d);
@@ -87,19 +94,57 @@ public class BDDReachabilityAnalysisDetectLoopsTest {
 
     SortedMap<String, Configuration> configs =
         ImmutableSortedMap.of(srcNode.getHostname(), srcNode, dstNode.getHostname(), dstNode);
+    return analysis(configs);
+  }
+
+  private BDDReachabilityAnalysis analysis(SortedMap<String, Configuration> configs)
+      throws IOException {
     Batfish batfish = BatfishTestUtils.getBatfish(configs, _temporaryFolder);
     batfish.computeDataPlane(false);
 
-    BDDPacket pkt = new BDDPacket();
+    _pkt = new BDDPacket();
 
     Set<Location> allLocations =
         LocationSpecifiers.ALL_LOCATIONS.resolve(batfish.specifierContext());
     IpSpaceAssignment srcIpSpaceAssignment =
         IpSpaceAssignment.builder().assign(allLocations, UniverseIpSpace.INSTANCE).build();
-    BDDReachabilityAnalysis analysis =
-        new BDDReachabilityAnalysisFactory(
-                pkt, configs, batfish.loadDataPlane().getForwardingAnalysis())
-            .bddReachabilityAnalysis(srcIpSpaceAssignment);
-    analysis.detectLoops();
+    return new BDDReachabilityAnalysisFactory(
+            _pkt, configs, batfish.loadDataPlane().getForwardingAnalysis())
+        .bddReachabilityAnalysis(srcIpSpaceAssignment);
+  }
+
+  @Test
+  public void testDetectLoops() throws IOException {
+    BDDReachabilityAnalysis analysis = loopingNetworkAnalysis();
+    Map<IngressLocation, BDD> loops = analysis.detectLoops();
+
+    BDD dstIp1 = _pkt.getDstIp().value(DST_PREFIX_1.getStartIp().asLong());
+    BDD dstIp2 = _pkt.getDstIp().value(DST_PREFIX_2.getStartIp().asLong());
+    assertTrue(loops.values().stream().anyMatch(bdd -> !bdd.and(dstIp1).isZero()));
+    assertTrue(loops.values().stream().anyMatch(bdd -> !bdd.and(dstIp2).isZero()));
+  }
+
+  @Test
+  public void testDetectLoopsSccRefinesFixedRounds() throws IOException {
+    BDDReachabilityAnalysis analysis = loopingNetworkAnalysis();
+    Map<IngressLocation, BDD> sccLoops = analysis.detectLoops(LoopDetectionMode.SCC);
+    Map<IngressLocation, BDD> fixedRoundsLoops =
+        analysis.detectLoops(LoopDetectionMode.FIXED_ROUNDS);
+
+    assertThat(sccLoops.keySet(), equalTo(fixedRoundsLoops.keySet()));
+    sccLoops.forEach(
+        (location, bdd) -> assertTrue(bdd.imp(fixedRoundsLoops.get(location)).isOne()));
+  }
+
+  /** Test that both loop detection modes find the same loops in the looping test networks. */
+  @Test
+  public void testDetectLoopsModesAgree() throws IOException {
+    for (BDDReachabilityAnalysis analysis :
+        ImmutableList.of(
+            loopingNetworkAnalysis(), analysis(MPIWithLoopNetwork.testMPIWithLoopNetwork()))) {
+      assertThat(
+          analysis.detectLoops(LoopDetectionMode.SCC),
+          equalTo(analysis.detectLoops(LoopDetectionMode.FIXED_ROUNDS)));
+    }
   }
 }
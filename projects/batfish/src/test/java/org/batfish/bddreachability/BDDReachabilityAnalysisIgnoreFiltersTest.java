@@ -7,6 +7,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -145,16 +146,27 @@ public class BDDReachabilityAnalysisIgnoreFiltersTest {
       FlowDisposition disposition,
       boolean ignoreFilters) {
     Map<String, Configuration> configs = batfish.loadConfigurations();
-    return new BDDReachabilityAnalysisFactory(
-            PKT, configs, batfish.loadDataPlane().getForwardingAnalysis(), ignoreFilters)
-        .bddReachabilityAnalysis(
-            IpSpaceAssignment.builder().assign(IFACE1_LOCATION, initialSrcIp).build(),
-            AclLineMatchExprs.matchDst(NODE2_ADDR.getIp().toIpSpace()),
-            finalSrcIp,
-            ImmutableSet.of(),
-            ImmutableSet.of(),
-            configs.keySet(),
-            ImmutableSet.of(disposition));
+    return initAnalysis(
+        new BDDReachabilityAnalysisFactory(
+            PKT, configs, batfish.loadDataPlane().getForwardingAnalysis(), ignoreFilters),
+        initialSrcIp,
+        finalSrcIp,
+        disposition);
+  }
+
+  private static BDDReachabilityAnalysis initAnalysis(
+      BDDReachabilityAnalysisFactory factory,
+      IpSpace initialSrcIp,
+      IpSpace finalSrcIp,
+      FlowDisposition disposition) {
+    return factory.bddReachabilityAnalysis(
+        IpSpaceAssignment.builder().assign(IFACE1_LOCATION, initialSrcIp).build(),
+        AclLineMatchExprs.matchDst(NODE2_ADDR.getIp().toIpSpace()),
+        finalSrcIp,
+        ImmutableSet.of(),
+        ImmutableSet.of(),
+        batfish.loadConfigurations().keySet(),
+        ImmutableSet.of(disposition));
   }
 
   @Test
@@ -202,6 +214,32 @@ public class BDDReachabilityAnalysisIgnoreFiltersTest {
     assertThat(reachableBDDs, hasEntry(equalTo(INGRESS_LOCATION), equalTo(ZERO)));
   }
 
+  @Test
+  public void testWithIgnoreFilters() {
+    BDDReachabilityAnalysisFactory factory =
+        new BDDReachabilityAnalysisFactory(
+            PKT, batfish.loadConfigurations(), batfish.loadDataPlane().getForwardingAnalysis());
+    BDDReachabilityAnalysisFactory ignoreFiltersFactory = factory.withIgnoreFilters(true);
+
+    assertThat(factory.withIgnoreFilters(false), sameInstance(factory));
+    assertThat(ignoreFiltersFactory.withIgnoreFilters(true), sameInstance(ignoreFiltersFactory));
+    assertThat(ignoreFiltersFactory.withIgnoreFilters(false), sameInstance(factory));
+    assertThat(ignoreFiltersFactory.getBDDPacket(), sameInstance(PKT));
+
+    IpSpace srcIp = DENIED_IN_SRC_IP.toIpSpace();
+    // repeated queries reuse the query-independent part of the graph
+    for (int i = 0; i < 2; i++) {
+      assertThat(
+          initAnalysis(factory, srcIp, UniverseIpSpace.INSTANCE, ACCEPTED)
+              .getIngressLocationReachableBDDs(),
+          hasEntry(equalTo(INGRESS_LOCATION), equalTo(ZERO)));
+      assertThat(
+          initAnalysis(ignoreFiltersFactory, srcIp, UniverseIpSpace.INSTANCE, ACCEPTED)
+              .getIngressLocationReachableBDDs(),
+          hasEntry(equalTo(INGRESS_LOCATION), not(equalTo(ZERO))));
+    }
+  }
+
   @Test
   public void testParameters() {
     ReachabilityParameters.Builder parameters =
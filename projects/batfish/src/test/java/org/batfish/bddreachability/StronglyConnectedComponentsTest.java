@@ -0,0 +1,68 @@
+package org.batfish.bddreachability;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+/** Tests of {@link StronglyConnectedComponents} */
+public class StronglyConnectedComponentsTest {
+
+  private static Map<String, Boolean> succ(String... targets) {
+    ImmutableMap.Builder<String, Boolean> builder = ImmutableMap.builder();
+    for (String target : targets) {
+      builder.put(target, true);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testComponents() {
+    // a <-> b -> c -> d -> c, b -> e, and f -> f
+    Map<String, Map<String, Boolean>> edges =
+        ImmutableMap.<String, Map<String, Boolean>>builder()
+            .put("a", succ("b"))
+            .put("b", succ("a", "c", "e"))
+            .put("c", succ("d"))
+            .put("d", succ("c"))
+            .put("f", succ("f"))
+            .build();
+    StronglyConnectedComponents<String> sccs = StronglyConnectedComponents.compute(edges);
+
+    assertThat(sccs.getComponents().size(), equalTo(4));
+    for (Set<String> component : sccs.getComponents()) {
+      int index = sccs.getComponentIndex(component.iterator().next());
+      for (String vertex : component) {
+        assertThat(sccs.getComponentIndex(vertex), equalTo(index));
+      }
+    }
+    assertThat(sccs.getComponentIndex("a"), equalTo(sccs.getComponentIndex("b")));
+    assertThat(sccs.getComponentIndex("c"), equalTo(sccs.getComponentIndex("d")));
+    assertThat(sccs.getComponents().get(sccs.getComponentIndex("e")), contains("e"));
+    assertThat(sccs.getComponents().get(sccs.getComponentIndex("f")), contains("f"));
+
+    // edges lead to components with smaller indices
+    assertThat(sccs.getComponentIndex("c"), lessThan(sccs.getComponentIndex("b")));
+    assertThat(sccs.getComponentIndex("e"), lessThan(sccs.getComponentIndex("b")));
+  }
+
+  @Test
+  public void testLongPath() {
+    // deep enough to overflow the stack with a recursive implementation
+    int length = 100000;
+    ImmutableMap.Builder<Integer, Map<Integer, Boolean>> builder = ImmutableMap.builder();
+    for (int i = 0; i < length; i++) {
+      builder.put(i, ImmutableMap.of(i + 1, true));
+    }
+    builder.put(length, ImmutableMap.of(0, true));
+    StronglyConnectedComponents<Integer> cycle =
+        StronglyConnectedComponents.compute(builder.build());
+    assertThat(cycle.getComponents().size(), equalTo(1));
+    assertThat(cycle.getComponents().get(0).size(), equalTo(length + 1));
+  }
+}
@@ -120,6 +120,7 @@ public class FibImplTest {
             .get(Configuration.DEFAULT_VRF_NAME);
 
     assertThat(fib.getNextHopInterfaces(DST_IP), contains(FAST_ETHERNET_0));
+    assertThat(fib.getNextHopInterfaces(DST_IP.asLong()), contains(FAST_ETHERNET_0));
   }
 
   @Test
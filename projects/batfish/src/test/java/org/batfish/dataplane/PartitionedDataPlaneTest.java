@@ -0,0 +1,157 @@
+package org.batfish.dataplane;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.ForwardingAnalysis;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.InterfaceAddress;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.datamodel.Vrf;
+import org.batfish.main.Batfish;
+import org.batfish.main.BatfishTestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests of {@link PartitionedDataPlane} */
+public class PartitionedDataPlaneTest {
+
+  @Rule public TemporaryFolder _folder = new TemporaryFolder();
+
+  @Rule public ExpectedException _thrown = ExpectedException.none();
+
+  private static final Ip DST_IP = new Ip("3.3.3.3");
+
+  private static final String INTERFACE = "FastEthernet0/0";
+
+  private static final String NODE1 = "node1";
+
+  private static final String NODE2 = "node2";
+
+  private static final String VRF2 = "vrf2";
+
+  private DataPlane _dataPlane;
+
+  @Before
+  public void setup() throws IOException {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration.Builder cb =
+        nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS);
+    Vrf.Builder vb = nf.vrfBuilder();
+    Interface.Builder ib = nf.interfaceBuilder();
+
+    Configuration c1 = cb.setHostname(NODE1).build();
+    Vrf v1 = vb.setOwner(c1).setName(Configuration.DEFAULT_VRF_NAME).build();
+    ib.setOwner(c1)
+        .setVrf(v1)
+        .setName(INTERFACE)
+        .setAddresses(new InterfaceAddress("2.0.0.1/8"))
+        .build();
+    v1.setStaticRoutes(
+        ImmutableSortedSet.of(
+            StaticRoute.builder()
+                .setNetwork(new Prefix(DST_IP, 32))
+                .setNextHopIp(new Ip("2.1.1.1"))
+                .setAdministrativeCost(1)
+                .build()));
+    Vrf v12 = vb.setOwner(c1).setName(VRF2).build();
+    ib.setOwner(c1)
+        .setVrf(v12)
+        .setName("Loopback0")
+        .setAddresses(new InterfaceAddress("1.1.1.1/32"))
+        .build();
+
+    Configuration c2 = cb.setHostname(NODE2).build();
+    Vrf v2 = vb.setOwner(c2).setName(Configuration.DEFAULT_VRF_NAME).build();
+    ib.setOwner(c2)
+        .setVrf(v2)
+        .setName(INTERFACE)
+        .setAddresses(new InterfaceAddress("2.0.0.2/8"))
+        .build();
+
+    Batfish batfish =
+        BatfishTestUtils.getBatfish(ImmutableSortedMap.of(NODE1, c1, NODE2, c2), _folder);
+    batfish.computeDataPlane(false);
+    _dataPlane = batfish.loadDataPlane();
+  }
+
+  private PartitionedDataPlane writeAndOpen() throws IOException {
+    Path path = _folder.newFile().toPath();
+    PartitionedDataPlane.write(_dataPlane, path);
+    assertThat(PartitionedDataPlane.isPartitionedDataPlane(path), equalTo(true));
+    return PartitionedDataPlane.open(path);
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    PartitionedDataPlane dataPlane = writeAndOpen();
+
+    assertThat(
+        dataPlane.getConfigurations().keySet(),
+        equalTo(_dataPlane.getConfigurations().keySet()));
+    assertThat(dataPlane.getIpVrfOwners(), equalTo(_dataPlane.getIpVrfOwners()));
+    assertThat(dataPlane.getTopologyEdges(), equalTo(_dataPlane.getTopologyEdges()));
+    assertThat(
+        dataPlane.getPrefixTracingInfoSummary(),
+        equalTo(_dataPlane.getPrefixTracingInfoSummary()));
+    assertThat(dataPlane.getBgpRoutes(false), equalTo(_dataPlane.getBgpRoutes(false)));
+    assertThat(dataPlane.getRibs().keySet(), equalTo(_dataPlane.getRibs().keySet()));
+    assertThat(
+        dataPlane.getRibs().get(NODE1).keySet(),
+        equalTo(_dataPlane.getRibs().get(NODE1).keySet()));
+    _dataPlane
+        .getRibs()
+        .forEach(
+            (hostname, vrfs) ->
+                vrfs.forEach(
+                    (vrfName, rib) ->
+                        assertThat(
+                            dataPlane.getRibs().get(hostname).get(vrfName).getRoutes(),
+                            equalTo(rib.getRoutes()))));
+    assertThat(
+        dataPlane
+            .getFibs()
+            .get(NODE1)
+            .get(Configuration.DEFAULT_VRF_NAME)
+            .getNextHopInterfaces(DST_IP),
+        contains(INTERFACE));
+  }
+
+  @Test
+  public void testForwardingAnalysisRoundTrip() throws IOException {
+    ForwardingAnalysis expected = _dataPlane.getForwardingAnalysis();
+    ForwardingAnalysis actual = writeAndOpen().getForwardingAnalysis();
+
+    assertThat(actual.getArpReplies(), equalTo(expected.getArpReplies()));
+    assertThat(actual.getArpTrueEdge(), equalTo(expected.getArpTrueEdge()));
+    assertThat(actual.getNullRoutedIps(), equalTo(expected.getNullRoutedIps()));
+    assertThat(actual.getRoutableIps(), equalTo(expected.getRoutableIps()));
+    assertThat(actual.getDeliveredToSubnet(), equalTo(expected.getDeliveredToSubnet()));
+    assertThat(actual.getExitsNetwork(), equalTo(expected.getExitsNetwork()));
+    assertThat(actual.getNeighborUnreachable(), equalTo(expected.getNeighborUnreachable()));
+  }
+
+  @Test
+  public void testNotPartitionedDataPlane() throws IOException {
+    Path path = _folder.newFile().toPath();
+    Files.write(path, new byte[16]);
+    assertThat(PartitionedDataPlane.isPartitionedDataPlane(path), equalTo(false));
+    _thrown.expect(IOException.class);
+    PartitionedDataPlane.open(path);
+  }
+}
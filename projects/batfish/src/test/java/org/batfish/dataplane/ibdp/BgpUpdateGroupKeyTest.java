@@ -0,0 +1,62 @@
+package org.batfish.dataplane.ibdp;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import org.batfish.datamodel.BgpActivePeerConfig;
+import org.batfish.datamodel.BgpSessionProperties;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.NetworkFactory;
+import org.junit.Test;
+
+/** Tests of {@link BgpUpdateGroupKey} */
+public class BgpUpdateGroupKeyTest {
+
+  private static final Ip LOCAL_IP = new Ip("10.0.0.1");
+
+  private static BgpActivePeerConfig.Builder neighbor(NetworkFactory nf, String peerAddress) {
+    return nf.bgpNeighborBuilder()
+        .setLocalAs(1L)
+        .setRemoteAs(1L)
+        .setLocalIp(LOCAL_IP)
+        .setPeerAddress(new Ip(peerAddress))
+        .setExportPolicy("export");
+  }
+
+  private static BgpUpdateGroupKey key(BgpActivePeerConfig ours, BgpActivePeerConfig remote) {
+    return BgpUpdateGroupKey.of(ours, remote, BgpSessionProperties.from(ours, remote));
+  }
+
+  @Test
+  public void testClientsShareGroup() {
+    NetworkFactory nf = new NetworkFactory();
+    BgpActivePeerConfig toClient1 = neighbor(nf, "10.0.0.2").setRouteReflectorClient(true).build();
+    BgpActivePeerConfig toClient2 = neighbor(nf, "10.0.0.3").setRouteReflectorClient(true).build();
+    BgpActivePeerConfig client1 = neighbor(nf, "10.0.0.1").setLocalIp(new Ip("10.0.0.2")).build();
+    BgpActivePeerConfig client2 = neighbor(nf, "10.0.0.1").setLocalIp(new Ip("10.0.0.3")).build();
+
+    assertThat(key(toClient1, client1), equalTo(key(toClient2, client2)));
+    assertThat(key(toClient1, client1).hashCode(), equalTo(key(toClient2, client2).hashCode()));
+  }
+
+  @Test
+  public void testExportPolicySplitsGroup() {
+    NetworkFactory nf = new NetworkFactory();
+    BgpActivePeerConfig toPeer1 = neighbor(nf, "10.0.0.2").build();
+    BgpActivePeerConfig toPeer2 = neighbor(nf, "10.0.0.3").setExportPolicy("other").build();
+    BgpActivePeerConfig peer = neighbor(nf, "10.0.0.1").build();
+
+    assertThat(key(toPeer1, peer), not(equalTo(key(toPeer2, peer))));
+  }
+
+  @Test
+  public void testRouteReflectorClientSplitsGroup() {
+    NetworkFactory nf = new NetworkFactory();
+    BgpActivePeerConfig toClient = neighbor(nf, "10.0.0.2").setRouteReflectorClient(true).build();
+    BgpActivePeerConfig toNonClient = neighbor(nf, "10.0.0.3").build();
+    BgpActivePeerConfig peer = neighbor(nf, "10.0.0.1").build();
+
+    assertThat(key(toClient, peer), not(equalTo(key(toNonClient, peer))));
+  }
+}
@@ -13,6 +13,7 @@ import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.graph.ValueGraph;
@@ -52,6 +53,8 @@ import org.batfish.datamodel.Vrf;
 import org.batfish.datamodel.collections.RoutesByVrf;
 import org.batfish.datamodel.routing_policy.RoutingPolicy;
 import org.batfish.datamodel.routing_policy.statement.SetDefaultPolicy;
+import org.batfish.dataplane.ibdp.schedule.IbdpSchedule.Schedule;
+import org.batfish.dataplane.rib.RibTreeType;
 import org.batfish.main.Batfish;
 import org.batfish.main.BatfishTestUtils;
 import org.batfish.main.TestrigText;
@@ -182,6 +185,39 @@ public class IncrementalDataPlanePluginTest {
     dataPlanePlugin.computeDataPlane(false);
   }
 
+  /**
+   * Test that worklist mode does not mistake routers that are run again without changing their RIBs
+   * for an oscillation, and reaches the same routes as visiting every router in each iteration.
+   */
+  @Test
+  public void testWorklistRerunsAreNotOscillations() throws IOException {
+    String testrigName = "rip";
+    List<String> configurationNames = ImmutableList.of("r1", "r2", "r3");
+
+    Batfish batfish =
+        BatfishTestUtils.getBatfishFromTestrigText(
+            TestrigText.builder()
+                .setConfigurationText(TESTRIGS_PREFIX + testrigName, configurationNames)
+                .build(),
+            _folder);
+    IncrementalDataPlaneSettings worklistSettings = new IncrementalDataPlaneSettings();
+    worklistSettings.setUseWorklist(true);
+    ComputeDataPlaneResult worklistResult =
+        new IncrementalBdpEngine(worklistSettings, batfish.getLogger(), batfish::newBatch)
+            .computeDataPlane(
+                batfish.loadConfigurations(), batfish.getEnvironmentTopology(), ImmutableSet.of());
+    ComputeDataPlaneResult fullResult =
+        new IncrementalBdpEngine(
+                new IncrementalDataPlaneSettings(), batfish.getLogger(), batfish::newBatch)
+            .computeDataPlane(
+                batfish.loadConfigurations(), batfish.getEnvironmentTopology(), ImmutableSet.of());
+
+    assertThat(worklistSettings.getScheduleName(), equalTo(Schedule.NODE_COLORED));
+    assertThat(
+        IncrementalBdpEngine.getRoutes((IncrementalDataPlane) worklistResult._dataPlane),
+        equalTo(IncrementalBdpEngine.getRoutes((IncrementalDataPlane) fullResult._dataPlane)));
+  }
+
   @Test
   public void testEbgpAcceptSameNeighborID() throws IOException {
     String testrigName = "ebgp-accept-routerid-match";
@@ -434,4 +470,19 @@ public class IncrementalDataPlanePluginTest {
         dp.getRibs().get(n1.getHostname()).get(vrf.getName()).getRoutes(),
         hasItem(hasPrefix(genRoutePrefix)));
   }
+
+  @Test
+  public void testComputeReuseKey() {
+    IncrementalDataPlaneSettings settings = new IncrementalDataPlaneSettings();
+    String key = IncrementalDataPlanePlugin.computeReuseKey(settings);
+
+    // storage of routes does not change which routes are computed
+    settings.setRibTreeType(RibTreeType.COMPACT);
+    assertThat(IncrementalDataPlanePlugin.computeReuseKey(settings), equalTo(key));
+
+    settings
+        .getConfig()
+        .setProperty(IncrementalDataPlaneSettings.PROP_CHECK_BGP_REACHABILITY, false);
+    assertThat(IncrementalDataPlanePlugin.computeReuseKey(settings), not(equalTo(key)));
+  }
 }
@@ -0,0 +1,159 @@
+package org.batfish.dataplane.ibdp;
+
+import static org.batfish.datamodel.Configuration.DEFAULT_VRF_NAME;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.util.CommonUtil;
+import org.batfish.datamodel.BgpAdvertisement;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.InterfaceAddress;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.Vrf;
+import org.junit.Test;
+
+/** Tests of {@link ReferenceDataPlane} */
+public class ReferenceDataPlaneTest {
+
+  private static final Set<BgpAdvertisement> NO_ADVERTS = ImmutableSet.of();
+
+  private static void assertSameRoutes(DataPlane actual, DataPlane expected) {
+    assertThat(
+        IncrementalBdpEngine.getRoutes(actual), equalTo(IncrementalBdpEngine.getRoutes(expected)));
+    assertThat(actual.getBgpRoutes(false), equalTo(expected.getBgpRoutes(false)));
+    assertThat(
+        actual.getPrefixTracingInfoSummary(), equalTo(expected.getPrefixTracingInfoSummary()));
+  }
+
+  private static IncrementalBdpEngine engine() {
+    return new IncrementalBdpEngine(
+        new IncrementalDataPlaneSettings(),
+        new BatfishLogger(BatfishLogger.LEVELSTR_DEBUG, false),
+        (a, b) -> new AtomicInteger());
+  }
+
+  /**
+   * Two disconnected pairs of routers, r1-r2 and r3-r4, each with a static route to the loopback of
+   * the other router of its pair. If {@code changed}, r3 has another static route.
+   */
+  private static SortedMap<String, Configuration> network(boolean changed) {
+    NetworkFactory nf = new NetworkFactory();
+    SortedMap<String, Configuration> configurations = new TreeMap<>();
+    configurations.put("r1", router(nf, "r1", "10.0.12.1/30", "1.1.1.1/32"));
+    configurations.put("r2", router(nf, "r2", "10.0.12.2/30", "2.2.2.2/32"));
+    configurations.put("r3", router(nf, "r3", "10.0.34.1/30", "3.3.3.3/32"));
+    configurations.put("r4", router(nf, "r4", "10.0.34.2/30", "4.4.4.4/32"));
+    addStaticRoute(configurations.get("r1"), "2.2.2.2/32", "10.0.12.2");
+    addStaticRoute(configurations.get("r2"), "1.1.1.1/32", "10.0.12.1");
+    addStaticRoute(configurations.get("r3"), "4.4.4.4/32", "10.0.34.2");
+    addStaticRoute(configurations.get("r4"), "3.3.3.3/32", "10.0.34.1");
+    if (changed) {
+      addStaticRoute(configurations.get("r3"), "5.5.5.0/24", "4.4.4.4");
+    }
+    return configurations;
+  }
+
+  private static void addStaticRoute(Configuration c, String network, String nextHopIp) {
+    c.getVrfs()
+        .get(DEFAULT_VRF_NAME)
+        .getStaticRoutes()
+        .add(
+            StaticRoute.builder()
+                .setNetwork(Prefix.parse(network))
+                .setNextHopIp(new Ip(nextHopIp))
+                .setAdministrativeCost(1)
+                .build());
+  }
+
+  /**
+   * Compute the data plane of {@link #network(boolean) network(false)}. The configurations of the
+   * reference are loaded separately, as they would be from storage.
+   */
+  private static ReferenceDataPlane reference() {
+    SortedMap<String, Configuration> configurations = network(false);
+    Topology topology = CommonUtil.synthesizeTopology(configurations);
+    DataPlane dp = engine().computeDataPlane(network(false), topology, NO_ADVERTS)._dataPlane;
+    return new ReferenceDataPlane(configurations, topology, NO_ADVERTS, dp);
+  }
+
+  private static Configuration router(
+      NetworkFactory nf, String hostname, String linkAddress, String loopbackAddress) {
+    Configuration c =
+        nf.configurationBuilder()
+            .setHostname(hostname)
+            .setConfigurationFormat(ConfigurationFormat.CISCO_IOS)
+            .build();
+    Vrf vrf = nf.vrfBuilder().setOwner(c).setName(DEFAULT_VRF_NAME).build();
+    Interface.Builder ib = nf.interfaceBuilder().setOwner(c).setVrf(vrf);
+    ib.setName("link").setAddress(new InterfaceAddress(linkAddress)).build();
+    ib.setName("loopback").setAddress(new InterfaceAddress(loopbackAddress)).build();
+    return c;
+  }
+
+  @Test
+  public void testChangedComponentIsRecomputed() {
+    ReferenceDataPlane reference = reference();
+    SortedMap<String, Configuration> configurations = network(true);
+    Topology topology = CommonUtil.synthesizeTopology(configurations);
+
+    assertThat(
+        reference.computeReusableNodes(configurations, topology, NO_ADVERTS),
+        containsInAnyOrder("r1", "r2"));
+
+    DataPlane reused =
+        engine().computeDataPlane(configurations, topology, NO_ADVERTS, reference)._dataPlane;
+    DataPlane full = engine().computeDataPlane(network(true), topology, NO_ADVERTS)._dataPlane;
+    assertSameRoutes(reused, full);
+  }
+
+  @Test
+  public void testRemovedNeighborIsRecomputed() {
+    ReferenceDataPlane reference = reference();
+    SortedMap<String, Configuration> configurations = network(false);
+    configurations.remove("r4");
+    Topology topology = CommonUtil.synthesizeTopology(configurations);
+
+    // r3 is unchanged, but lost its edge to r4
+    assertThat(
+        reference.computeReusableNodes(configurations, topology, NO_ADVERTS),
+        containsInAnyOrder("r1", "r2"));
+
+    SortedMap<String, Configuration> fullConfigurations = network(false);
+    fullConfigurations.remove("r4");
+    DataPlane reused =
+        engine().computeDataPlane(configurations, topology, NO_ADVERTS, reference)._dataPlane;
+    DataPlane full =
+        engine().computeDataPlane(fullConfigurations, topology, NO_ADVERTS)._dataPlane;
+    assertSameRoutes(reused, full);
+  }
+
+  @Test
+  public void testUnchangedNetworkIsReused() {
+    ReferenceDataPlane reference = reference();
+    SortedMap<String, Configuration> configurations = network(false);
+    Topology topology = CommonUtil.synthesizeTopology(configurations);
+
+    assertThat(
+        reference.computeReusableNodes(configurations, topology, NO_ADVERTS),
+        containsInAnyOrder("r1", "r2", "r3", "r4"));
+
+    DataPlane reused =
+        engine().computeDataPlane(configurations, topology, NO_ADVERTS, reference)._dataPlane;
+    DataPlane full = engine().computeDataPlane(network(false), topology, NO_ADVERTS)._dataPlane;
+    assertSameRoutes(reused, full);
+  }
+}
@@ -3,6 +3,7 @@ package org.batfish.dataplane.ibdp;
 import static org.batfish.datamodel.matchers.AbstractRouteMatchers.hasPrefix;
 import static org.batfish.datamodel.matchers.AbstractRouteMatchers.hasProtocol;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.not;
@@ -109,6 +110,14 @@ public class RouteReflectionTest {
    */
   private SortedMap<String, SortedMap<String, SortedSet<AbstractRoute>>> generateRoutesOneReflector(
       boolean edge1RouteReflectorClient, boolean edge2RouteReflectorClient) {
+    return generateRoutesOneReflector(
+        edge1RouteReflectorClient, edge2RouteReflectorClient, new IncrementalDataPlaneSettings());
+  }
+
+  private SortedMap<String, SortedMap<String, SortedSet<AbstractRoute>>> generateRoutesOneReflector(
+      boolean edge1RouteReflectorClient,
+      boolean edge2RouteReflectorClient,
+      IncrementalDataPlaneSettings settings) {
     Ip as1PeeringIp = new Ip("10.12.11.1");
     Ip edge1EbgpIfaceIp = new Ip("10.12.11.2");
     Ip edge1IbgpIfaceIp = new Ip("10.1.12.1");
@@ -216,7 +225,7 @@ public class RouteReflectionTest {
             .build();
     IncrementalBdpEngine engine =
         new IncrementalBdpEngine(
-            new IncrementalDataPlaneSettings(),
+            settings,
             new BatfishLogger(BatfishLogger.LEVELSTR_OUTPUT, false),
             (s, i) -> new AtomicInteger());
     Topology topology = CommonUtil.synthesizeTopology(configurations);
@@ -472,4 +481,23 @@ public class RouteReflectionTest {
     assertIbgpRoute(routes, RR_NAME, AS3_PREFIX);
     assertIbgpRoute(routes, EDGE2_NAME, AS1_PREFIX);
   }
+
+  /*
+   * AS1 |                  AS2                   | AS3
+   *       edge1(client) <=> rr <=> (client)edge2
+   */
+  @Test
+  public void testSingleReflectorTwoClientsWorklist() {
+    IncrementalDataPlaneSettings settings = new IncrementalDataPlaneSettings();
+    settings.setUseWorklist(true);
+    SortedMap<String, SortedMap<String, SortedSet<AbstractRoute>>> routes =
+        generateRoutesOneReflector(true, true, settings);
+
+    assertIbgpRoute(routes, EDGE1_NAME, AS3_PREFIX);
+    assertIbgpRoute(routes, RR_NAME, AS1_PREFIX);
+    assertIbgpRoute(routes, RR_NAME, AS3_PREFIX);
+    assertIbgpRoute(routes, EDGE2_NAME, AS1_PREFIX);
+    // Only visiting routers with pending work must not change the fixed point
+    assertThat(routes, equalTo(generateRoutesOneReflector(true, true)));
+  }
 }
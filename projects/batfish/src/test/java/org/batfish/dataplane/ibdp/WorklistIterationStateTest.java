@@ -0,0 +1,85 @@
+package org.batfish.dataplane.ibdp;
+
+import static org.batfish.common.topology.TopologyUtil.computeIpNodeOwners;
+import static org.batfish.common.util.CommonUtil.synthesizeTopology;
+import static org.batfish.datamodel.Configuration.DEFAULT_VRF_NAME;
+import static org.batfish.datamodel.bgp.BgpTopologyUtils.initBgpTopology;
+import static org.batfish.datamodel.eigrp.EigrpTopology.initEigrpTopology;
+import static org.batfish.datamodel.isis.IsisTopology.initIsisTopology;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConnectedRoute;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.answers.IncrementalBdpAnswerElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link WorklistIterationState} */
+public class WorklistIterationStateTest {
+
+  private Map<String, Node> _nodes;
+
+  private VirtualRouter _vr;
+
+  @Before
+  public void setup() {
+    Node node = TestUtils.makeIosRouter("r1");
+    _nodes = ImmutableMap.of("r1", node);
+    Map<String, Configuration> configs = ImmutableMap.of("r1", node.getConfiguration());
+    Topology topology = synthesizeTopology(configs);
+    _vr = node.getVirtualRouters().get(DEFAULT_VRF_NAME);
+    _vr.initRibs();
+    _vr.initQueuesAndDeltaBuilders(
+        _nodes,
+        topology,
+        initBgpTopology(configs, computeIpNodeOwners(configs, false), false),
+        initEigrpTopology(configs, topology),
+        initIsisTopology(configs, topology));
+  }
+
+  /**
+   * Test that a router re-run without any change to its RIBs is not mistaken for a return to an
+   * earlier state, unless the same routers have pending work.
+   */
+  @Test
+  public void testHashCodeIncludesPendingWork() {
+    WorklistIterationState state = new WorklistIterationState();
+    _vr.claimPendingWork();
+    state.update(_nodes, ImmutableList.of(_vr));
+    int converged = state.getHashCode();
+
+    _vr.markPendingWork();
+    state.update(_nodes, ImmutableList.of());
+    assertThat(state.getHashCode(), not(equalTo(converged)));
+
+    _vr.claimPendingWork();
+    state.update(_nodes, ImmutableList.of(_vr));
+    assertThat(state.getHashCode(), equalTo(converged));
+  }
+
+  /** Test that RIB sizes are only recomputed for routers that were run or have pending work */
+  @Test
+  public void testRecordStatistics() {
+    WorklistIterationState state = new WorklistIterationState();
+    IncrementalBdpAnswerElement ae = new IncrementalBdpAnswerElement();
+    _vr.claimPendingWork();
+    state.update(_nodes, ImmutableList.of(_vr));
+    state.recordStatistics(ae, 1);
+
+    _vr._mainRib.mergeRoute(new ConnectedRoute(Prefix.parse("1.1.1.0/24"), "Ethernet1"));
+    state.update(_nodes, ImmutableList.of());
+    state.recordStatistics(ae, 2);
+
+    state.update(_nodes, ImmutableList.of(_vr));
+    state.recordStatistics(ae, 3);
+
+    assertThat(ae.getMainRibRoutesByIteration(), equalTo(ImmutableMap.of(1, 0, 2, 0, 3, 1)));
+  }
+}
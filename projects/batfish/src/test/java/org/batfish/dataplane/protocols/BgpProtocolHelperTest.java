@@ -5,11 +5,13 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertNotNull;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import org.batfish.common.WellKnownCommunity;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPeerConfig;
+import org.batfish.datamodel.BgpProcess;
 import org.batfish.datamodel.BgpRoute;
 import org.batfish.datamodel.BgpSessionProperties;
 import org.batfish.datamodel.Ip;
@@ -74,4 +76,48 @@ public final class BgpProtocolHelperTest {
             fromNeighbor, toNeighbor, sessionProperties, fromVrf, toVrf, route);
     assertThat(transformedRoute, nullValue());
   }
+
+  /** Test that a route is not sent back over iBGP to the router that originated it. */
+  @Test
+  public void isOriginatedByReceiver() {
+    NetworkFactory nf = new NetworkFactory();
+    BgpActivePeerConfig fromNeighbor = nf.bgpNeighborBuilder().build();
+    BgpPeerConfig toNeighbor = nf.bgpNeighborBuilder().build();
+    BgpSessionProperties sessionProperties = BgpSessionProperties.from(fromNeighbor, toNeighbor);
+    Vrf toVrf = nf.vrfBuilder().build();
+    nf.bgpProcessBuilder().setVrf(toVrf).setRouterId(new Ip("1.1.1.1")).build();
+    BgpRoute.Builder routeBuilder =
+        new BgpRoute.Builder()
+            .setOriginType(OriginType.IGP)
+            .setNetwork(Prefix.ZERO)
+            .setProtocol(RoutingProtocol.IBGP)
+            .setReceivedFromIp(new Ip("2.2.2.2"));
+
+    assertThat(
+        BgpProtocolHelper.isOriginatedByReceiver(
+            sessionProperties, toVrf, routeBuilder.setOriginatorIp(new Ip("1.1.1.1")).build()),
+        equalTo(true));
+    assertThat(
+        BgpProtocolHelper.isOriginatedByReceiver(
+            sessionProperties, toVrf, routeBuilder.setOriginatorIp(new Ip("3.3.3.3")).build()),
+        equalTo(false));
+  }
+
+  /** Test that a route is rejected by a receiver whose cluster id is in its cluster list. */
+  @Test
+  public void isInClusterList() {
+    NetworkFactory nf = new NetworkFactory();
+    Vrf toVrf = nf.vrfBuilder().build();
+    BgpProcess toProcess =
+        nf.bgpProcessBuilder().setVrf(toVrf).setRouterId(new Ip("1.1.1.1")).build();
+    nf.bgpNeighborBuilder()
+        .setBgpProcess(toProcess)
+        .setPeerAddress(new Ip("2.2.2.2"))
+        .setClusterId(5L)
+        .build();
+
+    assertThat(BgpProtocolHelper.isInClusterList(toVrf, ImmutableSet.of(4L, 5L)), equalTo(true));
+    assertThat(BgpProtocolHelper.isInClusterList(toVrf, ImmutableSet.of(4L)), equalTo(false));
+    assertThat(BgpProtocolHelper.isInClusterList(toVrf, ImmutableSet.of()), equalTo(false));
+  }
 }
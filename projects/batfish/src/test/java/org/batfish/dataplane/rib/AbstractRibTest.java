@@ -234,6 +234,22 @@ public class AbstractRibTest {
     assertThat(match, contains(routes.get(0)));
   }
 
+  /**
+   * Ensure that {@link AbstractRib#longestPrefixMatch(long, int)} returns the same routes as the
+   * {@link Ip} variant
+   */
+  @Test
+  public void testLongestPrefixMatchAsLong() {
+    List<StaticRoute> routes = setupOverlappingRoutes();
+
+    assertThat(_rib.longestPrefixMatch(new Ip("10.1.1.1").asLong()), contains(routes.get(3)));
+    assertThat(_rib.longestPrefixMatch(new Ip("10.1.1.2").asLong()), contains(routes.get(1)));
+    assertThat(_rib.longestPrefixMatch(new Ip("10.1.1.1").asLong(), 8), contains(routes.get(0)));
+    assertThat(
+        _rib.longestPrefixMatch(new Ip("11.1.1.1").asLong()),
+        is(emptyIterableOf(StaticRoute.class)));
+  }
+
   /** Ensure that a RIB is equal to itself */
   @Test
   public void testSelfHasSameRoutes() {
@@ -285,6 +301,42 @@ public class AbstractRibTest {
     assertThat(rib.getRoutes(), hasSize(2));
   }
 
+  /**
+   * Check that the incrementally maintained route count and hash code agree with {@link
+   * AbstractRib#getRoutes()} as routes are added, replaced and removed
+   */
+  @Test
+  public void testGetNumRoutesAndRoutesHashCode() {
+    OspfIntraAreaRib rib = new OspfIntraAreaRib();
+    assertThat(rib.getNumRoutes(), equalTo(0));
+    assertThat(rib.getRoutesHashCode(), equalTo(rib.getRoutes().hashCode()));
+
+    Prefix prefix = Prefix.parse("1.1.1.1/32");
+    OspfIntraAreaRoute oldRoute = new OspfIntraAreaRoute(prefix, null, 100, 30, 1);
+    rib.mergeRouteGetDelta(oldRoute);
+    rib.mergeRouteGetDelta(new OspfIntraAreaRoute(Prefix.parse("2.2.2.2/32"), null, 100, 30, 1));
+    assertThat(rib.getNumRoutes(), equalTo(2));
+    assertThat(rib.getRoutesHashCode(), equalTo(rib.getRoutes().hashCode()));
+
+    // Replacement
+    OspfIntraAreaRoute newRoute = new OspfIntraAreaRoute(prefix, null, 100, 10, 1);
+    rib.mergeRouteGetDelta(newRoute);
+    assertThat(rib.getNumRoutes(), equalTo(2));
+    assertThat(rib.getRoutesHashCode(), equalTo(rib.getRoutes().hashCode()));
+
+    // Removal of a route that is not present has no effect
+    rib.removeRouteGetDelta(oldRoute);
+    assertThat(rib.getNumRoutes(), equalTo(2));
+
+    rib.removeRouteGetDelta(newRoute);
+    assertThat(rib.getNumRoutes(), equalTo(1));
+    assertThat(rib.getRoutesHashCode(), equalTo(rib.getRoutes().hashCode()));
+
+    rib.clearRoutes(Prefix.parse("2.2.2.2/32"));
+    assertThat(rib.getNumRoutes(), equalTo(0));
+    assertThat(rib.getRoutesHashCode(), equalTo(0));
+  }
+
   /** Test that routes obtained from getRoutes() cannot be modified */
   @Test
   public void testGetRoutesCannotBeModified() {
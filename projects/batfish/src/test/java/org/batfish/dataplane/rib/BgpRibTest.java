@@ -743,4 +743,27 @@ public class BgpRibTest {
         ibgpBpr.comparePreference(ibgpNewerHigherOriginator, ibgpLowerOriginator), lessThan(0));
     assertThat(bmr.comparePreference(ibgpNewerHigherOriginator, ibgpLowerOriginator), equalTo(0));
   }
+
+  @Test
+  public void testGetNumRoutesAndRoutesHashCode() {
+    BgpRoute worse = _rb.setOriginatorIp(new Ip("1.1.1.2")).build();
+    BgpRoute best = _rb.setOriginatorIp(new Ip("1.1.1.1")).build();
+    BgpRoute otherPrefix = _rb.setNetwork(Prefix.parse("11.0.0.0/8")).build();
+
+    for (BgpRib rib : new BgpRib[] {_bestPathRib, _multiPathRib}) {
+      rib.mergeRouteGetDelta(worse);
+      rib.mergeRouteGetDelta(best);
+      rib.mergeRouteGetDelta(otherPrefix);
+      assertThat(rib.getNumBestPathRoutes(), equalTo(rib.getBestPathRoutes().size()));
+      assertThat(rib.getNumRoutes(), equalTo(rib.getRoutes().size()));
+      assertThat(rib.getRoutesHashCode(), equalTo(rib.getRoutes().hashCode()));
+
+      rib.removeRouteGetDelta(best);
+      assertThat(rib.getNumBestPathRoutes(), equalTo(rib.getBestPathRoutes().size()));
+      assertThat(rib.getNumRoutes(), equalTo(rib.getRoutes().size()));
+      assertThat(rib.getRoutesHashCode(), equalTo(rib.getRoutes().hashCode()));
+    }
+    assertThat(_bestPathRib.getNumBestPathRoutes(), equalTo(1));
+    assertThat(_multiPathRib.getNumRoutes(), equalTo(2));
+  }
 }
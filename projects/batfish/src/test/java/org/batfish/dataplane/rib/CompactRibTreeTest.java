@@ -0,0 +1,118 @@
+package org.batfish.dataplane.rib;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.StaticRoute;
+import org.junit.Test;
+
+/** Tests of {@link CompactRibTree} */
+public class CompactRibTreeTest {
+
+  private static StaticRoute route(Prefix network, Ip nextHopIp) {
+    return StaticRoute.builder()
+        .setNetwork(network)
+        .setNextHopIp(nextHopIp)
+        .setAdministrativeCost(1)
+        .setMetric(0L)
+        .setTag(0)
+        .build();
+  }
+
+  @Nullable
+  private static Set<RouteAdvertisement<StaticRoute>> actions(
+      @Nullable RibDelta<StaticRoute> delta) {
+    return delta == null ? null : ImmutableSet.copyOf(delta.getActions());
+  }
+
+  @Test
+  public void testLongestPrefixMatchConstrained() {
+    StaticRib rib = new StaticRib(RibTreeType.COMPACT);
+    StaticRoute r8 = route(Prefix.parse("10.0.0.0/8"), Ip.ZERO);
+    StaticRoute r32 = route(Prefix.parse("10.1.1.1/32"), Ip.ZERO);
+    rib.mergeRoute(r8);
+    rib.mergeRoute(r32);
+
+    assertThat(rib.longestPrefixMatch(new Ip("10.1.1.1")), contains(r32));
+    assertThat(rib.longestPrefixMatch(new Ip("10.1.1.1"), 31), contains(r8));
+    assertThat(rib.longestPrefixMatch(new Ip("10.1.1.2")), contains(r8));
+    assertThat(rib.longestPrefixMatch(new Ip("10.1.1.1"), 7), empty());
+    assertThat(rib.longestPrefixMatch(new Ip("11.1.1.1")), empty());
+  }
+
+  @Test
+  public void testRemovePrunesTree() {
+    StaticRib rib = new StaticRib(RibTreeType.COMPACT);
+    StaticRoute r1 = route(Prefix.parse("10.0.0.0/24"), Ip.ZERO);
+    StaticRoute r2 = route(Prefix.parse("10.0.1.0/24"), Ip.ZERO);
+    StaticRoute r3 = route(Prefix.parse("10.0.0.0/16"), Ip.ZERO);
+
+    // r1 and r2 branch off an empty 10.0.0.0/23 node
+    rib.mergeRoute(r1);
+    rib.mergeRoute(r2);
+    rib.removeRoute(r1);
+    rib.removeRoute(r2);
+
+    // The tree is back to its original shape, so it is equal to a freshly built one
+    StaticRib other = new StaticRib(RibTreeType.COMPACT);
+    assertThat(rib, equalTo(other));
+    assertThat(rib.getNumRoutes(), equalTo(0));
+
+    rib.mergeRoute(r2);
+    rib.mergeRoute(r3);
+    rib.mergeRoute(r1);
+    rib.removeRoute(r3);
+    assertThat(rib.getRoutes(Prefix.parse("10.0.0.0/16")), empty());
+    assertThat(rib.longestPrefixMatch(new Ip("10.0.1.1")), contains(r2));
+    assertThat(rib.longestPrefixMatch(new Ip("10.0.0.1")), contains(r1));
+    assertThat(rib.longestPrefixMatch(new Ip("10.0.2.1")), empty());
+  }
+
+  /** Apply the same random sequence of operations to a standard and a compact RIB */
+  @Test
+  public void testEquivalentToStandardTree() {
+    Random random = new Random(0);
+    StaticRib compact = new StaticRib(RibTreeType.COMPACT);
+    StaticRib standard = new StaticRib(RibTreeType.STANDARD);
+
+    List<StaticRoute> routes = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      // Use a small address space so that prefixes overlap
+      Ip ip = new Ip((10L << 24) | (random.nextInt(1 << 12) << 12));
+      int length = 8 + random.nextInt(25);
+      routes.add(route(new Prefix(ip, length), new Ip(random.nextInt(3))));
+    }
+    for (int i = 0; i < 5000; i++) {
+      StaticRoute r = routes.get(random.nextInt(routes.size()));
+      if (random.nextInt(3) == 0) {
+        assertThat(
+            actions(compact.removeRouteGetDelta(r)),
+            equalTo(actions(standard.removeRouteGetDelta(r))));
+      } else {
+        assertThat(
+            actions(compact.mergeRouteGetDelta(r)),
+            equalTo(actions(standard.mergeRouteGetDelta(r))));
+      }
+    }
+
+    assertThat(compact.getRoutes(), equalTo(standard.getRoutes()));
+    assertThat(compact.getNumRoutes(), equalTo(standard.getNumRoutes()));
+    assertThat(compact.getRoutesHashCode(), equalTo(standard.getRoutesHashCode()));
+    assertThat(compact.getMatchingIps().keySet(), equalTo(standard.getMatchingIps().keySet()));
+    for (StaticRoute r : routes) {
+      assertThat(compact.containsRoute(r), equalTo(standard.containsRoute(r)));
+      Ip ip = r.getNetwork().getEndIp();
+      assertThat(compact.longestPrefixMatch(ip), equalTo(standard.longestPrefixMatch(ip)));
+    }
+  }
+}
@@ -1943,6 +1943,14 @@ public class FlatJuniperGrammarTest {
     assertThat(incomingFilter, rejects(blackListedDst, "fw-s-add.0", c));
   }
 
+  @Test
+  public void testJuniperApplyGroupsNested() throws IOException {
+    Configuration c = parseConfig("juniper-apply-groups-nested");
+
+    /* INNER is applied by the lines that applying OUTER generates */
+    assertThat(c, hasInterface("xe-0/0/0.0", hasMtu(9000)));
+  }
+
   @Test
   public void testJuniperApplyGroupsNode() throws IOException {
     String filename = "juniper-apply-groups-node";
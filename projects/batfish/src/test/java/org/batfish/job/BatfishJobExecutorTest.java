@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BatfishLogger.BatfishLoggerHistory;
@@ -49,6 +50,34 @@ public class BatfishJobExecutorTest {
     assertEquals(output, Sets.newHashSet("result1", "result2"));
   }
 
+  @Test
+  public void testExecuteJobsBoundedInFlight() {
+    Settings settings = new Settings();
+
+    List<BfTestJob> jobs = new ArrayList<>();
+    jobs.add(new BfTestJob(settings, "result1"));
+    jobs.add(new BfTestJob(settings, "result2"));
+    jobs.add(new BfTestJob(settings, "result3"));
+
+    Set<String> output = new HashSet<>();
+    List<String> handled = new ArrayList<>();
+    BfTestAnswerElement ae = new BfTestAnswerElement();
+    BatfishJobExecutor.runJobsInExecutor(
+        settings,
+        _logger,
+        jobs,
+        output,
+        ae,
+        false,
+        TEST_EXECUTOR_DESC,
+        1,
+        result -> handled.add(result._result));
+
+    // with one job in flight at a time, results are handled in the order jobs are submitted
+    assertEquals(output, Sets.newHashSet("result1", "result2", "result3"));
+    assertEquals(handled, jobs.stream().map(job -> job._testValue).collect(Collectors.toList()));
+  }
+
   @Test
   public void testHandleJobResultSuccess() {
     Settings settings = new Settings();
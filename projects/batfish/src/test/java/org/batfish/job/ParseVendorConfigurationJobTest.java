@@ -3,17 +3,38 @@ package org.batfish.job;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 import com.google.common.collect.ImmutableMultimap;
+import org.batfish.common.BatfishLogger;
 import org.batfish.common.Warnings;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.config.Settings;
 import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.storage.FileBasedStorage;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class ParseVendorConfigurationJobTest {
   private static final String HOST_TESTCONFIGS_PREFIX = "org/batfish/grammar/host/testconfigs/";
 
+  @Rule public TemporaryFolder _folder = new TemporaryFolder();
+
+  private static ParseVendorConfigurationResult parseHost(
+      Settings settings, String fileText, ConfigurationCache cache) throws Exception {
+    return new ParseVendorConfigurationJob(
+            settings,
+            fileText,
+            "filename",
+            new Warnings(),
+            ConfigurationFormat.HOST,
+            ImmutableMultimap.of(),
+            cache)
+        .call();
+  }
+
   private static ParseVendorConfigurationResult parseHost(String resourcePath) throws Exception {
     return new ParseVendorConfigurationJob(
             new Settings(),
@@ -32,6 +53,37 @@ public class ParseVendorConfigurationJobTest {
     assertThat(result.getFailureCause(), equalTo(null));
   }
 
+  @Test
+  public void testHostCached() throws Exception {
+    Settings settings = new Settings();
+    settings.setContainer("network");
+    ConfigurationCache cache =
+        ConfigurationCache.create(
+            settings,
+            new FileBasedStorage(
+                _folder.getRoot().toPath(),
+                new BatfishLogger(BatfishLogger.LEVELSTR_OUTPUT, false)));
+    String fileText = CommonUtil.readResource(HOST_TESTCONFIGS_PREFIX + "host.json");
+    String key = cache.getParseKey(fileText, "filename", ConfigurationFormat.HOST);
+
+    ParseVendorConfigurationResult parsed = parseHost(settings, fileText, cache);
+    // Confirm the result is cached under the hash of its input
+    assertThat(cache.loadParseEntry(key, settings.getLogger()), notNullValue());
+    assertThat(parsed.getVendorConfiguration().getSourceHash(), equalTo(key));
+
+    ParseVendorConfigurationResult reused = parseHost(settings, fileText, cache);
+    assertThat(reused.getFailureCause(), nullValue());
+    assertThat(
+        reused.getVendorConfiguration().getHostname(),
+        equalTo(parsed.getVendorConfiguration().getHostname()));
+    assertThat(reused.getVendorConfiguration().getSourceHash(), equalTo(key));
+
+    // Confirm a changed file is keyed differently
+    assertThat(
+        cache.getParseKey(fileText + " ", "filename", ConfigurationFormat.HOST),
+        not(equalTo(key)));
+  }
+
   @Test
   public void testHostInvalid() throws Exception {
     ParseVendorConfigurationResult result = parseHost(HOST_TESTCONFIGS_PREFIX + "hostInvalid.json");
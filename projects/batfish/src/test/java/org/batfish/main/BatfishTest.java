@@ -15,12 +15,15 @@ import static org.junit.Assert.assertThat;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,13 +32,16 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.stream.Stream;
 import org.batfish.common.Answerer;
 import org.batfish.common.BatfishException;
 import org.batfish.common.topology.Layer1Edge;
 import org.batfish.common.topology.Layer1Node;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.topology.TopologyUtil;
+import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.common.util.CommonUtil;
+import org.batfish.config.TestrigSettings;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.ConfigurationFormat;
 import org.batfish.datamodel.Edge;
@@ -191,6 +197,46 @@ public class BatfishTest {
     assertThat(batfish2.loadConfigurations().keySet(), equalTo(ImmutableSet.of("rtr1", "rtr2")));
   }
 
+  @Test
+  public void testPipelinedParsingMatchesTwoPhaseParsing() throws IOException {
+    // rtr1 and rtr2 have the same hostname, so rtr1 is renamed after it was converted
+    TestrigText testrigText =
+        TestrigText.builder()
+            .setConfigurationText(
+                "org/batfish/main/snapshots/duplicate_hostnames",
+                ImmutableList.of("rtr1", "rtr2", "rtr3"))
+            .build();
+    Batfish twoPhase = BatfishTestUtils.getBatfishFromTestrigText(testrigText, _folder);
+    Batfish pipelined = BatfishTestUtils.getBatfishFromTestrigText(testrigText, _folder);
+    twoPhase.getSettings().setSequential(true);
+    pipelined.getSettings().setSequential(true);
+
+    TestrigSettings testrigSettings = pipelined.getSettings().getActiveTestrigSettings();
+    pipelined.serializeVendorAndIndependentConfigs(
+        testrigSettings.getInputPath(), testrigSettings.getSerializeVendorPath());
+
+    assertThat(
+        BatfishObjectMapper.writePrettyString(pipelined.loadConfigurations()),
+        equalTo(BatfishObjectMapper.writePrettyString(twoPhase.loadConfigurations())));
+    assertThat(
+        BatfishObjectMapper.writePrettyString(
+            pipelined.loadParseVendorConfigurationAnswerElement()),
+        equalTo(
+            BatfishObjectMapper.writePrettyString(
+                twoPhase.loadParseVendorConfigurationAnswerElement())));
+    assertThat(
+        BatfishObjectMapper.writePrettyString(
+            pipelined.loadConvertConfigurationAnswerElementOrReparse()),
+        equalTo(
+            BatfishObjectMapper.writePrettyString(
+                twoPhase.loadConvertConfigurationAnswerElementOrReparse())));
+    assertThat(
+        listFileNames(testrigSettings.getSerializeVendorPath()),
+        equalTo(
+            listFileNames(
+                twoPhase.getSettings().getActiveTestrigSettings().getSerializeVendorPath())));
+  }
+
   @Test
   public void testInitTestrigWithLayer1Topology() throws IOException {
     String testrigResourcePrefix = "org/batfish/common/topology/testrigs/layer1";
@@ -629,4 +675,12 @@ public class BatfishTest {
     // none of the interfaces should be active
     assertThat(config1.activeInterfaces(), equalTo(ImmutableSet.of()));
   }
+
+  private static SortedSet<String> listFileNames(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(file -> file.getFileName().toString())
+          .collect(ImmutableSortedSet.toImmutableSortedSet(Comparator.naturalOrder()));
+    }
+  }
 }
@@ -13,6 +13,7 @@ import java.util.TreeMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.commons.collections4.map.LRUMap;
+import org.batfish.bddreachability.BDDReachabilityAnalysisFactory;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
 import org.batfish.common.NetworkSnapshot;
@@ -57,6 +58,11 @@ public class BatfishTestUtils {
     return CacheBuilder.newBuilder().maximumSize(2).build();
   }
 
+  private static Cache<NetworkSnapshot, BDDReachabilityAnalysisFactory>
+      makeBddReachabilityAnalysisFactoryCache() {
+    return CacheBuilder.newBuilder().maximumSize(2).build();
+  }
+
   private static Batfish initBatfish(
       SortedMap<String, Configuration> configurations, @Nonnull TemporaryFolder tempFolder)
       throws IOException {
@@ -88,6 +94,7 @@ public class BatfishTestUtils {
             makeDataPlaneCache(),
             makeEnvBgpCache(),
             makeEnvRouteCache(),
+            makeBddReachabilityAnalysisFactoryCache(),
             null,
             new TestFileBasedIdResolver(settings.getStorageBase()));
     if (!configurations.isEmpty()) {
@@ -138,6 +145,7 @@ public class BatfishTestUtils {
             makeDataPlaneCache(),
             makeEnvBgpCache(),
             makeEnvRouteCache(),
+            makeBddReachabilityAnalysisFactoryCache(),
             null,
             new TestFileBasedIdResolver(settings.getStorageBase()));
     batfish.getSettings().setDiffQuestion(true);
@@ -226,6 +234,7 @@ public class BatfishTestUtils {
             makeDataPlaneCache(),
             makeEnvBgpCache(),
             makeEnvRouteCache(),
+            makeBddReachabilityAnalysisFactoryCache(),
             null,
             new TestFileBasedIdResolver(settings.getStorageBase()));
     registerDataPlanePlugins(batfish);
@@ -282,6 +291,7 @@ public class BatfishTestUtils {
             makeDataPlaneCache(),
             makeEnvBgpCache(),
             makeEnvRouteCache(),
+            makeBddReachabilityAnalysisFactoryCache(),
             storageProvider,
             idResolver);
     registerDataPlanePlugins(batfish);
@@ -0,0 +1,37 @@
+package org.batfish.main;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.Interface;
+import org.junit.Test;
+
+/** Tests of {@link CacheWeights} */
+public class CacheWeightsTest {
+
+  @Test
+  public void testEstimateConfigurationsGrowsWithContent() {
+    Configuration small = new Configuration("small", ConfigurationFormat.CISCO_IOS);
+    Configuration large = new Configuration("large", ConfigurationFormat.CISCO_IOS);
+    for (int i = 0; i < 10; i++) {
+      String name = "Ethernet" + i;
+      large.getAllInterfaces().put(name, new Interface(name, large));
+    }
+
+    assertThat(
+        CacheWeights.estimateConfigurations(ImmutableMap.of("large", large)),
+        greaterThan(CacheWeights.estimateConfigurations(ImmutableMap.of("small", small))));
+  }
+
+  @Test
+  public void testToWeight() {
+    assertThat(CacheWeights.toWeight(0L, 100L), equalTo(1));
+    assertThat(CacheWeights.toWeight(10L * 1024L, 100L), equalTo(10));
+    assertThat(CacheWeights.toWeight(1000L * 1024L, 100L), equalTo(100));
+    assertThat(CacheWeights.toWeight(Long.MAX_VALUE, Long.MAX_VALUE), equalTo(Integer.MAX_VALUE));
+  }
+}
@@ -0,0 +1,94 @@
+package org.batfish.main;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.TaskKind;
+import org.batfish.config.Settings;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.junit.Test;
+
+/** Tests of {@link TaskAdmissionController} */
+public class TaskAdmissionControllerTest {
+
+  private static final long HEAP = 1000L;
+
+  @Test
+  public void testAdmitsAnyTaskWhenIdle() {
+    TaskAdmissionController controller = new TaskAdmissionController(1, 1L);
+
+    assertThat(controller.tryAdmit("t1", TaskKind.DATA_PLANE), equalTo(true));
+    assertThat(controller.getRunningTasks(), equalTo(1));
+  }
+
+  @Test
+  public void testAvailableTasksByKind() {
+    TaskAdmissionController controller = new TaskAdmissionController(10, HEAP);
+
+    assertThat(controller.getAvailableTasks(TaskKind.DATA_PLANE), equalTo(10));
+    assertThat(controller.tryAdmit("dp", TaskKind.DATA_PLANE), equalTo(true));
+
+    assertThat(controller.getAvailableTasksByKind().get(TaskKind.DATA_PLANE), equalTo(1));
+    assertThat(controller.getAvailableTasksByKind().get(TaskKind.PARSING), equalTo(1));
+    assertThat(controller.getAvailableTasksByKind().get(TaskKind.QUESTION), equalTo(2));
+    assertThat(controller.getAvailableTasksByKind().get(TaskKind.CACHED_QUESTION), equalTo(9));
+  }
+
+  @Test
+  public void testClassifyQuestionNeedsCachedDataPlane() {
+    Settings settings = new Settings();
+    settings.setContainer("network");
+    settings.setTestrig("snapshot");
+    NetworkSnapshot snapshot =
+        new NetworkSnapshot(new NetworkId("network"), new SnapshotId("snapshot"));
+
+    // only the configurations being cached does not make the question cheap
+    assertThat(
+        TaskAdmissionController.classify(settings, ImmutableSet.of()), equalTo(TaskKind.QUESTION));
+    assertThat(
+        TaskAdmissionController.classify(settings, ImmutableSet.of(snapshot)),
+        equalTo(TaskKind.CACHED_QUESTION));
+
+    settings.setDeltaTestrig(new SnapshotId("delta"));
+    assertThat(
+        TaskAdmissionController.classify(settings, ImmutableSet.of(snapshot)),
+        equalTo(TaskKind.QUESTION));
+  }
+
+  @Test
+  public void testHeapLimitsAdmission() {
+    TaskAdmissionController controller = new TaskAdmissionController(10, HEAP);
+
+    assertThat(controller.tryAdmit("dp", TaskKind.DATA_PLANE), equalTo(true));
+    assertThat(controller.tryAdmit("parse", TaskKind.PARSING), equalTo(true));
+    assertThat(controller.getAvailableHeap(), equalTo(150L));
+
+    // a second data plane does not fit, but cheap questions do
+    assertThat(controller.tryAdmit("dp2", TaskKind.DATA_PLANE), equalTo(false));
+    assertThat(controller.tryAdmit("q", TaskKind.QUESTION), equalTo(false));
+    assertThat(controller.getAvailableTasks(), equalTo(3));
+    assertThat(controller.tryAdmit("cq", TaskKind.CACHED_QUESTION), equalTo(true));
+
+    controller.release("dp");
+    assertThat(controller.tryAdmit("dp2", TaskKind.DATA_PLANE), equalTo(true));
+  }
+
+  @Test
+  public void testMaxTasks() {
+    TaskAdmissionController controller = new TaskAdmissionController(2, HEAP);
+
+    assertThat(controller.tryAdmit("t1", TaskKind.CACHED_QUESTION), equalTo(true));
+    assertThat(controller.getAvailableTasks(), equalTo(1));
+    assertThat(controller.tryAdmit("t2", TaskKind.CACHED_QUESTION), equalTo(true));
+    assertThat(controller.getAvailableTasks(), equalTo(0));
+    assertThat(controller.tryAdmit("t3", TaskKind.CACHED_QUESTION), equalTo(false));
+
+    controller.release("t1");
+    controller.release("t1");
+    assertThat(controller.getRunningTasks(), equalTo(1));
+    assertThat(controller.getAvailableTasks(), equalTo(1));
+  }
+}
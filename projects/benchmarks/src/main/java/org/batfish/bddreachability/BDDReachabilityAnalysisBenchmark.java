@@ -0,0 +1,96 @@
+package org.batfish.bddreachability;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import net.sf.javabdd.BDD;
+import org.batfish.benchmarks.SyntheticNetworks;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.common.util.CommonUtil;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.dataplane.ibdp.IncrementalBdpEngineBenchmark;
+import org.batfish.dataplane.ibdp.IncrementalDataPlane;
+import org.batfish.dataplane.ibdp.IncrementalDataPlaneSettings;
+import org.batfish.specifier.InterfaceLocation;
+import org.batfish.specifier.IpSpaceAssignment;
+import org.batfish.specifier.Location;
+import org.batfish.z3.IngressLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link BDDReachabilityAnalysis} graph construction and fixpoint computations on
+ * generated OSPF networks of configurable size, with inbound ACLs on every link (see {@link
+ * SyntheticNetworks#ospfRing}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+public class BDDReachabilityAnalysisBenchmark {
+
+  @Param({"10", "50"})
+  public int numNodes;
+
+  @Param({"10"})
+  public int aclLines;
+
+  private BDDReachabilityAnalysis _analysis;
+
+  private IpSpaceAssignment _assignment;
+
+  private BDDReachabilityAnalysisFactory _factory;
+
+  @Setup
+  public void setup() {
+    SortedMap<String, Configuration> configurations =
+        SyntheticNetworks.ospfRing(numNodes, 1, aclLines);
+    IncrementalDataPlane dataPlane =
+        IncrementalBdpEngineBenchmark.computeDataPlane(
+            configurations,
+            CommonUtil.synthesizeTopology(configurations),
+            new IncrementalDataPlaneSettings());
+    _factory =
+        new BDDReachabilityAnalysisFactory(
+            new BDDPacket(), configurations, dataPlane.getForwardingAnalysis());
+    IpSpaceAssignment.Builder assignment = IpSpaceAssignment.builder();
+    for (String hostname : configurations.keySet()) {
+      Location location = new InterfaceLocation(hostname, "Loopback0");
+      assignment.assign(location, UniverseIpSpace.INSTANCE);
+    }
+    _assignment = assignment.build();
+    _analysis = _factory.bddReachabilityAnalysis(_assignment);
+  }
+
+  @Benchmark
+  public BDDReachabilityAnalysis buildAnalysis() {
+    return _factory.bddReachabilityAnalysis(_assignment);
+  }
+
+  @Benchmark
+  public Map<IngressLocation, BDD> backwardFixpoint() {
+    return _analysis.getIngressLocationReachableBDDs();
+  }
+
+  @Benchmark
+  public Map<IngressLocation, BDD> detectLoopsFixedRounds() {
+    return _analysis.detectLoops(LoopDetectionMode.FIXED_ROUNDS);
+  }
+
+  @Benchmark
+  public Map<IngressLocation, BDD> detectLoopsScc() {
+    return _analysis.detectLoops(LoopDetectionMode.SCC);
+  }
+}
@@ -0,0 +1,91 @@
+package org.batfish.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.sf.javabdd.BDD;
+import org.batfish.common.bdd.BDDPacket;
+import org.batfish.common.bdd.IpAccessListToBDD;
+import org.batfish.common.bdd.IpSpaceToBDD;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpWildcard;
+import org.batfish.datamodel.IpWildcardSetIpSpace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the conversion of {@link IpSpace IpSpaces} and {@link IpAccessList IpAccessLists}
+ * to BDDs.
+ *
+ * <p>Each invocation converts a different input (cycling through a fixed pool), to limit the
+ * effect of the BDD factory's operation caches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+public class BddConversionBenchmark {
+
+  private static final int POOL_SIZE = 64;
+
+  @Param({"10", "1000"})
+  public int size;
+
+  private IpAccessList[] _acls;
+
+  private IpSpace[] _ipSpaces;
+
+  private int _next;
+
+  private BDDPacket _pkt;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    _pkt = new BDDPacket();
+    _acls = new IpAccessList[POOL_SIZE];
+    _ipSpaces = new IpSpace[POOL_SIZE];
+    for (int i = 0; i < POOL_SIZE; i++) {
+      _acls[i] = SyntheticNetworks.acl("acl" + i, size, random);
+      IpWildcardSetIpSpace.Builder ipSpace = IpWildcardSetIpSpace.builder();
+      for (int j = 0; j < size; j++) {
+        IpWildcard wildcard =
+            new IpWildcard(SyntheticNetworks.randomPrefix(random, 8 + random.nextInt(25)));
+        if (random.nextInt(4) == 0) {
+          ipSpace.excluding(wildcard);
+        } else {
+          ipSpace.including(wildcard);
+        }
+      }
+      _ipSpaces[i] = ipSpace.build();
+    }
+  }
+
+  private int nextIndex() {
+    _next = (_next + 1) % POOL_SIZE;
+    return _next;
+  }
+
+  @Benchmark
+  public BDD ipSpaceToBdd() {
+    return _ipSpaces[nextIndex()].accept(new IpSpaceToBDD(_pkt.getDstIp()));
+  }
+
+  @Benchmark
+  public BDD ipAccessListToBdd() {
+    return IpAccessListToBDD.create(_pkt, ImmutableMap.of(), ImmutableMap.of())
+        .toBdd(_acls[nextIndex()]);
+  }
+}
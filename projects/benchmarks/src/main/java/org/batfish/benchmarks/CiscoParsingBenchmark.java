@@ -0,0 +1,72 @@
+package org.batfish.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.Warnings;
+import org.batfish.config.Settings;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.grammar.cisco.CiscoCombinedParser;
+import org.batfish.grammar.cisco.CiscoControlPlaneExtractor;
+import org.batfish.main.Batfish;
+import org.batfish.vendor.VendorConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of parsing and extraction of synthetic Cisco IOS configurations */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+public class CiscoParsingBenchmark {
+
+  @Param({"10", "100"})
+  public int numInterfaces;
+
+  @Param({"20"})
+  public int numAclLines;
+
+  private BatfishLogger _logger;
+
+  private Settings _settings;
+
+  private String _text;
+
+  @Setup
+  public void setup() {
+    _logger = new BatfishLogger(BatfishLogger.LEVELSTR_OUTPUT, false);
+    _settings = new Settings(new String[] {});
+    _text =
+        SyntheticNetworks.ciscoIosConfig("router", numInterfaces, numAclLines, new Random(0));
+  }
+
+  @Benchmark
+  public ParserRuleContext parse() {
+    CiscoCombinedParser parser =
+        new CiscoCombinedParser(_text, _settings, ConfigurationFormat.CISCO_IOS);
+    return Batfish.parse(parser, _logger, _settings);
+  }
+
+  @Benchmark
+  public VendorConfiguration parseAndExtract() {
+    CiscoCombinedParser parser =
+        new CiscoCombinedParser(_text, _settings, ConfigurationFormat.CISCO_IOS);
+    CiscoControlPlaneExtractor extractor =
+        new CiscoControlPlaneExtractor(
+            _text, parser, ConfigurationFormat.CISCO_IOS, new Warnings());
+    extractor.processParseTree(Batfish.parse(parser, _logger, _settings));
+    return extractor.getVendorConfiguration();
+  }
+}
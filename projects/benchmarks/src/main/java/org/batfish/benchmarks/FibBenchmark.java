@@ -0,0 +1,55 @@
+package org.batfish.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.batfish.datamodel.ConnectedRoute;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.FibImpl;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.Prefix;
+import org.batfish.dataplane.rib.Rib;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks of {@link FibImpl} construction, i.e., recursive next hop resolution */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+public class FibBenchmark {
+
+  /** Number of connected /16 networks covering the next hops of generated routes */
+  private static final int NUM_CONNECTED = 256;
+
+  @Param({"1000", "100000"})
+  public int numRoutes;
+
+  private Rib _rib;
+
+  @Setup
+  public void setup() {
+    _rib = new Rib();
+    // Connected routes for 10.0.0.0/16 .. 10.255.0.0/16 resolve all generated next hops
+    for (int i = 0; i < NUM_CONNECTED; i++) {
+      Prefix network = new Prefix(new Ip(new Ip("10.0.0.0").asLong() + ((long) i << 16)), 16);
+      _rib.mergeRoute(new ConnectedRoute(network, "Ethernet" + i));
+    }
+    SyntheticNetworks.staticRoutes(numRoutes, new Random(0)).forEach(_rib::mergeRoute);
+  }
+
+  @Benchmark
+  public Fib construct() {
+    return new FibImpl(_rib);
+  }
+}
@@ -0,0 +1,65 @@
+package org.batfish.benchmarks;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpProtocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks of concrete {@link IpAccessList} evaluation */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+public class IpAccessListBenchmark {
+
+  private static final int NUM_FLOWS = 1000;
+
+  @Param({"10", "1000"})
+  public int numLines;
+
+  private IpAccessList _acl;
+
+  private Flow[] _flows;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    _acl = SyntheticNetworks.acl("acl", numLines, random);
+    _flows = new Flow[NUM_FLOWS];
+    for (int i = 0; i < NUM_FLOWS; i++) {
+      _flows[i] =
+          Flow.builder()
+              .setIngressNode("node")
+              .setTag("tag")
+              .setIpProtocol(IpProtocol.TCP)
+              .setSrcIp(SyntheticNetworks.randomPrefix(random, 32).getStartIp())
+              .setDstIp(SyntheticNetworks.randomPrefix(random, 32).getStartIp())
+              .setSrcPort(1 + random.nextInt(65000))
+              .setDstPort(1 + random.nextInt(65000))
+              .build();
+    }
+  }
+
+  @Benchmark
+  public void filter(Blackhole blackhole) {
+    for (Flow flow : _flows) {
+      blackhole.consume(_acl.filter(flow, null, ImmutableMap.of(), ImmutableMap.of()));
+    }
+  }
+}
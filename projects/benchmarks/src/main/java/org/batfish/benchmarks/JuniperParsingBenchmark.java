@@ -0,0 +1,69 @@
+package org.batfish.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.Warnings;
+import org.batfish.config.Settings;
+import org.batfish.grammar.flatjuniper.FlatJuniperCombinedParser;
+import org.batfish.grammar.flatjuniper.FlatJuniperControlPlaneExtractor;
+import org.batfish.main.Batfish;
+import org.batfish.vendor.VendorConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of parsing and extraction of synthetic flat Juniper configurations that use groups
+ * heavily. Extraction includes the preprocessing of deactivate lines, groups and wildcards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+public class JuniperParsingBenchmark {
+
+  @Param({"100", "1000"})
+  public int numInterfaces;
+
+  @Param({"50"})
+  public int numGroups;
+
+  private BatfishLogger _logger;
+
+  private Settings _settings;
+
+  private String _text;
+
+  @Setup
+  public void setup() {
+    _logger = new BatfishLogger(BatfishLogger.LEVELSTR_OUTPUT, false);
+    _settings = new Settings(new String[] {});
+    _text = SyntheticNetworks.juniperGroupsConfig("router", numInterfaces, numGroups);
+  }
+
+  @Benchmark
+  public ParserRuleContext parse() {
+    FlatJuniperCombinedParser parser = new FlatJuniperCombinedParser(_text, _settings, null);
+    return Batfish.parse(parser, _logger, _settings);
+  }
+
+  @Benchmark
+  public VendorConfiguration parseAndExtract() {
+    FlatJuniperCombinedParser parser = new FlatJuniperCombinedParser(_text, _settings, null);
+    FlatJuniperControlPlaneExtractor extractor =
+        new FlatJuniperControlPlaneExtractor(_text, parser, new Warnings());
+    extractor.processParseTree(Batfish.parse(parser, _logger, _settings));
+    return extractor.getVendorConfiguration();
+  }
+}
@@ -0,0 +1,90 @@
+package org.batfish.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.dataplane.rib.RibTreeType;
+import org.batfish.dataplane.rib.StaticRib;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks of route insertion, removal, and longest prefix match in RIBs */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+public class RibBenchmark {
+
+  private static final int NUM_LOOKUPS = 10_000;
+
+  @Param({"STANDARD", "COMPACT"})
+  public RibTreeType treeType;
+
+  @Param({"1000", "100000"})
+  public int numRoutes;
+
+  private List<StaticRoute> _routes;
+
+  private Ip[] _lookupIps;
+
+  private StaticRib _rib;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    _routes = SyntheticNetworks.staticRoutes(numRoutes, random);
+    _lookupIps = new Ip[NUM_LOOKUPS];
+    for (int i = 0; i < NUM_LOOKUPS; i++) {
+      // Half of the lookups hit a route by construction, the rest are random
+      _lookupIps[i] =
+          i % 2 == 0
+              ? _routes.get(random.nextInt(numRoutes)).getNetwork().getEndIp()
+              : new Ip(random.nextInt() & 0xFFFFFFFFL);
+    }
+    _rib = new StaticRib(treeType);
+    _routes.forEach(_rib::mergeRoute);
+  }
+
+  @Benchmark
+  public StaticRib mergeRoutes() {
+    StaticRib rib = new StaticRib(treeType);
+    for (StaticRoute route : _routes) {
+      rib.mergeRoute(route);
+    }
+    return rib;
+  }
+
+  @Benchmark
+  public StaticRib mergeAndRemoveRoutes() {
+    StaticRib rib = new StaticRib(treeType);
+    for (StaticRoute route : _routes) {
+      rib.mergeRoute(route);
+    }
+    for (StaticRoute route : _routes) {
+      rib.removeRoute(route);
+    }
+    return rib;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void longestPrefixMatch(Blackhole blackhole) {
+    for (Ip ip : _lookupIps) {
+      blackhole.consume(_rib.longestPrefixMatch(ip));
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package org.batfish.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.InterfaceAddress;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpAccessListLine;
+import org.batfish.datamodel.IpProtocol;
+import org.batfish.datamodel.IpWildcard;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.datamodel.SubRange;
+import org.batfish.datamodel.Vrf;
+import org.batfish.datamodel.ospf.OspfArea;
+import org.batfish.datamodel.ospf.OspfProcess;
+
+/**
+ * Deterministic generators of synthetic routes, ACLs, configurations, and networks of configurable
+ * size, used as inputs to benchmarks.
+ */
+public final class SyntheticNetworks {
+
+  /** Base address of the point-to-point links between routers in generated networks */
+  private static final long LINK_BASE = new Ip("10.0.0.0").asLong();
+
+  /** Base address of the loopbacks of routers in generated networks */
+  private static final long LOOPBACK_BASE = new Ip("172.16.0.0").asLong();
+
+  /** Base address of the stub networks of routers in generated networks */
+  private static final long STUB_BASE = new Ip("100.0.0.0").asLong();
+
+  private SyntheticNetworks() {}
+
+  /**
+   * Generate an ACL with {@code numLines} lines, each denying TCP traffic to a random destination
+   * /24 on a random port range, followed by a line permitting all remaining traffic.
+   */
+  public static IpAccessList acl(String name, int numLines, Random random) {
+    ImmutableList.Builder<IpAccessListLine> lines = ImmutableList.builder();
+    for (int i = 0; i < numLines; i++) {
+      int port = random.nextInt(65000);
+      lines.add(
+          IpAccessListLine.rejectingHeaderSpace(
+              HeaderSpace.builder()
+                  .setIpProtocols(ImmutableList.of(IpProtocol.TCP))
+                  .setDstIps(ImmutableList.of(new IpWildcard(randomPrefix(random, 24))))
+                  .setDstPorts(ImmutableList.of(new SubRange(port, port + random.nextInt(100))))
+                  .build()));
+    }
+    lines.add(IpAccessListLine.ACCEPT_ALL);
+    return IpAccessList.builder().setName(name).setLines(lines.build()).build();
+  }
+
+  /**
+   * Generate the text of a Cisco IOS configuration with {@code numInterfaces} interfaces, each
+   * with an inbound extended ACL of {@code numAclLines} lines, an OSPF process, and a BGP process
+   * with one neighbor per interface.
+   */
+  public static String ciscoIosConfig(
+      String hostname, int numInterfaces, int numAclLines, Random random) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("hostname ").append(hostname).append('\n');
+    sb.append("!\n");
+    for (int i = 0; i < numInterfaces; i++) {
+      sb.append("ip access-list extended ACL_").append(i).append('\n');
+      for (int j = 0; j < numAclLines; j++) {
+        Prefix dst = randomPrefix(random, 24);
+        sb.append(" deny tcp any ")
+            .append(dst.getStartIp())
+            .append(" 0.0.0.255 eq ")
+            .append(1 + random.nextInt(65000))
+            .append('\n');
+      }
+      sb.append(" permit ip any any\n");
+      sb.append("!\n");
+    }
+    for (int i = 0; i < numInterfaces; i++) {
+      Ip address = new Ip(LINK_BASE + 4L * i + 1);
+      sb.append("interface GigabitEthernet0/").append(i).append('\n');
+      sb.append(" ip address ").append(address).append(" 255.255.255.252\n");
+      sb.append(" ip access-group ACL_").append(i).append(" in\n");
+      sb.append(" ip ospf cost ").append(1 + random.nextInt(100)).append('\n');
+      sb.append("!\n");
+    }
+    sb.append("router ospf 1\n");
+    sb.append(" network 10.0.0.0 0.255.255.255 area 0\n");
+    sb.append("!\n");
+    sb.append("router bgp 65000\n");
+    for (int i = 0; i < numInterfaces; i++) {
+      Ip neighbor = new Ip(LINK_BASE + 4L * i + 2);
+      sb.append(" neighbor ").append(neighbor).append(" remote-as ").append(65001 + i);
+      sb.append('\n');
+    }
+    sb.append("!\n");
+    return sb.toString();
+  }
+
+  /**
+   * Generate the text of a flat Juniper configuration with {@code numInterfaces} interfaces and BGP
+   * neighbors that relies heavily on groups: global groups with wildcards applied at the top level,
+   * and {@code numGroups} groups applied to interfaces and BGP groups in turn. Every tenth neighbor
+   * is deactivated.
+   */
+  public static String juniperGroupsConfig(String hostname, int numInterfaces, int numGroups) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("set system host-name ").append(hostname).append('\n');
+    sb.append("set groups INTERFACES interfaces <xe-*> mtu 9192\n");
+    sb.append("set groups INTERFACES interfaces <xe-*> unit <*> family inet mtu 9000\n");
+    sb.append("set groups BGP protocols bgp group <*> type external\n");
+    sb.append("set groups BGP protocols bgp group <*> multipath\n");
+    for (int g = 0; g < numGroups; g++) {
+      sb.append("set groups G").append(g).append(" interfaces <*> description \"group ");
+      sb.append(g).append("\"\n");
+      sb.append("set groups G").append(g).append(" interfaces <*> unit 0 family inet filter input");
+      sb.append(" FILTER-").append(g).append('\n');
+      sb.append("set groups G").append(g).append(" protocols bgp group <*> export EXPORT-");
+      sb.append(g).append('\n');
+    }
+    sb.append("set apply-groups INTERFACES\n");
+    sb.append("set apply-groups BGP\n");
+    for (int i = 0; i < numInterfaces; i++) {
+      String name = "xe-0/0/" + i;
+      String group = "PEERS-" + i % numGroups;
+      Ip address = new Ip(LINK_BASE + 4L * i + 1);
+      Ip neighbor = new Ip(LINK_BASE + 4L * i + 2);
+      sb.append("set interfaces ").append(name).append(" unit 0 family inet address ");
+      sb.append(address).append("/30\n");
+      sb.append("set interfaces ").append(name).append(" apply-groups G").append(i % numGroups);
+      sb.append('\n');
+      sb.append("set protocols bgp group ").append(group).append(" neighbor ").append(neighbor);
+      sb.append(" peer-as ").append(65001 + i).append('\n');
+      if (i % 10 == 0) {
+        sb.append("deactivate protocols bgp group ").append(group).append(" neighbor ");
+        sb.append(neighbor).append('\n');
+      }
+    }
+    for (int g = 0; g < numGroups && g < numInterfaces; g++) {
+      sb.append("set protocols bgp group PEERS-").append(g).append(" apply-groups G").append(g);
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Generate a ring of {@code numNodes} routers running OSPF in a single area. Each router has a
+   * loopback, {@code stubNetworksPerNode} additional passive OSPF interfaces, and point-to-point
+   * links to its two neighbors in the ring (one neighbor if there are only two routers). If {@code
+   * aclLines} is positive, each link interface has an inbound filter with that many lines.
+   */
+  public static SortedMap<String, Configuration> ospfRing(
+      int numNodes, int stubNetworksPerNode, int aclLines) {
+    Random random = new Random(numNodes);
+    NetworkFactory nf = new NetworkFactory();
+    Configuration.Builder cb =
+        nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS);
+    Vrf.Builder vb = nf.vrfBuilder().setName(Configuration.DEFAULT_VRF_NAME);
+    OspfProcess.Builder opb = nf.ospfProcessBuilder();
+    OspfArea.Builder oab = nf.ospfAreaBuilder().setNumber(0L);
+    Interface.Builder ib = nf.interfaceBuilder().setOspfCost(1).setOspfEnabled(true);
+
+    ImmutableSortedMap.Builder<String, Configuration> configs = ImmutableSortedMap.naturalOrder();
+    int numLinks = numNodes <= 2 ? numNodes - 1 : numNodes;
+    for (int i = 0; i < numNodes; i++) {
+      Configuration c = cb.setHostname(nodeName(i)).build();
+      Vrf vrf = vb.setOwner(c).build();
+      OspfProcess proc = opb.setVrf(vrf).setRouterId(loopbackIp(i)).build();
+      OspfArea area = oab.setOspfProcess(proc).build();
+      ib.setOwner(c).setVrf(vrf).setOspfArea(area).setOspfPassive(true).setOspfPointToPoint(false);
+      ib.setName("Loopback0").setAddress(new InterfaceAddress(loopbackIp(i), 32)).build();
+      for (int j = 0; j < stubNetworksPerNode; j++) {
+        Ip stubIp = new Ip(STUB_BASE + (((long) i * stubNetworksPerNode + j) << 8) + 1);
+        ib.setName("Stub" + j).setAddress(new InterfaceAddress(stubIp, 24)).build();
+      }
+      ib.setOspfPassive(false).setOspfPointToPoint(true);
+      // Link i connects router i (even address) to router i + 1 (odd address)
+      if (i < numLinks) {
+        buildLinkInterface(ib, c, "Ethernet1", new Ip(LINK_BASE + 2L * i), aclLines, random);
+      }
+      int previousLink = (i + numNodes - 1) % numNodes;
+      if (numNodes > 1 && previousLink < numLinks) {
+        buildLinkInterface(
+            ib, c, "Ethernet0", new Ip(LINK_BASE + 2L * previousLink + 1), aclLines, random);
+      }
+      configs.put(c.getHostname(), c);
+    }
+    return configs.build();
+  }
+
+  private static void buildLinkInterface(
+      Interface.Builder ib, Configuration c, String name, Ip ip, int aclLines, Random random) {
+    IpAccessList filter = null;
+    if (aclLines > 0) {
+      filter =
+          IpAccessList.builder()
+              .setOwner(c)
+              .setName(name + "_IN")
+              .setLines(acl(name + "_IN", aclLines, random).getLines())
+              .build();
+    }
+    ib.setName(name).setAddress(new InterfaceAddress(ip, 31)).setIncomingFilter(filter).build();
+    ib.setIncomingFilter(null);
+  }
+
+  /** Return the hostname of the {@code i}th router of a generated network */
+  public static String nodeName(int i) {
+    return String.format("r%05d", i);
+  }
+
+  /** Return the loopback IP of the {@code i}th router of a generated network */
+  public static Ip loopbackIp(int i) {
+    return new Ip(LOOPBACK_BASE + i);
+  }
+
+  /** Generate a random prefix of the given length */
+  public static Prefix randomPrefix(Random random, int prefixLength) {
+    return new Prefix(new Ip(random.nextInt() & 0xFFFFFFFFL), prefixLength);
+  }
+
+  /**
+   * Generate {@code numRoutes} static routes for random prefixes with lengths between 8 and 32,
+   * biased towards /24s, with next hops in {@code 10.0.0.0/8}.
+   */
+  public static List<StaticRoute> staticRoutes(int numRoutes, Random random) {
+    ImmutableList.Builder<StaticRoute> routes = ImmutableList.builder();
+    for (int i = 0; i < numRoutes; i++) {
+      int prefixLength = random.nextBoolean() ? 24 : 8 + random.nextInt(25);
+      routes.add(
+          StaticRoute.builder()
+              .setNetwork(randomPrefix(random, prefixLength))
+              .setNextHopIp(new Ip(LINK_BASE + random.nextInt(1 << 24)))
+              .setAdministrativeCost(1)
+              .setMetric(0L)
+              .setTag(0)
+              .build());
+    }
+    return routes.build();
+  }
+}
@@ -0,0 +1,92 @@
+package org.batfish.dataplane.ibdp;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.batfish.benchmarks.SyntheticNetworks;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.util.CommonUtil;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.Topology;
+import org.batfish.dataplane.ibdp.schedule.IbdpSchedule.Schedule;
+import org.batfish.dataplane.rib.RibTreeType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of full {@link IncrementalBdpEngine} runs on generated OSPF networks of configurable
+ * size (see {@link SyntheticNetworks#ospfRing}).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(1)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+public class IncrementalBdpEngineBenchmark {
+
+  @Param({"10", "100"})
+  public int numNodes;
+
+  @Param({"10"})
+  public int stubNetworksPerNode;
+
+  @Param({"NODE_COLORED"})
+  public Schedule schedule;
+
+  @Param({"false", "true"})
+  public boolean useWorklist;
+
+  @Param({"STANDARD"})
+  public RibTreeType ribTreeType;
+
+  private SortedMap<String, Configuration> _configurations;
+
+  private IncrementalDataPlaneSettings _settings;
+
+  private Topology _topology;
+
+  /**
+   * Compute the data plane of the given network with iBDP, without a {@link
+   * org.batfish.main.Batfish} instance.
+   */
+  public static IncrementalDataPlane computeDataPlane(
+      SortedMap<String, Configuration> configurations,
+      Topology topology,
+      IncrementalDataPlaneSettings settings) {
+    IncrementalBdpEngine engine =
+        new IncrementalBdpEngine(
+            settings,
+            new BatfishLogger(BatfishLogger.LEVELSTR_WARN, false),
+            (s, i) -> new AtomicInteger());
+    return (IncrementalDataPlane)
+        engine.computeDataPlane(configurations, topology, Collections.emptySet())._dataPlane;
+  }
+
+  /** Regenerate the network for each run, since the engine annotates configurations in place */
+  @Setup(Level.Iteration)
+  public void setup() {
+    _configurations = SyntheticNetworks.ospfRing(numNodes, stubNetworksPerNode, 0);
+    _topology = CommonUtil.synthesizeTopology(_configurations);
+    _settings = new IncrementalDataPlaneSettings();
+    _settings.setScheduleName(schedule);
+    _settings.setUseWorklist(useWorklist);
+    _settings.setRibTreeType(ribTreeType);
+  }
+
+  @Benchmark
+  public IncrementalDataPlane computeDataPlane() {
+    return computeDataPlane(_configurations, _topology, _settings);
+  }
+}
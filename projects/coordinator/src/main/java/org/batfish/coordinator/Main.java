@@ -181,6 +181,11 @@ public class Main {
     _logger = logger;
   }
 
+  @VisibleForTesting
+  static void setPoolMgr(PoolMgr poolManager) {
+    _poolManager = poolManager;
+  }
+
   public static void setWorkMgr(WorkMgr workManager) {
     _workManager = workManager;
   }
@@ -1,11 +1,15 @@
 package org.batfish.coordinator;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
@@ -17,9 +21,15 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.TaskKind;
 import org.batfish.common.util.CommonUtil;
+import org.batfish.coordinator.WorkDetails.WorkType;
 import org.batfish.coordinator.config.Settings;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
 import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
 public class PoolMgr {
@@ -53,6 +63,11 @@ public class PoolMgr {
     thread.start();
   }
 
+  @VisibleForTesting
+  synchronized void addToPool(String worker, WorkerStatus status) {
+    _workerPool.put(worker, status);
+  }
+
   public synchronized void deleteFromPool(String worker) {
     _workerPool.remove(worker);
   }
@@ -79,15 +94,71 @@ public class PoolMgr {
 
   @Nullable
   public synchronized String getWorkerForAssignment() {
+    return getWorkerForAssignment(null);
+  }
+
+  /**
+   * Returns an idle worker (i.e., one that can accept another task) for work on {@code snapshot},
+   * preferring workers that already hold the snapshot's data plane, then those holding its
+   * configurations. Among equally suited workers, the one with the most available heap is chosen.
+   * Returns {@code null} if no worker is idle.
+   */
+  @Nullable
+  public synchronized String getWorkerForAssignment(@Nullable NetworkSnapshot snapshot) {
+    return getWorkerForAssignment(snapshot, null);
+  }
 
+  /**
+   * Like {@link #getWorkerForAssignment(NetworkSnapshot)}, but if {@code workType} is given, only
+   * considers workers that reported capacity for the kind of task they would run for that work.
+   */
+  @Nullable
+  public synchronized String getWorkerForAssignment(
+      @Nullable NetworkSnapshot snapshot, @Nullable WorkType workType) {
+    String bestWorker = null;
+    int bestAffinity = -1;
+    long bestAvailableHeap = -1L;
     for (Entry<String, WorkerStatus> workerEntry : _workerPool.entrySet()) {
-      if (workerEntry.getValue().getStatus() == WorkerStatus.StatusCode.IDLE) {
-        updateWorkerStatus(workerEntry.getKey(), WorkerStatus.StatusCode.TRYINGTOASSIGN);
-        return workerEntry.getKey();
+      WorkerStatus status = workerEntry.getValue();
+      if (status.getStatus() != WorkerStatus.StatusCode.IDLE) {
+        continue;
+      }
+      int affinity = snapshot == null ? 0 : status.getAffinity(snapshot);
+      boolean dataPlaneCached = snapshot != null && status.getCachedDataPlanes().contains(snapshot);
+      if (workType != null
+          && status.getAvailableTasks(getTaskKind(workType, dataPlaneCached)) <= 0) {
+        continue;
+      }
+      long availableHeap = status.getAvailableHeap();
+      if (affinity > bestAffinity
+          || (affinity == bestAffinity && availableHeap > bestAvailableHeap)) {
+        bestWorker = workerEntry.getKey();
+        bestAffinity = affinity;
+        bestAvailableHeap = availableHeap;
       }
     }
 
-    return null;
+    if (bestWorker != null) {
+      updateWorkerStatus(bestWorker, WorkerStatus.StatusCode.TRYINGTOASSIGN);
+    }
+    return bestWorker;
+  }
+
+  /**
+   * Returns the kind of task a worker runs for work of the given {@code workType}, where {@code
+   * dataPlaneCached} tells whether the worker holds the data plane of the work's snapshot. As on
+   * the worker, holding only the snapshot's configurations does not make a question cached.
+   */
+  @VisibleForTesting
+  static TaskKind getTaskKind(WorkType workType, boolean dataPlaneCached) {
+    switch (workType) {
+      case PARSING:
+        return TaskKind.PARSING;
+      case DATAPLANING:
+        return TaskKind.DATA_PLANE;
+      default:
+        return dataPlaneCached ? TaskKind.CACHED_QUESTION : TaskKind.QUESTION;
+    }
   }
 
   @Nullable
@@ -95,9 +166,67 @@ public class PoolMgr {
     return _workerPool.get(worker);
   }
 
-  public void markAssignmentResult(String worker, boolean assignmentSuccessful) {
+  /**
+   * Returns true if some worker holds the data plane of {@code snapshot} but none of those workers
+   * is idle, i.e. work on the snapshot would run faster if it waited for one of them.
+   */
+  public synchronized boolean isDataPlaneCachedOnlyByBusyWorkers(NetworkSnapshot snapshot) {
+    boolean cachedByBusyWorker = false;
+    for (WorkerStatus status : _workerPool.values()) {
+      if (!status.getCachedDataPlanes().contains(snapshot)) {
+        continue;
+      }
+      switch (status.getStatus()) {
+        case IDLE:
+          return false;
+        case BUSY:
+        case TRYINGTOASSIGN:
+          cachedByBusyWorker = true;
+          break;
+        default:
+          break;
+      }
+    }
+    return cachedByBusyWorker;
+  }
+
+  /**
+   * Records the result of assigning a task to {@code worker}. A worker that accepted a task stays
+   * idle if it can run more tasks.
+   */
+  public synchronized void markAssignmentResult(String worker, boolean assignmentSuccessful) {
+    WorkerStatus status = _workerPool.get(worker);
+    if (status == null) {
+      return;
+    }
+    if (assignmentSuccessful) {
+      status.claimTask();
+    }
     updateWorkerStatus(
-        worker, assignmentSuccessful ? WorkerStatus.StatusCode.BUSY : WorkerStatus.StatusCode.IDLE);
+        worker,
+        !assignmentSuccessful || status.getAvailableTasks() > 0
+            ? WorkerStatus.StatusCode.IDLE
+            : WorkerStatus.StatusCode.BUSY);
+  }
+
+  /**
+   * Records that {@code worker} refused a task for lack of capacity. The worker is considered busy
+   * until its status is next refreshed.
+   */
+  public synchronized void markWorkerBusy(String worker) {
+    updateWorkerStatus(worker, WorkerStatus.StatusCode.BUSY);
+  }
+
+  /**
+   * Records that {@code worker} is loading {@code snapshot} (and its data plane if {@code
+   * dataPlane} is set), so that affinity applies before the worker next reports its caches.
+   */
+  public synchronized void markSnapshotLoading(
+      String worker, NetworkSnapshot snapshot, boolean dataPlane) {
+    WorkerStatus status = _workerPool.get(worker);
+    if (status != null) {
+      status.addCachedSnapshot(snapshot, dataPlane);
+    }
   }
 
   public void refreshWorkerStatus() {
@@ -162,6 +291,30 @@ public class PoolMgr {
 
         boolean status = jObj.getBoolean("idle");
 
+        // workers that predate concurrent tasks run one task at a time
+        if (jObj.has(BfConsts.SVC_AVAILABLE_TASKS_KEY)) {
+          JSONObject availableTasksByKind =
+              jObj.optJSONObject(BfConsts.SVC_AVAILABLE_TASKS_BY_KIND_KEY);
+          updateWorkerCapacity(
+              worker,
+              jObj.getInt(BfConsts.SVC_AVAILABLE_TASKS_KEY),
+              availableTasksByKind == null
+                  ? ImmutableMap.of()
+                  : parseAvailableTasksByKind(availableTasksByKind),
+              jObj.optLong(BfConsts.SVC_AVAILABLE_HEAP_KEY));
+        } else {
+          updateWorkerCapacity(worker, status ? 1 : 0, ImmutableMap.of(), 0L);
+        }
+
+        // workers that predate affinity scheduling do not report their caches
+        if (jObj.has(BfConsts.SVC_CACHED_DATA_PLANES_KEY)
+            && jObj.has(BfConsts.SVC_CACHED_TESTRIGS_KEY)) {
+          updateWorkerCacheContents(
+              worker,
+              parseSnapshots(jObj.getJSONArray(BfConsts.SVC_CACHED_DATA_PLANES_KEY)),
+              parseSnapshots(jObj.getJSONArray(BfConsts.SVC_CACHED_TESTRIGS_KEY)));
+        }
+
         // update the status, except leave the ones with TRYINGTOASSIGN
         // alone
         if (getWorkerStatus(worker).getStatus() != WorkerStatus.StatusCode.TRYINGTOASSIGN) {
@@ -183,6 +336,30 @@ public class PoolMgr {
     }
   }
 
+  @VisibleForTesting
+  static Map<TaskKind, Integer> parseAvailableTasksByKind(JSONObject json) throws JSONException {
+    ImmutableMap.Builder<TaskKind, Integer> availableTasksByKind = ImmutableMap.builder();
+    // kinds of task this coordinator does not know about are ignored
+    for (TaskKind kind : TaskKind.values()) {
+      if (json.has(kind.name())) {
+        availableTasksByKind.put(kind, json.getInt(kind.name()));
+      }
+    }
+    return availableTasksByKind.build();
+  }
+
+  private static Set<NetworkSnapshot> parseSnapshots(JSONArray array) throws JSONException {
+    ImmutableSet.Builder<NetworkSnapshot> snapshots = ImmutableSet.builder();
+    for (int i = 0; i < array.length(); i++) {
+      JSONObject snapshot = array.getJSONObject(i);
+      snapshots.add(
+          new NetworkSnapshot(
+              new NetworkId(snapshot.getString(BfConsts.ARG_CONTAINER)),
+              new SnapshotId(snapshot.getString(BfConsts.ARG_TESTRIG))));
+    }
+    return snapshots.build();
+  }
+
   public void startPoolManager() {
     Runnable workerStatusRefreshTask = new WorkerStatusRefreshTask();
     Executors.newScheduledThreadPool(1)
@@ -193,6 +370,23 @@ public class PoolMgr {
             TimeUnit.MILLISECONDS);
   }
 
+  private synchronized void updateWorkerCacheContents(
+      String worker, Set<NetworkSnapshot> cachedDataPlanes, Set<NetworkSnapshot> cachedTestrigs) {
+    if (_workerPool.containsKey(worker)) {
+      _workerPool.get(worker).updateCacheContents(cachedDataPlanes, cachedTestrigs);
+    }
+  }
+
+  private synchronized void updateWorkerCapacity(
+      String worker,
+      int availableTasks,
+      Map<TaskKind, Integer> availableTasksByKind,
+      long availableHeap) {
+    if (_workerPool.containsKey(worker)) {
+      _workerPool.get(worker).updateCapacity(availableTasks, availableTasksByKind, availableHeap);
+    }
+  }
+
   private synchronized void updateWorkerStatus(String worker, WorkerStatus.StatusCode statusCode) {
     if (_workerPool.containsKey(worker)) {
       _workerPool.get(worker).updateStatus(statusCode);
@@ -2,11 +2,13 @@ package org.batfish.coordinator;
 
 import static org.batfish.common.CoordConstsV2.QP_VERBOSE;
 
+import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -78,6 +80,39 @@ public class PoolMgrService {
     }
   }
 
+  /**
+   * Called by a worker when the task of some work terminates, so that the work is completed and
+   * more work assigned without waiting for the next status poll.
+   *
+   * @param workId The id of the work whose task terminated
+   * @param worker The worker that ran the task, in the form it registered with
+   */
+  @GET
+  @Path(CoordConsts.SVC_RSC_POOL_TASK_COMPLETED)
+  @Produces(MediaType.APPLICATION_JSON)
+  public JSONArray taskCompleted(
+      @QueryParam(CoordConsts.SVC_KEY_WORKID) String workId,
+      @QueryParam(CoordConsts.SVC_KEY_WORKER) String worker) {
+    try {
+      _logger.infof("PMS:taskCompleted %s %s\n", workId, worker);
+      if (Strings.isNullOrEmpty(workId) || Strings.isNullOrEmpty(worker)) {
+        return new JSONArray(
+            Arrays.asList(CoordConsts.SVC_KEY_FAILURE, "Work id or worker not specified"));
+      }
+      if (!Main.getWorkMgr().taskCompleted(UUID.fromString(workId), worker)) {
+        // e.g., the status of the work was polled for in the meantime
+        return new JSONArray(
+            Arrays.asList(
+                CoordConsts.SVC_KEY_FAILURE,
+                "Work " + workId + " is not awaiting a status check on " + worker));
+      }
+      return new JSONArray(Arrays.asList(CoordConsts.SVC_KEY_SUCCESS, "done"));
+    } catch (Exception e) {
+      _logger.errorf("PMS:taskCompleted exception: %s\n", Throwables.getStackTraceAsString(e));
+      return new JSONArray(Arrays.asList(CoordConsts.SVC_KEY_FAILURE, e.getMessage()));
+    }
+  }
+
   // functions for pool management
   @GET
   @Path(CoordConsts.SVC_RSC_POOL_UPDATE)
@@ -1,15 +1,29 @@
 package org.batfish.coordinator;
 
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.UUID;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.batfish.common.CoordConsts.WorkStatusCode;
+import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.Task;
 import org.batfish.common.WorkItem;
+import org.batfish.coordinator.WorkDetails.WorkType;
 import org.batfish.datamodel.pojo.WorkStatus;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
 
 public class QueuedWork {
 
+  /** Is notified whenever the status of a {@link QueuedWork} changes. */
+  public interface StatusListener {
+    void statusChanged(QueuedWork work, WorkStatusCode oldStatus);
+  }
+
   String _assignedWorker;
 
   Date _dateAssigned;
@@ -23,6 +37,11 @@ public class QueuedWork {
   Task _lastTaskCheckResult;
   WorkStatusCode _status;
 
+  /** Callbacks to run once, when the status of this work changes from the mapped status */
+  private final Map<Runnable, WorkStatusCode> _statusChangeCallbacks = new LinkedHashMap<>();
+
+  @Nullable private volatile StatusListener _statusListener;
+
   WorkItem _workItem;
 
   public QueuedWork(WorkItem workItem, WorkDetails details) {
@@ -44,6 +63,10 @@ public class QueuedWork {
     return _assignedWorker;
   }
 
+  public Date getDateCreated() {
+    return _dateCreated;
+  }
+
   public WorkDetails getDetails() {
     return _details;
   }
@@ -56,6 +79,17 @@ public class QueuedWork {
     return _lastTaskCheckResult;
   }
 
+  /** Returns the (base) snapshot this work runs on, or {@code null} if it is not snapshot-bound. */
+  @Nullable
+  public NetworkSnapshot getSnapshot() {
+    String network = _workItem.getContainerName();
+    String snapshot = _workItem.getTestrigName();
+    if (network == null || snapshot == null) {
+      return null;
+    }
+    return new NetworkSnapshot(new NetworkId(network), new SnapshotId(snapshot));
+  }
+
   public WorkStatusCode getStatus() {
     return _status;
   }
@@ -64,15 +98,64 @@ public class QueuedWork {
     return _workItem;
   }
 
+  /** Returns true if this work loads (or computes) the data plane of its snapshot. */
+  public boolean needsDataPlane() {
+    return _details.workType == WorkType.DATAPLANING
+        || _details.workType == WorkType.DATAPLANE_DEPENDENT_ANSWERING;
+  }
+
+  private void notifyStatusChanged(WorkStatusCode oldStatus) {
+    if (oldStatus == _status) {
+      return;
+    }
+    StatusListener listener = _statusListener;
+    if (listener != null) {
+      listener.statusChanged(this, oldStatus);
+    }
+    // the coordinator passes through these while it talks to workers; they are not news to clients
+    if (_status == WorkStatusCode.CHECKINGSTATUS || _status == WorkStatusCode.TRYINGTOASSIGN) {
+      return;
+    }
+    Iterator<Entry<Runnable, WorkStatusCode>> callbacks =
+        _statusChangeCallbacks.entrySet().iterator();
+    while (callbacks.hasNext()) {
+      Entry<Runnable, WorkStatusCode> callback = callbacks.next();
+      if (callback.getValue() != _status) {
+        callbacks.remove();
+        callback.getKey().run();
+      }
+    }
+  }
+
+  /**
+   * Runs {@code callback} once, when the status of this work changes from {@code status}, provided
+   * that is still its status. Returns false without registering {@code callback} otherwise.
+   * Callbacks run while this work is locked, so they must not block.
+   */
+  public synchronized boolean runOnStatusChange(WorkStatusCode status, Runnable callback) {
+    if (_status != status) {
+      return false;
+    }
+    _statusChangeCallbacks.put(callback, status);
+    return true;
+  }
+
+  /** Removes a callback registered by {@link #runOnStatusChange}, if it has not run yet. */
+  public synchronized void removeStatusChangeCallback(Runnable callback) {
+    _statusChangeCallbacks.remove(callback);
+  }
+
   public synchronized void recordTaskCheckResult(Task task) {
     _lastTaskCheckResult = task;
     _dateLastTaskCheckedStatus = new Date();
   }
 
   public synchronized void setAssignment(String assignedWorker) {
+    WorkStatusCode oldStatus = _status;
     _status = WorkStatusCode.ASSIGNED;
     _assignedWorker = assignedWorker;
     _dateAssigned = new Date();
+    notifyStatusChanged(oldStatus);
   }
 
   public synchronized void setStatus(WorkStatusCode status) {
@@ -83,7 +166,17 @@ public class QueuedWork {
               + ". Desired = "
               + status);
     }
+    WorkStatusCode oldStatus = _status;
     _status = status;
+    notifyStatusChanged(oldStatus);
+  }
+
+  /**
+   * Sets the listener notified of status changes of this work, replacing any previous one. Used by
+   * queues that index their work by status.
+   */
+  public void setStatusListener(@Nullable StatusListener statusListener) {
+    _statusListener = statusListener;
   }
 
   @Override
@@ -18,6 +18,8 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Comparators;
 import com.google.common.collect.ImmutableList;
@@ -34,15 +36,18 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -56,6 +61,7 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -74,9 +80,11 @@ import org.batfish.common.BatfishException;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
 import org.batfish.common.BfConsts.TaskStatus;
+import org.batfish.common.ColumnFilter;
 import org.batfish.common.ColumnSortOption;
 import org.batfish.common.Container;
 import org.batfish.common.CoordConsts.WorkStatusCode;
+import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.Task;
 import org.batfish.common.Warnings;
 import org.batfish.common.WorkItem;
@@ -128,6 +136,7 @@ import org.batfish.datamodel.questions.NodesSpecifier;
 import org.batfish.datamodel.questions.OspfPropertySpecifier;
 import org.batfish.datamodel.questions.Question;
 import org.batfish.datamodel.table.ColumnMetadata;
+import org.batfish.datamodel.table.ColumnarTable;
 import org.batfish.datamodel.table.ExcludedRows;
 import org.batfish.datamodel.table.Row;
 import org.batfish.datamodel.table.TableAnswerElement;
@@ -184,7 +193,7 @@ public class WorkMgr extends AbstractCoordinator {
   static final class AssignWorkTask implements Runnable {
     @Override
     public void run() {
-      Main.getWorkMgr().checkTasks();
+      Main.getWorkMgr().checkTasksIfDue();
       Main.getWorkMgr().assignWork();
     }
   }
@@ -207,8 +216,19 @@ public class WorkMgr extends AbstractCoordinator {
         BfConsts.RELPATH_REFERENCE_LIBRARY_PATH, BfConsts.RELPATH_NODE_ROLES_PATH);
   }
 
+  /**
+   * Runs the periodic assignment of work and the checks triggered by workers reporting completed
+   * tasks, one at a time, so that reports arriving together do not start concurrent assignment
+   * passes.
+   */
+  private final ScheduledExecutorService _assignWorkExecutor =
+      Executors.newSingleThreadScheduledExecutor();
+
   private final IdManager _idManager;
 
+  /** When assigned work was last polled for, as a fallback for workers that report completion */
+  private long _lastCheckTasksMs;
+
   private final BatfishLogger _logger;
 
   private final Settings _settings;
@@ -217,6 +237,12 @@ public class WorkMgr extends AbstractCoordinator {
 
   private final StorageProvider _storage;
 
+  /**
+   * Client for requests to workers. It is shared so that its connections and TLS sessions are
+   * reused across requests, rather than set up anew for each one.
+   */
+  private final Supplier<Client> _workerClient = Suppliers.memoize(this::createWorkerClient);
+
   public WorkMgr(
       Settings settings,
       BatfishLogger logger,
@@ -235,41 +261,64 @@ public class WorkMgr extends AbstractCoordinator {
     return _storage;
   }
 
+  /**
+   * Assigns work to idle workers until no work is ready for assignment, no worker is idle, or an
+   * assignment does not succeed.
+   */
   private void assignWork() {
 
     try {
-      QueuedWork work = _workQueueMgr.getWorkForAssignment();
+      while (true) {
+        QueuedWork work = _workQueueMgr.getWorkForAssignment(this::isReadyForAssignment);
 
-      // get out if no work was found
-      if (work == null) {
-        // _logger.info("WM:AssignWork: No unassigned work\n");
-        return;
-      }
+        // get out if no work was found
+        if (work == null) {
+          // _logger.info("WM:AssignWork: No unassigned work\n");
+          return;
+        }
 
-      String idleWorker = Main.getPoolMgr().getWorkerForAssignment();
+        String idleWorker =
+            Main.getPoolMgr()
+                .getWorkerForAssignment(work.getSnapshot(), work.getDetails().workType);
 
-      // get out if no idle worker was found, but release the work first
-      if (idleWorker == null) {
-        _workQueueMgr.markAssignmentFailure(work);
+        // get out if no idle worker was found, but release the work first
+        if (idleWorker == null) {
+          _workQueueMgr.markAssignmentFailure(work);
 
-        _logger.info("WM:AssignWork: No idle worker\n");
-        return;
-      }
+          _logger.info("WM:AssignWork: No idle worker\n");
+          return;
+        }
 
-      assignWork(work, idleWorker);
+        // get out if the worker did not take the work, rather than retrying it right away
+        if (!assignWork(work, idleWorker)) {
+          return;
+        }
+      }
     } catch (Exception e) {
       _logger.errorf("Got exception in assignWork: %s\n", Throwables.getStackTraceAsString(e));
     }
   }
 
-  private void assignWork(QueuedWork work, String worker) {
+  /** How a worker responded to being asked to run a task */
+  @VisibleForTesting
+  enum AssignmentResult {
+    /** The worker accepted the task. */
+    ASSIGNED,
+    /** The worker has no capacity for the task right now, which is retried later. */
+    BUSY,
+    /** The worker rejected the task, which is not retried. */
+    ERROR,
+    /** The worker could not be asked, and the task is retried later. */
+    FAILED
+  }
+
+  /** Returns whether {@code worker} accepted {@code work}. */
+  private boolean assignWork(QueuedWork work, String worker) {
 
     _logger.infof("WM:AssignWork: Trying to assign %s to %s\n", work, worker);
 
-    boolean assignmentError = false;
-    boolean assigned = false;
+    AssignmentResult result = AssignmentResult.FAILED;
 
-    Client client = null;
     SpanContext queueWorkSpan = work.getWorkItem().getSourceSpan();
     try (ActiveSpan assignWorkSpan =
         GlobalTracer.get()
@@ -285,20 +334,10 @@ public class WorkMgr extends AbstractCoordinator {
           Main.getSettings().getContainersLocation().toAbsolutePath().toString());
       task.put(BfConsts.ARG_TESTRIG, work.getWorkItem().getTestrigName());
 
-      client =
-          CommonUtil.createHttpClientBuilder(
-                  _settings.getSslPoolDisable(),
-                  _settings.getSslPoolTrustAllCerts(),
-                  _settings.getSslPoolKeystoreFile(),
-                  _settings.getSslPoolKeystorePassword(),
-                  _settings.getSslPoolTruststoreFile(),
-                  _settings.getSslPoolTruststorePassword(),
-                  true)
-              .build();
-
       String protocol = _settings.getSslPoolDisable() ? "http" : "https";
       WebTarget webTarget =
-          client
+          _workerClient
+              .get()
               .target(
                   String.format(
                       "%s://%s%s/%s",
@@ -324,13 +363,16 @@ public class WorkMgr extends AbstractCoordinator {
                 "WM:AssignWork: response: %s [%s] [%s]\n",
                 array.toString(), array.get(0), array.get(1)));
 
-        if (!array.get(0).equals(BfConsts.SVC_SUCCESS_KEY)) {
+        if (array.get(0).equals(BfConsts.SVC_SUCCESS_KEY)) {
+          result = AssignmentResult.ASSIGNED;
+        } else if (array.get(0).equals(BfConsts.SVC_BUSY_KEY)) {
+          _logger.infof("WM:AssignWork: Worker %s is busy: %s\n", worker, array.get(1));
+          result = AssignmentResult.BUSY;
+        } else {
           _logger.error(
               String.format("ERROR in assigning task: %s %s\n", array.get(0), array.get(1)));
 
-          assignmentError = true;
-        } else {
-          assigned = true;
+          result = AssignmentResult.ERROR;
         }
       }
     } catch (ProcessingException e) {
@@ -339,21 +381,25 @@ public class WorkMgr extends AbstractCoordinator {
     } catch (Exception e) {
       String stackTrace = Throwables.getStackTraceAsString(e);
       _logger.error(String.format("Exception assigning work: %s\n", stackTrace));
-    } finally {
-      if (client != null) {
-        client.close();
-      }
     }
 
+    boolean assigned = result == AssignmentResult.ASSIGNED;
     if (work.getStatus() == WorkStatusCode.TERMINATEDBYUSER) {
       if (assigned) {
         killWork(work, worker);
       }
-      return;
+      return assigned;
     }
 
-    // mark the assignment results for both work and worker
-    if (assignmentError) {
+    markAssignmentResult(work, worker, result);
+    return assigned;
+  }
+
+  /** Marks the result of assigning {@code work} to {@code worker} for both work and worker. */
+  @VisibleForTesting
+  void markAssignmentResult(QueuedWork work, String worker, AssignmentResult result) {
+    boolean assigned = result == AssignmentResult.ASSIGNED;
+    if (result == AssignmentResult.ERROR) {
       try {
         _workQueueMgr.markAssignmentError(work);
       } catch (Exception e) {
@@ -372,7 +418,43 @@ public class WorkMgr extends AbstractCoordinator {
       _workQueueMgr.markAssignmentFailure(work);
     }
 
-    Main.getPoolMgr().markAssignmentResult(worker, assigned);
+    if (result == AssignmentResult.BUSY) {
+      Main.getPoolMgr().markWorkerBusy(worker);
+    } else {
+      Main.getPoolMgr().markAssignmentResult(worker, assigned);
+    }
+    NetworkSnapshot snapshot = work.getSnapshot();
+    if (assigned && snapshot != null) {
+      Main.getPoolMgr().markSnapshotLoading(worker, snapshot, work.needsDataPlane());
+    }
+  }
+
+  /*
+   * Work that needs a data plane held only by busy workers waits for one of them to become idle,
+   * rather than having an idle worker load the data plane again. To avoid starving it, work that
+   * has been queued longer than the configured limit is assigned to any idle worker.
+   */
+  private boolean isReadyForAssignment(QueuedWork work) {
+    NetworkSnapshot snapshot = work.getSnapshot();
+    if (snapshot == null || !work.needsDataPlane()) {
+      return true;
+    }
+    long waitedMs = System.currentTimeMillis() - work.getDateCreated().getTime();
+    return waitedMs >= _settings.getMaxAffinityWaitMs()
+        || !Main.getPoolMgr().isDataPlaneCachedOnlyByBusyWorkers(snapshot);
+  }
+
+  /*
+   * Workers report when their tasks terminate (see taskCompleted), so assigned work is only polled
+   * for periodically, to pick up progress and work whose worker failed to report.
+   */
+  private void checkTasksIfDue() {
+    long now = System.currentTimeMillis();
+    if (now - _lastCheckTasksMs < _settings.getPeriodCheckWorkMs()) {
+      return;
+    }
+    _lastCheckTasksMs = now;
+    checkTasks();
   }
 
   private void checkTasks() {
@@ -441,12 +523,41 @@ public class WorkMgr extends AbstractCoordinator {
     }
   }
 
+  /**
+   * Handles the report of {@code worker} that the task of work {@code workId} terminated: checks
+   * the status of the work and assigns more work right away, in the background. Returns false if
+   * {@code workId} is not assigned to {@code worker} or is already being checked.
+   */
+  public boolean taskCompleted(UUID workId, String worker) {
+    QueuedWork work = _workQueueMgr.getWorkForChecking(workId, worker);
+    if (work == null) {
+      return false;
+    }
+    _assignWorkExecutor.execute(
+        () -> {
+          checkTask(work, worker);
+          assignWork();
+        });
+    return true;
+  }
+
+  private @Nonnull Client createWorkerClient() {
+    return CommonUtil.createHttpClientBuilder(
+            _settings.getSslPoolDisable(),
+            _settings.getSslPoolTrustAllCerts(),
+            _settings.getSslPoolKeystoreFile(),
+            _settings.getSslPoolKeystorePassword(),
+            _settings.getSslPoolTruststoreFile(),
+            _settings.getSslPoolTruststorePassword(),
+            true)
+        .build();
+  }
+
   private void checkTask(QueuedWork work, String worker) {
     _logger.infof("WM:CheckWork: Trying to check %s on %s\n", work, worker);
 
     Task task = new Task(TaskStatus.UnreachableOrBadResponse);
 
-    Client client = null;
     SpanContext queueWorkSpan = work.getWorkItem().getSourceSpan();
     try (ActiveSpan checkTaskSpan =
         GlobalTracer.get()
@@ -454,20 +565,10 @@ public class WorkMgr extends AbstractCoordinator {
             .addReference(References.FOLLOWS_FROM, queueWorkSpan)
             .startActive()) {
       assert checkTaskSpan != null; // avoid unused warning
-      client =
-          CommonUtil.createHttpClientBuilder(
-                  _settings.getSslPoolDisable(),
-                  _settings.getSslPoolTrustAllCerts(),
-                  _settings.getSslPoolKeystoreFile(),
-                  _settings.getSslPoolKeystorePassword(),
-                  _settings.getSslPoolTruststoreFile(),
-                  _settings.getSslPoolTruststorePassword(),
-                  true)
-              .build();
-
       String protocol = _settings.getSslPoolDisable() ? "http" : "https";
       WebTarget webTarget =
-          client
+          _workerClient
+              .get()
               .target(
                   String.format(
                       "%s://%s%s/%s",
@@ -503,10 +604,6 @@ public class WorkMgr extends AbstractCoordinator {
     } catch (Exception e) {
       String stackTrace = Throwables.getStackTraceAsString(e);
       _logger.error(String.format("exception: %s\n", stackTrace));
-    } finally {
-      if (client != null) {
-        client.close();
-      }
     }
 
     if (work.getStatus() == WorkStatusCode.TERMINATEDBYUSER) {
@@ -800,40 +897,13 @@ public class WorkMgr extends AbstractCoordinator {
       throws JsonProcessingException, FileNotFoundException {
     String answer = "unknown";
     try {
-      NetworkId networkId = _idManager.getNetworkId(network);
-      AnalysisId analysisId =
-          analysis != null ? _idManager.getAnalysisId(analysis, networkId) : null;
-      QuestionId questionId = _idManager.getQuestionId(question, networkId, analysisId);
-      SnapshotId snapshotId = _idManager.getSnapshotId(snapshot, networkId);
-      SnapshotId referenceSnapshotId =
-          referenceSnapshot != null ? _idManager.getSnapshotId(referenceSnapshot, networkId) : null;
-      QuestionSettingsId questionSettingsId =
-          getOrDefaultQuestionSettingsId(networkId, questionId, analysisId);
-      NodeRolesId networkNodeRolesId = getOrDefaultNodeRolesId(networkId);
-      AnswerId baseAnswerId =
-          _idManager.getBaseAnswerId(
-              networkId,
-              snapshotId,
-              questionId,
-              questionSettingsId,
-              networkNodeRolesId,
-              referenceSnapshotId,
-              analysisId);
-      if (!_storage.hasAnswerMetadata(baseAnswerId)) {
+      AnswerId finalAnswerId =
+          getFinalAnswerId(network, snapshot, question, referenceSnapshot, analysis);
+      if (finalAnswerId == null) {
         Answer ans = Answer.failureAnswer("Not answered", null);
         ans.setStatus(AnswerStatus.NOTFOUND);
         return BatfishObjectMapper.writePrettyString(ans);
       }
-      AnswerMetadata baseAnswerMetadata = _storage.loadAnswerMetadata(baseAnswerId);
-      AnswerId finalAnswerId =
-          computeFinalAnswerAndId(
-              baseAnswerMetadata,
-              networkId,
-              snapshotId,
-              questionId,
-              baseAnswerId,
-              referenceSnapshotId,
-              analysisId);
       return _storage.loadAnswer(finalAnswerId);
     } catch (IOException e) {
       String message =
@@ -852,6 +922,134 @@ public class WorkMgr extends AbstractCoordinator {
     }
   }
 
+  /**
+   * Returns the ID of the final answer to the specified question, computing the final answer if
+   * needed, or {@code null} if the question has not been answered.
+   */
+  private @Nullable AnswerId getFinalAnswerId(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis)
+      throws IOException {
+    NetworkId networkId = _idManager.getNetworkId(network);
+    AnalysisId analysisId = analysis != null ? _idManager.getAnalysisId(analysis, networkId) : null;
+    QuestionId questionId = _idManager.getQuestionId(question, networkId, analysisId);
+    SnapshotId snapshotId = _idManager.getSnapshotId(snapshot, networkId);
+    SnapshotId referenceSnapshotId =
+        referenceSnapshot != null ? _idManager.getSnapshotId(referenceSnapshot, networkId) : null;
+    QuestionSettingsId questionSettingsId =
+        getOrDefaultQuestionSettingsId(networkId, questionId, analysisId);
+    NodeRolesId networkNodeRolesId = getOrDefaultNodeRolesId(networkId);
+    AnswerId baseAnswerId =
+        _idManager.getBaseAnswerId(
+            networkId,
+            snapshotId,
+            questionId,
+            questionSettingsId,
+            networkNodeRolesId,
+            referenceSnapshotId,
+            analysisId);
+    if (!_storage.hasAnswerMetadata(baseAnswerId)) {
+      return null;
+    }
+    AnswerMetadata baseAnswerMetadata = _storage.loadAnswerMetadata(baseAnswerId);
+    return computeFinalAnswerAndId(
+        baseAnswerMetadata,
+        networkId,
+        snapshotId,
+        questionId,
+        baseAnswerId,
+        referenceSnapshotId,
+        analysisId);
+  }
+
+  /**
+   * Returns the answer to the specified question, with its rows processed according to {@code
+   * options} as by {@link #processAnswerRows(String, AnswerRowsOptions)}.
+   */
+  public @Nonnull Answer getAnswerRows(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis,
+      AnswerRowsOptions options)
+      throws JsonProcessingException, FileNotFoundException {
+    Answer answer =
+        processColumnarAnswerRows(
+            network, snapshot, question, referenceSnapshot, analysis, options, false);
+    if (answer != null) {
+      return answer;
+    }
+    return processAnswerRows(
+        getAnswer(network, snapshot, question, referenceSnapshot, analysis), options);
+  }
+
+  /**
+   * Returns the answer to the specified question, with its rows processed according to {@code
+   * options} as by {@link #processAnswerRows2(String, AnswerRowsOptions)}.
+   */
+  public @Nonnull Answer getAnswerRows2(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis,
+      AnswerRowsOptions options)
+      throws JsonProcessingException, FileNotFoundException {
+    Answer answer =
+        processColumnarAnswerRows(
+            network, snapshot, question, referenceSnapshot, analysis, options, true);
+    if (answer != null) {
+      return answer;
+    }
+    return processAnswerRows2(
+        getAnswer(network, snapshot, question, referenceSnapshot, analysis), options);
+  }
+
+  /**
+   * Processes the rows of the columnar encoding of the specified answer, reading only the columns
+   * needed for filtering and sorting and the rows that are returned. Returns {@code null} if the
+   * answer has no columnar encoding or it cannot be read, in which case the caller should process
+   * the JSON answer instead.
+   */
+  private @Nullable Answer processColumnarAnswerRows(
+      String network,
+      String snapshot,
+      String question,
+      @Nullable String referenceSnapshot,
+      @Nullable String analysis,
+      AnswerRowsOptions options,
+      boolean tableView) {
+    ColumnarTable rawTable;
+    try {
+      AnswerId finalAnswerId =
+          getFinalAnswerId(network, snapshot, question, referenceSnapshot, analysis);
+      if (finalAnswerId == null || !_storage.hasColumnarAnswer(finalAnswerId)) {
+        return null;
+      }
+      rawTable = ColumnarTable.open(_storage.loadColumnarAnswer(finalAnswerId));
+    } catch (IOException e) {
+      _logger.warnf(
+          "Could not open columnar answer, falling back to JSON answer: %s\n",
+          Throwables.getStackTraceAsString(e));
+      return null;
+    }
+    try (ColumnarTable table = rawTable) {
+      Answer answer = new Answer();
+      answer.setStatus(table.getAnswerWithoutRows().getStatus());
+      answer.addAnswerElement(
+          tableView ? processAnswerTable2(table, options) : processAnswerTable(table, options));
+      return answer;
+    } catch (Exception e) {
+      _logger.errorf(
+          "Failed to process columnar answer: %s\n", Throwables.getStackTraceAsString(e));
+      return Answer.failureAnswer(e.getMessage(), null);
+    }
+  }
+
   private @Nonnull QuestionSettingsId getOrDefaultQuestionSettingsId(
       NetworkId networkId, QuestionId questionId, AnalysisId analysisId)
       throws FileNotFoundException, IOException {
@@ -882,6 +1080,17 @@ public class WorkMgr extends AbstractCoordinator {
       Metrics metrics = baseAnswerMetadata.getMetrics();
       if (metrics == null) {
         _storage.storeAnswer(_storage.loadAnswer(baseAnswerId), finalAnswerId);
+        if (_storage.hasColumnarAnswer(baseAnswerId)) {
+          try {
+            _storage.storeColumnarAnswer(
+                Channels.newInputStream(_storage.loadColumnarAnswer(baseAnswerId)),
+                finalAnswerId);
+          } catch (IOException | RuntimeException e) {
+            // The JSON answer remains authoritative, and readers fall back to it.
+            _logger.warnf(
+                "Could not store columnar answer: %s\n", Throwables.getStackTraceAsString(e));
+          }
+        }
         _storage.storeAnswerMetadata(baseAnswerMetadata, finalAnswerId);
       } else {
         rebuildFinalAnswerAndMetadata(
@@ -1132,6 +1341,13 @@ public class WorkMgr extends AbstractCoordinator {
     AnswerMetadata newAnswerMetadata = AnswerMetadataUtil.computeAnswerMetadata(newAnswer, _logger);
     String answerStr = BatfishObjectMapper.writePrettyString(newAnswer);
     _storage.storeAnswer(answerStr, finalAnswerId);
+    try {
+      _storage.storeColumnarAnswer(newAnswer, finalAnswerId);
+    } catch (IOException | RuntimeException e) {
+      // The JSON answer remains authoritative, and readers fall back to it.
+      _logger.warnf(
+          "Could not store columnar answer: %s\n", Throwables.getStackTraceAsString(e));
+    }
     _storage.storeAnswerMetadata(newAnswerMetadata, finalAnswerId);
   }
 
@@ -1845,7 +2061,6 @@ public class WorkMgr extends AbstractCoordinator {
   }
 
   private boolean killWork(QueuedWork work, String worker) {
-    Client client = null;
     boolean killed = false;
 
     SpanContext queueWorkSpan = work.getWorkItem().getSourceSpan();
@@ -1855,20 +2070,10 @@ public class WorkMgr extends AbstractCoordinator {
             .addReference(References.FOLLOWS_FROM, queueWorkSpan)
             .startActive()) {
       assert killTaskSpan != null; // avoid unused warning
-      client =
-          CommonUtil.createHttpClientBuilder(
-                  _settings.getSslPoolDisable(),
-                  _settings.getSslPoolTrustAllCerts(),
-                  _settings.getSslPoolKeystoreFile(),
-                  _settings.getSslPoolKeystorePassword(),
-                  _settings.getSslPoolTruststoreFile(),
-                  _settings.getSslPoolTruststorePassword(),
-                  true)
-              .build();
-
       String protocol = _settings.getSslPoolDisable() ? "http" : "https";
       WebTarget webTarget =
-          client
+          _workerClient
+              .get()
               .target(
                   String.format(
                       "%s://%s%s/%s",
@@ -1906,10 +2111,6 @@ public class WorkMgr extends AbstractCoordinator {
       _logger.errorf("unable to connect to %s: %s\n", worker, Throwables.getStackTraceAsString(e));
     } catch (Exception e) {
       _logger.errorf("exception: %s\n", Throwables.getStackTraceAsString(e));
-    } finally {
-      if (client != null) {
-        client.close();
-      }
     }
     return killed;
   }
@@ -2190,12 +2391,8 @@ public class WorkMgr extends AbstractCoordinator {
 
     loadPlugins();
 
-    Executors.newScheduledThreadPool(1)
-        .scheduleAtFixedRate(
-            new AssignWorkTask(),
-            0,
-            Main.getSettings().getPeriodAssignWorkMs(),
-            TimeUnit.MILLISECONDS);
+    _assignWorkExecutor.scheduleAtFixedRate(
+        new AssignWorkTask(), 0, Main.getSettings().getPeriodAssignWorkMs(), TimeUnit.MILLISECONDS);
   }
 
   public int syncTestrigsSyncNow(String containerName, String pluginId, boolean force) {
@@ -2483,6 +2680,152 @@ public class WorkMgr extends AbstractCoordinator {
     return tableView;
   }
 
+  /**
+   * Columnar counterpart of {@link #processAnswerTable(TableAnswerElement, AnswerRowsOptions)},
+   * with identical results.
+   */
+  @VisibleForTesting
+  @Nonnull
+  TableAnswerElement processAnswerTable(ColumnarTable rawTable, AnswerRowsOptions options)
+      throws IOException {
+    TableMetadata rawMetadata = rawTable.getMetadata();
+    List<Integer> filteredRowIds = filterAndSortRowIds(rawTable, options);
+    TableAnswerElement table = new TableAnswerElement(projectMetadata(rawMetadata, options));
+    selectRows(rawTable, filteredRowIds, options).values().forEach(table::addRow);
+    AnswerSummary rawSummary = rawTable.getTableWithoutRows().getSummary();
+    table.setSummary(rawSummary != null ? rawSummary : new AnswerSummary());
+    table.getSummary().setNumResults(filteredRowIds.size());
+    return table;
+  }
+
+  /**
+   * Columnar counterpart of {@link #processAnswerTable2(TableAnswerElement, AnswerRowsOptions)},
+   * with identical results.
+   */
+  @VisibleForTesting
+  @Nonnull
+  TableView processAnswerTable2(ColumnarTable rawTable, AnswerRowsOptions options)
+      throws IOException {
+    TableMetadata rawMetadata = rawTable.getMetadata();
+    List<Integer> filteredRowIds = filterAndSortRowIds(rawTable, options);
+    TableView tableView =
+        new TableView(
+            options,
+            selectRows(rawTable, filteredRowIds, options)
+                .entrySet()
+                .stream()
+                .map(entry -> new TableViewRow(entry.getKey(), entry.getValue()))
+                .collect(ImmutableList.toImmutableList()),
+            projectMetadata(rawMetadata, options));
+    AnswerSummary rawSummary = rawTable.getTableWithoutRows().getSummary();
+    tableView.setSummary(rawSummary != null ? rawSummary : new AnswerSummary());
+    tableView.getSummary().setNumResults(filteredRowIds.size());
+    return tableView;
+  }
+
+  private static @Nonnull TableMetadata projectMetadata(
+      TableMetadata rawMetadata, AnswerRowsOptions options) {
+    if (options.getColumns().isEmpty()) {
+      return rawMetadata;
+    }
+    Map<String, ColumnMetadata> columnMap = new LinkedHashMap<>(rawMetadata.toColumnMap());
+    columnMap.keySet().retainAll(options.getColumns());
+    List<ColumnMetadata> columnMetadata =
+        columnMap.values().stream().collect(ImmutableList.toImmutableList());
+    return new TableMetadata(columnMetadata, rawMetadata.getTextDesc());
+  }
+
+  /**
+   * Returns the IDs of the rows of {@code rawTable} that match the filters of {@code options}, in
+   * the requested sort order. Only the columns that are filtered or sorted on are read.
+   */
+  private @Nonnull List<Integer> filterAndSortRowIds(
+      ColumnarTable rawTable, AnswerRowsOptions options) throws IOException {
+    List<Integer> rowIds = new ArrayList<>(rawTable.getNumRows());
+    for (int i = 0; i < rawTable.getNumRows(); i++) {
+      rowIds.add(i);
+    }
+    for (ColumnFilter filter : options.getFilters()) {
+      List<String> values = rawTable.readColumn(filter.getColumn());
+      rowIds.removeIf(rowId -> !filter.matchesText(values.get(rowId)));
+    }
+    if (options.getSortOrder().isEmpty()) {
+      return rowIds;
+    }
+
+    // build rows of just the sort columns, and sort using the same comparator as for JSON answers
+    Map<String, List<String>> sortColumnValues = new HashMap<>();
+    for (ColumnSortOption sortOption : options.getSortOrder()) {
+      String column = sortOption.getColumn();
+      if (!sortColumnValues.containsKey(column)) {
+        sortColumnValues.put(column, rawTable.readColumn(column));
+      }
+    }
+    Map<Integer, Row> sortKeys = new HashMap<>();
+    for (int rowId : rowIds) {
+      Row.RowBuilder sortKey = Row.builder();
+      for (Entry<String, List<String>> entry : sortColumnValues.entrySet()) {
+        sortKey.put(
+            entry.getKey(), BatfishObjectMapper.mapper().readTree(entry.getValue().get(rowId)));
+      }
+      sortKeys.put(rowId, sortKey.build());
+    }
+    Comparator<Row> comparator =
+        buildComparator(rawTable.getMetadata().toColumnMap(), options.getSortOrder());
+    rowIds.sort(comparing(sortKeys::get, comparator));
+    return rowIds;
+  }
+
+  /**
+   * Reads the (projected) rows among {@code rowIds} that are selected by the uniqueness, offset,
+   * and max rows settings of {@code options}. Returns them in order, keyed by row ID.
+   */
+  private @Nonnull Map<Integer, Row> selectRows(
+      ColumnarTable rawTable, List<Integer> rowIds, AnswerRowsOptions options) throws IOException {
+    List<String> columns =
+        options.getColumns().isEmpty()
+            ? rawTable
+                .getMetadata()
+                .getColumnMetadata()
+                .stream()
+                .map(ColumnMetadata::getName)
+                .collect(ImmutableList.toImmutableList())
+            : ImmutableList.copyOf(options.getColumns());
+    Map<Integer, Row> selectedRows = new LinkedHashMap<>();
+    if (!options.getUniqueRows()) {
+      // only read the rows of the requested page
+      long end = Math.min(rowIds.size(), (long) options.getRowOffset() + options.getMaxRows());
+      for (int i = options.getRowOffset(); i < end; i++) {
+        int rowId = rowIds.get(i);
+        selectedRows.put(rowId, rawTable.readRow(rowId, columns));
+      }
+      return selectedRows;
+    }
+
+    // uniquify, keeping the first occurrence of each row, then offset and truncate
+    Map<String, List<String>> columnValues = new HashMap<>();
+    for (String column : columns) {
+      columnValues.put(column, rawTable.readColumn(column));
+    }
+    Set<Row> seenRows = new HashSet<>();
+    int numUniqueRows = 0;
+    for (int rowId : rowIds) {
+      if (selectedRows.size() >= options.getMaxRows()) {
+        break;
+      }
+      Row.RowBuilder builder = Row.builder();
+      for (String column : columns) {
+        builder.put(
+            column, BatfishObjectMapper.mapper().readTree(columnValues.get(column).get(rowId)));
+      }
+      Row row = builder.build();
+      if (seenRows.add(row) && numUniqueRows++ >= options.getRowOffset()) {
+        selectedRows.put(rowId, row);
+      }
+    }
+    return selectedRows;
+  }
+
   @VisibleForTesting
   @Nonnull
   Comparator<Row> buildComparator(
@@ -1084,12 +1084,15 @@ public class WorkMgrService {
         }
       }
 
-      String rawAnswer =
+      Answer answer =
           Main.getWorkMgr()
-              .getAnswer(
-                  networkName, snapshotName, questionName, referenceSnapshotName, analysisName);
-
-      Answer answer = Main.getWorkMgr().processAnswerRows(rawAnswer, answersRowsOptions);
+              .getAnswerRows(
+                  networkName,
+                  snapshotName,
+                  questionName,
+                  referenceSnapshotName,
+                  analysisName,
+                  answersRowsOptions);
 
       String answerStr = BatfishObjectMapper.writePrettyString(answer);
 
@@ -1183,12 +1186,15 @@ public class WorkMgrService {
         }
       }
 
-      String rawAnswer =
+      Answer answer =
           Main.getWorkMgr()
-              .getAnswer(
-                  networkName, snapshotName, questionName, referenceSnapshotName, analysisName);
-
-      Answer answer = Main.getWorkMgr().processAnswerRows2(rawAnswer, answersRowsOptions);
+              .getAnswerRows2(
+                  networkName,
+                  snapshotName,
+                  questionName,
+                  referenceSnapshotName,
+                  analysisName,
+                  answersRowsOptions);
 
       String answerStr = BatfishObjectMapper.writePrettyString(answer);
 
@@ -3,12 +3,12 @@ package org.batfish.coordinator;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.batfish.common.BatfishException;
@@ -29,8 +29,9 @@ import org.batfish.identifiers.SnapshotId;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
-// the design of this WorkQueueMgr is such that all synchronization sits here
-// individual queues do not need to be synchronized
+// updates to the queues and to the status of queued work are synchronized here, so that work moves
+// between queues and states atomically. the queues are themselves thread-safe, so lookups of work
+// by id, length and matching work (e.g., status polls) do not wait on assignment or checking
 
 public class WorkQueueMgr {
 
@@ -68,7 +69,7 @@ public class WorkQueueMgr {
             new AzureQueue(Main.getSettings().getQueueIncompleteWork(), storageConnectionString);
         break;
       case memory:
-        _queueCompletedWork = new MemoryQueue();
+        _queueCompletedWork = new MemoryQueue(Main.getSettings().getMaxCompletedWork());
         _queueIncompleteWork = new MemoryQueue();
         break;
       default:
@@ -234,21 +235,14 @@ public class WorkQueueMgr {
     }
   }
 
+  @Nullable
   private synchronized QueuedWork getIncompleteWork(
-      String container, String testrig, WorkType wType) {
-    for (QueuedWork work : _queueIncompleteWork) {
-      WorkDetails wDetails = work.getDetails();
-      if (container.equals(work.getWorkItem().getContainerName())
-          && ((testrig.equals(wDetails.baseTestrig))
-              || (wDetails.isDifferential && testrig.equals(wDetails.deltaTestrig)))
-          && (wType == null || wDetails.workType == wType)) {
-        return work;
-      }
-    }
-    return null;
+      String container, String testrig, @Nullable WorkType wType) {
+    List<QueuedWork> works = _queueIncompleteWork.getWork(container, testrig, wType);
+    return works.isEmpty() ? null : works.get(0);
   }
 
-  public synchronized long getLength(QueueType qType) {
+  public long getLength(QueueType qType) {
     switch (qType) {
       case COMPLETED:
         return _queueCompletedWork.getLength();
@@ -276,27 +270,18 @@ public class WorkQueueMgr {
     return jObject;
   }
 
-  public synchronized QueuedWork getMatchingWork(WorkItem workItem, QueueType qType) {
+  public QueuedWork getMatchingWork(WorkItem workItem, QueueType qType) {
     switch (qType) {
       case COMPLETED:
-        return getMatchingWork(workItem, _queueCompletedWork);
+        return _queueCompletedWork.getMatchingWork(workItem);
       case INCOMPLETE:
-        return getMatchingWork(workItem, _queueIncompleteWork);
+        return _queueIncompleteWork.getMatchingWork(workItem);
       default:
         throw new BatfishException("Unknown QueueType " + qType);
     }
   }
 
-  private synchronized QueuedWork getMatchingWork(WorkItem workItem, WorkQueue queue) {
-    for (QueuedWork work : queue) {
-      if (work.getWorkItem().matches(workItem)) {
-        return work;
-      }
-    }
-    return null;
-  }
-
-  public synchronized QueuedWork getWork(UUID workId) {
+  public QueuedWork getWork(UUID workId) {
     QueuedWork work = getWork(workId, QueueType.INCOMPLETE);
     if (work == null) {
       work = getWork(workId, QueueType.COMPLETED);
@@ -305,7 +290,7 @@ public class WorkQueueMgr {
   }
 
   @Nullable
-  private synchronized QueuedWork getWork(UUID workId, QueueType qType) {
+  private QueuedWork getWork(UUID workId, QueueType qType) {
     switch (qType) {
       case COMPLETED:
         return _queueCompletedWork.getWork(workId);
@@ -318,9 +303,18 @@ public class WorkQueueMgr {
 
   @Nullable
   public synchronized QueuedWork getWorkForAssignment() {
+    return getWorkForAssignment(work -> true);
+  }
 
-    for (QueuedWork work : _queueIncompleteWork) {
-      if (work.getStatus() == WorkStatusCode.UNASSIGNED) {
+  /**
+   * Returns the oldest unassigned work accepted by {@code ready}, marking it as being assigned.
+   * Work that is not ready keeps its place in the queue.
+   */
+  @Nullable
+  public synchronized QueuedWork getWorkForAssignment(Predicate<QueuedWork> ready) {
+
+    for (QueuedWork work : _queueIncompleteWork.getWork(WorkStatusCode.UNASSIGNED)) {
+      if (ready.test(work)) {
         work.setStatus(WorkStatusCode.TRYINGTOASSIGN);
         return work;
       }
@@ -330,21 +324,38 @@ public class WorkQueueMgr {
   }
 
   @Nonnull
-  public List<QueuedWork> getWorkForChecking() {
-    List<QueuedWork> workToCheck = new ArrayList<>();
-    for (QueuedWork work : _queueIncompleteWork) {
-      if (work.getStatus() == WorkStatusCode.ASSIGNED) {
-        work.setStatus(WorkStatusCode.CHECKINGSTATUS);
-        workToCheck.add(work);
-      }
+  public synchronized List<QueuedWork> getWorkForChecking() {
+    List<QueuedWork> workToCheck = _queueIncompleteWork.getWork(WorkStatusCode.ASSIGNED);
+    for (QueuedWork work : workToCheck) {
+      work.setStatus(WorkStatusCode.CHECKINGSTATUS);
     }
     return workToCheck;
   }
 
+  /**
+   * Returns the work with id {@code workId} if it is assigned to {@code worker}, marking it as
+   * being checked. Returns {@code null} otherwise, e.g. if its status is already being checked.
+   */
+  @Nullable
+  public synchronized QueuedWork getWorkForChecking(UUID workId, String worker) {
+    QueuedWork work = _queueIncompleteWork.getWork(workId);
+    if (work == null
+        || work.getStatus() != WorkStatusCode.ASSIGNED
+        || !worker.equals(work.getAssignedWorker())) {
+      return null;
+    }
+    work.setStatus(WorkStatusCode.CHECKINGSTATUS);
+    return work;
+  }
+
   public synchronized List<QueuedWork> listIncompleteWork(
       String containerName, @Nullable String testrigName, @Nullable WorkType workType) {
     List<QueuedWork> retList = new LinkedList<>();
-    for (QueuedWork work : _queueIncompleteWork) {
+    Iterable<QueuedWork> candidates =
+        testrigName == null
+            ? _queueIncompleteWork
+            : _queueIncompleteWork.getWork(containerName, testrigName, workType);
+    for (QueuedWork work : candidates) {
       // Add to queue if it matches container, testrig if provided, and work type if provided
       if (work.getWorkItem().getContainerName().equals(containerName)
           && (testrigName == null || work.getDetails().baseTestrig.equals(testrigName))
@@ -361,8 +372,9 @@ public class WorkQueueMgr {
 
   // when assignment attempt ends in error, we do not try to reassign
   public synchronized void markAssignmentError(QueuedWork work) {
-    _queueIncompleteWork.delete(work);
+    // enqueue before deleting so that lookups by id always find the work
     _queueCompletedWork.enque(work);
+    _queueIncompleteWork.delete(work);
     work.setStatus(WorkStatusCode.ASSIGNMENTERROR);
   }
 
@@ -394,8 +406,9 @@ public class WorkQueueMgr {
     switch (task.getStatus()) {
       case Unscheduled:
       case InProgress:
-        work.setStatus(WorkStatusCode.ASSIGNED);
+        // record the task first, so that clients waiting on a status change see its progress
         work.recordTaskCheckResult(task);
+        work.setStatus(WorkStatusCode.ASSIGNED);
         break;
       case TerminatedAbnormally:
       case TerminatedByUser:
@@ -403,46 +416,50 @@ public class WorkQueueMgr {
       case RequeueFailure:
         {
           // move the work to completed queue
-          _queueIncompleteWork.delete(work);
           _queueCompletedWork.enque(work);
-          work.setStatus(WorkStatusCode.fromTerminatedTaskStatus(task.getStatus()));
-          work.recordTaskCheckResult(task);
-
-          // update testrig metadata
+          _queueIncompleteWork.delete(work);
           WorkItem wItem = work.getWorkItem();
           WorkDetails wDetails = work.getDetails();
-          if (wDetails.workType == WorkType.PARSING) {
-            ProcessingStatus status =
-                (task.getStatus() == TaskStatus.TerminatedNormally)
-                    ? ProcessingStatus.PARSED
-                    : ProcessingStatus.PARSING_FAIL;
-            WorkQueueMgr.updateInitializationStatus(
-                wItem.getContainerName(), wDetails.baseTestrig, status, task.getErrMessage());
-          } else if (wDetails.workType == WorkType.DATAPLANING) {
-            // no change in status needed if task.getStatus() is RequeueFailure
-            if (task.getStatus() == TaskStatus.TerminatedAbnormally
-                || task.getStatus() == TaskStatus.TerminatedByUser) {
-              WorkQueueMgr.updateInitializationStatus(
-                  wItem.getContainerName(),
-                  wDetails.baseTestrig,
-                  ProcessingStatus.DATAPLANING_FAIL,
-                  task.getErrMessage());
-            } else if (task.getStatus() == TaskStatus.TerminatedNormally) {
+          try {
+            // update testrig metadata
+            if (wDetails.workType == WorkType.PARSING) {
+              ProcessingStatus status =
+                  (task.getStatus() == TaskStatus.TerminatedNormally)
+                      ? ProcessingStatus.PARSED
+                      : ProcessingStatus.PARSING_FAIL;
               WorkQueueMgr.updateInitializationStatus(
-                  wItem.getContainerName(),
-                  wDetails.baseTestrig,
-                  ProcessingStatus.DATAPLANED,
-                  null);
+                  wItem.getContainerName(), wDetails.baseTestrig, status, task.getErrMessage());
+            } else if (wDetails.workType == WorkType.DATAPLANING) {
+              // no change in status needed if task.getStatus() is RequeueFailure
+              if (task.getStatus() == TaskStatus.TerminatedAbnormally
+                  || task.getStatus() == TaskStatus.TerminatedByUser) {
+                WorkQueueMgr.updateInitializationStatus(
+                    wItem.getContainerName(),
+                    wDetails.baseTestrig,
+                    ProcessingStatus.DATAPLANING_FAIL,
+                    task.getErrMessage());
+              } else if (task.getStatus() == TaskStatus.TerminatedNormally) {
+                WorkQueueMgr.updateInitializationStatus(
+                    wItem.getContainerName(),
+                    wDetails.baseTestrig,
+                    ProcessingStatus.DATAPLANED,
+                    null);
+              }
             }
+          } finally {
+            // set the status only after updating the metadata, so that clients waiting on the
+            // status of the work can act on the result right away
+            work.recordTaskCheckResult(task);
+            work.setStatus(WorkStatusCode.fromTerminatedTaskStatus(task.getStatus()));
           }
 
           // check if we unblocked anything
           if (_blockingWork.contains(wItem.getId())) {
             _blockingWork.remove(wItem.getId());
             List<QueuedWork> requeueWorks = new LinkedList<>();
-            for (QueuedWork incompleteWork : _queueIncompleteWork) {
-              if (incompleteWork.getStatus() == WorkStatusCode.BLOCKED
-                  && wDetails.isOverlappingInput(incompleteWork.getDetails())) {
+            for (QueuedWork incompleteWork :
+                _queueIncompleteWork.getWork(WorkStatusCode.BLOCKED)) {
+              if (wDetails.isOverlappingInput(incompleteWork.getDetails())) {
                 requeueWorks.add(incompleteWork);
               }
             }
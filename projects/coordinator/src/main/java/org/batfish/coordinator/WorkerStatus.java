@@ -1,6 +1,13 @@
 package org.batfish.coordinator;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.TaskKind;
 
 public class WorkerStatus {
 
@@ -12,14 +19,84 @@ public class WorkerStatus {
     UNREACHABLE
   }
 
+  private long _availableHeap;
+  private int _availableTasks;
+  private Map<TaskKind, Integer> _availableTasksByKind;
+  private Set<NetworkSnapshot> _cachedDataPlanes;
+  private Set<NetworkSnapshot> _cachedTestrigs;
   private Date _lastUpdated;
   private StatusCode _statusCode;
 
   public WorkerStatus(StatusCode statusCode) {
+    _availableTasks = statusCode == StatusCode.IDLE ? 1 : 0;
+    _availableTasksByKind = ImmutableMap.of();
+    _cachedDataPlanes = ImmutableSet.of();
+    _cachedTestrigs = ImmutableSet.of();
     _statusCode = statusCode;
     _lastUpdated = new Date();
   }
 
+  /** Adds a snapshot the worker is about to load, ahead of the next status refresh. */
+  public void addCachedSnapshot(@Nonnull NetworkSnapshot snapshot, boolean dataPlane) {
+    _cachedTestrigs =
+        ImmutableSet.<NetworkSnapshot>builder().addAll(_cachedTestrigs).add(snapshot).build();
+    if (dataPlane) {
+      _cachedDataPlanes =
+          ImmutableSet.<NetworkSnapshot>builder().addAll(_cachedDataPlanes).add(snapshot).build();
+    }
+  }
+
+  /** Records that a task was just assigned to the worker, ahead of the next status refresh. */
+  public void claimTask() {
+    _availableTasks = Math.max(0, _availableTasks - 1);
+    ImmutableMap.Builder<TaskKind, Integer> availableTasksByKind = ImmutableMap.builder();
+    _availableTasksByKind.forEach(
+        (kind, availableTasks) -> availableTasksByKind.put(kind, Math.max(0, availableTasks - 1)));
+    _availableTasksByKind = availableTasksByKind.build();
+  }
+
+  /** Heap (in bytes) the worker reported as not reserved by its running tasks. */
+  public long getAvailableHeap() {
+    return _availableHeap;
+  }
+
+  /** Number of additional tasks the worker reported it would accept. */
+  public int getAvailableTasks() {
+    return _availableTasks;
+  }
+
+  /**
+   * Number of additional tasks of the given {@code kind} the worker reported it would accept.
+   * Workers that do not report their capacity per kind are assumed to have the same capacity for
+   * every kind.
+   */
+  public int getAvailableTasks(@Nonnull TaskKind kind) {
+    return _availableTasksByKind.getOrDefault(kind, _availableTasks);
+  }
+
+  /**
+   * Returns how well suited the worker is to run work on {@code snapshot}: 2 if it holds the
+   * snapshot's data plane in memory, 1 if it holds only its configurations, and 0 otherwise.
+   */
+  public int getAffinity(@Nonnull NetworkSnapshot snapshot) {
+    if (_cachedDataPlanes.contains(snapshot)) {
+      return 2;
+    }
+    return _cachedTestrigs.contains(snapshot) ? 1 : 0;
+  }
+
+  /** Snapshots whose data planes the worker reported as held in memory. */
+  @Nonnull
+  public Set<NetworkSnapshot> getCachedDataPlanes() {
+    return _cachedDataPlanes;
+  }
+
+  /** Snapshots whose configurations the worker reported as held in memory. */
+  @Nonnull
+  public Set<NetworkSnapshot> getCachedTestrigs() {
+    return _cachedTestrigs;
+  }
+
   public Date getLastUpdateTime() {
     return _lastUpdated;
   }
@@ -30,7 +107,33 @@ public class WorkerStatus {
 
   @Override
   public String toString() {
-    return String.format("%s (%s)", _statusCode, _lastUpdated);
+    return String.format(
+        "%s (%s) [%s tasks available] [%s dataplanes, %s testrigs cached]",
+        _statusCode,
+        _lastUpdated,
+        _availableTasks,
+        _cachedDataPlanes.size(),
+        _cachedTestrigs.size());
+  }
+
+  public void updateCapacity(int availableTasks, long availableHeap) {
+    updateCapacity(availableTasks, ImmutableMap.of(), availableHeap);
+  }
+
+  public void updateCapacity(
+      int availableTasks,
+      @Nonnull Map<TaskKind, Integer> availableTasksByKind,
+      long availableHeap) {
+    _availableTasks = availableTasks;
+    _availableTasksByKind = ImmutableMap.copyOf(availableTasksByKind);
+    _availableHeap = availableHeap;
+  }
+
+  public void updateCacheContents(
+      @Nonnull Set<NetworkSnapshot> cachedDataPlanes,
+      @Nonnull Set<NetworkSnapshot> cachedTestrigs) {
+    _cachedDataPlanes = ImmutableSet.copyOf(cachedDataPlanes);
+    _cachedTestrigs = ImmutableSet.copyOf(cachedTestrigs);
   }
 
   public void updateStatus(StatusCode statusCode) {
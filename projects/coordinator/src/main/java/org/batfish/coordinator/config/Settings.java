@@ -29,6 +29,8 @@ public class Settings extends BaseSettings {
   private static final String ARG_HELP = "help";
   private static final String ARG_LOG_FILE = "logfile";
   private static final String ARG_LOG_LEVEL = "loglevel";
+  private static final String ARG_MAX_AFFINITY_WAIT_MS = "maxaffinitywaitms";
+  private static final String ARG_MAX_COMPLETED_WORK = "maxcompletedwork";
   private static final String ARG_PERIOD_ASSIGN_WORK_MS = "periodassignworkms";
   private static final String ARG_PERIOD_CHECK_WORK_MS = "periodcheckworkms";
   private static final String ARG_PERIOD_WORKER_STATUS_REFRESH_MS = "periodworkerrefreshms";
@@ -82,6 +84,8 @@ public class Settings extends BaseSettings {
   private Path _fileAuthorizerUsersFile;
   private String _logFile;
   private String _logLevel;
+  private long _maxAffinityWaitMs;
+  private int _maxCompletedWork;
   private long _periodAssignWorkMs;
   private long _periodCheckWorkMs;
   private long _periodWorkerStatusRefreshMs;
@@ -166,6 +170,14 @@ public class Settings extends BaseSettings {
     return _logLevel;
   }
 
+  public long getMaxAffinityWaitMs() {
+    return _maxAffinityWaitMs;
+  }
+
+  public int getMaxCompletedWork() {
+    return _maxCompletedWork;
+  }
+
   public long getPeriodAssignWorkMs() {
     return _periodAssignWorkMs;
   }
@@ -306,8 +318,10 @@ public class Settings extends BaseSettings {
     setDefaultProperty(ARG_HELP, false);
     setDefaultProperty(ARG_LOG_FILE, null);
     setDefaultProperty(ARG_LOG_LEVEL, BatfishLogger.getLogLevelStr(BatfishLogger.LEVEL_OUTPUT));
+    setDefaultProperty(ARG_MAX_AFFINITY_WAIT_MS, 5000);
+    setDefaultProperty(ARG_MAX_COMPLETED_WORK, 10000);
     setDefaultProperty(ARG_PERIOD_ASSIGN_WORK_MS, 1000);
-    setDefaultProperty(ARG_PERIOD_CHECK_WORK_MS, 1000);
+    setDefaultProperty(ARG_PERIOD_CHECK_WORK_MS, 5000);
     setDefaultProperty(ARG_PERIOD_WORKER_STATUS_REFRESH_MS, 10000);
     setDefaultProperty(ARG_QUESTION_TEMPLATE_DIRS, Collections.emptyList());
     setDefaultProperty(ARG_QUEUE_COMPLETED_WORK, "batfishcompletedwork");
@@ -364,6 +378,16 @@ public class Settings extends BaseSettings {
 
     addOption(ARG_LOG_LEVEL, "log level", "loglevel");
 
+    addOption(
+        ARG_MAX_AFFINITY_WAIT_MS,
+        "how long work may wait for a busy worker that holds its data plane (ms)",
+        "max_affinity_wait_ms");
+
+    addOption(
+        ARG_MAX_COMPLETED_WORK,
+        "number of completed work items retained in memory queue",
+        "max_completed_work");
+
     addOption(
         ARG_PERIOD_WORKER_STATUS_REFRESH_MS,
         "period with which to check worker status (ms)",
@@ -375,7 +399,10 @@ public class Settings extends BaseSettings {
         "period_assign_work_ms");
 
     addOption(
-        ARG_PERIOD_CHECK_WORK_MS, "period with which to check work (ms)", "period_check_work_ms");
+        ARG_PERIOD_CHECK_WORK_MS,
+        "period with which to poll workers for the status of assigned work, which workers also "
+            + "report when it terminates (ms)",
+        "period_check_work_ms");
 
     addListOption(
         ARG_QUESTION_TEMPLATE_DIRS, "paths to question template directories", ARGNAME_PATHS);
@@ -473,6 +500,8 @@ public class Settings extends BaseSettings {
     _periodCheckWorkMs = getLongOptionValue(ARG_PERIOD_CHECK_WORK_MS);
     _logFile = getStringOptionValue(ARG_LOG_FILE);
     _logLevel = getStringOptionValue(ARG_LOG_LEVEL);
+    _maxAffinityWaitMs = getLongOptionValue(ARG_MAX_AFFINITY_WAIT_MS);
+    _maxCompletedWork = getIntegerOptionValue(ARG_MAX_COMPLETED_WORK);
   }
 
   public void setContainersLocation(Path dir) {
@@ -1,51 +1,236 @@
 package org.batfish.coordinator.queues;
 
-import java.util.LinkedList;
+import com.google.common.collect.ImmutableList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
+import org.batfish.common.CoordConsts.WorkStatusCode;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.WorkItem;
 import org.batfish.coordinator.QueuedWork;
+import org.batfish.coordinator.WorkDetails;
+import org.batfish.coordinator.WorkDetails.WorkType;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
 
-// we don't synchronize on this queue
-// all synchronization is in inside WorkQueueMgr
+/**
+ * An in-memory {@link WorkQueue} that indexes its work by id, by snapshot and by status, so that
+ * none of the lookups used by the coordinator needs to scan the whole queue.
+ *
+ * <p>Lookups by id are lock-free. All other operations synchronize on the queue itself, so
+ * different queues never contend with each other. Status changes of queued work are tracked via
+ * {@link QueuedWork#setStatusListener}; the queue never locks a work item while holding its own
+ * lock.
+ *
+ * <p>If constructed with a maximum size, the oldest work is evicted when new work would exceed it.
+ */
+public class MemoryQueue implements WorkQueue, QueuedWork.StatusListener {
 
-public class MemoryQueue extends LinkedList<QueuedWork> implements WorkQueue {
+  private final Map<UUID, QueuedWork> _byId;
 
-  private static final long serialVersionUID = -6556862067531610584L;
+  private final Map<NetworkSnapshot, NavigableMap<Long, QueuedWork>> _bySnapshot;
+
+  private final Map<WorkStatusCode, NavigableMap<Long, QueuedWork>> _byStatus;
+
+  /** The status under which each work item is currently indexed. */
+  private final Map<UUID, WorkStatusCode> _indexedStatus;
+
+  private final int _maxSize;
+
+  private long _nextSequenceNumber;
+
+  /** All work, keyed by the order in which it was enqueued. */
+  private final NavigableMap<Long, QueuedWork> _queue;
+
+  private final Map<UUID, Long> _sequenceNumbers;
+
+  public MemoryQueue() {
+    this(Integer.MAX_VALUE);
+  }
+
+  /** Creates a queue that retains at most {@code maxSize} work items. */
+  public MemoryQueue(int maxSize) {
+    _byId = new ConcurrentHashMap<>();
+    _bySnapshot = new HashMap<>();
+    _byStatus = new EnumMap<>(WorkStatusCode.class);
+    _indexedStatus = new HashMap<>();
+    _maxSize = maxSize;
+    _queue = new TreeMap<>();
+    _sequenceNumbers = new HashMap<>();
+  }
+
+  @Nullable
+  private static NetworkSnapshot snapshotKey(@Nullable String network, @Nullable String snapshot) {
+    if (network == null || snapshot == null) {
+      return null;
+    }
+    return new NetworkSnapshot(new NetworkId(network), new SnapshotId(snapshot));
+  }
+
+  /**
+   * Returns the snapshots under which {@code work} is indexed: that of its work item, and the base
+   * and (for differential work) delta snapshots of its details.
+   */
+  private static Set<NetworkSnapshot> snapshotKeys(QueuedWork work) {
+    String network = work.getWorkItem().getContainerName();
+    WorkDetails details = work.getDetails();
+    Set<NetworkSnapshot> keys = new HashSet<>();
+    keys.add(snapshotKey(network, work.getWorkItem().getTestrigName()));
+    keys.add(snapshotKey(network, details.baseTestrig));
+    if (details.isDifferential) {
+      keys.add(snapshotKey(network, details.deltaTestrig));
+    }
+    keys.remove(null);
+    return keys;
+  }
 
   @Override
-  public boolean delete(QueuedWork qWork) {
-    return remove(qWork);
+  public synchronized boolean delete(QueuedWork qWork) {
+    Long sequenceNumber = _sequenceNumbers.get(qWork.getId());
+    if (sequenceNumber == null || _queue.get(sequenceNumber) != qWork) {
+      return false;
+    }
+    remove(sequenceNumber, qWork);
+    return true;
   }
 
   @Nullable
   @Override
-  public QueuedWork deque() {
-    if (size() == 0) {
+  public synchronized QueuedWork deque() {
+    Entry<Long, QueuedWork> first = _queue.firstEntry();
+    if (first == null) {
       return null;
     }
-
-    return pop();
+    remove(first.getKey(), first.getValue());
+    return first.getValue();
   }
 
   @Override
-  public boolean enque(QueuedWork work) {
-    return add(work);
+  public synchronized boolean enque(QueuedWork work) {
+    UUID id = work.getId();
+    if (_sequenceNumbers.containsKey(id)) {
+      return false;
+    }
+    long sequenceNumber = _nextSequenceNumber++;
+    WorkStatusCode status = work.getStatus();
+    _sequenceNumbers.put(id, sequenceNumber);
+    _queue.put(sequenceNumber, work);
+    for (NetworkSnapshot key : snapshotKeys(work)) {
+      _bySnapshot.computeIfAbsent(key, k -> new TreeMap<>()).put(sequenceNumber, work);
+    }
+    _byStatus.computeIfAbsent(status, s -> new TreeMap<>()).put(sequenceNumber, work);
+    _indexedStatus.put(id, status);
+    _byId.put(id, work);
+    work.setStatusListener(this);
+
+    // the status may have changed before the listener was installed
+    statusChanged(work, status);
+
+    while (_queue.size() > _maxSize) {
+      Entry<Long, QueuedWork> oldest = _queue.firstEntry();
+      remove(oldest.getKey(), oldest.getValue());
+    }
+    return true;
   }
 
   @Override
   public long getLength() {
-    return size();
+    return _byId.size();
   }
 
   @Nullable
   @Override
   public QueuedWork getWork(UUID workItemId) {
-    for (QueuedWork work : this) {
-      if (work.getWorkItem().getId().equals(workItemId)) {
-        return work;
+    return _byId.get(workItemId);
+  }
+
+  @Override
+  public synchronized List<QueuedWork> getWork(
+      String network, String snapshot, @Nullable WorkType workType) {
+    NavigableMap<Long, QueuedWork> bucket = _bySnapshot.get(snapshotKey(network, snapshot));
+    if (bucket == null) {
+      return ImmutableList.of();
+    }
+    ImmutableList.Builder<QueuedWork> works = ImmutableList.builder();
+    for (QueuedWork work : bucket.values()) {
+      WorkDetails details = work.getDetails();
+      if ((snapshot.equals(details.baseTestrig)
+              || (details.isDifferential && snapshot.equals(details.deltaTestrig)))
+          && (workType == null || details.workType == workType)) {
+        works.add(work);
       }
     }
+    return works.build();
+  }
 
+  @Nullable
+  @Override
+  public synchronized QueuedWork getMatchingWork(WorkItem workItem) {
+    NavigableMap<Long, QueuedWork> bucket =
+        _bySnapshot.get(snapshotKey(workItem.getContainerName(), workItem.getTestrigName()));
+    if (bucket == null) {
+      return null;
+    }
+    for (QueuedWork work : bucket.values()) {
+      if (work.getWorkItem().matches(workItem)) {
+        return work;
+      }
+    }
     return null;
   }
+
+  @Override
+  public synchronized List<QueuedWork> getWork(WorkStatusCode status) {
+    NavigableMap<Long, QueuedWork> bucket = _byStatus.get(status);
+    return bucket == null ? ImmutableList.of() : ImmutableList.copyOf(bucket.values());
+  }
+
+  /** Iterates over a snapshot of the queue, so the queue may be modified during iteration. */
+  @Override
+  public synchronized Iterator<QueuedWork> iterator() {
+    return ImmutableList.copyOf(_queue.values()).iterator();
+  }
+
+  private void remove(long sequenceNumber, QueuedWork work) {
+    UUID id = work.getId();
+    _byId.remove(id);
+    _queue.remove(sequenceNumber);
+    _sequenceNumbers.remove(id);
+    for (NetworkSnapshot key : snapshotKeys(work)) {
+      NavigableMap<Long, QueuedWork> bucket = _bySnapshot.get(key);
+      bucket.remove(sequenceNumber);
+      if (bucket.isEmpty()) {
+        _bySnapshot.remove(key);
+      }
+    }
+    _byStatus.get(_indexedStatus.remove(id)).remove(sequenceNumber);
+  }
+
+  @Override
+  public synchronized void statusChanged(QueuedWork work, WorkStatusCode oldStatus) {
+    UUID id = work.getId();
+    Long sequenceNumber = _sequenceNumbers.get(id);
+    if (sequenceNumber == null || _queue.get(sequenceNumber) != work) {
+      // work has since left this queue
+      return;
+    }
+    WorkStatusCode indexedStatus = _indexedStatus.get(id);
+    WorkStatusCode status = work.getStatus();
+    if (indexedStatus == status) {
+      return;
+    }
+    _byStatus.get(indexedStatus).remove(sequenceNumber);
+    _byStatus.computeIfAbsent(status, s -> new TreeMap<>()).put(sequenceNumber, work);
+    _indexedStatus.put(id, status);
+  }
 }
@@ -1,7 +1,15 @@
 package org.batfish.coordinator.queues;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+import org.batfish.common.CoordConsts.WorkStatusCode;
+import org.batfish.common.WorkItem;
 import org.batfish.coordinator.QueuedWork;
+import org.batfish.coordinator.WorkDetails;
+import org.batfish.coordinator.WorkDetails.WorkType;
 
 public interface WorkQueue extends Iterable<QueuedWork> {
 
@@ -19,4 +27,44 @@ public interface WorkQueue extends Iterable<QueuedWork> {
   long getLength();
 
   QueuedWork getWork(UUID workItemId);
+
+  /**
+   * Returns the first work whose work item {@link WorkItem#matches matches} {@code workItem}, or
+   * {@code null} if there is none.
+   */
+  @Nullable
+  default QueuedWork getMatchingWork(WorkItem workItem) {
+    for (QueuedWork work : this) {
+      if (work.getWorkItem().matches(workItem)) {
+        return work;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the work in {@code network} that runs on {@code snapshot}, either as its base or (for
+   * differential work) its delta snapshot, in queue order. If {@code workType} is not {@code null},
+   * only work of that type is returned.
+   */
+  default List<QueuedWork> getWork(
+      String network, String snapshot, @Nullable WorkType workType) {
+    return StreamSupport.stream(spliterator(), false)
+        .filter(
+            work -> {
+              WorkDetails details = work.getDetails();
+              return network.equals(work.getWorkItem().getContainerName())
+                  && (snapshot.equals(details.baseTestrig)
+                      || (details.isDifferential && snapshot.equals(details.deltaTestrig)))
+                  && (workType == null || details.workType == workType);
+            })
+        .collect(Collectors.toList());
+  }
+
+  /** Returns the work with the given {@code status}, in queue order. */
+  default List<QueuedWork> getWork(WorkStatusCode status) {
+    return StreamSupport.stream(spliterator(), false)
+        .filter(work -> work.getStatus() == status)
+        .collect(Collectors.toList());
+  }
 }
@@ -1,15 +1,28 @@
 package org.batfish.coordinator.resources;
 
+import static org.batfish.common.CoordConstsV2.QP_TIMEOUT_MS;
+import static org.batfish.common.CoordConstsV2.QP_WAIT_FOR_CHANGE_FROM;
+
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.CompletionCallback;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import org.batfish.common.CoordConsts.WorkStatusCode;
 import org.batfish.coordinator.Main;
 import org.batfish.coordinator.QueuedWork;
 
@@ -17,20 +30,70 @@ import org.batfish.coordinator.QueuedWork;
 @ParametersAreNonnullByDefault
 public final class WorkResource {
 
+  /** The longest a request for the status of work waits for the status to change */
+  static final long MAX_WAIT_MS = 60_000L;
+
+  /**
+   * Sends the responses to requests that waited for a status change, which become ready while the
+   * coordinator holds locks on the work and its queue.
+   */
+  private static final ExecutorService RESPONDER = Executors.newCachedThreadPool();
+
+  /**
+   * Responds with the status of the given work. If {@code waitForChangeFrom} is given and the work
+   * still has that status, the response is delayed until the status changes or {@code timeoutMs}
+   * (at most {@link #MAX_WAIT_MS}) elapse, so that clients need not poll in a tight loop.
+   */
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   @Path("/{workid}")
-  public @Nonnull Response getWorkStatus(@PathParam("workid") @Nonnull String workIdStr) {
+  public void getWorkStatus(
+      @PathParam("workid") @Nonnull String workIdStr,
+      @QueryParam(QP_WAIT_FOR_CHANGE_FROM) @Nullable String waitForChangeFrom,
+      @QueryParam(QP_TIMEOUT_MS) @DefaultValue("0") long timeoutMs,
+      @Suspended AsyncResponse asyncResponse) {
     UUID workId;
     try {
       workId = UUID.fromString(workIdStr);
     } catch (IllegalArgumentException e) {
-      return Response.status(Status.BAD_REQUEST).entity("Work ID must be a valid UUID").build();
+      asyncResponse.resume(
+          Response.status(Status.BAD_REQUEST).entity("Work ID must be a valid UUID").build());
+      return;
+    }
+    WorkStatusCode status = null;
+    if (waitForChangeFrom != null) {
+      try {
+        status = WorkStatusCode.valueOf(waitForChangeFrom);
+      } catch (IllegalArgumentException e) {
+        asyncResponse.resume(
+            Response.status(Status.BAD_REQUEST)
+                .entity("Invalid work status: " + waitForChangeFrom)
+                .build());
+        return;
+      }
     }
     QueuedWork queuedWork = Main.getWorkMgr().getWork(workId);
     if (queuedWork == null) {
-      return Response.status(Status.NOT_FOUND).build();
+      asyncResponse.resume(Response.status(Status.NOT_FOUND).build());
+      return;
     }
+    if (status == null || timeoutMs <= 0) {
+      asyncResponse.resume(workStatusResponse(queuedWork));
+      return;
+    }
+    Runnable respond =
+        () -> RESPONDER.execute(() -> asyncResponse.resume(workStatusResponse(queuedWork)));
+    asyncResponse.register(
+        (CompletionCallback) throwable -> queuedWork.removeStatusChangeCallback(respond));
+    asyncResponse.setTimeoutHandler(response -> response.resume(workStatusResponse(queuedWork)));
+    asyncResponse.setTimeout(Math.min(timeoutMs, MAX_WAIT_MS), TimeUnit.MILLISECONDS);
+    if (!queuedWork.runOnStatusChange(status, respond)) {
+      // the status changed before the request came in
+      asyncResponse.resume(workStatusResponse(queuedWork));
+    }
+  }
+
+  private static @Nonnull Response workStatusResponse(QueuedWork queuedWork) {
     return Response.ok().entity(queuedWork.toWorkStatus()).build();
   }
 }
@@ -0,0 +1,187 @@
+package org.batfish.coordinator;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.TaskKind;
+import org.batfish.coordinator.WorkDetails.WorkType;
+import org.batfish.coordinator.WorkerStatus.StatusCode;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link PoolMgr}. */
+public final class PoolMgrTest {
+
+  private static final NetworkSnapshot SNAPSHOT =
+      new NetworkSnapshot(new NetworkId("network"), new SnapshotId("snapshot"));
+
+  private static final NetworkSnapshot OTHER_SNAPSHOT =
+      new NetworkSnapshot(new NetworkId("network"), new SnapshotId("other"));
+
+  private PoolMgr _poolMgr;
+
+  @Before
+  public void init() {
+    Main.mainInit(new String[0]);
+    _poolMgr = new PoolMgr(Main.getSettings(), new BatfishLogger("debug", false));
+  }
+
+  private static WorkerStatus workerStatus(
+      StatusCode statusCode,
+      ImmutableSet<NetworkSnapshot> cachedDataPlanes,
+      ImmutableSet<NetworkSnapshot> cachedTestrigs) {
+    WorkerStatus status = new WorkerStatus(statusCode);
+    status.updateCacheContents(cachedDataPlanes, cachedTestrigs);
+    return status;
+  }
+
+  @Test
+  public void getWorkerForAssignmentNoIdleWorker() {
+    _poolMgr.addToPool(
+        "w1", workerStatus(StatusCode.BUSY, ImmutableSet.of(SNAPSHOT), ImmutableSet.of(SNAPSHOT)));
+
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), nullValue());
+  }
+
+  @Test
+  public void getWorkerForAssignmentPrefersCachedDataPlane() {
+    _poolMgr.addToPool("w1", workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of()));
+    _poolMgr.addToPool(
+        "w2", workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of(SNAPSHOT)));
+    _poolMgr.addToPool(
+        "w3", workerStatus(StatusCode.IDLE, ImmutableSet.of(SNAPSHOT), ImmutableSet.of(SNAPSHOT)));
+
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), equalTo("w3"));
+    assertThat(_poolMgr.getWorkerStatus("w3").getStatus(), equalTo(StatusCode.TRYINGTOASSIGN));
+
+    // next best is the worker holding the configurations
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), equalTo("w2"));
+
+    // fall back to any idle worker
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), equalTo("w1"));
+  }
+
+  @Test
+  public void isDataPlaneCachedOnlyByBusyWorkers() {
+    _poolMgr.addToPool("w1", workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of()));
+    _poolMgr.addToPool(
+        "w2", workerStatus(StatusCode.BUSY, ImmutableSet.of(SNAPSHOT), ImmutableSet.of(SNAPSHOT)));
+
+    assertThat(_poolMgr.isDataPlaneCachedOnlyByBusyWorkers(SNAPSHOT), equalTo(true));
+    assertThat(_poolMgr.isDataPlaneCachedOnlyByBusyWorkers(OTHER_SNAPSHOT), equalTo(false));
+
+    _poolMgr.markAssignmentResult("w2", false);
+
+    assertThat(_poolMgr.isDataPlaneCachedOnlyByBusyWorkers(SNAPSHOT), equalTo(false));
+  }
+
+  @Test
+  public void getWorkerForAssignmentPrefersAvailableHeap() {
+    WorkerStatus w1 = workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of());
+    w1.updateCapacity(1, 100L);
+    WorkerStatus w2 = workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of());
+    w2.updateCapacity(1, 200L);
+    _poolMgr.addToPool("w1", w1);
+    _poolMgr.addToPool("w2", w2);
+
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), equalTo("w2"));
+  }
+
+  @Test
+  public void getWorkerForAssignmentRequiresCapacityForTaskKind() {
+    WorkerStatus w1 = workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of());
+    w1.updateCapacity(
+        1, ImmutableMap.of(TaskKind.CACHED_QUESTION, 1, TaskKind.DATA_PLANE, 0), 1000L);
+    WorkerStatus w2 = workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of());
+    w2.updateCapacity(1, ImmutableMap.of(TaskKind.DATA_PLANE, 1), 100L);
+    _poolMgr.addToPool("w1", w1);
+    _poolMgr.addToPool("w2", w2);
+
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT, WorkType.DATAPLANING), equalTo("w2"));
+  }
+
+  @Test
+  public void getTaskKind() {
+    assertThat(PoolMgr.getTaskKind(WorkType.PARSING, false), equalTo(TaskKind.PARSING));
+    assertThat(PoolMgr.getTaskKind(WorkType.DATAPLANING, true), equalTo(TaskKind.DATA_PLANE));
+    assertThat(
+        PoolMgr.getTaskKind(WorkType.DATAPLANE_DEPENDENT_ANSWERING, false),
+        equalTo(TaskKind.QUESTION));
+    assertThat(
+        PoolMgr.getTaskKind(WorkType.DATAPLANE_DEPENDENT_ANSWERING, true),
+        equalTo(TaskKind.CACHED_QUESTION));
+  }
+
+  @Test
+  public void getWorkerForAssignmentConfigurationsOnlyNeedQuestionCapacity() {
+    // w1 holds only the snapshot's configurations, so it would run a full question
+    WorkerStatus w1 = workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of(SNAPSHOT));
+    w1.updateCapacity(
+        1, ImmutableMap.of(TaskKind.CACHED_QUESTION, 1, TaskKind.QUESTION, 0), 1000L);
+    _poolMgr.addToPool("w1", w1);
+
+    assertThat(
+        _poolMgr.getWorkerForAssignment(SNAPSHOT, WorkType.DATAPLANE_DEPENDENT_ANSWERING),
+        nullValue());
+
+    w1.addCachedSnapshot(SNAPSHOT, true);
+    assertThat(
+        _poolMgr.getWorkerForAssignment(SNAPSHOT, WorkType.DATAPLANE_DEPENDENT_ANSWERING),
+        equalTo("w1"));
+  }
+
+  @Test
+  public void markAssignmentResultKeepsWorkerWithCapacityIdle() {
+    WorkerStatus status = workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of());
+    status.updateCapacity(2, 0L);
+    _poolMgr.addToPool("w1", status);
+
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), equalTo("w1"));
+    _poolMgr.markAssignmentResult("w1", true);
+    assertThat(status.getStatus(), equalTo(StatusCode.IDLE));
+    assertThat(status.getAvailableTasks(), equalTo(1));
+
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), equalTo("w1"));
+    _poolMgr.markAssignmentResult("w1", true);
+    assertThat(status.getStatus(), equalTo(StatusCode.BUSY));
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), nullValue());
+  }
+
+  @Test
+  public void markWorkerBusy() {
+    _poolMgr.addToPool("w1", workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of()));
+
+    _poolMgr.markWorkerBusy("w1");
+
+    assertThat(_poolMgr.getWorkerStatus("w1").getStatus(), equalTo(StatusCode.BUSY));
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), nullValue());
+  }
+
+  @Test
+  public void markSnapshotLoading() {
+    _poolMgr.addToPool("w1", workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of()));
+    _poolMgr.addToPool("w2", workerStatus(StatusCode.IDLE, ImmutableSet.of(), ImmutableSet.of()));
+
+    _poolMgr.markSnapshotLoading("w2", SNAPSHOT, true);
+
+    assertThat(_poolMgr.getWorkerStatus("w2").getAffinity(SNAPSHOT), equalTo(2));
+    assertThat(_poolMgr.getWorkerForAssignment(SNAPSHOT), equalTo("w2"));
+  }
+
+  @Test
+  public void parseAvailableTasksByKind() throws JSONException {
+    JSONObject json = new JSONObject().put("DATA_PLANE", 1).put("UNKNOWN_KIND", 3);
+
+    assertThat(
+        PoolMgr.parseAvailableTasksByKind(json), equalTo(ImmutableMap.of(TaskKind.DATA_PLANE, 1)));
+  }
+}
@@ -0,0 +1,73 @@
+package org.batfish.coordinator;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.batfish.common.CoordConsts.WorkStatusCode;
+import org.batfish.common.WorkItem;
+import org.batfish.coordinator.WorkDetails.WorkType;
+import org.junit.Test;
+
+/** Tests for {@link QueuedWork}. */
+public class QueuedWorkTest {
+
+  private static QueuedWork newWork() {
+    return new QueuedWork(
+        new WorkItem("network", "snapshot"), new WorkDetails("snapshot", WorkType.UNKNOWN));
+  }
+
+  @Test
+  public void runOnStatusChange() {
+    QueuedWork work = newWork();
+    AtomicInteger runs = new AtomicInteger();
+    assertThat(
+        work.runOnStatusChange(WorkStatusCode.UNASSIGNED, runs::incrementAndGet), equalTo(true));
+
+    work.setAssignment("worker");
+    assertThat(runs.get(), equalTo(1));
+
+    // callbacks run only once
+    work.setStatus(WorkStatusCode.TERMINATEDNORMALLY);
+    assertThat(runs.get(), equalTo(1));
+  }
+
+  @Test
+  public void runOnStatusChangeAlreadyChanged() {
+    QueuedWork work = newWork();
+    AtomicInteger runs = new AtomicInteger();
+    assertThat(
+        work.runOnStatusChange(WorkStatusCode.ASSIGNED, runs::incrementAndGet), equalTo(false));
+
+    work.setAssignment("worker");
+    assertThat(runs.get(), equalTo(0));
+  }
+
+  @Test
+  public void runOnStatusChangeIgnoresTransientStatus() {
+    QueuedWork work = newWork();
+    AtomicInteger runs = new AtomicInteger();
+    work.runOnStatusChange(WorkStatusCode.UNASSIGNED, runs::incrementAndGet);
+
+    // a failed assignment passes through TRYINGTOASSIGN back to UNASSIGNED
+    work.setStatus(WorkStatusCode.TRYINGTOASSIGN);
+    work.setStatus(WorkStatusCode.UNASSIGNED);
+    assertThat(runs.get(), equalTo(0));
+
+    work.setStatus(WorkStatusCode.TRYINGTOASSIGN);
+    work.setAssignment("worker");
+    assertThat(runs.get(), equalTo(1));
+  }
+
+  @Test
+  public void removeStatusChangeCallback() {
+    QueuedWork work = newWork();
+    AtomicInteger runs = new AtomicInteger();
+    Runnable callback = runs::incrementAndGet;
+    work.runOnStatusChange(WorkStatusCode.UNASSIGNED, callback);
+    work.removeStatusChangeCallback(callback);
+
+    work.setAssignment("worker");
+    assertThat(runs.get(), equalTo(0));
+  }
+}
@@ -64,12 +64,14 @@ import org.batfish.common.BfConsts;
 import org.batfish.common.ColumnFilter;
 import org.batfish.common.ColumnSortOption;
 import org.batfish.common.Container;
+import org.batfish.common.CoordConsts.WorkStatusCode;
 import org.batfish.common.WorkItem;
 import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.common.util.WorkItemBuilder;
 import org.batfish.coordinator.AnalysisMetadataMgr.AnalysisType;
 import org.batfish.coordinator.WorkDetails.WorkType;
+import org.batfish.coordinator.WorkMgr.AssignmentResult;
 import org.batfish.coordinator.id.IdManager;
 import org.batfish.coordinator.resources.ForkSnapshotBean;
 import org.batfish.datamodel.Edge;
@@ -103,6 +105,7 @@ import org.batfish.datamodel.questions.Exclusion;
 import org.batfish.datamodel.questions.Question;
 import org.batfish.datamodel.questions.TestQuestion;
 import org.batfish.datamodel.table.ColumnMetadata;
+import org.batfish.datamodel.table.ColumnarTable;
 import org.batfish.datamodel.table.Row;
 import org.batfish.datamodel.table.TableAnswerElement;
 import org.batfish.datamodel.table.TableMetadata;
@@ -1450,6 +1453,24 @@ public final class WorkMgrTest {
     _manager.initSnapshot(networkName, snapshotName, srcDir.resolve(snapshotName), false);
   }
 
+  @Test
+  public void testMarkAssignmentResultBusy() {
+    PoolMgr poolMgr = new PoolMgr(Main.getSettings(), Main.getLogger());
+    poolMgr.addToPool("w1", new WorkerStatus(WorkerStatus.StatusCode.IDLE));
+    Main.setPoolMgr(poolMgr);
+    QueuedWork work =
+        new QueuedWork(
+            new WorkItem("network", "snapshot"), new WorkDetails("snapshot", WorkType.PARSING));
+    work.setStatus(WorkStatusCode.TRYINGTOASSIGN);
+
+    _manager.markAssignmentResult(work, "w1", AssignmentResult.BUSY);
+
+    // the work is retried later rather than failed, and the worker gets no more work for now
+    assertThat(work.getStatus(), equalTo(WorkStatusCode.UNASSIGNED));
+    assertThat(poolMgr.getWorkerStatus("w1").getStatus(), equalTo(WorkerStatus.StatusCode.BUSY));
+    assertThat(poolMgr.getWorkerForAssignment(), nullValue());
+  }
+
   @Test
   public void testProcessAnalysisAnswers() throws IOException {
     String questionName = "q";
@@ -1878,6 +1899,79 @@ public final class WorkMgrTest {
         equalTo(ImmutableList.of(row1)));
   }
 
+  private ColumnarTable openColumnarTable(TableAnswerElement table) throws IOException {
+    Answer answer = new Answer();
+    answer.addAnswerElement(table);
+    answer.setStatus(AnswerStatus.SUCCESS);
+    Path path = _folder.newFile().toPath();
+    Files.write(path, ColumnarTable.encode(answer));
+    return ColumnarTable.open(Files.newByteChannel(path));
+  }
+
+  @Test
+  public void testProcessAnswerTableColumnar() throws IOException {
+    String col1 = "col1";
+    String col2 = "col2";
+    TableAnswerElement table =
+        new TableAnswerElement(
+            new TableMetadata(
+                ImmutableList.of(
+                    new ColumnMetadata(col1, Schema.INTEGER, "foobar"),
+                    new ColumnMetadata(col2, Schema.STRING, "foobaz"))));
+    table.addRow(Row.of(col1, 3, col2, "hello"));
+    table.addRow(Row.of(col1, 1, col2, "goodbye"));
+    table.addRow(Row.of(col1, 2, col2, "hello"));
+    table.addRow(Row.of(col1, 1, col2, "hello"));
+    table.addRow(Row.of(col1, 1, col2, "hello"));
+    List<AnswerRowsOptions> allOptions =
+        ImmutableList.of(
+            new AnswerRowsOptions(
+                ImmutableSet.of(),
+                ImmutableList.of(),
+                Integer.MAX_VALUE,
+                0,
+                ImmutableList.of(),
+                false),
+            new AnswerRowsOptions(
+                ImmutableSet.of(),
+                ImmutableList.of(new ColumnFilter(col2, "hell")),
+                2,
+                1,
+                ImmutableList.of(new ColumnSortOption(col1, false)),
+                false),
+            new AnswerRowsOptions(
+                ImmutableSet.of(col1),
+                ImmutableList.of(),
+                Integer.MAX_VALUE,
+                0,
+                ImmutableList.of(new ColumnSortOption(col2, true)),
+                false),
+            new AnswerRowsOptions(
+                ImmutableSet.of(col1),
+                ImmutableList.of(),
+                Integer.MAX_VALUE,
+                1,
+                ImmutableList.of(new ColumnSortOption(col1, true)),
+                true),
+            new AnswerRowsOptions(
+                ImmutableSet.of(), ImmutableList.of(), 2, 1, ImmutableList.of(), true));
+
+    try (ColumnarTable columnarTable = openColumnarTable(table)) {
+      for (AnswerRowsOptions options : allOptions) {
+        TableAnswerElement expected = _manager.processAnswerTable(table, options);
+        TableAnswerElement actual = _manager.processAnswerTable(columnarTable, options);
+        assertThat(actual.getMetadata(), equalTo(expected.getMetadata()));
+        assertThat(actual.getRowsList(), equalTo(expected.getRowsList()));
+        assertThat(
+            actual.getSummary().getNumResults(), equalTo(expected.getSummary().getNumResults()));
+
+        TableView expectedView = _manager.processAnswerTable2(table, options);
+        TableView actualView = _manager.processAnswerTable2(columnarTable, options);
+        assertThat(actualView.getRows(), equalTo(expectedView.getRows()));
+      }
+    }
+  }
+
   @Test
   public void testBuildComparator() {
     String col1 = "col1";
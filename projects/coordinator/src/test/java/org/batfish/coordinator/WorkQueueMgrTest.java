@@ -259,6 +259,26 @@ public final class WorkQueueMgrTest {
     assertThat(matchingWork, equalTo(work1));
   }
 
+  @Test
+  public void getWorkForAssignmentSkipsWorkNotReady() throws Exception {
+    initSnapshotMetadata("testrig", ProcessingStatus.UNINITIALIZED);
+    initSnapshotMetadata("testrig2", ProcessingStatus.UNINITIALIZED);
+    QueuedWork work1 =
+        resolvedQueuedWork(
+            new WorkItem(NETWORK, "testrig"), new WorkDetails("testrig", WorkType.UNKNOWN));
+    QueuedWork work2 =
+        resolvedQueuedWork(
+            new WorkItem(NETWORK, "testrig2"), new WorkDetails("testrig2", WorkType.UNKNOWN));
+    _workQueueMgr.queueUnassignedWork(work1);
+    _workQueueMgr.queueUnassignedWork(work2);
+
+    // work that is not ready keeps its place and status
+    assertSame(_workQueueMgr.getWorkForAssignment(work -> work != work1), work2);
+    assertThat(work1.getStatus(), equalTo(WorkStatusCode.UNASSIGNED));
+    assertThat(work2.getStatus(), equalTo(WorkStatusCode.TRYINGTOASSIGN));
+    assertSame(_workQueueMgr.getWorkForAssignment(), work1);
+  }
+
   @Test
   public void listIncompleteWork() throws Exception {
     initSnapshotMetadata("testrig", ProcessingStatus.UNINITIALIZED);
@@ -1077,6 +1097,31 @@ public final class WorkQueueMgrTest {
     assertThat(workToCheck, iterableWithSize(2));
   }
 
+  @Test
+  public void testGetWorkForCheckingById() throws Exception {
+    initSnapshotMetadata("testrig", ProcessingStatus.UNINITIALIZED);
+    QueuedWork work =
+        resolvedQueuedWork(
+            new WorkItem(NETWORK, "testrig"), new WorkDetails("testrig", WorkType.UNKNOWN));
+    _workQueueMgr.queueUnassignedWork(work);
+
+    // unassigned work is not checked
+    assertThat(_workQueueMgr.getWorkForChecking(work.getId(), "worker"), equalTo(null));
+
+    _workQueueMgr.getWorkForAssignment();
+    _workQueueMgr.markAssignmentSuccess(work, "worker");
+
+    // nor is work assigned to another worker
+    assertThat(_workQueueMgr.getWorkForChecking(work.getId(), "other"), equalTo(null));
+
+    assertSame(_workQueueMgr.getWorkForChecking(work.getId(), "worker"), work);
+    assertThat(work.getStatus(), equalTo(WorkStatusCode.CHECKINGSTATUS));
+
+    // nor is work that is already being checked
+    assertThat(_workQueueMgr.getWorkForChecking(work.getId(), "worker"), equalTo(null));
+    assertThat(_workQueueMgr.getWorkForChecking(), empty());
+  }
+
   @Test
   public void queueUnassignedWorkDuplicate() throws Exception {
     initSnapshotMetadata("testrig", ProcessingStatus.UNINITIALIZED);
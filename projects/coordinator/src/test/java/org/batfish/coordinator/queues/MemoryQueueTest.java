@@ -0,0 +1,149 @@
+package org.batfish.coordinator.queues;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.batfish.common.CoordConsts.WorkStatusCode;
+import org.batfish.common.WorkItem;
+import org.batfish.coordinator.QueuedWork;
+import org.batfish.coordinator.WorkDetails;
+import org.batfish.coordinator.WorkDetails.WorkType;
+import org.junit.Test;
+
+/** Tests of {@link MemoryQueue} */
+public class MemoryQueueTest {
+
+  private static final String NETWORK = "network";
+
+  private static QueuedWork work(String snapshot, WorkType workType) {
+    return new QueuedWork(new WorkItem(NETWORK, snapshot), new WorkDetails(snapshot, workType));
+  }
+
+  @Test
+  public void testDelete() {
+    MemoryQueue queue = new MemoryQueue();
+    QueuedWork work = work("snapshot", WorkType.PARSING);
+    queue.enque(work);
+
+    assertThat(queue.delete(work), equalTo(true));
+    assertThat(queue.delete(work), equalTo(false));
+    assertThat(queue.getLength(), equalTo(0L));
+    assertThat(queue.getWork(work.getId()), nullValue());
+    assertThat(queue.getWork(NETWORK, "snapshot", null), empty());
+    assertThat(queue.getWork(WorkStatusCode.UNASSIGNED), empty());
+
+    // status changes of work that left the queue are ignored
+    work.setStatus(WorkStatusCode.ASSIGNED);
+    assertThat(queue.getWork(WorkStatusCode.ASSIGNED), empty());
+  }
+
+  @Test
+  public void testDeque() {
+    MemoryQueue queue = new MemoryQueue();
+    QueuedWork work1 = work("snapshot1", WorkType.PARSING);
+    QueuedWork work2 = work("snapshot2", WorkType.PARSING);
+    queue.enque(work1);
+    queue.enque(work2);
+
+    assertThat(queue.deque(), sameInstance(work1));
+    assertThat(queue.deque(), sameInstance(work2));
+    assertThat(queue.deque(), nullValue());
+  }
+
+  @Test
+  public void testGetMatchingWork() {
+    MemoryQueue queue = new MemoryQueue();
+    QueuedWork work = work("snapshot", WorkType.PARSING);
+    queue.enque(work);
+
+    assertThat(queue.getMatchingWork(new WorkItem(NETWORK, "snapshot")), sameInstance(work));
+    assertThat(queue.getMatchingWork(new WorkItem(NETWORK, "other")), nullValue());
+  }
+
+  @Test
+  public void testGetWorkById() {
+    MemoryQueue queue = new MemoryQueue();
+    QueuedWork work = work("snapshot", WorkType.PARSING);
+
+    assertThat(queue.enque(work), equalTo(true));
+    assertThat(queue.enque(work), equalTo(false));
+    assertThat(queue.getLength(), equalTo(1L));
+    assertThat(queue.getWork(work.getId()), sameInstance(work));
+  }
+
+  @Test
+  public void testGetWorkBySnapshot() {
+    MemoryQueue queue = new MemoryQueue();
+    QueuedWork parsing = work("base", WorkType.PARSING);
+    QueuedWork differential =
+        new QueuedWork(
+            new WorkItem(NETWORK, "base"),
+            new WorkDetails("base", "delta", true, WorkType.DATAPLANE_DEPENDENT_ANSWERING));
+    QueuedWork other = work("other", WorkType.PARSING);
+    queue.enque(parsing);
+    queue.enque(differential);
+    queue.enque(other);
+
+    assertThat(queue.getWork(NETWORK, "base", null), contains(parsing, differential));
+    assertThat(queue.getWork(NETWORK, "base", WorkType.PARSING), contains(parsing));
+    assertThat(queue.getWork(NETWORK, "delta", null), contains(differential));
+    assertThat(queue.getWork("otherNetwork", "base", null), empty());
+  }
+
+  @Test
+  public void testGetWorkByStatus() {
+    MemoryQueue queue = new MemoryQueue();
+    QueuedWork work1 = work("snapshot1", WorkType.PARSING);
+    QueuedWork work2 = work("snapshot2", WorkType.PARSING);
+    work2.setStatus(WorkStatusCode.BLOCKED);
+    queue.enque(work1);
+    queue.enque(work2);
+
+    assertThat(queue.getWork(WorkStatusCode.UNASSIGNED), contains(work1));
+    assertThat(queue.getWork(WorkStatusCode.BLOCKED), contains(work2));
+
+    work1.setAssignment("worker");
+    work2.setStatus(WorkStatusCode.UNASSIGNED);
+    assertThat(queue.getWork(WorkStatusCode.ASSIGNED), contains(work1));
+    assertThat(queue.getWork(WorkStatusCode.UNASSIGNED), contains(work2));
+
+    // work returning to a status keeps its place in the queue
+    work1.setStatus(WorkStatusCode.UNASSIGNED);
+    assertThat(queue.getWork(WorkStatusCode.UNASSIGNED), contains(work1, work2));
+  }
+
+  @Test
+  public void testMaxSize() {
+    MemoryQueue queue = new MemoryQueue(2);
+    QueuedWork work1 = work("snapshot1", WorkType.PARSING);
+    QueuedWork work2 = work("snapshot2", WorkType.PARSING);
+    QueuedWork work3 = work("snapshot3", WorkType.PARSING);
+    queue.enque(work1);
+    queue.enque(work2);
+    queue.enque(work3);
+
+    assertThat(queue.getLength(), equalTo(2L));
+    assertThat(queue, contains(work2, work3));
+    assertThat(queue.getWork(work1.getId()), nullValue());
+    assertThat(queue.getWork(NETWORK, "snapshot1", null), empty());
+    assertThat(queue.getWork(WorkStatusCode.UNASSIGNED), contains(work2, work3));
+  }
+
+  @Test
+  public void testMovedWorkFollowsLatestQueue() {
+    MemoryQueue incomplete = new MemoryQueue();
+    MemoryQueue completed = new MemoryQueue();
+    QueuedWork work = work("snapshot", WorkType.PARSING);
+    incomplete.enque(work);
+    completed.enque(work);
+    incomplete.delete(work);
+    work.setStatus(WorkStatusCode.TERMINATEDNORMALLY);
+
+    assertThat(completed.getWork(WorkStatusCode.TERMINATEDNORMALLY), contains(work));
+    assertThat(incomplete.getWork(WorkStatusCode.TERMINATEDNORMALLY), empty());
+  }
+}
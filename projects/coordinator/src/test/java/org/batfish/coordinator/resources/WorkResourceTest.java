@@ -3,6 +3,7 @@ package org.batfish.coordinator.resources;
 import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.OK;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertThat;
 
@@ -11,8 +12,10 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.UUID;
 import javax.ws.rs.client.Invocation.Builder;
+import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
 import org.batfish.common.CoordConsts;
+import org.batfish.common.CoordConsts.WorkStatusCode;
 import org.batfish.common.CoordConstsV2;
 import org.batfish.common.Version;
 import org.batfish.common.WorkItem;
@@ -30,14 +33,22 @@ public final class WorkResourceTest extends WorkMgrServiceV2TestBase {
   @Rule public TemporaryFolder _folder = new TemporaryFolder();
 
   private Builder getWorkItemTarget(String network, String workId) {
+    return request(workItemTarget(network, workId));
+  }
+
+  private static Builder request(WebTarget target) {
+    return target
+        .request()
+        .header(CoordConstsV2.HTTP_HEADER_BATFISH_APIKEY, CoordConsts.DEFAULT_API_KEY)
+        .header(CoordConstsV2.HTTP_HEADER_BATFISH_VERSION, Version.getVersion());
+  }
+
+  private WebTarget workItemTarget(String network, String workId) {
     return target(CoordConsts.SVC_CFG_WORK_MGR2)
         .path(CoordConstsV2.RSC_NETWORKS)
         .path(network)
         .path(CoordConstsV2.RSC_WORK)
-        .path(workId)
-        .request()
-        .header(CoordConstsV2.HTTP_HEADER_BATFISH_APIKEY, CoordConsts.DEFAULT_API_KEY)
-        .header(CoordConstsV2.HTTP_HEADER_BATFISH_VERSION, Version.getVersion());
+        .path(workId);
   }
 
   @Before
@@ -92,4 +103,42 @@ public final class WorkResourceTest extends WorkMgrServiceV2TestBase {
     // work ID should match
     assertThat(workStatus.getWorkItem().getId(), equalTo(workId));
   }
+
+  @Test
+  public void testGetWorkStatusInvalidWaitForChangeFrom() throws IOException {
+    String network = "network1";
+    Main.getWorkMgr().initNetwork(network, null);
+    Response response =
+        request(
+                workItemTarget(network, UUID.randomUUID().toString())
+                    .queryParam(CoordConstsV2.QP_WAIT_FOR_CHANGE_FROM, "@@@")
+                    .queryParam(CoordConstsV2.QP_TIMEOUT_MS, 1000))
+            .get();
+
+    assertThat(response.getStatus(), equalTo(BAD_REQUEST.getStatusCode()));
+  }
+
+  @Test
+  public void testGetWorkStatusAlreadyChanged() throws IOException {
+    String network = "network1";
+    String snapshot = "snapshot1";
+    UUID workId = UUID.randomUUID();
+    Main.getWorkMgr().initNetwork(network, null);
+    WorkMgrTestUtils.initSnapshotWithTopology(network, snapshot, ImmutableSet.of());
+    WorkItem workItem = new WorkItem(workId, network, snapshot, new HashMap<>());
+    Main.getWorkMgr().queueWork(workItem);
+    long start = System.currentTimeMillis();
+    Response response =
+        request(
+                workItemTarget(network, workId.toString())
+                    .queryParam(
+                        CoordConstsV2.QP_WAIT_FOR_CHANGE_FROM, WorkStatusCode.TERMINATEDNORMALLY)
+                    .queryParam(CoordConstsV2.QP_TIMEOUT_MS, 60_000))
+            .get();
+
+    // the work did not terminate, so its status differs already and is returned right away
+    assertThat(response.getStatus(), equalTo(OK.getStatusCode()));
+    assertThat(System.currentTimeMillis() - start, lessThan(30_000L));
+    assertThat(response.readEntity(WorkStatus.class).getWorkItem().getId(), equalTo(workId));
+  }
 }